@@ -17,6 +17,9 @@ function addFunctions() {
     addSprintfFunctions();
     addIoFunctions();
     addStringFunctions();
+    addFunctionInvocationFunctions();
+    addRecordFunctions();
+    addJsonParseFunctions();
 }
 
 function addJSONFunctions() {
@@ -113,6 +116,14 @@ function addIoFunctions() {
     functions["benchmarkInitFileChannelAppendMode"] = benchmarkio:benchmarkInitFileChannelAppendMode;
     functions["benchmarkReadBytes"] = benchmarkio:benchmarkReadBytes;
     functions["benchmarkWriteBytes"] = benchmarkio:benchmarkWriteBytes;
+    functions["benchmarkInitFileChannelMappedReadMode"] = benchmarkio:benchmarkInitFileChannelMappedReadMode;
+    functions["benchmarkReadBytesMapped"] = benchmarkio:benchmarkReadBytesMapped;
+    functions["benchmarkWriteBytesMapped"] = benchmarkio:benchmarkWriteBytesMapped;
+    functions["benchmarkReadVectoredBytes"] = benchmarkio:benchmarkReadVectoredBytes;
+    functions["benchmarkReadVectoredBytesMapped"] = benchmarkio:benchmarkReadVectoredBytesMapped;
+    functions["benchmarkWriteVectoredBytes"] = benchmarkio:benchmarkWriteVectoredBytes;
+    functions["benchmarkReadInt32"] = benchmarkio:benchmarkReadInt32;
+    functions["benchmarkReadInt32Mapped"] = benchmarkio:benchmarkReadInt32Mapped;
 }
 
 function addStringFunctions() {
@@ -140,3 +151,20 @@ function addStringFunctions() {
     functions["benchmarkStringSplit"] = benchmarktypes:benchmarkStringSplit;
     functions["benchmarkStringUnescape"] = benchmarktypes:benchmarkStringUnescape;
 }
+
+function addFunctionInvocationFunctions() {
+    functions["benchmarkFunctionInvocation"] = benchmarktypes:benchmarkFunctionInvocation;
+    functions["benchmarkFunctionInvocationWithMixedArgs"] = benchmarktypes:benchmarkFunctionInvocationWithMixedArgs;
+    functions["benchmarkNestedFunctionInvocation"] = benchmarktypes:benchmarkNestedFunctionInvocation;
+}
+
+function addRecordFunctions() {
+    functions["benchmarkRecordCreation"] = benchmarktypes:benchmarkRecordCreation;
+    functions["benchmarkRecordArrayCreation"] = benchmarktypes:benchmarkRecordArrayCreation;
+    functions["benchmarkRecordFieldLock"] = benchmarktypes:benchmarkRecordFieldLock;
+}
+
+function addJsonParseFunctions() {
+    functions["benchmarkJsonParse"] = benchmarktypes:benchmarkJsonParse;
+    functions["benchmarkJsonParseFieldExtraction"] = benchmarktypes:benchmarkJsonParseFieldExtraction;
+}
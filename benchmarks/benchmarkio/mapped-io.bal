@@ -0,0 +1,69 @@
+import ballerina/io;
+
+public function benchmarkInitFileChannelMappedReadMode() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "mr");
+    var result = channel.close();
+}
+
+public function benchmarkReadBytesMapped() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "mr");
+    var result = channel.read(5);
+    var results = channel.close();
+}
+
+public function benchmarkWriteBytesMapped() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "mrw");
+    string text = "This file is used for io testing.";
+    blob content = text.toBlob("UTF-8");
+    var result = channel.write(content, 0);
+    var results = channel.close();
+}
+
+public function benchmarkReadVectoredBytes() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "r");
+    var result = channel.readVectored([4, 5, 3]);
+    var results = channel.close();
+}
+
+public function benchmarkReadVectoredBytesMapped() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "mr");
+    var result = channel.readVectored([4, 5, 3]);
+    var results = channel.close();
+}
+
+public function benchmarkWriteVectoredBytes() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "w");
+    blob[] contents = ["This file is ".toBlob("UTF-8"), "used for io testing.".toBlob("UTF-8")];
+    var result = channel.writeVectored(contents);
+    var results = channel.close();
+}
+
+public function benchmarkReadInt32() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "r");
+    io:DataChannel dataChannel = new(channel);
+    int i = 0;
+    while (i < 8) {
+        var result = dataChannel.readInt32();
+        i = i + 1;
+    }
+    var results = dataChannel.close();
+}
+
+public function benchmarkReadInt32Mapped() {
+    io:ByteChannel channel;
+    channel = io:openFile("benchmarkio/resources/test.txt", "mr");
+    io:DataChannel dataChannel = new(channel);
+    int i = 0;
+    while (i < 8) {
+        var result = dataChannel.readInt32();
+        i = i + 1;
+    }
+    var results = dataChannel.close();
+}
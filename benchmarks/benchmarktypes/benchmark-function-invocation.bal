@@ -0,0 +1,36 @@
+public function benchmarkFunctionInvocation() {
+    int i = 0;
+    while (i < 100) {
+        i = increment(i);
+    }
+}
+
+function increment(int a) returns (int) {
+    return a + 1;
+}
+
+public function benchmarkFunctionInvocationWithMixedArgs() {
+    int i = 0;
+    float total = 0.0;
+    while (i < 100) {
+        total = accumulate(i, total, "value");
+        i = i + 1;
+    }
+}
+
+function accumulate(int a, float b, string name) returns (float) {
+    int length = name.length();
+    return b + <float>(a + length);
+}
+
+public function benchmarkNestedFunctionInvocation() {
+    int i = 0;
+    while (i < 100) {
+        i = outerIncrement(i);
+    }
+}
+
+function outerIncrement(int a) returns (int) {
+    int b = increment(a);
+    return increment(b) - 1;
+}
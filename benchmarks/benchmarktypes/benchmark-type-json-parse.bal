@@ -0,0 +1,41 @@
+import ballerina/internal;
+
+string orderPayload = createOrderPayload(2000);
+
+function createOrderPayload(int lineCount) returns string {
+    string payload = "{\"id\":\"order-1\",\"customer\":{\"name\":\"John Doe\",\"city\":\"London\"},\"lines\":[";
+    int i = 0;
+    while (i < lineCount) {
+        if (i > 0) {
+            payload = payload + ",";
+        }
+        payload = payload + "{\"product\":\"laptop\",\"quantity\":" + i + ",\"price\":1250.5,\"tags\":[\"a\",\"b\"]}";
+        i = i + 1;
+    }
+    return payload + "],\"total\":2501000.0}";
+}
+
+public function benchmarkJsonParse() {
+    match internal:parseJson(orderPayload) {
+        json j => {
+            json lines = j.lines;
+        }
+        error err => {
+            throw err;
+        }
+    }
+}
+
+public function benchmarkJsonParseFieldExtraction() {
+    match internal:parseJson(orderPayload) {
+        json j => {
+            json id = j.id;
+            json city = j.customer.city;
+            json quantity = j.lines[10].quantity;
+            json total = j.total;
+        }
+        error err => {
+            throw err;
+        }
+    }
+}
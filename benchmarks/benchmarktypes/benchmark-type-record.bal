@@ -0,0 +1,31 @@
+type OrderLine {
+    string id;
+    string product;
+    int quantity;
+    float price;
+    boolean shipped;
+    map attributes;
+};
+
+OrderLine sharedOrderLine = {id:"shared", product:"laptop"};
+
+public function benchmarkRecordCreation() {
+    OrderLine line = {id:"line", product:"laptop", quantity:2, price:1250.50};
+    line.shipped = true;
+}
+
+public function benchmarkRecordArrayCreation() {
+    OrderLine[] lines = [];
+    int i = 0;
+    while (i < 1000) {
+        OrderLine line = {id:"line", product:"laptop", quantity:i, price:10.5};
+        lines[i] = line;
+        i = i + 1;
+    }
+}
+
+public function benchmarkRecordFieldLock() {
+    lock {
+        sharedOrderLine.quantity = sharedOrderLine.quantity + 1;
+    }
+}
@@ -24,6 +24,7 @@ import org.ballerinalang.model.NativeCallableUnit;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.runtime.threadpool.ThreadPoolFactory;
+import org.ballerinalang.runtime.threadpool.WorkStealingExecutor;
 import org.ballerinalang.util.FunctionFlags;
 import org.ballerinalang.util.codegen.CallableUnitInfo;
 import org.ballerinalang.util.exceptions.BLangNullReferenceException;
@@ -207,7 +208,7 @@ public class BLangScheduler {
         AsyncInvocableWorkerResponseContext respCtx = new AsyncInvocableWorkerResponseContext(callableUnitInfo);
         checkAndObserveNativeAsync(nativeCtx, respCtx, callableUnitInfo, flags);
         NativeCallExecutor exec = new NativeCallExecutor(nativeCallable, nativeCtx, respCtx);
-        ThreadPoolFactory.getInstance().getWorkerExecutor().submit(exec);
+        ThreadPoolFactory.getInstance().getBlockingNativeExecutor().submit(exec);
         return respCtx;
     }
     
@@ -382,6 +383,42 @@ public class BLangScheduler {
         public long getWaitingForLockWorkerCount() {
             return this.stateCounts[5].longValue();
         }
+
+        /**
+         * Returns the number of per-core workers of the scheduler.
+         *
+         * @return the number of cores used, or 0 if the scheduler is not in work-stealing mode
+         */
+        public int getCoreCount() {
+            WorkStealingExecutor executor = ThreadPoolFactory.getInstance().getWorkStealingExecutor();
+            return executor == null ? 0 : executor.getParallelism();
+        }
+
+        public long getStealCount() {
+            WorkStealingExecutor executor = ThreadPoolFactory.getInstance().getWorkStealingExecutor();
+            return executor == null ? 0 : executor.getTotalStealCount();
+        }
+
+        public long getQueueDepth() {
+            WorkStealingExecutor executor = ThreadPoolFactory.getInstance().getWorkStealingExecutor();
+            return executor == null ? 0 : executor.getTotalQueueDepth();
+        }
+
+        public long getStealCount(int core) {
+            return ThreadPoolFactory.getInstance().getWorkStealingExecutor().getStealCount(core);
+        }
+
+        public long getQueueDepth(int core) {
+            return ThreadPoolFactory.getInstance().getWorkStealingExecutor().getQueueDepth(core);
+        }
+
+        public long getParkCount(int core) {
+            return ThreadPoolFactory.getInstance().getWorkStealingExecutor().getParkCount(core);
+        }
+
+        public long getUnparkCount(int core) {
+            return ThreadPoolFactory.getInstance().getWorkStealingExecutor().getUnparkCount(core);
+        }
         
         public void stateTransition(WorkerExecutionContext currentCtx, WorkerState newState) {
             if (!schedulerStatsEnabled || currentCtx.isRootContext()) {
@@ -408,6 +445,15 @@ public class BLangScheduler {
             builder.append("\tWAITING FOR RESPONSE: " + this.getWaitingForResponseWorkerCount() + "\n");
             builder.append("\tPAUSED: " + this.getPausedWorkerCount() + "\n");
             builder.append("\tWAITING FOR LOCK: " + this.getWaitingForLockWorkerCount() + "\n");
+            int coreCount = this.getCoreCount();
+            if (coreCount > 0) {
+                builder.append("Core Status:- \n");
+                for (int i = 0; i < coreCount; i++) {
+                    builder.append("\tCORE " + i + ": QUEUE DEPTH: " + this.getQueueDepth(i)
+                            + ", STEALS: " + this.getStealCount(i) + ", PARKS: " + this.getParkCount(i)
+                            + ", UNPARKS: " + this.getUnparkCount(i) + "\n");
+                }
+            }
             return builder.toString();
         }
         
@@ -77,8 +77,10 @@ import org.ballerinalang.util.codegen.FunctionInfo;
 import org.ballerinalang.util.codegen.Instruction;
 import org.ballerinalang.util.codegen.Instruction.InstructionCALL;
 import org.ballerinalang.util.codegen.Instruction.InstructionFORKJOIN;
+import org.ballerinalang.util.codegen.Instruction.InstructionIntConstArith;
 import org.ballerinalang.util.codegen.Instruction.InstructionIteratorNext;
 import org.ballerinalang.util.codegen.Instruction.InstructionLock;
+import org.ballerinalang.util.codegen.Instruction.InstructionPair;
 import org.ballerinalang.util.codegen.Instruction.InstructionVCALL;
 import org.ballerinalang.util.codegen.Instruction.InstructionWRKSendReceive;
 import org.ballerinalang.util.codegen.InstructionCodes;
@@ -395,6 +397,51 @@ public class CPU {
                     case InstructionCodes.INT_RANGE:
                         execIntegerRangeOpcodes(sf, operands);
                         break;
+
+                    case InstructionCodes.IGT_BR_FALSE:
+                        execCmpAndBranchFalse(ctx, sf, operands,
+                                sf.longRegs[operands[0]] > sf.longRegs[operands[1]]);
+                        break;
+                    case InstructionCodes.IGE_BR_FALSE:
+                        execCmpAndBranchFalse(ctx, sf, operands,
+                                sf.longRegs[operands[0]] >= sf.longRegs[operands[1]]);
+                        break;
+                    case InstructionCodes.ILT_BR_FALSE:
+                        execCmpAndBranchFalse(ctx, sf, operands,
+                                sf.longRegs[operands[0]] < sf.longRegs[operands[1]]);
+                        break;
+                    case InstructionCodes.ILE_BR_FALSE:
+                        execCmpAndBranchFalse(ctx, sf, operands,
+                                sf.longRegs[operands[0]] <= sf.longRegs[operands[1]]);
+                        break;
+                    case InstructionCodes.IEQ_BR_FALSE:
+                        execCmpAndBranchFalse(ctx, sf, operands,
+                                sf.longRegs[operands[0]] == sf.longRegs[operands[1]]);
+                        break;
+                    case InstructionCodes.INE_BR_FALSE:
+                        execCmpAndBranchFalse(ctx, sf, operands,
+                                sf.longRegs[operands[0]] != sf.longRegs[operands[1]]);
+                        break;
+                    case InstructionCodes.ICONST_IADD:
+                        sf.longRegs[operands[0]] = ((InstructionIntConstArith) instruction).value;
+                        sf.longRegs[operands[3]] = sf.longRegs[operands[1]] + sf.longRegs[operands[2]];
+                        ctx.ip++;
+                        break;
+                    case InstructionCodes.ICONST_ISUB:
+                        sf.longRegs[operands[0]] = ((InstructionIntConstArith) instruction).value;
+                        sf.longRegs[operands[3]] = sf.longRegs[operands[1]] - sf.longRegs[operands[2]];
+                        ctx.ip++;
+                        break;
+                    case InstructionCodes.FIELDLOAD_PAIR:
+                        InstructionPair pair = (InstructionPair) instruction;
+                        i = ctx.ip;
+                        execLoadOpcodes(ctx, sf, pair.first.getOpcode(), pair.first.getOperands());
+                        /* the first load may have jumped to an error handler */
+                        if (ctx.ip == i) {
+                            ctx.ip++;
+                            execLoadOpcodes(ctx, sf, pair.second.getOpcode(), pair.second.getOperands());
+                        }
+                        break;
                     case InstructionCodes.TR_RETRY:
                         i = operands[0];
                         j = operands[1];
@@ -1067,6 +1114,17 @@ public class CPU {
         }
     }
 
+    private static void execCmpAndBranchFalse(WorkerExecutionContext ctx, WorkerData sf, int[] operands,
+                                              boolean result) {
+        sf.intRegs[operands[2]] = result ? 1 : 0;
+        if (result) {
+            /* skip the fused branch instruction */
+            ctx.ip++;
+        } else {
+            ctx.ip = operands[3];
+        }
+    }
+
     private static void execIntegerRangeOpcodes(WorkerData sf, int[] operands) {
         int i = operands[0];
         int j = operands[1];
@@ -1560,6 +1618,7 @@ public class CPU {
                 pkgIndex = operands[0];
                 i = operands[1];
                 j = operands[2];
+                BLangVMUtils.markShared(sf.refRegs[i]);
                 ctx.programFile.globalMemArea.setRefField(pkgIndex, j, sf.refRegs[i]);
                 break;
 
@@ -2453,8 +2512,10 @@ public class CPU {
                 if (iterator == null) {
                     return;
                 }
-                BValue[] values = iterator.getNext(nextInstruction.arity);
-                copyValuesToRegistries(nextInstruction.typeTags, nextInstruction.retRegs, values, sf);
+                if (!iterator.getNext(nextInstruction.arity, nextInstruction.typeTags, nextInstruction.retRegs, sf)) {
+                    BValue[] values = iterator.getNext(nextInstruction.arity);
+                    copyValuesToRegistries(nextInstruction.typeTags, nextInstruction.retRegs, values, sf);
+                }
                 break;
         }
     }
@@ -2906,6 +2967,7 @@ public class CPU {
     private static void handleWorkerSend(WorkerExecutionContext ctx, WorkerDataChannelInfo workerDataChannelInfo,
                                          BType type, int reg) {
         BRefType val = extractValue(ctx.workerLocal, type, reg);
+        BLangVMUtils.markShared(val);
         WorkerDataChannel dataChannel = getWorkerChannel(ctx, workerDataChannelInfo.getChannelName());
         dataChannel.putData(val);
     }
@@ -3029,6 +3091,12 @@ public class CPU {
 
     private static WorkerExecutionContext handleReturn(WorkerExecutionContext ctx) {
         BLangScheduler.workerDone(ctx);
+        if (ctx.workerLocalPool != null) {
+            /* the local data must be released before signaling, since the signal may resume the caller */
+            ctx.workerLocalPool.release(ctx.getStrandDepth(), ctx.workerLocal);
+            ctx.workerLocal = null;
+            ctx.workerLocalPool = null;
+        }
         return ctx.respCtx.signal(new WorkerSignal(ctx, SignalType.RETURN, ctx.workerResult));
     }
 
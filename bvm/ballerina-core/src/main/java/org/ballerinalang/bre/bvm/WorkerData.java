@@ -21,6 +21,8 @@ import org.ballerinalang.model.values.BRefType;
 import org.ballerinalang.util.codegen.attributes.CodeAttributeInfo;
 import org.ballerinalang.util.program.WorkerDataIndex;
 
+import java.util.Arrays;
+
 /**
  * This represents the local variables that are available to a worker. 
  * 
@@ -39,8 +41,12 @@ public class WorkerData {
     public byte[][] byteRegs;
     
     public BRefType<?>[] refRegs;
+
+    /* the code attribute the registers are sized for, only set for the local data of a worker */
+    CodeAttributeInfo codeAttribInfo;
     
     public WorkerData(CodeAttributeInfo ci) {
+        this.codeAttribInfo = ci;
         if (ci.maxLongRegs > 0) {
             this.longRegs = new long[ci.maxLongRegs];
         }
@@ -108,5 +114,31 @@ public class WorkerData {
             this.refRegs = new BRefType[count];
         }
     }
+
+    /**
+     * Resets all the registers to their initial values, so the register bank can be reused
+     * for a new invocation. The primitive registers are also reset, since the generated code
+     * relies on the default values of variables declared without an initializer.
+     */
+    public void clear() {
+        if (this.longRegs != null) {
+            Arrays.fill(this.longRegs, 0L);
+        }
+        if (this.doubleRegs != null) {
+            Arrays.fill(this.doubleRegs, 0.0);
+        }
+        if (this.stringRegs != null) {
+            Arrays.fill(this.stringRegs, null);
+        }
+        if (this.intRegs != null) {
+            Arrays.fill(this.intRegs, 0);
+        }
+        if (this.byteRegs != null) {
+            Arrays.fill(this.byteRegs, null);
+        }
+        if (this.refRegs != null) {
+            Arrays.fill(this.refRegs, null);
+        }
+    }
         
 }
@@ -0,0 +1,99 @@
+/*
+*  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+*  Unless required by applicable law or agreed to in writing,
+*  software distributed under the License is distributed on an
+*  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+*  KIND, either express or implied.  See the License for the
+*  specific language governing permissions and limitations
+*  under the License.
+*/
+package org.ballerinalang.bre.bvm;
+
+import org.ballerinalang.util.codegen.attributes.CodeAttributeInfo;
+
+import java.util.Arrays;
+
+/**
+ * This represents the stack of released local {@link WorkerData} register banks of a strand, which is
+ * the chain of contexts that synchronously invoke each other from a worker. A strand shares one pool,
+ * and a callee acquires and releases its register bank at its call depth in the strand, so each frame
+ * of a recursive call reuses the register banks the previous calls at the same depth released.
+ *
+ * A pool is only accessed by the thread currently executing the innermost context of its strand,
+ * while the outer contexts are waiting for their callees to return.
+ *
+ * @since 0.974.1
+ */
+public class WorkerDataPool {
+
+    /* the register banks kept per call depth, to serve a caller alternating between callees */
+    private static final int BANKS_PER_DEPTH = 2;
+
+    private static final int INITIAL_DEPTH = 16;
+
+    /* deeper frames allocate their register banks, so a runaway recursion does not pin memory */
+    private static final int MAX_DEPTH = 4096;
+
+    private WorkerData[][] frames = new WorkerData[INITIAL_DEPTH][];
+
+    /**
+     * Returns a cleared register bank for the given code attribute at the given call depth, either
+     * reusing one released at that depth, or creating a new one.
+     *
+     * @param depth the call depth of the callee in the strand
+     * @param ci    the code attribute of the worker the register bank is for
+     * @return the register bank
+     */
+    public WorkerData acquire(int depth, CodeAttributeInfo ci) {
+        WorkerData[] banks = depth < this.frames.length ? this.frames[depth] : null;
+        if (banks != null) {
+            for (int i = 0; i < BANKS_PER_DEPTH; i++) {
+                WorkerData data = banks[i];
+                if (data != null && data.codeAttribInfo == ci) {
+                    banks[i] = null;
+                    return data;
+                }
+            }
+        }
+        return new WorkerData(ci);
+    }
+
+    /**
+     * Releases a register bank at the given call depth, so it can be reused by the next callee at
+     * that depth. The entry in the last slot is evicted when the depth is full.
+     *
+     * @param depth the call depth of the callee in the strand
+     * @param data  the register bank, which should not be accessed after this call
+     */
+    public void release(int depth, WorkerData data) {
+        if (depth >= MAX_DEPTH) {
+            return;
+        }
+        data.clear();
+        if (depth >= this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, Math.min(MAX_DEPTH, Math.max(depth + 1,
+                    this.frames.length * 2)));
+        }
+        WorkerData[] banks = this.frames[depth];
+        if (banks == null) {
+            banks = new WorkerData[BANKS_PER_DEPTH];
+            this.frames[depth] = banks;
+        }
+        for (int i = 0; i < BANKS_PER_DEPTH; i++) {
+            if (banks[i] == null) {
+                banks[i] = data;
+                return;
+            }
+        }
+        banks[BANKS_PER_DEPTH - 1] = data;
+    }
+
+}
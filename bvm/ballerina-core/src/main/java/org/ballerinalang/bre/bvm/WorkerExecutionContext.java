@@ -71,8 +71,16 @@ public class WorkerExecutionContext {
     
     public boolean runInCaller;
 
+    /* the pool the local data of this context is released to on return, if it was acquired from one */
+    public WorkerDataPool workerLocalPool;
+
     private BStruct error;
 
+    private WorkerDataPool workerDataPool;
+
+    /* the call depth of this context in the strand sharing its worker data pool */
+    private int strandDepth;
+
     private DebugContext debugContext;
 
     private static final String DISTRIBUTED_TRANSACTIONS = "b7a.distributed.transactions.enabled";
@@ -100,7 +108,7 @@ public class WorkerExecutionContext {
         this.workerInfo = workerInfo;
         this.programFile = callableUnitInfo.getPackageInfo().getProgramFile();
         this.constPool = callableUnitInfo.getPackageInfo().getConstPoolEntries();
-        this.code = callableUnitInfo.getPackageInfo().getInstructions();
+        this.code = this.getExecutableCode(callableUnitInfo);
         this.workerLocal = workerLocal;
         this.workerResult = workerResult;
         this.retRegIndexes = retRegIndexes;
@@ -119,7 +127,7 @@ public class WorkerExecutionContext {
         this.workerInfo = workerInfo;
         this.programFile = callableUnitInfo.getPackageInfo().getProgramFile();
         this.constPool = callableUnitInfo.getPackageInfo().getConstPoolEntries();
-        this.code = callableUnitInfo.getPackageInfo().getInstructions();
+        this.code = this.getExecutableCode(callableUnitInfo);
         this.workerLocal = workerLocal;
         this.globalProps = parent.globalProps;
         this.ip = this.workerInfo.getCodeAttributeInfo().getCodeAddrs();
@@ -127,6 +135,14 @@ public class WorkerExecutionContext {
         initDebugger();
     }
 
+    private Instruction[] getExecutableCode(CallableUnitInfo callableUnitInfo) {
+        /* the debugger steps through the original instructions */
+        if (this.programFile.getDebugger().isDebugEnabled()) {
+            return callableUnitInfo.getPackageInfo().getInstructions();
+        }
+        return callableUnitInfo.getPackageInfo().getExecutableInstructions();
+    }
+
     private void initDebugger() {
         if (!programFile.getDebugger().isDebugEnabled()) {
             return;
@@ -175,6 +191,39 @@ public class WorkerExecutionContext {
         return this.code == null;
     }
 
+    /**
+     * Returns the pool used to reuse the local data of the synchronous callees of this context. The pool
+     * is shared by the strand this context is part of.
+     * 
+     * @return the worker data pool, which is created on first access
+     */
+    public WorkerDataPool getWorkerDataPool() {
+        if (this.workerDataPool == null) {
+            this.workerDataPool = new WorkerDataPool();
+        }
+        return this.workerDataPool;
+    }
+
+    /**
+     * Makes this context a synchronous callee in the strand of the given caller, so this context and its
+     * own synchronous callees share the worker data pool of the caller.
+     *
+     * @param caller the context this context was synchronously invoked from
+     */
+    public void joinStrand(WorkerExecutionContext caller) {
+        this.workerDataPool = caller.getWorkerDataPool();
+        this.strandDepth = caller.strandDepth + 1;
+    }
+
+    /**
+     * Returns the call depth of this context in its strand.
+     *
+     * @return the call depth, which is zero for the context that started the strand
+     */
+    public int getStrandDepth() {
+        return this.strandDepth;
+    }
+
     public DebugContext getDebugContext() {
         return debugContext;
     }
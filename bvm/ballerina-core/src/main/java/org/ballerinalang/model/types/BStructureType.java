@@ -20,6 +20,8 @@ package org.ballerinalang.model.types;
 import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.util.codegen.TypeInfo;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * {@code BStructureType} represents a user defined structure type in Ballerina.
  *
@@ -29,6 +31,8 @@ public abstract class BStructureType extends BType {
 
     private BField[] fields;
     private int[] fieldTypeCount;
+    private StructShape shape;
+    private byte[][] encodedFieldNames;
     private BAttachedFunction[] attachedFunctions;
     public BAttachedFunction initializer;
     public BAttachedFunction defaultsValuesInitFunc;
@@ -53,6 +57,7 @@ public abstract class BStructureType extends BType {
 
     public void setFields(BField[] fields) {
         this.fields = fields;
+        this.encodedFieldNames = null;
     }
 
     public int[] getFieldTypeCount() {
@@ -61,6 +66,40 @@ public abstract class BStructureType extends BType {
 
     public void setFieldTypeCount(int[] fieldCount) {
         this.fieldTypeCount = fieldCount;
+        this.shape = null;
+    }
+
+    /**
+     * Returns the field layout shared by the values of this type.
+     *
+     * @return the shape of this type
+     */
+    public StructShape getShape() {
+        StructShape shape = this.shape;
+        if (shape == null) {
+            /* shapes are immutable, so a racing thread creating another one is harmless */
+            shape = new StructShape(this.fieldTypeCount);
+            this.shape = shape;
+        }
+        return shape;
+    }
+
+    /**
+     * Returns the UTF-8 encoded names of the fields of this type, each followed by a colon, as written in
+     * the string values of the values of this type.
+     *
+     * @return the encoded field names, in the order of the fields
+     */
+    public byte[][] getEncodedFieldNames() {
+        byte[][] encodedFieldNames = this.encodedFieldNames;
+        if (encodedFieldNames == null) {
+            encodedFieldNames = new byte[this.fields.length][];
+            for (int i = 0; i < this.fields.length; i++) {
+                encodedFieldNames[i] = (this.fields[i].getFieldName() + ":").getBytes(StandardCharsets.UTF_8);
+            }
+            this.encodedFieldNames = encodedFieldNames;
+        }
+        return encodedFieldNames;
     }
 
     public BAttachedFunction[] getAttachedFunctions() {
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.model.types;
+
+import org.ballerinalang.util.BLangConstants;
+
+import java.util.Arrays;
+
+/**
+ * {@code StructShape} is the field layout shared by all the values of a structure type.
+ * <p>
+ * The fields of a value are packed into two arrays. The int, float and boolean fields are stored
+ * in a {@code long[]}, in that order, with the floats stored as their raw long bits. The string,
+ * blob and reference fields are stored in an {@code Object[]}, in that order. The field indexes used
+ * by the instructions are per field kind, so a field is found by adding the offset of its kind to
+ * its index.
+ *
+ * @since 0.974.1
+ */
+public final class StructShape {
+
+    private static final long[] EMPTY_PRIMITIVES = new long[0];
+
+    private static final Object[] EMPTY_OBJECTS = new Object[0];
+
+    public final int floatOffset;
+
+    public final int booleanOffset;
+
+    public final int primitiveCount;
+
+    public final int blobOffset;
+
+    public final int refOffset;
+
+    public final int objectCount;
+
+    /* the initial object fields of a value, with the string and blob fields set to their empty values */
+    private final Object[] objectTemplate;
+
+    StructShape(int[] fieldTypeCount) {
+        this.floatOffset = fieldTypeCount[0];
+        this.booleanOffset = this.floatOffset + fieldTypeCount[1];
+        this.primitiveCount = this.booleanOffset + fieldTypeCount[3];
+        this.blobOffset = fieldTypeCount[2];
+        this.refOffset = this.blobOffset + fieldTypeCount[4];
+        this.objectCount = this.refOffset + fieldTypeCount[5];
+        if (this.objectCount == 0) {
+            this.objectTemplate = EMPTY_OBJECTS;
+        } else {
+            this.objectTemplate = new Object[this.objectCount];
+            Arrays.fill(this.objectTemplate, 0, this.blobOffset, BLangConstants.STRING_EMPTY_VALUE);
+            Arrays.fill(this.objectTemplate, this.blobOffset, this.refOffset, BLangConstants.BLOB_EMPTY_VALUE);
+        }
+    }
+
+    /**
+     * Creates the primitive field storage of a new value.
+     *
+     * @return the primitive fields, all set to zero
+     */
+    public long[] newPrimitiveFields() {
+        return this.primitiveCount == 0 ? EMPTY_PRIMITIVES : new long[this.primitiveCount];
+    }
+
+    /**
+     * Creates the object field storage of a new value.
+     *
+     * @return the object fields, with the strings and blobs set to their empty values
+     */
+    public Object[] newObjectFields() {
+        return this.objectCount == 0 ? EMPTY_OBJECTS : this.objectTemplate.clone();
+    }
+}
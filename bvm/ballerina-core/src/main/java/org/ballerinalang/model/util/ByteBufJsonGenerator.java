@@ -0,0 +1,150 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinalang.model.util;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * A {@link JsonGenerator}, which writes the JSON constructs UTF-8 encoded directly into a {@link ByteBuf},
+ * without going through a writer and an encoder. The output is the same as of a {@link JsonGenerator}
+ * writing to a UTF-8 stream.
+ *
+ * @since 0.974.1
+ */
+public class ByteBufJsonGenerator extends JsonGenerator {
+
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes();
+
+    /* the escape sequence of each character escaped in a string, which has to be escaped */
+    private static final byte[][] ESCAPES = new byte[93][];
+
+    static {
+        ESCAPES['"'] = new byte[] { '\\', '"' };
+        ESCAPES['\\'] = new byte[] { '\\', '\\' };
+        ESCAPES['/'] = new byte[] { '\\', '/' };
+        ESCAPES['\b'] = new byte[] { '\\', 'b' };
+        ESCAPES['\n'] = new byte[] { '\\', 'n' };
+        ESCAPES['\r'] = new byte[] { '\\', 'r' };
+        ESCAPES['\f'] = new byte[] { '\\', 'f' };
+        ESCAPES['\t'] = new byte[] { '\\', 't' };
+    }
+
+    private final ByteBuf buffer;
+
+    public ByteBufJsonGenerator(ByteBuf buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    protected void writeChar(char ch) {
+        this.buffer.writeByte(ch);
+    }
+
+    @Override
+    protected void writeRaw(String str) {
+        /* only used for numbers and literals, which are ASCII */
+        int length = str.length();
+        this.buffer.ensureWritable(length);
+        for (int i = 0; i < length; i++) {
+            this.buffer.writeByte(str.charAt(i));
+        }
+    }
+
+    @Override
+    protected void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            this.buffer.writeBytes(MIN_LONG);
+            return;
+        }
+        if (value < 0) {
+            this.buffer.writeByte('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long limit = 10; digits < 19 && value >= limit; limit *= 10) {
+            digits++;
+        }
+        this.buffer.ensureWritable(digits);
+        int end = this.buffer.writerIndex() + digits;
+        for (int i = end - 1; i >= end - digits; i--) {
+            this.buffer.setByte(i, (int) ('0' + value % 10));
+            value /= 10;
+        }
+        this.buffer.writerIndex(end);
+    }
+
+    @Override
+    protected void writeStringValue(String value) {
+        int count = value.length();
+        boolean escaped = false;
+        for (int i = 0; i < count; i++) {
+            char ch = value.charAt(i);
+            if (ch < escChars.length && escChars[ch]) {
+                escaped = true;
+                break;
+            }
+        }
+        this.buffer.writeByte('"');
+        this.writeUtf8(value, escaped);
+        this.buffer.writeByte('"');
+    }
+
+    @Override
+    public void writeStringEsc(char[] chs) {
+        this.writeUtf8(new String(chs), true);
+    }
+
+    private void writeUtf8(String value, boolean escaped) {
+        int count = value.length();
+        /* enough for the ASCII strings, while the others may grow the buffer again */
+        this.buffer.ensureWritable(count);
+        for (int i = 0; i < count; i++) {
+            char ch = value.charAt(i);
+            if (ch < 0x80) {
+                byte[] escape = escaped && ch < ESCAPES.length ? ESCAPES[ch] : null;
+                if (escape == null) {
+                    this.buffer.writeByte(ch);
+                } else {
+                    this.buffer.writeBytes(escape);
+                }
+            } else if (ch < 0x800) {
+                this.buffer.writeByte(0xC0 | (ch >> 6));
+                this.buffer.writeByte(0x80 | (ch & 0x3F));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < count
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(ch, value.charAt(++i));
+                this.buffer.writeByte(0xF0 | (codePoint >> 18));
+                this.buffer.writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                this.buffer.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                this.buffer.writeByte(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(ch)) {
+                /* an unpaired surrogate, which the encoder of a writer replaces as well */
+                this.buffer.writeByte('?');
+            } else {
+                this.buffer.writeByte(0xE0 | (ch >> 12));
+                this.buffer.writeByte(0x80 | ((ch >> 6) & 0x3F));
+                this.buffer.writeByte(0x80 | (ch & 0x3F));
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        /* the content is already in the buffer */
+    }
+}
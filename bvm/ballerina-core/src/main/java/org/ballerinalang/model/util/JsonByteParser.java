@@ -0,0 +1,692 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.model.util;
+
+import io.netty.buffer.ByteBuf;
+import org.ballerinalang.model.util.JsonNode.Type;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * {@code JsonByteParser} is a JSON parser which works directly on UTF-8 encoded bytes, without decoding
+ * the whole input to characters first. Only the string and non-string values are decoded, when they
+ * are complete.
+ * <p>
+ * The input can be given in chunks as it arrives, using the {@code feed} methods, and the parsed
+ * document is returned by {@link #complete()}. The containers being parsed are kept in an explicit
+ * stack, and the field names are looked up in a small cache, so the repeated field names of a document
+ * share the same string. A parser is not thread safe, and it can be reused after it is completed.
+ * It accepts the same syntax as {@link JsonParser}, and reports the same errors.
+ *
+ * @since 0.974.1
+ */
+public class JsonByteParser {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private static final int INITIAL_CHAR_BUFFER_SIZE = 256;
+
+    private static final int MAX_RETAINED_CHAR_BUFFER_SIZE = 64 * 1024;
+
+    private static final int INITIAL_DEPTH = 16;
+
+    /* must be a power of two */
+    private static final int KEY_CACHE_SIZE = 256;
+
+    private static final int MAX_CACHED_KEY_LENGTH = 32;
+
+    /* longs with up to this many digits cannot overflow */
+    private static final int MAX_FAST_LONG_DIGITS = 18;
+
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    private static final int DOC_START = 0;
+    private static final int DOC_END = 1;
+    private static final int FIRST_FIELD_READY = 2;
+    private static final int NON_FIRST_FIELD_READY = 3;
+    private static final int FIELD_NAME = 4;
+    private static final int FIELD_NAME_END = 5;
+    private static final int VALUE_READY = 6;
+    private static final int FIRST_ELEMENT_READY = 7;
+    private static final int STRING_VALUE = 8;
+    private static final int NON_STRING_VALUE = 9;
+    private static final int VALUE_END = 10;
+    private static final int ESCAPED_CHAR = 11;
+    private static final int UNICODE_HEX = 12;
+
+    private static final ThreadLocal<JsonByteParser> tlParser = ThreadLocal.withInitial(JsonByteParser::new);
+
+    private final String[] keyCache = new String[KEY_CACHE_SIZE];
+
+    private int state;
+
+    /* the string state to return to, after an escaped character */
+    private int stringState;
+
+    private byte currentQuote;
+
+    private char[] charBuff = new char[INITIAL_CHAR_BUFFER_SIZE];
+
+    private int charCount;
+
+    /* the decoding state of a multi-byte UTF-8 character */
+    private int codePoint;
+
+    private int pendingBytes;
+
+    private int hexValue;
+
+    private int hexDigits;
+
+    private JsonNode[] containers = new JsonNode[INITIAL_DEPTH];
+
+    /* the current field name of each object in the container stack */
+    private String[] fieldNames = new String[INITIAL_DEPTH];
+
+    private int depth;
+
+    private JsonNode root;
+
+    private int line;
+
+    private int column;
+
+    private byte[] readBuff;
+
+    public JsonByteParser() {
+        this.reset();
+    }
+
+    /**
+     * Parses the UTF-8 encoded contents of the given {@link InputStream} and returns a {@link JsonNode}.
+     * The stream is read in chunks, and the chunks are fed to a parser owned by the current thread.
+     *
+     * @param in input stream which contains the JSON content
+     * @return JSON structure as a {@link JsonNode} object
+     * @throws BallerinaException for any parsing error
+     */
+    public static JsonNode parse(InputStream in) throws BallerinaException {
+        JsonByteParser parser = tlParser.get();
+        parser.reset();
+        byte[] buff = parser.getReadBuffer();
+        try {
+            int count;
+            while ((count = in.read(buff)) != -1) {
+                parser.feed(buff, 0, count);
+            }
+        } catch (IOException e) {
+            parser.reset();
+            throw new BallerinaException("Error reading JSON: " + e.getMessage());
+        }
+        return parser.complete();
+    }
+
+    /**
+     * Parses the given UTF-8 encoded bytes and returns a {@link JsonNode}.
+     *
+     * @param bytes the JSON content
+     * @return JSON structure as a {@link JsonNode} object
+     * @throws BallerinaException for any parsing error
+     */
+    public static JsonNode parse(byte[] bytes) throws BallerinaException {
+        JsonByteParser parser = tlParser.get();
+        parser.reset();
+        parser.feed(bytes, 0, bytes.length);
+        return parser.complete();
+    }
+
+    /**
+     * Clears the state of this parser, so a new document can be parsed.
+     */
+    public void reset() {
+        this.state = DOC_START;
+        this.charCount = 0;
+        this.pendingBytes = 0;
+        this.depth = 0;
+        this.root = null;
+        this.line = 1;
+        this.column = 0;
+        if (this.charBuff.length > MAX_RETAINED_CHAR_BUFFER_SIZE) {
+            this.charBuff = new char[INITIAL_CHAR_BUFFER_SIZE];
+        }
+        if (this.containers.length > INITIAL_DEPTH) {
+            this.containers = new JsonNode[INITIAL_DEPTH];
+            this.fieldNames = new String[INITIAL_DEPTH];
+        } else {
+            for (int i = 0; i < INITIAL_DEPTH; i++) {
+                this.containers[i] = null;
+                this.fieldNames[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Parses the next chunk of the document.
+     *
+     * @param bytes  the buffer containing the chunk
+     * @param offset the start of the chunk in the buffer
+     * @param length the length of the chunk
+     * @throws BallerinaException for any parsing error
+     */
+    public void feed(byte[] bytes, int offset, int length) throws BallerinaException {
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if (this.pendingBytes == 0) {
+                if (this.state == STRING_VALUE || this.state == FIELD_NAME) {
+                    i = this.appendAsciiRun(bytes, i, end, true);
+                } else if (this.state == NON_STRING_VALUE) {
+                    i = this.appendAsciiRun(bytes, i, end, false);
+                }
+                if (i == end) {
+                    break;
+                }
+            }
+            byte b = bytes[i++];
+            if (b == '\n') {
+                this.line++;
+                this.column = 0;
+            } else if ((b & 0xC0) != 0x80) {
+                /* UTF-8 continuation bytes are not counted as separate characters */
+                this.column++;
+            }
+            this.process(b);
+        }
+    }
+
+    /**
+     * Parses the remaining bytes of the given buffer as the next chunk of the document, and consumes them.
+     *
+     * @param buffer the buffer containing the chunk
+     * @throws BallerinaException for any parsing error
+     */
+    public void feed(ByteBuffer buffer) throws BallerinaException {
+        if (buffer.hasArray()) {
+            this.feed(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return;
+        }
+        byte[] buff = this.getReadBuffer();
+        while (buffer.hasRemaining()) {
+            int count = Math.min(buffer.remaining(), buff.length);
+            buffer.get(buff, 0, count);
+            this.feed(buff, 0, count);
+        }
+    }
+
+    /**
+     * Parses the readable bytes of the given buffer as the next chunk of the document, and consumes them.
+     *
+     * @param buf the buffer containing the chunk
+     * @throws BallerinaException for any parsing error
+     */
+    public void feed(ByteBuf buf) throws BallerinaException {
+        int length = buf.readableBytes();
+        if (buf.hasArray()) {
+            this.feed(buf.array(), buf.arrayOffset() + buf.readerIndex(), length);
+        } else {
+            byte[] buff = this.getReadBuffer();
+            int index = buf.readerIndex();
+            int remaining = length;
+            while (remaining > 0) {
+                int count = Math.min(remaining, buff.length);
+                buf.getBytes(index, buff, 0, count);
+                this.feed(buff, 0, count);
+                index += count;
+                remaining -= count;
+            }
+        }
+        buf.skipBytes(length);
+    }
+
+    /**
+     * Ends the document and returns it. The parser is reset afterwards.
+     *
+     * @return JSON structure as a {@link JsonNode} object
+     * @throws BallerinaException if the document is empty or incomplete
+     */
+    public JsonNode complete() throws BallerinaException {
+        /* the end of the document is counted as a character, as in the character based parser */
+        this.column++;
+        switch (this.state) {
+            case DOC_END:
+                break;
+            case DOC_START:
+                throw this.error("empty JSON document");
+            case NON_STRING_VALUE:
+                if (this.depth == 0) {
+                    this.endNonStringValue();
+                    break;
+                }
+                throw this.error("unexpected end of JSON document");
+            default:
+                throw this.error("unexpected end of JSON document");
+        }
+        JsonNode result = this.root;
+        this.reset();
+        return result;
+    }
+
+    private byte[] getReadBuffer() {
+        if (this.readBuff == null) {
+            this.readBuff = new byte[READ_BUFFER_SIZE];
+        }
+        return this.readBuff;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static boolean isQuote(byte b) {
+        return b == '"' || b == '\'';
+    }
+
+    private BallerinaException error(String message) {
+        return new BallerinaException(message + " at line: " + this.line + " column: " + this.column);
+    }
+
+    private BallerinaException expected(String... chars) {
+        return this.error("expected " + String.join(" or ", chars));
+    }
+
+    private void process(byte b) {
+        switch (this.state) {
+            case DOC_START:
+            case VALUE_READY:
+                if (!isWhitespace(b)) {
+                    this.startValue(b);
+                }
+                break;
+            case FIRST_ELEMENT_READY:
+                if (b == ']') {
+                    this.endContainer();
+                } else if (!isWhitespace(b)) {
+                    this.startValue(b);
+                }
+                break;
+            case FIRST_FIELD_READY:
+                if (isQuote(b)) {
+                    this.startString(FIELD_NAME, b);
+                } else if (b == '}') {
+                    this.endContainer();
+                } else if (!isWhitespace(b)) {
+                    throw this.expected("\"", "}");
+                }
+                break;
+            case NON_FIRST_FIELD_READY:
+                if (isQuote(b)) {
+                    this.startString(FIELD_NAME, b);
+                } else if (!isWhitespace(b)) {
+                    throw this.expected("\"");
+                }
+                break;
+            case FIELD_NAME:
+            case STRING_VALUE:
+                if (b == this.currentQuote) {
+                    this.endString();
+                } else if (b == '\\') {
+                    this.state = ESCAPED_CHAR;
+                } else {
+                    this.appendByte(b);
+                }
+                break;
+            case FIELD_NAME_END:
+                if (b == ':') {
+                    this.state = VALUE_READY;
+                } else if (!isWhitespace(b)) {
+                    throw this.expected(":");
+                }
+                break;
+            case NON_STRING_VALUE:
+                this.processNonStringValue(b);
+                break;
+            case VALUE_END:
+                if (b == ',') {
+                    this.state = this.containers[this.depth - 1].isObject() ? NON_FIRST_FIELD_READY : VALUE_READY;
+                } else if (b == this.getContainerEnd()) {
+                    this.endContainer();
+                } else if (!isWhitespace(b)) {
+                    throw this.expected(",", String.valueOf((char) this.getContainerEnd()));
+                }
+                break;
+            case DOC_END:
+                if (!isWhitespace(b)) {
+                    throw this.error("JSON document has already ended");
+                }
+                break;
+            case ESCAPED_CHAR:
+                this.processEscapedChar(b);
+                break;
+            case UNICODE_HEX:
+                int digit = Character.digit(b, 16);
+                if (digit < 0) {
+                    throw this.expected("hexadecimal value of an unicode character");
+                }
+                this.hexValue = (this.hexValue << 4) | digit;
+                if (++this.hexDigits == 4) {
+                    this.appendChar((char) this.hexValue);
+                    this.state = this.stringState;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void processNonStringValue(byte b) {
+        if (isWhitespace(b)) {
+            this.endNonStringValue();
+        } else if (this.depth > 0 && b == ',') {
+            this.endNonStringValue();
+            this.state = this.containers[this.depth - 1].isObject() ? NON_FIRST_FIELD_READY : VALUE_READY;
+        } else if (this.depth > 0 && b == this.getContainerEnd()) {
+            this.endNonStringValue();
+            this.endContainer();
+        } else {
+            this.appendByte(b);
+        }
+    }
+
+    private void processEscapedChar(byte b) {
+        switch (b) {
+            case '"':
+                this.appendChar('"');
+                break;
+            case '\\':
+                this.appendChar('\\');
+                break;
+            case '/':
+                this.appendChar('/');
+                break;
+            case 'b':
+                this.appendChar('\b');
+                break;
+            case 'f':
+                this.appendChar('\f');
+                break;
+            case 'n':
+                this.appendChar('\n');
+                break;
+            case 'r':
+                this.appendChar('\r');
+                break;
+            case 't':
+                this.appendChar('\t');
+                break;
+            case 'u':
+                this.hexValue = 0;
+                this.hexDigits = 0;
+                this.state = UNICODE_HEX;
+                return;
+            default:
+                throw this.expected("escaped characters");
+        }
+        this.state = this.stringState;
+    }
+
+    private byte getContainerEnd() {
+        return this.containers[this.depth - 1].isObject() ? (byte) '}' : (byte) ']';
+    }
+
+    private void startValue(byte b) {
+        if (b == '{') {
+            this.push(new JsonNode());
+            this.state = FIRST_FIELD_READY;
+        } else if (b == '[') {
+            this.push(new JsonNode(Type.ARRAY));
+            this.state = FIRST_ELEMENT_READY;
+        } else if (isQuote(b)) {
+            this.startString(STRING_VALUE, b);
+        } else {
+            this.charCount = 0;
+            this.state = NON_STRING_VALUE;
+            this.appendByte(b);
+        }
+    }
+
+    private void startString(int stringState, byte quote) {
+        this.charCount = 0;
+        this.currentQuote = quote;
+        this.stringState = stringState;
+        this.state = stringState;
+    }
+
+    private void endString() {
+        this.flushPendingBytes();
+        if (this.stringState == FIELD_NAME) {
+            this.fieldNames[this.depth - 1] = this.internKey();
+            this.state = FIELD_NAME_END;
+        } else {
+            this.addValue(new JsonNode(new String(this.charBuff, 0, this.charCount)));
+        }
+    }
+
+    private void endNonStringValue() {
+        this.flushPendingBytes();
+        JsonNode node;
+        if (this.matches("true")) {
+            node = new JsonNode(true);
+        } else if (this.matches("false")) {
+            node = new JsonNode(false);
+        } else if (this.matches("null")) {
+            node = new JsonNode(Type.NULL);
+        } else {
+            node = this.parseNumber();
+        }
+        this.addValue(node);
+    }
+
+    private JsonNode parseNumber() {
+        char[] chars = this.charBuff;
+        int count = this.charCount;
+        int start = count > 0 && chars[0] == '-' ? 1 : 0;
+        if (count > start && count - start <= MAX_FAST_LONG_DIGITS) {
+            long value = 0;
+            int i = start;
+            for (; i < count; i++) {
+                char ch = chars[i];
+                if (ch < '0' || ch > '9') {
+                    break;
+                }
+                value = value * 10 + (ch - '0');
+            }
+            if (i == count) {
+                return new JsonNode(start == 0 ? value : -value);
+            }
+        }
+        String str = new String(chars, 0, count);
+        try {
+            /* as with JsonParser, only numbers with a decimal point are floats, and integers have no exponent */
+            if (str.indexOf('.') >= 0) {
+                return new JsonNode(Double.parseDouble(str));
+            }
+            return new JsonNode(Long.parseLong(str));
+        } catch (NumberFormatException ignore) {
+            throw this.error("unrecognized token '" + str + "'");
+        }
+    }
+
+    private boolean matches(String literal) {
+        if (this.charCount != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < this.charCount; i++) {
+            if (this.charBuff[i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String internKey() {
+        int count = this.charCount;
+        if (count > MAX_CACHED_KEY_LENGTH) {
+            return new String(this.charBuff, 0, count);
+        }
+        int hash = 0;
+        for (int i = 0; i < count; i++) {
+            hash = 31 * hash + this.charBuff[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        String cached = this.keyCache[slot];
+        if (cached != null && this.matches(cached)) {
+            return cached;
+        }
+        String key = new String(this.charBuff, 0, count);
+        this.keyCache[slot] = key;
+        return key;
+    }
+
+    private void push(JsonNode container) {
+        if (this.depth == this.containers.length) {
+            int newLength = this.depth * 2;
+            JsonNode[] newContainers = new JsonNode[newLength];
+            String[] newFieldNames = new String[newLength];
+            System.arraycopy(this.containers, 0, newContainers, 0, this.depth);
+            System.arraycopy(this.fieldNames, 0, newFieldNames, 0, this.depth);
+            this.containers = newContainers;
+            this.fieldNames = newFieldNames;
+        }
+        this.containers[this.depth++] = container;
+    }
+
+    private void endContainer() {
+        this.depth--;
+        JsonNode container = this.containers[this.depth];
+        this.containers[this.depth] = null;
+        this.fieldNames[this.depth] = null;
+        this.addValue(container);
+    }
+
+    private void addValue(JsonNode node) {
+        if (this.depth == 0) {
+            this.root = node;
+            this.state = DOC_END;
+            return;
+        }
+        JsonNode parent = this.containers[this.depth - 1];
+        if (parent.isObject()) {
+            parent.set(this.fieldNames[this.depth - 1], node);
+        } else {
+            parent.add(node);
+        }
+        this.state = VALUE_END;
+    }
+
+    /**
+     * Appends the ASCII characters of a string or a non-string value, up to the next byte which needs
+     * to be processed separately, and returns the index of that byte.
+     */
+    private int appendAsciiRun(byte[] bytes, int start, int end, boolean string) {
+        int i = start;
+        if (string) {
+            byte quote = this.currentQuote;
+            while (i < end) {
+                byte b = bytes[i];
+                if (b <= '\n' || b == quote || b == '\\') {
+                    break;
+                }
+                i++;
+            }
+        } else {
+            while (i < end) {
+                byte b = bytes[i];
+                if (b <= ' ' || b == ',' || b == '}' || b == ']') {
+                    break;
+                }
+                i++;
+            }
+        }
+        int count = i - start;
+        if (count > 0) {
+            this.ensureCapacity(this.charCount + count);
+            char[] chars = this.charBuff;
+            int charIndex = this.charCount;
+            for (int j = start; j < i; j++) {
+                chars[charIndex++] = (char) bytes[j];
+            }
+            this.charCount = charIndex;
+            this.column += count;
+        }
+        return i;
+    }
+
+    private void appendByte(byte b) {
+        if (this.pendingBytes == 0) {
+            if (b >= 0) {
+                this.appendChar((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                this.codePoint = b & 0x1F;
+                this.pendingBytes = 1;
+            } else if ((b & 0xF0) == 0xE0) {
+                this.codePoint = b & 0x0F;
+                this.pendingBytes = 2;
+            } else if ((b & 0xF8) == 0xF0) {
+                this.codePoint = b & 0x07;
+                this.pendingBytes = 3;
+            } else {
+                this.appendChar(REPLACEMENT_CHAR);
+            }
+            return;
+        }
+        if ((b & 0xC0) != 0x80) {
+            /* an incomplete character, the current byte starts the next one */
+            this.pendingBytes = 0;
+            this.appendChar(REPLACEMENT_CHAR);
+            this.appendByte(b);
+            return;
+        }
+        this.codePoint = (this.codePoint << 6) | (b & 0x3F);
+        if (--this.pendingBytes == 0) {
+            if (this.codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                this.appendChar((char) this.codePoint);
+            } else if (this.codePoint <= Character.MAX_CODE_POINT) {
+                this.appendChar(Character.highSurrogate(this.codePoint));
+                this.appendChar(Character.lowSurrogate(this.codePoint));
+            } else {
+                this.appendChar(REPLACEMENT_CHAR);
+            }
+        }
+    }
+
+    private void flushPendingBytes() {
+        if (this.pendingBytes > 0) {
+            this.pendingBytes = 0;
+            this.appendChar(REPLACEMENT_CHAR);
+        }
+    }
+
+    private void appendChar(char ch) {
+        if (this.charCount == this.charBuff.length) {
+            this.ensureCapacity(this.charCount + 1);
+        }
+        this.charBuff[this.charCount++] = ch;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.charBuff.length) {
+            char[] newBuff = new char[Math.max(capacity, this.charBuff.length * 2)];
+            System.arraycopy(this.charBuff, 0, newBuff, 0, this.charCount);
+            this.charBuff = newBuff;
+        }
+    }
+}
@@ -42,7 +42,7 @@ public class JsonGenerator {
     
     private boolean fieldActive;
     
-    private static boolean[] escChars = new boolean[93];
+    protected static final boolean[] escChars = new boolean[93];
     
     static {
         escChars['"'] = true;
@@ -64,6 +64,12 @@ public class JsonGenerator {
     public JsonGenerator(Writer writer) {
         this.writer = writer;
     }
+    
+    /**
+     * Creates a generator, which writes its output through the overridden write methods.
+     */
+    protected JsonGenerator() {
+    }
 
     private void setLevelInit(int index, boolean init) {
         this.checkAndResizeLevels(index);
@@ -86,7 +92,7 @@ public class JsonGenerator {
     private void processStartLevel() throws IOException {
         if (!this.fieldActive) {
             if (this.getLevelInit(this.currentLevel)) {
-                this.writer.write(',');
+                this.writeChar(',');
             } else {
                 this.setLevelInit(this.currentLevel, true);
             }
@@ -104,7 +110,7 @@ public class JsonGenerator {
     
     private void processFieldInit() throws IOException {
         if (this.getLevelInit(this.currentLevel)) {
-            this.writer.write(',');
+            this.writeChar(',');
         } else {
             this.setLevelInit(this.currentLevel, true);
         }
@@ -117,7 +123,7 @@ public class JsonGenerator {
             return;
         }
         if (this.getLevelInit(this.currentLevel)) {
-            this.writer.write(',');
+            this.writeChar(',');
         } else {
             this.setLevelInit(this.currentLevel, true);
         }
@@ -125,21 +131,29 @@ public class JsonGenerator {
     
     public void startObject() throws IOException {
         this.processStartLevel();
-        this.writer.write('{');
+        this.writeChar('{');
     }
     
     public void endObject() throws IOException {
-        this.writer.write('}');
+        this.writeChar('}');
         this.processEndLevel();
     }
     
     public void writeFieldName(String fieldName) throws IOException {
         this.processFieldInit();
         this.writeStringValue(fieldName);
-        this.writer.write(":");
+        this.writeChar(':');
+    }
+    
+    protected void writeChar(char ch) throws IOException {
+        this.writer.write(ch);
     }
     
-    private void writeStringValue(String value) throws IOException {
+    protected void writeRaw(String str) throws IOException {
+        this.writer.write(str);
+    }
+    
+    protected void writeStringValue(String value) throws IOException {
         this.writer.write("\"");        
         int count = value.length();
         char ch;
@@ -225,31 +239,35 @@ public class JsonGenerator {
     
     public void writeNumber(long value) throws IOException {
         this.processValueInit();
-        this.writer.write(Long.toString(value));
+        this.writeLong(value);
+    }
+    
+    protected void writeLong(long value) throws IOException {
+        this.writeRaw(Long.toString(value));
     }
     
     public void writeNumber(double value) throws IOException {
         this.processValueInit();
-        this.writer.write(Double.toString(value));
+        this.writeRaw(Double.toString(value));
     }
     
     public void writeBoolean(boolean value) throws IOException {
         this.processValueInit();
-        this.writer.write(Boolean.toString(value));
+        this.writeRaw(Boolean.toString(value));
     }
     
     public void writeNull() throws IOException {
         this.processValueInit();
-        this.writer.write("null");
+        this.writeRaw("null");
     }
     
     public void writeStartArray() throws IOException {
         this.processStartLevel();
-        this.writer.write("[");
+        this.writeChar('[');
     }
     
     public void writeEndArray() throws IOException {
-        this.writer.write("]");
+        this.writeChar(']');
         this.processEndLevel();
     }
     
@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.model.util;
+
+import org.ballerinalang.model.util.JsonNode.Type;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code JsonIndex} is the structural index of a UTF-8 encoded JSON document, used to create the
+ * {@link JsonNode}s of the document lazily.
+ * <p>
+ * The index is built in a single pass over the bytes, and holds the offsets of the structural
+ * characters, i.e. the brackets, colons and commas outside strings, and the quotes of the strings.
+ * Each opening bracket also refers to its matching closing bracket, so a nested object or array can be
+ * skipped without looking at its contents. The fields or elements of an object or array are created
+ * only when the node is first accessed, and the nested objects and arrays are again created as lazy
+ * nodes. Apart from the string and bracket matching done while indexing, the syntax of an object or
+ * array is checked when it is created, so an error in a part of the document which is never accessed
+ * is not reported.
+ *
+ * @since 0.974.1
+ */
+final class JsonIndex {
+
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    /* must be a power of two */
+    private static final int KEY_CACHE_SIZE = 256;
+
+    private static final int MAX_CACHED_KEY_LENGTH = 32;
+
+    private static final int MAX_FAST_LONG_DIGITS = 18;
+
+    /* marks the bytes which are structural outside strings */
+    private static final boolean[] STRUCTURAL = new boolean[256];
+
+    static {
+        for (char ch : new char[] { '{', '}', '[', ']', ':', ',', '"', '\'' }) {
+            STRUCTURAL[ch] = true;
+        }
+    }
+
+    private final byte[] bytes;
+
+    private final int length;
+
+    /* the byte offsets of the structural characters */
+    private final int[] positions;
+
+    /* the structural index of the matching closing bracket, for each opening bracket */
+    private final int[] closers;
+
+    /* shared by the nodes of the document, which may be created concurrently; a racing update only
+     * causes a cache miss, as strings are immutable */
+    private final String[] keyCache = new String[KEY_CACHE_SIZE];
+
+    private JsonIndex(byte[] bytes, int length, int[] positions, int[] closers) {
+        this.bytes = bytes;
+        this.length = length;
+        this.positions = positions;
+        this.closers = closers;
+    }
+
+    /**
+     * Creates the root node of the given document. An object or array is created as a lazy node, while
+     * any other value is parsed right away.
+     *
+     * @param bytes  the buffer containing the document
+     * @param length the length of the document in the buffer
+     * @return the root node
+     * @throws BallerinaException if the document is empty, or its strings or brackets are not terminated
+     */
+    static JsonNode createRoot(byte[] bytes, int length) throws BallerinaException {
+        int start = skipWhitespace(bytes, 0, length);
+        if (start == length || (bytes[start] != '{' && bytes[start] != '[')) {
+            JsonByteParser parser = new JsonByteParser();
+            parser.feed(bytes, 0, length);
+            return parser.complete();
+        }
+        JsonIndex index = build(bytes, length);
+        int end = index.positions[index.closers[0]] + 1;
+        if (skipWhitespace(bytes, end, length) != length) {
+            throw index.error("JSON document has already ended", skipWhitespace(bytes, end, length));
+        }
+        return new JsonNode(index, 0, bytes[start] == '{' ? Type.OBJECT : Type.ARRAY);
+    }
+
+    private static JsonIndex build(byte[] bytes, int length) {
+        int[] positions = new int[Math.max(INITIAL_STACK_SIZE, length >> 3)];
+        int[] closers = new int[positions.length];
+        int[] openers = new int[INITIAL_STACK_SIZE];
+        int depth = 0;
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (!STRUCTURAL[b & 0xFF]) {
+                continue;
+            }
+            if (count + 2 > positions.length) {
+                int newLength = positions.length * 2;
+                positions = copyOf(positions, newLength);
+                closers = copyOf(closers, newLength);
+            }
+            positions[count] = i;
+            if (b == '"' || b == '\'') {
+                /* the closing quote is recorded as well, so the string contents are not scanned again */
+                int end = i + 1;
+                while (end < length && bytes[end] != b) {
+                    end += bytes[end] == '\\' ? 2 : 1;
+                }
+                if (end >= length) {
+                    throw new JsonIndex(bytes, length, positions, closers)
+                            .error("unexpected end of JSON document", length);
+                }
+                positions[++count] = end;
+                i = end;
+            } else if (b == '{' || b == '[') {
+                if (depth == openers.length) {
+                    openers = copyOf(openers, depth * 2);
+                }
+                openers[depth++] = count;
+            } else if (b == '}' || b == ']') {
+                byte opener = depth == 0 ? 0 : bytes[positions[openers[depth - 1]]];
+                if ((b == '}' && opener != '{') || (b == ']' && opener != '[')) {
+                    throw new JsonIndex(bytes, length, positions, closers)
+                            .error("unexpected '" + (char) b + "'", i);
+                }
+                closers[openers[--depth]] = count;
+            }
+            count++;
+        }
+        if (depth > 0) {
+            throw new JsonIndex(bytes, length, positions, closers)
+                    .error("unexpected end of JSON document", length);
+        }
+        return new JsonIndex(bytes, length, positions, closers);
+    }
+
+    /**
+     * Creates the fields or elements of the given lazy node.
+     *
+     * @param node   the lazy node
+     * @param opener the structural index of the opening bracket of the node
+     */
+    void materialize(JsonNode node, int opener) {
+        int closer = this.closers[opener];
+        if (node.isObject()) {
+            this.materializeObject(node, opener, closer);
+        } else {
+            this.materializeArray(node, opener, closer);
+        }
+    }
+
+    private void materializeObject(JsonNode node, int opener, int closer) {
+        int i = opener + 1;
+        if (i == closer) {
+            this.checkWhitespace(this.positions[opener] + 1, this.positions[closer], "\"", "}");
+            return;
+        }
+        while (true) {
+            int from = this.positions[i - 1] + 1;
+            if (i >= closer || !this.isQuote(i)) {
+                throw this.expected(this.positions[i], i == opener + 1 ? new String[] { "\"", "}" }
+                        : new String[] { "\"" });
+            }
+            this.checkWhitespace(from, this.positions[i], "\"");
+            String name = this.readKey(this.positions[i] + 1, this.positions[i + 1]);
+            i += 2;
+            if (this.bytes[this.positions[i]] != ':') {
+                throw this.expected(this.positions[i], ":");
+            }
+            this.checkWhitespace(this.positions[i - 1] + 1, this.positions[i], ":");
+            i++;
+            JsonNode value = this.readValue(i, "}");
+            int next = this.nextIndex(i);
+            node.putField(name, value);
+            this.checkValueEnd(i, next, closer, "}");
+            i = next;
+            if (i == closer) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    private void materializeArray(JsonNode node, int opener, int closer) {
+        int i = opener + 1;
+        if (i == closer && this.isBlank(this.positions[opener] + 1, this.positions[closer])) {
+            return;
+        }
+        while (true) {
+            node.addElement(this.readValue(i, "]"));
+            int next = this.nextIndex(i);
+            this.checkValueEnd(i, next, closer, "]");
+            i = next;
+            if (i == closer) {
+                return;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Reads the value which starts after the structural character before the given structural index.
+     */
+    private JsonNode readValue(int i, String containerEnd) {
+        int from = this.positions[i - 1] + 1;
+        int position = this.positions[i];
+        byte b = this.bytes[position];
+        if ((b == '"' || b == '\'' || b == '{' || b == '[') && this.isBlank(from, position)) {
+            if (b == '{') {
+                return new JsonNode(this, i, Type.OBJECT);
+            } else if (b == '[') {
+                return new JsonNode(this, i, Type.ARRAY);
+            }
+            return new JsonNode(this.readString(position + 1, this.positions[i + 1]));
+        }
+        return this.readNonStringValue(from, position, containerEnd);
+    }
+
+    /**
+     * Returns the structural index following the value read at the given structural index.
+     */
+    private int nextIndex(int i) {
+        int position = this.positions[i];
+        byte b = this.bytes[position];
+        if (!this.isBlank(this.positions[i - 1] + 1, position)) {
+            /* a non-string value, which ends at this structural character */
+            return i;
+        }
+        if (b == '{' || b == '[') {
+            return this.closers[i] + 1;
+        } else if (b == '"' || b == '\'') {
+            return i + 2;
+        }
+        return i;
+    }
+
+    /**
+     * Checks that the value read at the given structural index is followed by a comma or the end of
+     * its container.
+     */
+    private void checkValueEnd(int i, int next, int closer, String containerEnd) {
+        if (next > closer || (next < closer && this.bytes[this.positions[next]] != ',')) {
+            throw this.expected(this.positions[Math.min(next, closer)], ",", containerEnd);
+        }
+        if (next != i) {
+            /* the value is a string, an object or an array, which may only be followed by whitespace */
+            this.checkWhitespace(this.positions[next - 1] + 1, this.positions[next], ",", containerEnd);
+        }
+    }
+
+    private JsonNode readNonStringValue(int from, int to, String containerEnd) {
+        int start = skipWhitespace(this.bytes, from, to);
+        int end = to;
+        while (end > start && isWhitespace(this.bytes[end - 1])) {
+            end--;
+        }
+        for (int i = start; i < end; i++) {
+            if (isWhitespace(this.bytes[i])) {
+                /* two values, which are not separated by a comma */
+                throw this.expected(skipWhitespace(this.bytes, i, end), ",", containerEnd);
+            }
+        }
+        int length = end - start;
+        if (this.matches(start, length, "true")) {
+            return new JsonNode(true);
+        } else if (this.matches(start, length, "false")) {
+            return new JsonNode(false);
+        } else if (this.matches(start, length, "null")) {
+            return new JsonNode(Type.NULL);
+        }
+        int digitsStart = length > 0 && this.bytes[start] == '-' ? start + 1 : start;
+        if (end > digitsStart && end - digitsStart <= MAX_FAST_LONG_DIGITS) {
+            long value = 0;
+            int i = digitsStart;
+            for (; i < end; i++) {
+                byte b = this.bytes[i];
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+            }
+            if (i == end) {
+                return new JsonNode(digitsStart == start ? value : -value);
+            }
+        }
+        String str = new String(this.bytes, start, length, StandardCharsets.UTF_8);
+        try {
+            /* as with JsonParser, only numbers with a decimal point are floats, and integers have no exponent */
+            if (str.indexOf('.') >= 0) {
+                return new JsonNode(Double.parseDouble(str));
+            }
+            return new JsonNode(Long.parseLong(str));
+        } catch (NumberFormatException ignore) {
+            throw this.error("unrecognized token '" + str + "'", end);
+        }
+    }
+
+    private String readKey(int from, int to) {
+        int length = to - from;
+        if (length > MAX_CACHED_KEY_LENGTH) {
+            return this.readString(from, to);
+        }
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            byte b = this.bytes[i];
+            if (b == '\\') {
+                /* only the keys without escapes are cached, as the cache compares the raw bytes */
+                return this.readString(from, to);
+            }
+            hash = 31 * hash + b;
+        }
+        int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        String cached = this.keyCache[slot];
+        if (cached != null && cached.length() == length && this.isAsciiMatch(from, cached)) {
+            return cached;
+        }
+        String key = this.readString(from, to);
+        this.keyCache[slot] = key;
+        return key;
+    }
+
+    private boolean isAsciiMatch(int from, String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (this.bytes[from + i] != str.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readString(int from, int to) {
+        int escape = from;
+        while (escape < to && this.bytes[escape] != '\\') {
+            escape++;
+        }
+        if (escape == to) {
+            return new String(this.bytes, from, to - from, StandardCharsets.UTF_8);
+        }
+        /* the escapes split the string into segments, which are decoded separately; an escape is
+         * ASCII, so it never splits a multi-byte character */
+        StringBuilder builder = new StringBuilder(to - from);
+        int segment = from;
+        int i = escape;
+        while (i < to) {
+            if (this.bytes[i] != '\\') {
+                i++;
+                continue;
+            }
+            builder.append(new String(this.bytes, segment, i - segment, StandardCharsets.UTF_8));
+            byte ch = this.bytes[i + 1];
+            switch (ch) {
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append((char) ch);
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    int value = 0;
+                    for (int j = i + 2; j < i + 6; j++) {
+                        int digit = j < to ? Character.digit(this.bytes[j], 16) : -1;
+                        if (digit < 0) {
+                            throw this.expected(j, "hexadecimal value of an unicode character");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    builder.append((char) value);
+                    i += 4;
+                    break;
+                default:
+                    throw this.expected(i + 1, "escaped characters");
+            }
+            i += 2;
+            segment = i;
+        }
+        builder.append(new String(this.bytes, segment, to - segment, StandardCharsets.UTF_8));
+        return builder.toString();
+    }
+
+    private boolean matches(int from, int length, String literal) {
+        return length == literal.length() && this.isAsciiMatch(from, literal);
+    }
+
+    private boolean isQuote(int i) {
+        byte b = this.bytes[this.positions[i]];
+        return b == '"' || b == '\'';
+    }
+
+    private boolean isBlank(int from, int to) {
+        return skipWhitespace(this.bytes, from, to) == to;
+    }
+
+    private void checkWhitespace(int from, int to, String... expected) {
+        int i = skipWhitespace(this.bytes, from, to);
+        if (i != to) {
+            throw this.expected(i, expected);
+        }
+    }
+
+    private static int skipWhitespace(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to && isWhitespace(bytes[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        int[] result = new int[length];
+        System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+        return result;
+    }
+
+    private BallerinaException expected(int offset, String... chars) {
+        return this.error("expected " + String.join(" or ", chars), offset);
+    }
+
+    /**
+     * Creates a parsing error, with the location of the given byte offset. The location is only
+     * computed here, as the index does not track lines.
+     */
+    private BallerinaException error(String message, int offset) {
+        int line = 1;
+        int column = 0;
+        int end = Math.min(offset, this.length - 1);
+        for (int i = 0; i <= end; i++) {
+            byte b = this.bytes[i];
+            if (b == '\n') {
+                line++;
+                column = 0;
+            } else if ((b & 0xC0) != 0x80) {
+                column++;
+            }
+        }
+        if (offset >= this.length) {
+            column++;
+        }
+        return new BallerinaException(message + " at line: " + line + " column: " + column);
+    }
+}
@@ -22,11 +22,12 @@ import org.ballerinalang.util.exceptions.BallerinaException;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -39,20 +40,33 @@ import java.util.Map.Entry;
  */
 public class JsonNode {
 
+    /* objects with up to this many fields keep them in arrays, rather than in a map */
+    private static final int COMPACT_FIELDS_LIMIT = 8;
+
+    private static final int INITIAL_COMPACT_FIELDS_SIZE = 4;
+
     private String stringValue;
     
-    private long longValue;
-    
-    private double doubleValue;
-    
-    private boolean booleanValue;
+    /* the value of an int, float or boolean node, with floats stored as their raw long bits */
+    private long numericValue;
     
     private Type type;
     
     private Map<String, JsonNode> fields;
     
+    private String[] compactFieldNames;
+    
+    private JsonNode[] compactFieldValues;
+    
+    private int compactFieldCount;
+    
     private List<JsonNode> arrayElements;
     
+    /* the index of the document, while the fields or elements of this node have not been created */
+    private volatile JsonIndex lazyIndex;
+    
+    private int lazyOpener;
+    
     protected JsonNode parentNode;
     
     protected String fieldName;
@@ -81,13 +95,24 @@ public class JsonNode {
         this.setBooleanValue(booleanValue);
     }
     
+    JsonNode(JsonIndex index, int opener, Type type) {
+        this.type = type;
+        this.lazyIndex = index;
+        this.lazyOpener = opener;
+    }
+    
     public Type getType() {
         return type;
     }
     
     public void add(JsonNode arrayElement) {
+        this.ensureMaterialized();
+        this.addElement(arrayElement);
+    }
+    
+    void addElement(JsonNode arrayElement) {
         if (arrayElements == null) {
-            arrayElements = new LinkedList<>();
+            arrayElements = new ArrayList<>();
         }
         this.arrayElements.add(arrayElement);
     }
@@ -113,6 +138,7 @@ public class JsonNode {
     }
     
     public void setString(String stringValue) {
+        this.lazyIndex = null;
         if (stringValue != null) {
             this.stringValue = stringValue;
             this.type = Type.STRING;
@@ -122,21 +148,25 @@ public class JsonNode {
     }
     
     public void setNumber(long longValue) {
-        this.longValue = longValue;
+        this.lazyIndex = null;
+        this.numericValue = longValue;
         this.type = Type.LONG;
     }
     
     public void setNumber(double doubleValue) {
-        this.doubleValue = doubleValue;
+        this.lazyIndex = null;
+        this.numericValue = Double.doubleToRawLongBits(doubleValue);
         this.type = Type.DOUBLE;
     }
     
     public void setBooleanValue(boolean booleanValue) {
-        this.booleanValue = booleanValue;
+        this.lazyIndex = null;
+        this.numericValue = booleanValue ? 1 : 0;
         this.type = Type.BOOLEAN;
     }
     
     public void setNull() {
+        this.lazyIndex = null;
         this.type = Type.NULL;
     }
     
@@ -173,6 +203,7 @@ public class JsonNode {
     }
     
     public int size() {
+        this.ensureMaterialized();
         if (this.arrayElements != null) {
             return this.arrayElements.size();
         } else {
@@ -185,61 +216,94 @@ public class JsonNode {
     }
     
     public long longValue() {
-        return longValue;
+        return this.type == Type.LONG ? this.numericValue : 0;
     }
     
     public double doubleValue() {
-        return doubleValue;
+        return this.type == Type.DOUBLE ? Double.longBitsToDouble(this.numericValue) : 0;
     }
     
     public boolean booleanValue() {
-        return booleanValue;
+        return this.type == Type.BOOLEAN && this.numericValue != 0;
     }
     
     public void set(String name, String stringValue) {
-        if (this.fields == null) {
-            this.fields = new LinkedHashMap<>();
-        }
         if (stringValue == null) {
-            this.fields.put(name, new JsonNode(Type.NULL));
+            this.setField(name, new JsonNode(Type.NULL));
         } else {
-            this.fields.put(name, new JsonNode(stringValue));
+            this.setField(name, new JsonNode(stringValue));
         }
     }
     
     public void set(String name, long longValue) {
-        if (this.fields == null) {
-            this.fields = new LinkedHashMap<>();
-        }
-        this.fields.put(name, new JsonNode(longValue));
+        this.setField(name, new JsonNode(longValue));
     }
     
     public void set(String name, double doubleValue) {
-        if (this.fields == null) {
-            this.fields = new LinkedHashMap<>();
-        }
-        this.fields.put(name, new JsonNode(doubleValue));
+        this.setField(name, new JsonNode(doubleValue));
     }
     
     public void set(String name, boolean booleanValue) {
-        if (this.fields == null) {
-            this.fields = new LinkedHashMap<>();
-        }
-        this.fields.put(name, new JsonNode(booleanValue));
+        this.setField(name, new JsonNode(booleanValue));
     }
     
     public void set(String name, JsonNode jsonNode) {
-        if (this.fields == null) {
-            this.fields = new LinkedHashMap<>();
-        }
         if (jsonNode != null) {
-            this.fields.put(name, jsonNode);
+            this.setField(name, jsonNode);
         } else {
-            this.fields.put(name, new JsonNode(Type.NULL));
+            this.setField(name, new JsonNode(Type.NULL));
         }
     }
     
+    private void setField(String name, JsonNode value) {
+        this.ensureMaterialized();
+        this.putField(name, value);
+    }
+    
+    void putField(String name, JsonNode value) {
+        if (this.fields != null) {
+            this.fields.put(name, value);
+            return;
+        }
+        int index = this.indexOfCompactField(name);
+        if (index >= 0) {
+            this.compactFieldValues[index] = value;
+        } else if (this.compactFieldCount < COMPACT_FIELDS_LIMIT) {
+            if (this.compactFieldNames == null) {
+                this.compactFieldNames = new String[INITIAL_COMPACT_FIELDS_SIZE];
+                this.compactFieldValues = new JsonNode[INITIAL_COMPACT_FIELDS_SIZE];
+            } else if (this.compactFieldCount == this.compactFieldNames.length) {
+                this.compactFieldNames = Arrays.copyOf(this.compactFieldNames, COMPACT_FIELDS_LIMIT);
+                this.compactFieldValues = Arrays.copyOf(this.compactFieldValues, COMPACT_FIELDS_LIMIT);
+            }
+            this.compactFieldNames[this.compactFieldCount] = name;
+            this.compactFieldValues[this.compactFieldCount] = value;
+            this.compactFieldCount++;
+        } else {
+            this.fields = new LinkedHashMap<>();
+            for (int i = 0; i < this.compactFieldCount; i++) {
+                this.fields.put(this.compactFieldNames[i], this.compactFieldValues[i]);
+            }
+            this.fields.put(name, value);
+            this.compactFieldNames = null;
+            this.compactFieldValues = null;
+            this.compactFieldCount = 0;
+        }
+    }
+    
+    private int indexOfCompactField(String name) {
+        for (int i = 0; i < this.compactFieldCount; i++) {
+            String fieldName = this.compactFieldNames[i];
+            /* the field names of parsed documents are shared, so the identity check is the common case */
+            if (fieldName == name || (name != null && name.equals(fieldName))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
     public void set(int index, JsonNode jsonNode) {
+        this.ensureMaterialized();
         if (this.arrayElements == null) {
             throw new BallerinaException("JSON array is empty to set values");
         }
@@ -251,14 +315,16 @@ public class JsonNode {
     }
     
     public JsonNode get(String name) {
+        this.ensureMaterialized();
         if (this.fields != null) {
             return this.fields.get(name);
-        } else {
-            return null;
         }
+        int index = this.indexOfCompactField(name);
+        return index >= 0 ? this.compactFieldValues[index] : null;
     }
     
     public JsonNode get(int index) {
+        this.ensureMaterialized();
         if (this.arrayElements != null) {
             return this.arrayElements.get(index);
         } else {
@@ -284,22 +350,30 @@ public class JsonNode {
     }
     
     public Iterator<String> fieldNames() {
+        this.ensureMaterialized();
         if (this.fields != null) {
             return this.fields.keySet().iterator();
+        } else if (this.compactFieldCount > 0) {
+            return Arrays.asList(Arrays.copyOf(this.compactFieldNames, this.compactFieldCount)).iterator();
         } else {
             return new HashSet<String>(0).iterator();
         }
     }
     
     public Iterator<Entry<String, JsonNode>> fields() {
+        this.ensureMaterialized();
         if (this.fields != null) {
             return new LinkedHashMap<>(this.fields).entrySet().iterator();
-        } else {
-            return new LinkedHashMap<String, JsonNode>(0).entrySet().iterator();
         }
+        List<Entry<String, JsonNode>> entries = new ArrayList<>(this.compactFieldCount);
+        for (int i = 0; i < this.compactFieldCount; i++) {
+            entries.add(new SimpleEntry<>(this.compactFieldNames[i], this.compactFieldValues[i]));
+        }
+        return entries.iterator();
     }
     
     public Iterator<JsonNode> elements() {
+        this.ensureMaterialized();
         if (this.arrayElements != null) {
             return this.arrayElements.iterator();
         } else {
@@ -308,9 +382,45 @@ public class JsonNode {
     }
     
     public void remove(String fieldName) {
+        this.ensureMaterialized();
         if (this.fields != null) {
             this.fields.remove(fieldName);
+            return;
         }
+        int index = this.indexOfCompactField(fieldName);
+        if (index >= 0) {
+            int moved = this.compactFieldCount - index - 1;
+            System.arraycopy(this.compactFieldNames, index + 1, this.compactFieldNames, index, moved);
+            System.arraycopy(this.compactFieldValues, index + 1, this.compactFieldValues, index, moved);
+            this.compactFieldCount--;
+            this.compactFieldNames[this.compactFieldCount] = null;
+            this.compactFieldValues[this.compactFieldCount] = null;
+        }
+    }
+    
+    private void ensureMaterialized() {
+        if (this.lazyIndex != null) {
+            this.materialize();
+        }
+    }
+    
+    private synchronized void materialize() {
+        JsonIndex index = this.lazyIndex;
+        if (index == null) {
+            return;
+        }
+        try {
+            index.materialize(this, this.lazyOpener);
+        } catch (RuntimeException e) {
+            /* drop the partially created contents, so a later access reports the same error */
+            this.fields = null;
+            this.compactFieldNames = null;
+            this.compactFieldValues = null;
+            this.compactFieldCount = 0;
+            this.arrayElements = null;
+            throw e;
+        }
+        this.lazyIndex = null;
     }
     
     public String toString() {
@@ -345,6 +455,7 @@ public class JsonNode {
     }
     
     public void serialize(JsonGenerator gen) throws IOException {
+        this.ensureMaterialized();
         switch (this.type) {
         case ARRAY:
             gen.writeStartArray();
@@ -360,13 +471,13 @@ public class JsonNode {
             gen.writeEndArray();
             break;
         case BOOLEAN:
-            gen.writeBoolean(this.booleanValue);
+            gen.writeBoolean(this.booleanValue());
             break;
         case DOUBLE:
-            gen.writeNumber(this.doubleValue);
+            gen.writeNumber(this.doubleValue());
             break;
         case LONG:
-            gen.writeNumber(this.longValue);
+            gen.writeNumber(this.numericValue);
             break;
         case NULL:
             gen.writeNull();
@@ -384,6 +495,16 @@ public class JsonNode {
                         gen.writeNull();
                     }
                 }
+            } else {
+                for (int i = 0; i < this.compactFieldCount; i++) {
+                    gen.writeFieldName(this.compactFieldNames[i]);
+                    value = this.compactFieldValues[i];
+                    if (value != null) {
+                        value.serialize(gen);
+                    } else {
+                        gen.writeNull();
+                    }
+                }
             }
             gen.endObject();
             break;
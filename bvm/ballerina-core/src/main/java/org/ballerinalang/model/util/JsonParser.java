@@ -18,16 +18,21 @@
 package org.ballerinalang.model.util;
 
 import org.apache.commons.lang3.StringEscapeUtils;
+import org.ballerinalang.config.ConfigRegistry;
 import org.ballerinalang.model.util.JsonNode.Type;
 import org.ballerinalang.util.exceptions.BallerinaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This class represents a JSON parser.
@@ -36,6 +41,16 @@ import java.nio.charset.Charset;
  */
 public class JsonParser {
 
+    private static final Logger log = LoggerFactory.getLogger(JsonParser.class);
+
+    private static final String LAZY_PARSING_CONFIG_PROP = "b7a.runtime.json.lazy";
+
+    private static final String LAZY_PARSING_THRESHOLD_CONFIG_PROP = "b7a.runtime.json.lazy.threshold";
+
+    private static final int DEFAULT_LAZY_PARSING_THRESHOLD = 64 * 1024;
+
+    private static final int LAZY_PARSING_DISABLED = -1;
+
     private static ThreadLocal<StateMachine> tlStateMachine = new ThreadLocal<StateMachine>() {
         @Override public StateMachine initialValue() {
             return new StateMachine();
@@ -62,6 +77,13 @@ public class JsonParser {
      * @throws BallerinaException for any parsing error
      */
     public static JsonNode parse(InputStream in, String charsetName) throws BallerinaException {
+        if (isUTF8(charsetName)) {
+            /* UTF-8 content is parsed from the bytes, without the reader */
+            if (LazyParsing.THRESHOLD != LAZY_PARSING_DISABLED) {
+                return parseLazily(in);
+            }
+            return JsonByteParser.parse(in);
+        }
         try {
             return parse(new InputStreamReader(new BufferedInputStream(in), charsetName));
         } catch (IOException e) {
@@ -69,6 +91,15 @@ public class JsonParser {
         }
     }
     
+    private static boolean isUTF8(String charsetName) {
+        try {
+            return StandardCharsets.UTF_8.equals(Charset.forName(charsetName));
+        } catch (IllegalArgumentException e) {
+            /* invalid or unsupported charsets are reported by the reader */
+            return false;
+        }
+    }
+    
     /**
      * Parses the contents in the given string and returns a {@link JsonNode}.
      * 
@@ -77,9 +108,46 @@ public class JsonParser {
      * @throws BallerinaException for any parsing error
      */
     public static JsonNode parse(String jsonStr) throws BallerinaException {
+        if (LazyParsing.THRESHOLD != LAZY_PARSING_DISABLED && jsonStr.length() >= LazyParsing.THRESHOLD) {
+            byte[] bytes = jsonStr.getBytes(StandardCharsets.UTF_8);
+            return parseLazily(bytes, bytes.length);
+        }
         return parse(new StringReader(jsonStr));
     }
     
+    /**
+     * Parses the given UTF-8 encoded content lazily. Only a structural index of the content is built
+     * here, and the fields and elements of the returned {@link JsonNode} and of its nested objects and
+     * arrays are created when they are first accessed. Syntax errors in the parts of the content which
+     * are never accessed are not reported.
+     * 
+     * @param bytes the buffer which contains the JSON content
+     * @param length the length of the content in the buffer
+     * @return JSON structure as a {@link JsonNode} object
+     * @throws BallerinaException for any parsing error
+     */
+    public static JsonNode parseLazily(byte[] bytes, int length) throws BallerinaException {
+        return JsonIndex.createRoot(bytes, length);
+    }
+    
+    private static JsonNode parseLazily(InputStream in) throws BallerinaException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buff = new byte[8192];
+        try {
+            int count;
+            while ((count = in.read(buff)) != -1) {
+                out.write(buff, 0, count);
+            }
+        } catch (IOException e) {
+            throw new BallerinaException("Error reading JSON: " + e.getMessage());
+        }
+        byte[] bytes = out.toByteArray();
+        if (bytes.length < LazyParsing.THRESHOLD) {
+            return JsonByteParser.parse(bytes);
+        }
+        return parseLazily(bytes, bytes.length);
+    }
+    
     /**
      * Parses the contents in the given {@link Reader} and returns a {@link JsonNode}.
      * 
@@ -93,6 +161,35 @@ public class JsonParser {
         return sm.execute(reader);
     }
     
+    private static int readLazyParsingThreshold() {
+        ConfigRegistry configRegistry = ConfigRegistry.getInstance();
+        if (!configRegistry.getAsBoolean(LAZY_PARSING_CONFIG_PROP)) {
+            return LAZY_PARSING_DISABLED;
+        }
+        String thresholdProp = configRegistry.getAsString(LAZY_PARSING_THRESHOLD_CONFIG_PROP);
+        if (thresholdProp == null) {
+            return DEFAULT_LAZY_PARSING_THRESHOLD;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(thresholdProp.trim()));
+        } catch (NumberFormatException ignore) {
+            /* this is read when a document is first parsed, where failing would fail every parse after it */
+            log.warn("invalid value for '" + LAZY_PARSING_THRESHOLD_CONFIG_PROP + "': " + thresholdProp
+                    + ", using the default of " + DEFAULT_LAZY_PARSING_THRESHOLD + " bytes");
+            return DEFAULT_LAZY_PARSING_THRESHOLD;
+        }
+    }
+    
+    /**
+     * Holds the size in bytes, from which documents are parsed lazily, read from the configuration
+     * when it is first needed. An invalid threshold is logged, and the default is used instead.
+     */
+    private static class LazyParsing {
+        
+        private static final int THRESHOLD = readLazyParsingThreshold();
+        
+    }
+    
     /**
      * Represents a JSON parser related exception.
      */
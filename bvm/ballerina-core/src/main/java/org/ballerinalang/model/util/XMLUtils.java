@@ -30,9 +30,11 @@ import org.apache.axiom.om.OMNode;
 import org.apache.axiom.om.OMProcessingInstruction;
 import org.apache.axiom.om.OMText;
 import org.apache.axiom.om.OMXMLBuilderFactory;
+import org.apache.axiom.om.OMXMLParserWrapper;
 import org.apache.axiom.om.impl.dom.TextImpl;
 import org.apache.axiom.om.impl.llom.OMSourcedElementImpl;
 import org.apache.axiom.om.util.AXIOMUtil;
+import org.ballerinalang.config.ConfigRegistry;
 import org.ballerinalang.model.TableOMDataSource;
 import org.ballerinalang.model.util.JsonNode.Type;
 import org.ballerinalang.model.values.BJSON;
@@ -44,6 +46,11 @@ import org.ballerinalang.model.values.BXMLQName;
 import org.ballerinalang.model.values.BXMLSequence;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.ArrayList;
@@ -67,6 +74,10 @@ public class XMLUtils {
 
     private static final OMFactory OM_FACTORY = OMAbstractFactory.getOMFactory();
 
+    private static final String STREAMING_PARSING_CONFIG_PROP = "b7a.runtime.xml.streaming";
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
     /**
      * Create a XML item from string literal.
      *
@@ -122,8 +133,15 @@ public class XMLUtils {
      * @param xmlStream XML input stream
      * @return  XML Sequence
      */
-    @SuppressWarnings("unchecked")
     public static BXML<?> parse(InputStream xmlStream) {
+        if (StreamingParsing.ENABLED) {
+            return parseStreaming(xmlStream, null);
+        }
+        return parseEagerly(xmlStream);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BXML<?> parseEagerly(InputStream xmlStream) {
         BRefValueArray elementsSeq = new BRefValueArray();
         OMDocument doc;
         try {
@@ -148,8 +166,15 @@ public class XMLUtils {
      * @param charset   Charset to be used for parsing
      * @return XML Sequence
      */
-    @SuppressWarnings("unchecked")
     public static BXML<?> parse(InputStream xmlStream, String charset) {
+        if (StreamingParsing.ENABLED) {
+            return parseStreaming(xmlStream, charset);
+        }
+        return parseEagerly(xmlStream, charset);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BXML<?> parseEagerly(InputStream xmlStream, String charset) {
         BRefValueArray elementsSeq = new BRefValueArray();
         OMDocument doc;
         try {
@@ -173,8 +198,15 @@ public class XMLUtils {
      * @param reader XML reader
      * @return XML Sequence
      */
-    @SuppressWarnings("unchecked")
     public static BXML<?> parse(Reader reader) {
+        if (StreamingParsing.ENABLED) {
+            return parseStreaming(reader);
+        }
+        return parseEagerly(reader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BXML<?> parseEagerly(Reader reader) {
         BRefValueArray elementsSeq = new BRefValueArray();
         OMDocument doc;
         try {
@@ -192,6 +224,116 @@ public class XMLUtils {
         return new BXMLSequence(elementsSeq);
     }
 
+    /**
+     * Create a XML sequence from an inputstream, where the root element is built only as it is navigated.
+     * The content is read into memory, and the object model of an element is created from it by the
+     * underlying StAX parser only when the element, or an element after it, is first accessed. Errors in
+     * the content are reported when the erroneous part is accessed.
+     * <p>
+     * A document which has comments or processing instructions after its root element is parsed eagerly,
+     * as the sequence has to contain them. As the deferred tree is not thread safe, it is built completely
+     * when the XML value is published to other workers.
+     *
+     * @param xmlStream XML input stream
+     * @param charset   Charset to be used for parsing, or null to detect it from the content
+     * @return XML Sequence
+     */
+    public static BXML<?> parseStreaming(InputStream xmlStream, String charset) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buff = new byte[READ_BUFFER_SIZE];
+        try {
+            int count;
+            while ((count = xmlStream.read(buff)) != -1) {
+                out.write(buff, 0, count);
+            }
+        } catch (IOException e) {
+            throw new BallerinaException("failed to create xml: " + e.getMessage());
+        }
+        byte[] content = out.toByteArray();
+        int end = content.length - 1;
+        while (end >= 0 && isWhitespace(content[end])) {
+            end--;
+        }
+        /* a zero byte is part of a multi-byte code unit, where the last characters can not be checked bytewise */
+        boolean deferred = end > 0 && content[end - 1] != 0 && endsWithElement(content[end], content[end - 1]);
+        InputStream in = new ByteArrayInputStream(content);
+        if (!deferred) {
+            return charset == null ? parseEagerly(in) : parseEagerly(in, charset);
+        }
+        try {
+            return createDeferredSequence(charset == null ? OMXMLBuilderFactory.createOMBuilder(in)
+                    : OMXMLBuilderFactory.createOMBuilder(in, charset));
+        } catch (DeferredParsingException e) {
+            throw new BallerinaException(e.getCause().getMessage());
+        } catch (Throwable e) {
+            throw new BallerinaException("failed to create xml: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Create a XML sequence from a reader, where the root element is built only as it is navigated.
+     *
+     * @param reader XML reader
+     * @return XML Sequence
+     * @see #parseStreaming(InputStream, String)
+     */
+    public static BXML<?> parseStreaming(Reader reader) {
+        CharArrayWriter out = new CharArrayWriter();
+        char[] buff = new char[READ_BUFFER_SIZE];
+        try {
+            int count;
+            while ((count = reader.read(buff)) != -1) {
+                out.write(buff, 0, count);
+            }
+        } catch (IOException e) {
+            throw new BallerinaException("failed to create xml: " + e.getMessage());
+        }
+        char[] content = out.toCharArray();
+        int end = content.length - 1;
+        while (end >= 0 && isWhitespace(content[end])) {
+            end--;
+        }
+        Reader in = new CharArrayReader(content);
+        if (end <= 0 || !endsWithElement(content[end], content[end - 1])) {
+            return parseEagerly(in);
+        }
+        try {
+            return createDeferredSequence(OMXMLBuilderFactory.createOMBuilder(in));
+        } catch (DeferredParsingException e) {
+            throw new BallerinaException(e.getCause().getMessage());
+        } catch (Throwable e) {
+            throw new BallerinaException("failed to create xml: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether a document, which ends with the given characters, ends with the end of its root element.
+     * A comment or a processing instruction ends with "-->" or "?>" instead. The characters are either
+     * bytes or chars, which are compared to ASCII characters only.
+     */
+    private static boolean endsWithElement(int last, int beforeLast) {
+        return last == '>' && beforeLast != '-' && beforeLast != '?';
+    }
+
+    private static boolean isWhitespace(int ch) {
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    private static BXML<?> createDeferredSequence(OMXMLParserWrapper builder) {
+        BRefValueArray elementsSeq = new BRefValueArray();
+        OMNode node = builder.getDocument().getFirstOMChild();
+        int i = 0;
+        while (node != null) {
+            elementsSeq.add(i++, new BXMLItem(node));
+            if (node.getType() == OMNode.ELEMENT_NODE) {
+                /* the root element is the last node, so the builder is not advanced past its start here */
+                break;
+            }
+            node = node.getNextOMSibling();
+        }
+        return new BXMLSequence(elementsSeq);
+    }
+
     /**
      * Concatenate two XML sequences and produce a single sequence.
      *
@@ -655,4 +797,15 @@ public class XMLUtils {
         }
         return qname;
     }
+
+    /**
+     * Holds whether the XML documents read from streams are parsed in the streaming mode, read from the
+     * configuration when it is first needed.
+     */
+    private static class StreamingParsing {
+
+        private static final boolean ENABLED =
+                ConfigRegistry.getInstance().getAsBoolean(STREAMING_PARSING_CONFIG_PROP);
+
+    }
 }
@@ -17,9 +17,11 @@
  */
 package org.ballerinalang.model.values;
 
+import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.model.types.BArrayType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeTags;
 
 import java.util.Arrays;
 
@@ -72,4 +74,13 @@ public class BBlobArray extends BNewArray {
     public BValue getBValue(long index) {
         return new BBlob(get(index));
     }
+
+    @Override
+    protected void copyElementToRegister(int index, int typeTag, int reg, WorkerData data) {
+        if (typeTag == TypeTags.BLOB_TAG) {
+            data.byteRegs[reg] = values[index];
+        } else {
+            super.copyElementToRegister(index, typeTag, reg, data);
+        }
+    }
 }
@@ -17,9 +17,11 @@
 */
 package org.ballerinalang.model.values;
 
+import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.model.types.BArrayType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeTags;
 
 import java.util.Arrays;
 import java.util.StringJoiner;
@@ -82,4 +84,13 @@ public class BBooleanArray extends BNewArray {
     public BValue getBValue(long index) {
         return new BBoolean(get(index) == 1);
     }
+
+    @Override
+    protected void copyElementToRegister(int index, int typeTag, int reg, WorkerData data) {
+        if (typeTag == TypeTags.BOOLEAN_TAG) {
+            data.intRegs[reg] = values[index];
+        } else {
+            super.copyElementToRegister(index, typeTag, reg, data);
+        }
+    }
 }
@@ -17,9 +17,11 @@
 */
 package org.ballerinalang.model.values;
 
+import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.model.types.BArrayType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeTags;
 
 import java.util.Arrays;
 import java.util.StringJoiner;
@@ -33,23 +35,47 @@ public class BFloatArray extends BNewArray {
 
     private double[] values;
 
+    /* the elements of a large array, which is null until the array grows beyond a single chunk */
+    private double[][] chunks;
+
     public BFloatArray(double[] values) {
         this.values = values;
         this.size = values.length;
     }
 
+    private BFloatArray(double[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
     public BFloatArray() {
         values = (double[]) newArrayInstance(Double.TYPE);
     }
 
     public void add(long index, double value) {
-        prepareForAdd(index, values.length);
-        values[(int) index] = value;
+        prepareForAdd(index, getCapacity());
+        int intIndex = (int) index;
+        if (chunks == null) {
+            values[intIndex] = value;
+        } else {
+            chunks[intIndex >>> CHUNK_SHIFT][intIndex & CHUNK_MASK] = value;
+        }
     }
 
     public double get(long index) {
         rangeCheckForGet(index, size);
-        return values[(int) index];
+        return getElement((int) index);
+    }
+
+    private double getElement(int index) {
+        if (chunks == null) {
+            return values[index];
+        }
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    private int getCapacity() {
+        return chunks == null ? values.length : (int) Math.min((long) chunks.length << CHUNK_SHIFT, MAX_ARRAY_SIZE);
     }
 
     @Override
@@ -59,21 +85,47 @@ public class BFloatArray extends BNewArray {
 
     @Override
     public void grow(int newLength) {
-        values = Arrays.copyOf(values, newLength);
+        if (chunks == null && newLength <= CHUNK_SIZE) {
+            values = Arrays.copyOf(values, newLength);
+            return;
+        }
+        int chunkCount = getChunkCount(newLength);
+        if (chunks == null) {
+            chunks = new double[chunkCount][];
+            for (int i = 0; i < chunkCount; i++) {
+                int from = i << CHUNK_SHIFT;
+                chunks[i] = from < values.length ? Arrays.copyOfRange(values, from, from + CHUNK_SIZE)
+                        : new double[CHUNK_SIZE];
+            }
+            values = null;
+            return;
+        }
+        int currentChunkCount = chunks.length;
+        chunks = Arrays.copyOf(chunks, chunkCount);
+        for (int i = currentChunkCount; i < chunkCount; i++) {
+            chunks[i] = new double[CHUNK_SIZE];
+        }
     }
 
     @Override
     public BValue copy() {
+        if (chunks != null) {
+            double[][] chunksCopy = new double[chunks.length][];
+            for (int i = 0; i < chunks.length; i++) {
+                chunksCopy[i] = chunks[i].clone();
+            }
+            return new BFloatArray(chunksCopy, size);
+        }
         BFloatArray floatArray = new BFloatArray(Arrays.copyOf(values, values.length));
         floatArray.size = size;
         return floatArray;
     }
-    
+
     @Override
     public String stringValue() {
         StringJoiner sj = new StringJoiner(", ", "[", "]");
         for (int i = 0; i < size; i++) {
-            sj.add(Double.toString(values[i]));
+            sj.add(Double.toString(getElement(i)));
         }
         return sj.toString();
     }
@@ -82,4 +134,13 @@ public class BFloatArray extends BNewArray {
     public BValue getBValue(long index) {
         return new BFloat(get(index));
     }
+
+    @Override
+    protected void copyElementToRegister(int index, int typeTag, int reg, WorkerData data) {
+        if (typeTag == TypeTags.FLOAT_TAG) {
+            data.doubleRegs[reg] = getElement(index);
+        } else {
+            super.copyElementToRegister(index, typeTag, reg, data);
+        }
+    }
 }
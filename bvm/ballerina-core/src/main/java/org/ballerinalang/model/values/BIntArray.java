@@ -17,9 +17,11 @@
 */
 package org.ballerinalang.model.values;
 
+import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.model.types.BArrayType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeTags;
 
 import java.util.Arrays;
 import java.util.StringJoiner;
@@ -33,23 +35,47 @@ public class BIntArray extends BNewArray {
 
     private long[] values;
 
+    /* the elements of a large array, which is null until the array grows beyond a single chunk */
+    private long[][] chunks;
+
     public BIntArray(long[] values) {
         this.values = values;
         this.size = values.length;
     }
-    
+
+    private BIntArray(long[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
     public BIntArray() {
         values = (long[]) newArrayInstance(Long.TYPE);
     }
 
     public void add(long index, long value) {
-        prepareForAdd(index, values.length);
-        values[(int) index] = value;
+        prepareForAdd(index, getCapacity());
+        int intIndex = (int) index;
+        if (chunks == null) {
+            values[intIndex] = value;
+        } else {
+            chunks[intIndex >>> CHUNK_SHIFT][intIndex & CHUNK_MASK] = value;
+        }
     }
 
     public long get(long index) {
         rangeCheckForGet(index, size);
-        return values[(int) index];
+        return getElement((int) index);
+    }
+
+    private long getElement(int index) {
+        if (chunks == null) {
+            return values[index];
+        }
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    private int getCapacity() {
+        return chunks == null ? values.length : (int) Math.min((long) chunks.length << CHUNK_SHIFT, MAX_ARRAY_SIZE);
     }
 
     @Override
@@ -59,11 +85,37 @@ public class BIntArray extends BNewArray {
 
     @Override
     public void grow(int newLength) {
-        values = Arrays.copyOf(values, newLength);
+        if (chunks == null && newLength <= CHUNK_SIZE) {
+            values = Arrays.copyOf(values, newLength);
+            return;
+        }
+        int chunkCount = getChunkCount(newLength);
+        if (chunks == null) {
+            chunks = new long[chunkCount][];
+            for (int i = 0; i < chunkCount; i++) {
+                int from = i << CHUNK_SHIFT;
+                chunks[i] = from < values.length ? Arrays.copyOfRange(values, from, from + CHUNK_SIZE)
+                        : new long[CHUNK_SIZE];
+            }
+            values = null;
+            return;
+        }
+        int currentChunkCount = chunks.length;
+        chunks = Arrays.copyOf(chunks, chunkCount);
+        for (int i = currentChunkCount; i < chunkCount; i++) {
+            chunks[i] = new long[CHUNK_SIZE];
+        }
     }
 
     @Override
     public BValue copy() {
+        if (chunks != null) {
+            long[][] chunksCopy = new long[chunks.length][];
+            for (int i = 0; i < chunks.length; i++) {
+                chunksCopy[i] = chunks[i].clone();
+            }
+            return new BIntArray(chunksCopy, size);
+        }
         BIntArray intArray = new BIntArray(Arrays.copyOf(values, values.length));
         intArray.size = this.size;
         return intArray;
@@ -73,7 +125,7 @@ public class BIntArray extends BNewArray {
     public String stringValue() {
         StringJoiner sj = new StringJoiner(", ", "[", "]");
         for (int i = 0; i < size; i++) {
-            sj.add(Long.toString(values[i]));
+            sj.add(Long.toString(getElement(i)));
         }
         return sj.toString();
     }
@@ -82,4 +134,13 @@ public class BIntArray extends BNewArray {
     public BValue getBValue(long index) {
         return new BInteger(get(index));
     }
+
+    @Override
+    protected void copyElementToRegister(int index, int typeTag, int reg, WorkerData data) {
+        if (typeTag == TypeTags.INT_TAG) {
+            data.longRegs[reg] = getElement(index);
+        } else {
+            super.copyElementToRegister(index, typeTag, reg, data);
+        }
+    }
 }
@@ -17,6 +17,7 @@
  */
 package org.ballerinalang.model.values;
 
+import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
 
@@ -42,6 +43,21 @@ public interface BIterator extends BRefType {
      */
     boolean hasNext();
 
+    /**
+     * Moves to the next element and writes it for given argument arity directly to the given registers of a
+     * worker, without creating intermediate values for primitive elements. Iterators not supporting this
+     * return false without moving, and their elements are read using {@link #getNext(int)} instead.
+     *
+     * @param arity    Number of arguments
+     * @param typeTags type tags of the target registers
+     * @param regs     indexes of the target registers
+     * @param data     worker data holding the target registers
+     * @return true, if the next element was written to the registers, false otherwise
+     */
+    default boolean getNext(int arity, int[] typeTags, int[] regs, WorkerData data) {
+        return false;
+    }
+
     /* Default implementation */
 
     @Override
@@ -17,6 +17,7 @@
 */
 package org.ballerinalang.model.values;
 
+import io.netty.buffer.ByteBuf;
 import org.ballerinalang.model.types.BArrayType;
 import org.ballerinalang.model.types.BField;
 import org.ballerinalang.model.types.BJSONType;
@@ -24,6 +25,7 @@ import org.ballerinalang.model.types.BStructureType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
 import org.ballerinalang.model.types.TypeTags;
+import org.ballerinalang.model.util.ByteBufJsonGenerator;
 import org.ballerinalang.model.util.JsonGenerator;
 import org.ballerinalang.model.util.JsonNode;
 import org.ballerinalang.model.util.JsonNode.Type;
@@ -177,6 +179,24 @@ public final class BJSON extends BallerinaMessageDataSource implements BRefType<
         }
     }
 
+    @Override
+    public boolean serializeData(ByteBuf buffer) {
+        if (!UTF8_DEFAULT_CHARSET) {
+            return false;
+        }
+        try {
+            JsonGenerator gen = new ByteBufJsonGenerator(buffer);
+            if (this.value != null) {
+                this.value.serialize(gen);
+            } else {
+                this.datasource.serialize(gen);
+            }
+        } catch (Throwable t) {
+            handleJsonException("error occurred during writing the message to the buffer: ", t);
+        }
+        return true;
+    }
+
     /**
      * Get value associated with this {@link BJSON} object.
      *
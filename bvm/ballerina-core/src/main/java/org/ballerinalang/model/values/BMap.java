@@ -17,6 +17,8 @@
  */
 package org.ballerinalang.model.values;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import org.ballerinalang.model.types.BMapType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
@@ -26,17 +28,29 @@ import org.ballerinalang.util.exceptions.BallerinaException;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * {@code MapType} represents a map.
+ * <p>
+ * A map starts out confined to the thread that created it, and is backed by a plain {@link LinkedHashMap}.
+ * The owner thread claims the map with an uncontended compare-and-set for the duration of each operation,
+ * instead of taking a lock. When the map is published to other workers (e.g. stored in a global variable,
+ * sent to a worker or passed to an asynchronously invoked callable), or is accessed by any other thread, it
+ * is switched once to a {@link ConcurrentHashMap} based representation, which preserves the insertion order
+ * of the entries. The switch waits for the operation the owner may be running to complete, and the owner
+ * uses the concurrent representation from then on, so no operation is ever lost.
+ *
  * @param <K> Key
  * @param <V> Value
  * @since 0.8.0
@@ -44,18 +58,30 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 @SuppressWarnings("rawtypes")
 public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implements BRefType, BCollection {
 
+    private static final int CONFINED = 0;
+    private static final int CONFINED_IN_USE = 1;
+    private static final int SHARING = 2;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<BMap> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(BMap.class, "state");
+
+    /* only accessed by the owner while it holds the map in the confined-in-use state, or while sharing */
     private LinkedHashMap<K, V> map;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-    private final Lock readLock = lock.readLock();
-    private final Lock writeLock = lock.writeLock();
+    /* the thread the map is confined to, which is null once the map is shared */
+    private volatile Thread owner;
+    private volatile int state = CONFINED;
+    private volatile SharedStore<K, V> sharedStore;
     private BType type = BTypes.typeMap;
 
     public BMap() {
         map =  new LinkedHashMap<>();
+        owner = Thread.currentThread();
     }
 
     public BMap(BMapType type) {
         this.map = new LinkedHashMap<>();
+        this.owner = Thread.currentThread();
         this.type = type;
     }
 
@@ -67,15 +93,7 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
      * @return value
      */
     public V get(K key) {
-        readLock.lock();
-        try {
-            if (!map.containsKey(key)) {
-                throw new BallerinaException("cannot find key '" + key + "'");
-            }
-            return map.get(key);
-        } finally {
-            readLock.unlock();
-        }
+        return get(key, true);
     }
 
     /**
@@ -86,15 +104,28 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
      * @return value
      */
     public V get(K key, boolean except) {
-        readLock.lock();
-        try {
-            if (!map.containsKey(key) && except) {
+        if (acquireConfined()) {
+            V value;
+            boolean hasKey;
+            try {
+                value = map.get(key);
+                hasKey = value != null || !except || map.containsKey(key);
+            } finally {
+                releaseConfined();
+            }
+            if (!hasKey) {
+                throw new BallerinaException("cannot find key '" + key + "'");
+            }
+            return value;
+        }
+        SharedEntry<V> entry = getSharedStore().entries.get(key);
+        if (entry == null) {
+            if (except) {
                 throw new BallerinaException("cannot find key '" + key + "'");
             }
-            return map.get(key);
-        } finally {
-            readLock.unlock();
+            return null;
         }
+        return entry.value;
     }
 
     /**
@@ -103,24 +134,33 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
      * @param value value related to the key
      */
     public void put(K key, V value) {
-        writeLock.lock();
-        try {
-            map.put(key, value);
-        } finally {
-            writeLock.unlock();
+        if (acquireConfined()) {
+            try {
+                map.put(key, value);
+            } finally {
+                releaseConfined();
+            }
+            return;
         }
+        if (value instanceof BMap) {
+            ((BMap) value).share();
+        }
+        getSharedStore().put(key, value);
     }
 
     /**
      * Clear map entries.
      */
     public void clear() {
-        writeLock.lock();
-        try {
-            map.clear();
-        } finally {
-            writeLock.unlock();
+        if (acquireConfined()) {
+            try {
+                map.clear();
+            } finally {
+                releaseConfined();
+            }
+            return;
         }
+        getSharedStore().clear();
     }
 
     /**
@@ -130,20 +170,29 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
      * @return returns boolean true if key exists
      */
     public boolean hasKey(K key) {
-        readLock.lock();
-        try {
-            return map.containsKey(key);
-        } finally {
-            readLock.unlock();
+        if (acquireConfined()) {
+            try {
+                return map.containsKey(key);
+            } finally {
+                releaseConfined();
+            }
         }
+        return getSharedStore().entries.containsKey(key);
     }
 
     /**
-     * Retrieve the internal map.
+     * Retrieve a copy of the entries of the map, in their insertion order. Changes to the copy do not affect the map.
      * @return map
      */
     public LinkedHashMap<K, V> getMap() {
-        return map;
+        if (acquireConfined()) {
+            try {
+                return new LinkedHashMap<>(map);
+            } finally {
+                releaseConfined();
+            }
+        }
+        return new LinkedHashMap<>(getSharedStore().snapshot());
     }
 
     /**
@@ -151,12 +200,14 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
      * @return returns the size of the map
      */
     public int size() {
-        readLock.lock();
-        try {
-            return map.size();
-        } finally {
-            readLock.unlock();
+        if (acquireConfined()) {
+            try {
+                return map.size();
+            } finally {
+                releaseConfined();
+            }
         }
+        return getSharedStore().entries.size();
     }
 
     /**
@@ -166,29 +217,26 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
      * @return boolean to indicate whether given key is removed.
      */
     public boolean remove(K key) {
-        writeLock.lock();
-        try {
-            boolean hasKey = map.containsKey(key);
-            if (hasKey) {
-                map.remove(key);
+        if (acquireConfined()) {
+            try {
+                boolean hasKey = map.containsKey(key);
+                if (hasKey) {
+                    map.remove(key);
+                }
+                return hasKey;
+            } finally {
+                releaseConfined();
             }
-            return hasKey;
-        } finally {
-            writeLock.unlock();
         }
+        return getSharedStore().remove(key);
     }
 
     /**
-     * Retrieve the set of keys related to this map.
+     * Retrieve a copy of the set of keys related to this map.
      * @return returns the set of keys
      */
     public Set<K> keySet() {
-        readLock.lock();
-        try {
-            return map.keySet();
-        } finally {
-            readLock.unlock();
-        }
+        return getMap().keySet();
     }
 
     /**Return true if this map is empty.
@@ -196,12 +244,90 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
      * @return Flag indicating whether the map is empty or not
      */
     public boolean isEmpty() {
-        readLock.lock();
-        try {
-            return map.size() == 0;
-        } finally {
-            readLock.unlock();
+        return size() == 0;
+    }
+
+    /**
+     * Marks this map, and the maps stored in it, as shared between threads. After this, the map is
+     * always accessed through its concurrent representation. This is called by the runtime before
+     * publishing the map to other threads, and by any thread other than the owner accessing the map,
+     * in which case it waits for the operation the owner may be running to complete.
+     */
+    @SuppressWarnings("unchecked")
+    public void share() {
+        if (sharedStore != null) {
+            return;
+        }
+        SharedStore<K, V> store;
+        synchronized (this) {
+            if (sharedStore != null) {
+                return;
+            }
+            /* take the map over from the owner, which fails to claim it from now on */
+            while (!STATE.compareAndSet(this, CONFINED, SHARING)) {
+                Thread.yield();
+            }
+            store = new SharedStore<>(map);
+            sharedStore = store;
+            owner = null;
+            map = null;
         }
+        for (SharedEntry<V> entry : store.entries.values()) {
+            if (entry.value instanceof BMap) {
+                ((BMap) entry.value).share();
+            }
+        }
+    }
+
+    /**
+     * Returns whether this map is still confined to a single thread.
+     *
+     * @return true if the map has not been shared between threads
+     */
+    public boolean isThreadConfined() {
+        return sharedStore == null;
+    }
+
+    /**
+     * Claims the confined representation of the map for an operation of the owner thread. The claim must be
+     * released with {@link #releaseConfined()} once the operation completes.
+     *
+     * @return true if the map is confined to the current thread, false if the shared representation is used
+     */
+    private boolean acquireConfined() {
+        return owner == Thread.currentThread() && STATE.compareAndSet(this, CONFINED, CONFINED_IN_USE);
+    }
+
+    private void releaseConfined() {
+        /* publishes the changes of the owner to a thread sharing the map after this */
+        state = CONFINED;
+    }
+
+    private SharedStore<K, V> getSharedStore() {
+        SharedStore<K, V> store = sharedStore;
+        if (store == null) {
+            /* accessed by a thread other than the owner, or by the owner while another thread shares the map */
+            share();
+            store = sharedStore;
+        }
+        return store;
+    }
+
+    /**
+     * Returns the entries of the map to be read without holding a claim on it: a copy of the confined map, or the
+     * snapshot of the shared map. Neither of them may be modified.
+     *
+     * @return the entries of the map in their insertion order
+     */
+    private Map<K, V> readEntries() {
+        if (acquireConfined()) {
+            try {
+                return new LinkedHashMap<>(map);
+            } finally {
+                releaseConfined();
+            }
+        }
+        return getSharedStore().snapshot();
     }
 
     @Override
@@ -211,34 +337,28 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
 
     @Override
     public String stringValue() {
-        readLock.lock();
-        try {
-            StringJoiner sj = new StringJoiner(", ", "{", "}");
-    
-            for (Iterator<Map.Entry<K, V>> i = map.entrySet().iterator(); i.hasNext();) {
-    
-                String key;
-                String stringValue;
-    
-                Map.Entry<K, V> e = i.next();
-                key = "\"" + (String) e.getKey() + "\"";
-                V value = e.getValue();
-    
-                if (value == null) {
-                    stringValue = null;
-                } else if (value instanceof BString) {
-                    stringValue = "\"" + value.stringValue() + "\"";
-                } else {
-                    stringValue = value.stringValue();
-                }
-    
-                sj.add(key + ":" + stringValue);
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+
+        for (Iterator<Map.Entry<K, V>> i = readEntries().entrySet().iterator(); i.hasNext();) {
+
+            String key;
+            String stringValue;
+
+            Map.Entry<K, V> e = i.next();
+            key = "\"" + (String) e.getKey() + "\"";
+            V value = e.getValue();
+
+            if (value == null) {
+                stringValue = null;
+            } else if (value instanceof BString) {
+                stringValue = "\"" + value.stringValue() + "\"";
+            } else {
+                stringValue = value.stringValue();
             }
-            return sj.toString();
-        } finally {
-            readLock.unlock();
-        }
 
+            sj.add(key + ":" + stringValue);
+        }
+        return sj.toString();
     }
 
     @Override
@@ -248,17 +368,12 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
 
     @Override
     public BValue copy() {
-        readLock.lock();
-        try {
-            BMap<K, BValue> newMap = BTypes.typeMap.getEmptyValue();
-            for (Map.Entry<K, V> entry: map.entrySet()) {
-                BValue value = entry.getValue();
-                newMap.put(entry.getKey(), value == null ? null : value.copy());
-            }
-            return newMap;
-        } finally {
-            readLock.unlock();
+        BMap<K, BValue> newMap = BTypes.typeMap.getEmptyValue();
+        for (Map.Entry<K, V> entry: readEntries().entrySet()) {
+            BValue value = entry.getValue();
+            newMap.put(entry.getKey(), value == null ? null : value.copy());
         }
+        return newMap;
     }
 
     @Override
@@ -275,6 +390,56 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
         }
     }
 
+    @Override
+    public boolean serializeData(ByteBuf buffer) {
+        if (!UTF8_DEFAULT_CHARSET) {
+            return false;
+        }
+        writeStringValue(buffer);
+        return true;
+    }
+
+    /**
+     * Writes the string value of this map to the given buffer in UTF-8, without creating the string values of
+     * the nested maps and structs.
+     *
+     * @param buffer the buffer to write to
+     */
+    void writeStringValue(ByteBuf buffer) {
+        buffer.writeByte('{');
+        boolean first = true;
+        for (Map.Entry<K, V> e : readEntries().entrySet()) {
+            if (!first) {
+                buffer.writeByte(',');
+                buffer.writeByte(' ');
+            }
+            first = false;
+            buffer.writeByte('"');
+            ByteBufUtil.writeUtf8(buffer, String.valueOf(e.getKey()));
+            buffer.writeByte('"');
+            buffer.writeByte(':');
+            V value = e.getValue();
+            if (value instanceof BString) {
+                buffer.writeByte('"');
+                ByteBufUtil.writeUtf8(buffer, value.stringValue());
+                buffer.writeByte('"');
+            } else {
+                writeStringValue(buffer, value);
+            }
+        }
+        buffer.writeByte('}');
+    }
+
+    static void writeStringValue(ByteBuf buffer, BValue value) {
+        if (value instanceof BMap) {
+            ((BMap) value).writeStringValue(buffer);
+        } else if (value instanceof BStruct) {
+            ((BStruct) value).writeStringValue(buffer);
+        } else {
+            ByteBufUtil.writeUtf8(buffer, value == null ? "null" : value.stringValue());
+        }
+    }
+
     @Override
     public BIterator newIterator() {
         return new BMapIterator<>(this);
@@ -292,7 +457,7 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
 
         BMapIterator(BMap<K, V> value) {
             collection = value;
-            iterator = new LinkedHashMap<>(value.map).entrySet().iterator();
+            iterator = value.readEntries().entrySet().iterator();
         }
 
         @Override
@@ -309,5 +474,99 @@ public class BMap<K, V extends BValue> extends BallerinaMessageDataSource implem
             return iterator.hasNext();
         }
     }
-}
 
+    /**
+     * {@code SharedStore} is the representation of a map shared between threads. The entries are kept in
+     * a {@link ConcurrentHashMap}, and each entry records its insertion order, which is used to order the
+     * entries when the map is iterated. The ordered snapshot is kept until the map changes, so that reading
+     * a map which is rarely changed does not sort its entries each time.
+     */
+    private static class SharedStore<K, V extends BValue> {
+
+        private final ConcurrentHashMap<K, SharedEntry<V>> entries;
+
+        private final AtomicLong nextOrder = new AtomicLong();
+
+        /* incremented after each change of the entries, which invalidates the snapshot taken before it */
+        private final AtomicLong version = new AtomicLong();
+
+        private volatile Snapshot<K, V> snapshot;
+
+        SharedStore(LinkedHashMap<K, V> map) {
+            this.entries = new ConcurrentHashMap<>(Math.max(16, map.size() * 2));
+            for (Map.Entry<K, V> entry : map.entrySet()) {
+                this.entries.put(entry.getKey(), new SharedEntry<>(this.nextOrder.getAndIncrement(),
+                        entry.getValue()));
+            }
+        }
+
+        void put(K key, V value) {
+            /* an existing key keeps its position, as with a LinkedHashMap */
+            this.entries.compute(key, (k, entry) -> new SharedEntry<>(
+                    entry == null ? this.nextOrder.getAndIncrement() : entry.order, value));
+            this.version.incrementAndGet();
+        }
+
+        boolean remove(K key) {
+            boolean removed = this.entries.remove(key) != null;
+            if (removed) {
+                this.version.incrementAndGet();
+            }
+            return removed;
+        }
+
+        void clear() {
+            this.entries.clear();
+            this.version.incrementAndGet();
+        }
+
+        /* the returned map is shared by the readers until the next change, so it must not be modified */
+        Map<K, V> snapshot() {
+            /* a change made while the snapshot is taken is missed by it, but invalidates it */
+            long current = this.version.get();
+            Snapshot<K, V> cached = this.snapshot;
+            if (cached != null && cached.version == current) {
+                return cached.entries;
+            }
+            List<Map.Entry<K, SharedEntry<V>>> sorted = new ArrayList<>(this.entries.entrySet());
+            sorted.sort(Comparator.comparingLong(e -> e.getValue().order));
+            LinkedHashMap<K, V> result = new LinkedHashMap<>();
+            for (Map.Entry<K, SharedEntry<V>> entry : sorted) {
+                result.put(entry.getKey(), entry.getValue().value);
+            }
+            this.snapshot = new Snapshot<>(current, result);
+            return result;
+        }
+    }
+
+    /**
+     * {@code Snapshot} holds the ordered entries of a shared map, together with the version of the map they
+     * were taken at.
+     */
+    private static class Snapshot<K, V> {
+
+        private final long version;
+
+        private final Map<K, V> entries;
+
+        Snapshot(long version, Map<K, V> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+
+    /**
+     * {@code SharedEntry} holds a value of a shared map together with its insertion order.
+     */
+    private static class SharedEntry<V> {
+
+        private final long order;
+
+        private final V value;
+
+        SharedEntry(long order, V value) {
+            this.order = order;
+            this.value = value;
+        }
+    }
+}
@@ -17,7 +17,9 @@
 */
 package org.ballerinalang.model.values;
 
+import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.model.types.BType;
+import org.ballerinalang.model.types.TypeTags;
 import org.ballerinalang.util.exceptions.BLangExceptionHelper;
 import org.ballerinalang.util.exceptions.RuntimeErrors;
 
@@ -39,6 +41,14 @@ public abstract class BNewArray implements BRefType, BCollection {
     protected static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
     protected static final int DEFAULT_ARRAY_SIZE = 100;
 
+    /**
+     * Arrays supporting chunked storage switch to it once they grow beyond a single chunk, so growing
+     * them further allocates new chunks instead of copying all the elements.
+     */
+    protected static final int CHUNK_SHIFT = 13;
+    protected static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    protected static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
     protected int size = 0;
 
     public abstract void grow(int newLength);
@@ -118,6 +128,23 @@ public abstract class BNewArray implements BRefType, BCollection {
 
     public abstract BValue getBValue(long index);
 
+    /**
+     * Writes an element of this array to a register of a worker. Arrays of primitive values write their
+     * elements to the primitive registers directly, instead of creating a value for each element.
+     *
+     * @param index   index of the element, which is known to be in range
+     * @param typeTag type tag of the target register
+     * @param reg     index of the target register
+     * @param data    worker data holding the target register
+     */
+    protected void copyElementToRegister(int index, int typeTag, int reg, WorkerData data) {
+        data.refRegs[reg] = (BRefType) getBValue(index);
+    }
+
+    protected static int getChunkCount(int length) {
+        return (length + CHUNK_MASK) >>> CHUNK_SHIFT;
+    }
+
     @Override
     public BIterator newIterator() {
         return new BArrayIterator(this);
@@ -147,6 +174,22 @@ public abstract class BNewArray implements BRefType, BCollection {
             return new BValue[] {new BInteger(cursor), array.getBValue(cursor)};
         }
 
+        @Override
+        public boolean getNext(int arity, int[] typeTags, int[] regs, WorkerData data) {
+            int cursor = (int) this.cursor++;
+            if (arity == 1) {
+                array.copyElementToRegister(cursor, typeTags[0], regs[0], data);
+                return true;
+            }
+            if (typeTags[0] == TypeTags.INT_TAG) {
+                data.longRegs[regs[0]] = cursor;
+            } else {
+                data.refRegs[regs[0]] = new BInteger(cursor);
+            }
+            array.copyElementToRegister(cursor, typeTags[1], regs[1], data);
+            return true;
+        }
+
         @Override
         public boolean hasNext() {
             return cursor < length;
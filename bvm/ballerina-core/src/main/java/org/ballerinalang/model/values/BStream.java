@@ -18,26 +18,21 @@
 
 package org.ballerinalang.model.values;
 
-import io.ballerina.messaging.broker.core.BrokerException;
-import io.ballerina.messaging.broker.core.Consumer;
-import io.ballerina.messaging.broker.core.Message;
-import org.ballerinalang.broker.BallerinaBrokerByteBuf;
-import org.ballerinalang.broker.BrokerUtils;
 import org.ballerinalang.model.types.BAnyType;
 import org.ballerinalang.model.types.BField;
-import org.ballerinalang.model.types.BIndexedType;
 import org.ballerinalang.model.types.BStreamType;
 import org.ballerinalang.model.types.BStructureType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
 import org.ballerinalang.model.types.BUnionType;
 import org.ballerinalang.model.types.TypeTags;
+import org.ballerinalang.runtime.stream.StreamSubscriber;
+import org.ballerinalang.runtime.stream.StreamTransport;
+import org.ballerinalang.siddhi.core.event.Event;
 import org.ballerinalang.siddhi.core.stream.input.InputHandler;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.ballerinalang.util.program.BLangFunctions;
 
-import java.util.UUID;
-
 /**
  * The {@code BStream} represents a stream in Ballerina.
  *
@@ -45,31 +40,22 @@ import java.util.UUID;
  */
 public class BStream implements BRefType<Object> {
 
-    private static final String TOPIC_NAME_PREFIX = "TOPIC_NAME_";
-
     private BType constraintType;
 
     private String streamId = "";
 
     /**
-     * The name of the underlying broker topic representing the stream object.
+     * The in-process transport delivering the events of the stream to its subscribers.
      */
-    private String topicName;
+    private StreamTransport transport;
 
     public BStream(BType type, String name) {
         if (((BStreamType) type).getConstrainedType() == null) {
             throw new BallerinaException("a stream cannot be declared without a constraint");
         }
         this.constraintType = ((BStreamType) type).getConstrainedType();
-        if (constraintType.getName() != null) {
-            this.topicName = TOPIC_NAME_PREFIX + constraintType.getName().toUpperCase() + "_" + name;
-        } else if (constraintType instanceof BIndexedType) {
-            this.topicName = TOPIC_NAME_PREFIX + ((BIndexedType) constraintType).getElementType() + "_" + name;
-        } else {
-            this.topicName = TOPIC_NAME_PREFIX + name; //TODO: check for improvement
-        }
-        topicName = topicName.concat("_").concat(UUID.randomUUID().toString());
         this.streamId = name;
+        this.transport = new StreamTransport(name);
     }
 
     public String getStreamId() {
@@ -101,7 +87,7 @@ public class BStream implements BRefType<Object> {
     }
 
     /**
-     * Method to publish to a topic representing the stream in the broker.
+     * Method to publish to the subscribers of the stream.
      *
      * @param data the data to publish to the stream
      */
@@ -114,11 +100,11 @@ public class BStream implements BRefType<Object> {
             throw new BallerinaException("incompatible types: value of type:" + dataType.getName()
                     + " cannot be added to a stream of type:" + this.constraintType.getName());
         }
-        BrokerUtils.publish(topicName, new BallerinaBrokerByteBuf(data));
+        transport.publish(data);
     }
 
     /**
-     * Method to register a subscription to the underlying topic representing the stream in the broker.
+     * Method to register a subscription to the stream.
      *
      * @param functionPointer represents the function pointer reference for the function to be invoked on receiving
      *                        messages
@@ -131,8 +117,7 @@ public class BStream implements BRefType<Object> {
             throw new BallerinaException("incompatible function: subscription function needs to be a function accepting"
                                                  + ":" + this.constraintType.getName());
         }
-        String queueName = String.valueOf(System.currentTimeMillis()) + UUID.randomUUID().toString();
-        BrokerUtils.addSubscription(topicName, new StreamSubscriber(queueName, functionPointer));
+        transport.addSubscriber(new FunctionPointerSubscriber(functionPointer));
     }
 
     public void subscribe(InputHandler inputHandler) {
@@ -140,69 +125,44 @@ public class BStream implements BRefType<Object> {
                 && constraintType.getTag() != TypeTags.RECORD_TYPE_TAG) {
             throw new BallerinaException("Streaming Support is only available with streams accepting objects");
         }
-        String queueName = String.valueOf(UUID.randomUUID());
-        BrokerUtils.addSubscription(topicName, new InternalStreamSubscriber(topicName, queueName, inputHandler));
+        transport.addSubscriber(new InternalStreamSubscriber(inputHandler));
     }
 
-    private class StreamSubscriber extends Consumer {
-        final String queueName;
+    private class FunctionPointerSubscriber implements StreamSubscriber {
         final BFunctionPointer functionPointer;
 
-        StreamSubscriber(String queueName, BFunctionPointer functionPointer) {
-            this.queueName = queueName;
+        FunctionPointerSubscriber(BFunctionPointer functionPointer) {
             this.functionPointer = functionPointer;
         }
 
         @Override
-        protected void send(Message message) throws BrokerException {
-            BValue data =
-                    ((BallerinaBrokerByteBuf) (message.getContentChunks().get(0).getByteBuf()).unwrap()).getValue();
-            BLangFunctions.invokeCallable(functionPointer.value().getFunctionInfo(), new BValue[] { data });
-        }
-
-        @Override
-        public String getQueueName() {
-            return queueName;
-        }
-
-        @Override
-        protected void close() throws BrokerException {
-
-        }
-
-        @Override
-        public boolean isExclusive() {
-            return false;
-        }
-
-        @Override
-        public boolean isReady() {
-            return true;
+        public void deliver(BValue[] events, int count) {
+            for (int i = 0; i < count; i++) {
+                BLangFunctions.invokeCallable(functionPointer.value().getFunctionInfo(), new BValue[] { events[i] });
+            }
         }
     }
 
     //Class which handles the subscription internally
-    private class InternalStreamSubscriber extends Consumer {
-        private final String topic;
-        private final String queueName;
+    private class InternalStreamSubscriber implements StreamSubscriber {
         private final InputHandler inputHandler;
 
-        InternalStreamSubscriber(String topic, String queueName, InputHandler inputHandler) {
-            this.topic = topic;
-            this.queueName = queueName;
+        InternalStreamSubscriber(InputHandler inputHandler) {
             this.inputHandler = inputHandler;
         }
 
         @Override
-        protected void send(Message message) throws BrokerException {
-            BValue data =
-                    ((BallerinaBrokerByteBuf) (message.getContentChunks().get(0).getByteBuf()).unwrap()).getValue();
-            Object[] event = createEvent((BStruct) data);
+        public void deliver(BValue[] events, int count) {
+            long timestamp = System.currentTimeMillis();
+            Event[] siddhiEvents = new Event[count];
+            for (int i = 0; i < count; i++) {
+                siddhiEvents[i] = new Event(timestamp, createEvent((BStruct) events[i]));
+            }
             try {
-                inputHandler.send(event);
+                inputHandler.send(siddhiEvents);
             } catch (InterruptedException e) {
-                throw new BallerinaException("Error while sending events to stream: " + topic + ": " + e.getMessage()
-                        , e);
+                throw new BallerinaException("Error while sending events to stream: " + streamId + ": "
+                        + e.getMessage(), e);
             }
         }
 
@@ -236,25 +196,5 @@ public class BStream implements BRefType<Object> {
             }
             return event;
         }
-
-        @Override
-        public String getQueueName() {
-            return queueName;
-        }
-
-        @Override
-        protected void close() throws BrokerException {
-
-        }
-
-        @Override
-        public boolean isExclusive() {
-            return false;
-        }
-
-        @Override
-        public boolean isReady() {
-            return true;
-        }
     }
 }
@@ -17,9 +17,11 @@
 */
 package org.ballerinalang.model.values;
 
+import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.model.types.BArrayType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeTags;
 import org.ballerinalang.util.BLangConstants;
 
 import java.util.Arrays;
@@ -34,29 +36,60 @@ public class BStringArray extends BNewArray {
 
     private String[] values;
 
+    /* the elements of a large array, which is null until the array grows beyond a single chunk */
+    private String[][] chunks;
+
     public BStringArray(String[] values) {
         this.values = values;
         this.size = values.length;
     }
 
+    private BStringArray(String[][] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
     public BStringArray() {
         values = (String[]) newArrayInstance(String.class);
         Arrays.fill(values, BLangConstants.STRING_EMPTY_VALUE);
     }
 
     public void add(long index, String value) {
-        prepareForAdd(index, values.length);
-        values[(int) index] = value;
+        prepareForAdd(index, getCapacity());
+        int intIndex = (int) index;
+        if (chunks == null) {
+            values[intIndex] = value;
+        } else {
+            chunks[intIndex >>> CHUNK_SHIFT][intIndex & CHUNK_MASK] = value;
+        }
     }
 
     public String get(long index) {
         rangeCheckForGet(index, size);
-        return values[(int) index];
+        return getElement((int) index);
+    }
+
+    private String getElement(int index) {
+        if (chunks == null) {
+            return values[index];
+        }
+        return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    private int getCapacity() {
+        return chunks == null ? values.length : (int) Math.min((long) chunks.length << CHUNK_SHIFT, MAX_ARRAY_SIZE);
     }
 
     @SuppressWarnings("unchecked")
     public String[] getStringArray() {
-        return values;
+        if (chunks == null) {
+            return values;
+        }
+        String[] result = new String[size];
+        for (int i = 0; i < size; i += CHUNK_SIZE) {
+            System.arraycopy(chunks[i >>> CHUNK_SHIFT], 0, result, i, Math.min(CHUNK_SIZE, size - i));
+        }
+        return result;
     }
 
     @Override
@@ -66,11 +99,37 @@ public class BStringArray extends BNewArray {
 
     @Override
     public void grow(int newLength) {
-        values = Arrays.copyOf(values, newLength);
+        if (chunks == null && newLength <= CHUNK_SIZE) {
+            values = Arrays.copyOf(values, newLength);
+            return;
+        }
+        int chunkCount = getChunkCount(newLength);
+        if (chunks == null) {
+            chunks = new String[chunkCount][];
+            for (int i = 0; i < chunkCount; i++) {
+                int from = i << CHUNK_SHIFT;
+                chunks[i] = from < values.length ? Arrays.copyOfRange(values, from, from + CHUNK_SIZE)
+                        : new String[CHUNK_SIZE];
+            }
+            values = null;
+            return;
+        }
+        int currentChunkCount = chunks.length;
+        chunks = Arrays.copyOf(chunks, chunkCount);
+        for (int i = currentChunkCount; i < chunkCount; i++) {
+            chunks[i] = new String[CHUNK_SIZE];
+        }
     }
 
     @Override
     public BValue copy() {
+        if (chunks != null) {
+            String[][] chunksCopy = new String[chunks.length][];
+            for (int i = 0; i < chunks.length; i++) {
+                chunksCopy[i] = chunks[i].clone();
+            }
+            return new BStringArray(chunksCopy, size);
+        }
         BStringArray stringArray = new BStringArray(Arrays.copyOf(values, values.length));
         stringArray.size = this.size;
         return stringArray;
@@ -80,7 +139,7 @@ public class BStringArray extends BNewArray {
     public String stringValue() {
         StringJoiner sj = new StringJoiner(", ", "[", "]");
         for (int i = 0; i < size; i++) {
-            sj.add("\"" + values[i] + "\"");
+            sj.add("\"" + getElement(i) + "\"");
         }
         return sj.toString();
     }
@@ -89,4 +148,13 @@ public class BStringArray extends BNewArray {
     public BValue getBValue(long index) {
         return new BString(get(index));
     }
+
+    @Override
+    protected void copyElementToRegister(int index, int typeTag, int reg, WorkerData data) {
+        if (typeTag == TypeTags.STRING_TAG) {
+            data.stringRegs[reg] = getElement(index);
+        } else {
+            super.copyElementToRegister(index, typeTag, reg, data);
+        }
+    }
 }
@@ -16,19 +16,22 @@
 
 package org.ballerinalang.model.values;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import org.ballerinalang.bre.bvm.VarLock;
 import org.ballerinalang.bre.bvm.WorkerExecutionContext;
 import org.ballerinalang.model.types.BField;
 import org.ballerinalang.model.types.BStructureType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.StructShape;
 import org.ballerinalang.model.util.Flags;
-import org.ballerinalang.util.BLangConstants;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * The {@code BStruct} represents the value of a user defined struct in Ballerina.
@@ -37,21 +40,21 @@ import java.util.StringJoiner;
  */
 
 public final class BStruct implements BRefType, LockableStructureType {
-    private HashMap<String, Object> nativeData = new HashMap<>();
-
-    private long[] longFields;
-    private VarLock[] longLocks;
-    private double[] doubleFields;
-    private VarLock[] doubleLocks;
-    private String[] stringFields;
-    private VarLock[] stringLocks;
-    private int[] intFields;
-    private VarLock[] intLocks;
-    private byte[][] byteFields;
-    private VarLock[] byteLocks;
-    private BRefType[] refFields;
-    private VarLock[] refLocks;
+    private HashMap<String, Object> nativeData;
 
+    /* the int, float and boolean fields, laid out as described by the shape */
+    private final long[] primitiveFields;
+    /* the string, blob and reference fields, laid out as described by the shape */
+    private final Object[] objectFields;
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<BStruct, AtomicReferenceArray> FIELD_LOCKS =
+            AtomicReferenceFieldUpdater.newUpdater(BStruct.class, AtomicReferenceArray.class, "fieldLocks");
+
+    /* the locks of the fields, indexed by the primitive field slots followed by the object field slots,
+     * which are created when a field is first locked */
+    private volatile AtomicReferenceArray<VarLock> fieldLocks;
+
+    private final StructShape shape;
     private BStructureType structType;
 
     /**
@@ -61,17 +64,16 @@ public final class BStruct implements BRefType, LockableStructureType {
      */
     public BStruct(BStructureType structType) {
         this.structType = structType;
+        this.shape = structType.getShape();
+        this.primitiveFields = shape.newPrimitiveFields();
+        this.objectFields = shape.newObjectFields();
+    }
 
-        int[] fieldCount = this.structType.getFieldTypeCount();
-        longFields = new long[fieldCount[0]];
-        doubleFields = new double[fieldCount[1]];
-        stringFields = new String[fieldCount[2]];
-        intFields = new int[fieldCount[3]];
-        byteFields = new byte[fieldCount[4]][];
-        refFields = new BRefType[fieldCount[5]];
-
-        Arrays.fill(stringFields, BLangConstants.STRING_EMPTY_VALUE);
-        Arrays.fill(byteFields, BLangConstants.BLOB_EMPTY_VALUE);
+    private BStruct(BStructureType structType, long[] primitiveFields, Object[] objectFields) {
+        this.structType = structType;
+        this.shape = structType.getShape();
+        this.primitiveFields = primitiveFields;
+        this.objectFields = objectFields;
     }
 
     /**
@@ -101,18 +103,18 @@ public final class BStruct implements BRefType, LockableStructureType {
                 Object fieldVal;
                 BType fieldType = field.getFieldType();
                 if (fieldType == BTypes.typeString) {
-                    fieldVal = "\"" + stringFields[stringIndex++] + "\"";
+                    fieldVal = "\"" + getStringField(stringIndex++) + "\"";
                 } else if (fieldType == BTypes.typeInt) {
-                    fieldVal = longFields[longIndex++];
+                    fieldVal = getIntField(longIndex++);
                 } else if (fieldType == BTypes.typeFloat) {
-                    fieldVal = doubleFields[doubleIndex++];
+                    fieldVal = getFloatField(doubleIndex++);
                 } else if (fieldType == BTypes.typeBoolean) {
-                    fieldVal = intFields[intIndex++] == 1;
+                    fieldVal = getBooleanField(intIndex++) == 1;
                 } else if (fieldType == BTypes.typeBlob) {
-                    byte[] blob = byteFields[byteIndex++];
+                    byte[] blob = getBlobField(byteIndex++);
                     fieldVal = blob == null ? null : new String(blob, StandardCharsets.UTF_8);
                 } else {
-                    BValue val = refFields[refValIndex++];
+                    BValue val = getRefField(refValIndex++);
                     fieldVal = val == null ? null : val.stringValue();
                 }
                 sj.add(fieldName + ":" + fieldVal);
@@ -121,6 +123,56 @@ public final class BStruct implements BRefType, LockableStructureType {
         return sj.toString();
     }
 
+    /**
+     * Writes the string value of this struct to the given buffer in UTF-8, without creating the string values
+     * of the nested maps and structs.
+     *
+     * @param buffer the buffer to write to
+     */
+    void writeStringValue(ByteBuf buffer) {
+        int stringIndex = 0,
+                intIndex = 0,
+                longIndex = 0,
+                doubleIndex = 0,
+                byteIndex = 0,
+                refValIndex = 0;
+
+        BField[] fields = structType.getFields();
+        byte[][] encodedFieldNames = structType.getEncodedFieldNames();
+        boolean first = true;
+        buffer.writeByte('{');
+        for (int i = 0; i < fields.length; i++) {
+            BField field = fields[i];
+            if (!Flags.isFlagOn(field.flags, Flags.PUBLIC)) {
+                continue;
+            }
+            if (!first) {
+                buffer.writeByte(',');
+                buffer.writeByte(' ');
+            }
+            first = false;
+            buffer.writeBytes(encodedFieldNames[i]);
+            BType fieldType = field.getFieldType();
+            if (fieldType == BTypes.typeString) {
+                buffer.writeByte('"');
+                ByteBufUtil.writeUtf8(buffer, String.valueOf(getStringField(stringIndex++)));
+                buffer.writeByte('"');
+            } else if (fieldType == BTypes.typeInt) {
+                ByteBufUtil.writeAscii(buffer, Long.toString(getIntField(longIndex++)));
+            } else if (fieldType == BTypes.typeFloat) {
+                ByteBufUtil.writeAscii(buffer, Double.toString(getFloatField(doubleIndex++)));
+            } else if (fieldType == BTypes.typeBoolean) {
+                ByteBufUtil.writeAscii(buffer, getBooleanField(intIndex++) == 1 ? "true" : "false");
+            } else if (fieldType == BTypes.typeBlob) {
+                byte[] blob = getBlobField(byteIndex++);
+                ByteBufUtil.writeUtf8(buffer, blob == null ? "null" : new String(blob, StandardCharsets.UTF_8));
+            } else {
+                BMap.writeStringValue(buffer, getRefField(refValIndex++));
+            }
+        }
+        buffer.writeByte('}');
+    }
+
     @Override
     public BStructureType getType() {
         return structType;
@@ -128,256 +180,144 @@ public final class BStruct implements BRefType, LockableStructureType {
 
     @Override
     public long getIntField(int index) {
-        return longFields[index];
+        return primitiveFields[index];
     }
 
     @Override
     public void setIntField(int index, long value) {
-        longFields[index] = value;
+        primitiveFields[index] = value;
     }
 
     @Override
     public double getFloatField(int index) {
-        return doubleFields[index];
+        return Double.longBitsToDouble(primitiveFields[shape.floatOffset + index]);
     }
 
     @Override
     public void setFloatField(int index, double value) {
-        doubleFields[index] = value;
+        primitiveFields[shape.floatOffset + index] = Double.doubleToRawLongBits(value);
     }
 
     @Override
     public String getStringField(int index) {
-        return stringFields[index];
+        return (String) objectFields[index];
     }
 
     @Override
     public void setStringField(int index, String value) {
-        stringFields[index] = value;
+        objectFields[index] = value;
     }
 
     @Override
     public int getBooleanField(int index) {
-        return intFields[index];
+        return (int) primitiveFields[shape.booleanOffset + index];
     }
 
     @Override
     public byte[] getBlobField(int index) {
-        return byteFields[index];
+        return (byte[]) objectFields[shape.blobOffset + index];
     }
 
     @Override
     public void setBlobField(int index, byte[] value) {
-        byteFields[index] = value;
+        objectFields[shape.blobOffset + index] = value;
     }
 
     @Override
     public void setBooleanField(int index, int value) {
-        intFields[index] = value;
+        primitiveFields[shape.booleanOffset + index] = value;
     }
 
     @Override
     public BRefType getRefField(int index) {
-        return refFields[index];
+        return (BRefType) objectFields[shape.refOffset + index];
     }
 
     @Override
     public void setRefField(int index, BRefType value) {
-        refFields[index] = value;
+        objectFields[shape.refOffset + index] = value;
     }
 
     @Override
     public boolean lockIntField(WorkerExecutionContext ctx, int index) {
-        /*
-        TODO below synchronization is done on non final variable(which is getting changed in copy method)
-        This is ok for the time being as below synchronizations are only valid for global memory block which is
-        not getting copied, even in that case there shouldn't be a problem as synchronization always happens after
-        copying, but look into that when implementing locking support for struct fields and connector variables.
-         */
-        if (longLocks == null) {
-            synchronized (longFields) {
-                if (longLocks == null) {
-                    longLocks = new VarLock[longFields.length];
-                }
-            }
-        }
-        if (longLocks[index] == null) {
-            //locking the whole field array
-            synchronized (longFields) {
-                if (longLocks[index] == null) {
-                    longLocks[index] = new VarLock();
-                }
-            }
-        }
-        return longLocks[index].lock(ctx);
+        return getFieldLock(index).lock(ctx);
     }
 
     @Override
     public void unlockIntField(int index) {
-        longLocks[index].unlock();
+        getFieldLock(index).unlock();
     }
 
     @Override
     public boolean lockFloatField(WorkerExecutionContext ctx, int index) {
-        /*
-        TODO below synchronization is done on non final variable(which is getting changed in copy method)
-        This is ok for the time being as below synchronizations are only valid for global memory block which is
-        not getting copied, even in that case there shouldn't be a problem as synchronization always happens after
-        copying, but look into that when implementing locking support for struct fields and connector variables.
-         */
-        if (doubleLocks == null) {
-            synchronized (doubleFields) {
-                if (doubleLocks == null) {
-                    doubleLocks = new VarLock[doubleFields.length];
-                }
-            }
-        }
-        if (doubleLocks[index] == null) {
-            //locking the whole field array
-            synchronized (doubleFields) {
-                if (doubleLocks[index] == null) {
-                    doubleLocks[index] = new VarLock();
-                }
-            }
-        }
-        return doubleLocks[index].lock(ctx);
+        return getFieldLock(shape.floatOffset + index).lock(ctx);
     }
 
     @Override
     public void unlockFloatField(int index) {
-        doubleLocks[index].unlock();
+        getFieldLock(shape.floatOffset + index).unlock();
     }
 
     @Override
     public boolean lockStringField(WorkerExecutionContext ctx, int index) {
-        /*
-        TODO below synchronization is done on non final variable(which is getting changed in copy method)
-        This is ok for the time being as below synchronizations are only valid for global memory block which is
-        not getting copied, even in that case there shouldn't be a problem as synchronization always happens after
-        copying, but look into that when implementing locking support for struct fields and connector variables.
-         */
-        if (stringLocks == null) {
-            synchronized (stringFields) {
-                if (stringLocks == null) {
-                    stringLocks = new VarLock[stringFields.length];
-                }
-            }
-        }
-        if (stringLocks[index] == null) {
-            synchronized (stringFields) {
-                if (stringLocks[index] == null) {
-                    stringLocks[index] = new VarLock();
-                }
-            }
-        }
-        return stringLocks[index].lock(ctx);
+        return getFieldLock(shape.primitiveCount + index).lock(ctx);
     }
 
     @Override
     public void unlockStringField(int index) {
-        stringLocks[index].unlock();
+        getFieldLock(shape.primitiveCount + index).unlock();
     }
 
     @Override
     public boolean lockBooleanField(WorkerExecutionContext ctx, int index) {
-        /*
-        TODO below synchronization is done on non final variable(which is getting changed in copy method)
-        This is ok for the time being as below synchronizations are only valid for global memory block which is
-        not getting copied, even in that case there shouldn't be a problem as synchronization always happens after
-        copying, but look into that when implementing locking support for struct fields and connector variables.
-         */
-        if (intLocks == null) {
-            synchronized (intFields) {
-                if (intLocks == null) {
-                    intLocks = new VarLock[intFields.length];
-                }
-            }
-        }
-        if (intLocks[index] == null) {
-            synchronized (intFields) {
-                if (intLocks[index] == null) {
-                    intLocks[index] = new VarLock();
-                }
-            }
-        }
-        return intLocks[index].lock(ctx);
+        return getFieldLock(shape.booleanOffset + index).lock(ctx);
     }
 
     @Override
     public void unlockBooleanField(int index) {
-        intLocks[index].unlock();
+        getFieldLock(shape.booleanOffset + index).unlock();
     }
 
     @Override
     public boolean lockBlobField(WorkerExecutionContext ctx, int index) {
-        /*
-        TODO below synchronization is done on non final variable(which is getting changed in copy method)
-        This is ok for the time being as below synchronizations are only valid for global memory block which is
-        not getting copied, even in that case there shouldn't be a problem as synchronization always happens after
-        copying, but look into that when implementing locking support for struct fields and connector variables.
-         */
-        if (byteLocks == null) {
-            synchronized (byteFields) {
-                if (byteLocks == null) {
-                    byteLocks = new VarLock[byteFields.length];
-                }
-            }
-        }
-        if (byteLocks[index] == null) {
-            synchronized (byteFields) {
-                if (byteLocks[index] == null) {
-                    byteLocks[index] = new VarLock();
-                }
-            }
-        }
-        return byteLocks[index].lock(ctx);
+        return getFieldLock(shape.primitiveCount + shape.blobOffset + index).lock(ctx);
     }
 
     @Override
     public void unlockBlobField(int index) {
-        byteLocks[index].unlock();
+        getFieldLock(shape.primitiveCount + shape.blobOffset + index).unlock();
     }
 
     @Override
     public boolean lockRefField(WorkerExecutionContext ctx, int index) {
-        /*
-        TODO below synchronization is done on non final variable(which is getting changed in copy method)
-        This is ok for the time being as below synchronizations are only valid for global memory block which is
-        not getting copied, even in that case there shouldn't be a problem as synchronization always happens after
-        copying, but look into that when implementing locking support for struct fields and connector variables.
-         */
-        if (refLocks == null) {
-            synchronized (refFields) {
-                if (refLocks == null) {
-                    refLocks = new VarLock[refFields.length];
-                }
-            }
-        }
-        if (refLocks[index] == null) {
-            synchronized (refFields) {
-                if (refLocks[index] == null) {
-                    refLocks[index] = new VarLock();
-                }
-            }
-        }
-        return refLocks[index].lock(ctx);
+        return getFieldLock(shape.primitiveCount + shape.refOffset + index).lock(ctx);
     }
 
     @Override
     public void unlockRefField(int index) {
-        refLocks[index].unlock();
+        getFieldLock(shape.primitiveCount + shape.refOffset + index).unlock();
+    }
+
+    @SuppressWarnings("unchecked")
+    private VarLock getFieldLock(int slot) {
+        AtomicReferenceArray<VarLock> locks = fieldLocks;
+        if (locks == null) {
+            FIELD_LOCKS.compareAndSet(this, null, new AtomicReferenceArray<VarLock>(shape.primitiveCount
+                    + shape.objectCount));
+            locks = fieldLocks;
+        }
+        VarLock lock = locks.get(slot);
+        if (lock == null) {
+            VarLock newLock = new VarLock();
+            lock = locks.compareAndSet(slot, null, newLock) ? newLock : locks.get(slot);
+        }
+        return lock;
     }
 
     @Override
     public BValue copy() {
-        BStruct bStruct = new BStruct(structType);
-        bStruct.longFields = Arrays.copyOf(longFields, longFields.length);
-        bStruct.doubleFields = Arrays.copyOf(doubleFields, doubleFields.length);
-        bStruct.stringFields = Arrays.copyOf(stringFields, stringFields.length);
-        bStruct.intFields = Arrays.copyOf(intFields, intFields.length);
-        bStruct.byteFields = Arrays.copyOf(byteFields, byteFields.length);
-        bStruct.refFields = Arrays.copyOf(refFields, refFields.length);
-        return bStruct;
+        return new BStruct(structType, primitiveFields.length == 0 ? primitiveFields : primitiveFields.clone(),
+                objectFields.length == 0 ? objectFields : objectFields.clone());
     }
 
     /**
@@ -387,6 +327,9 @@ public final class BStruct implements BRefType, LockableStructureType {
      * @param data data to be stored
      */
     public void addNativeData(String key, Object data) {
+        if (nativeData == null) {
+            nativeData = new HashMap<>();
+        }
         nativeData.put(key, data);
     }
 
@@ -397,7 +340,7 @@ public final class BStruct implements BRefType, LockableStructureType {
      * @return data which was stored with given key or null if no value corresponding to key
      */
     public Object getNativeData(String key) {
-        return nativeData.get(key);
+        return nativeData == null ? null : nativeData.get(key);
     }
     
     @Override
@@ -18,17 +18,22 @@
 package org.ballerinalang.model.values;
 
 import org.ballerinalang.bre.Context;
+import org.ballerinalang.config.ConfigRegistry;
 import org.ballerinalang.model.ColumnDefinition;
 import org.ballerinalang.model.DataIterator;
 import org.ballerinalang.model.types.BStructureType;
 import org.ballerinalang.model.types.BTableType;
 import org.ballerinalang.model.types.BType;
 import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.util.ColumnarTable;
+import org.ballerinalang.util.ColumnarTableIterator;
 import org.ballerinalang.util.TableProvider;
+import org.ballerinalang.util.TableQuery;
 import org.ballerinalang.util.TableUtils;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.ballerinalang.util.program.BLangFunctions;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.StringJoiner;
 
@@ -39,6 +44,8 @@ import java.util.StringJoiner;
  */
 public class BTable implements BRefType<Object>, BCollection {
 
+    private static final String H2_BACKEND_CONFIG_PROP = "b7a.runtime.table.h2";
+
     protected DataIterator iterator;
     private boolean hasNextVal;
     private boolean nextPrefetched;
@@ -48,6 +55,8 @@ public class BTable implements BRefType<Object>, BCollection {
     private BStringArray primaryKeys;
     private BStringArray indices;
     private boolean tableClosed;
+    private ColumnarTable store;
+    private int exportedModCount;
 
     public BTable() {
         this.iterator = null;
@@ -69,13 +78,35 @@ public class BTable implements BRefType<Object>, BCollection {
     public BTable(String query, BTable fromTable, BTable joinTable,
                   BStructureType constraintType, BRefValueArray params) {
         this.tableProvider = TableProvider.getInstance();
+        this.constraintType = constraintType;
+        if (fromTable.store != null && (joinTable == null || joinTable.store != null)) {
+            TableQuery tableQuery = TableQuery.get(query);
+            if (tableQuery != null) {
+                this.store = tableQuery.execute(fromTable.store, joinTable != null ? joinTable.store : null,
+                        constraintType, params);
+            }
+            if (this.store != null) {
+                return;
+            }
+        }
+        /* the tables are locked while they are queried, so that their exported SQL tables are not replaced by
+         * another query in the meantime */
         if (joinTable != null) {
-            this.tableName = tableProvider.createTable(fromTable.tableName, joinTable.tableName, query,
-                    constraintType, params);
+            boolean fromTableFirst = System.identityHashCode(fromTable) <= System.identityHashCode(joinTable);
+            BTable first = fromTableFirst ? fromTable : joinTable;
+            BTable second = fromTableFirst ? joinTable : fromTable;
+            synchronized (first) {
+                synchronized (second) {
+                    this.tableName = tableProvider.createTable(fromTable.getQueryTableName(),
+                            joinTable.getQueryTableName(), query, constraintType, params);
+                }
+            }
         } else {
-            this.tableName = tableProvider.createTable(fromTable.tableName, query, constraintType, params);
+            synchronized (fromTable) {
+                this.tableName = tableProvider.createTable(fromTable.getQueryTableName(), query, constraintType,
+                        params);
+            }
         }
-        this.constraintType = constraintType;
     }
 
     public BTable(BType type, BStruct configStruct) {
@@ -93,7 +124,11 @@ public class BTable implements BRefType<Object>, BCollection {
             throw new BallerinaException("table cannot be created without a constraint");
         }
         this.tableProvider = TableProvider.getInstance();
-        this.tableName = tableProvider.createTable(constrainedType, primaryKeys, indexColumns);
+        if (H2Backend.ENABLED) {
+            this.tableName = tableProvider.createTable(constrainedType, primaryKeys, indexColumns);
+        } else {
+            this.store = new ColumnarTable((BStructureType) constrainedType, primaryKeys, indexColumns);
+        }
         this.constraintType = (BStructureType) constrainedType;
         this.primaryKeys = primaryKeys;
         this.indices = indexColumns;
@@ -220,7 +255,11 @@ public class BTable implements BRefType<Object>, BCollection {
             throw new BallerinaException("incompatible types: record of type:" + data.getType().getName()
                     + " cannot be added to a table with type:" + this.constraintType.getName());
         }
-        tableProvider.insertData(tableName, data);
+        if (store != null) {
+            store.insert(data);
+        } else {
+            tableProvider.insertData(tableName, data);
+        }
         reset(false);
     }
 
@@ -242,6 +281,11 @@ public class BTable implements BRefType<Object>, BCollection {
                         + functionInputType.getName() + " cannot be used to remove records from a table with type:"
                         + this.constraintType.getName());
             }
+            if (store != null) {
+                context.setReturnValues(new BInteger(removeFromStore(lambdaFunction)));
+                reset(false);
+                return;
+            }
             int deletedCount = 0;
             while (this.hasNext(false)) {
                 BStruct data = this.getNext();
@@ -259,6 +303,20 @@ public class BTable implements BRefType<Object>, BCollection {
         }
     }
 
+    private int removeFromStore(BFunctionPointer lambdaFunction) {
+        BitSet removedRows = new BitSet();
+        int rowCount = store.size();
+        for (int row = 0; row < rowCount; row++) {
+            BValue[] args = { store.getRow(row) };
+            BValue[] returns = BLangFunctions.invokeCallable(lambdaFunction.value().getFunctionInfo(), args);
+            if (((BBoolean) returns[0]).booleanValue()) {
+                removedRows.set(row);
+            }
+        }
+        store.remove(removedRows);
+        return removedRows.cardinality();
+    }
+
     public String getString(int columnIndex) {
         return iterator.getString(columnIndex);
     }
@@ -306,7 +364,11 @@ public class BTable implements BRefType<Object>, BCollection {
     }
 
     protected void generateIterator() {
-        this.iterator = tableProvider.createIterator(tableName, this.constraintType);
+        if (store != null) {
+            this.iterator = new ColumnarTableIterator(store);
+        } else {
+            this.iterator = tableProvider.createIterator(tableName, this.constraintType);
+        }
         resetIterationHelperAttributes();
     }
 
@@ -324,7 +386,39 @@ public class BTable implements BRefType<Object>, BCollection {
         if (this.iterator != null) {
             this.iterator.close(false);
         }
-        tableProvider.dropTable(this.tableName);
+        if (tableProvider != null && this.tableName != null) {
+            tableProvider.dropTable(this.tableName);
+        }
+    }
+
+    /**
+     * Returns the name of the SQL table to be used when this table is queried. The rows of a table held in a
+     * {@link ColumnarTable} are copied into a SQL table, which is reused until the table is modified. The export
+     * is done by one query at a time, while the table is not modified.
+     *
+     * @return the name of the SQL table
+     */
+    private synchronized String getQueryTableName() {
+        if (store == null) {
+            return tableName;
+        }
+        synchronized (store) {
+            int modCount = store.getModCount();
+            if (tableName == null || exportedModCount != modCount) {
+                if (tableName != null) {
+                    tableProvider.dropTable(tableName);
+                    tableName = null;
+                }
+                String exportedTableName = tableProvider.createTable(constraintType, primaryKeys, indices);
+                int rowCount = store.size();
+                for (int row = 0; row < rowCount; row++) {
+                    tableProvider.insertData(exportedTableName, store.getRow(row));
+                }
+                tableName = exportedTableName;
+                exportedModCount = modCount;
+            }
+            return tableName;
+        }
     }
 
     private void insertInitialData(BRefValueArray data) {
@@ -337,6 +431,16 @@ public class BTable implements BRefType<Object>, BCollection {
         }
     }
 
+    /**
+     * Holds whether the tables are stored in the embedded SQL database instead of the heap, read from the
+     * configuration when it is first needed.
+     */
+    private static class H2Backend {
+
+        private static final boolean ENABLED = ConfigRegistry.getInstance().getAsBoolean(H2_BACKEND_CONFIG_PROP);
+
+    }
+
     /**
      * Provides iterator implementation for table values.
      *
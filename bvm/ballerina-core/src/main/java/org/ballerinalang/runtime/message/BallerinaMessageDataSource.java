@@ -18,6 +18,8 @@
 package org.ballerinalang.runtime.message;
 
 import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 /**
@@ -25,6 +27,10 @@ import java.util.Map;
  */
 public class BallerinaMessageDataSource implements MessageDataSource {
 
+    /* the data is serialized to streams in the default charset, so it is only written directly to buffers in
+     * UTF-8 when that gives the same bytes */
+    protected static final boolean UTF8_DEFAULT_CHARSET = StandardCharsets.UTF_8.equals(Charset.defaultCharset());
+
     @Override
     public String getValueAsString(String path) {
         return null;
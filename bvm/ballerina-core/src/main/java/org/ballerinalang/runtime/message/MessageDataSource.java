@@ -18,6 +18,8 @@
 
 package org.ballerinalang.runtime.message;
 
+import io.netty.buffer.ByteBuf;
+
 import java.io.OutputStream;
 import java.util.Map;
 
@@ -73,6 +75,16 @@ public interface MessageDataSource {
      */
     public void serializeData(OutputStream outputStream);
 
+    /**
+     * Serialize data in to the given buffer, if the data source can write its data directly to a buffer.
+     *
+     * @param buffer Represent the buffer that the data will be written to
+     * @return true if the data was written to the buffer, false if it has to be serialized to a stream
+     */
+    public default boolean serializeData(ByteBuf buffer) {
+        return false;
+    }
+
     /**
      * Returns the entire message as string.
      * @return message
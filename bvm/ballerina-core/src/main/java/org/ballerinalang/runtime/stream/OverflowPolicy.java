@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.runtime.stream;
+
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+/**
+ * {@code OverflowPolicy} decides what happens to an event published to a stream whose buffer is full.
+ *
+ * @since 0.974.1
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The publisher waits until there is room in the buffer.
+     */
+    BLOCK,
+
+    /**
+     * The oldest buffered event is dropped to make room for the published event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The published event is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * One out of every n overflowing events is published by waiting until there is room in the buffer,
+     * and the others are dropped.
+     */
+    SAMPLE;
+
+    /**
+     * Returns the overflow policy with the given name, e.g. {@code drop_oldest}.
+     *
+     * @param name the case insensitive name of the policy
+     * @return the overflow policy
+     */
+    public static OverflowPolicy fromString(String name) {
+        for (OverflowPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(name)) {
+                return policy;
+            }
+        }
+        throw new BallerinaException("invalid stream overflow policy: " + name + ", expected 'block', "
+                + "'drop_oldest', 'drop_newest' or 'sample'");
+    }
+}
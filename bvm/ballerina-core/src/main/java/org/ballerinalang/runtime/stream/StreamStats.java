@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.runtime.stream;
+
+import org.ballerinalang.util.metrics.CallbackGauge;
+import org.ballerinalang.util.metrics.DefaultMetricRegistry;
+import org.ballerinalang.util.metrics.MetricRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code StreamStats} holds the delivery statistics of a stream. Each stream instance has its own statistics,
+ * which are also added to the statistics of all the streams with the same name. The latter are published as
+ * metrics tagged with the stream name, when metrics are enabled.
+ *
+ * @since 0.974.1
+ */
+public class StreamStats {
+
+    private static final String METRIC_PREFIX = "ballerina_stream_";
+
+    private static final String STREAM_TAG = "stream";
+
+    private static final Map<String, StreamStats> streamStats = new ConcurrentHashMap<>();
+
+    private final LongAdder publishedCount = new LongAdder();
+
+    private final LongAdder deliveredCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder queueDepth = new LongAdder();
+
+    private final LongAdder batchCount = new LongAdder();
+
+    private final LongAdder totalDeliveryLatency = new LongAdder();
+
+    /* the statistics of all the streams with the same name, or null if these are those statistics */
+    private final StreamStats streamNameStats;
+
+    private StreamStats(StreamStats streamNameStats) {
+        this.streamNameStats = streamNameStats;
+    }
+
+    /**
+     * Returns the statistics of all the streams with the given name, registering their metrics on first use.
+     *
+     * @param streamId the name of the streams
+     * @return the statistics of the streams with the name
+     */
+    public static StreamStats getStats(String streamId) {
+        return streamStats.computeIfAbsent(streamId, StreamStats::create);
+    }
+
+    /**
+     * Creates the statistics of a new stream instance with the given name.
+     *
+     * @param streamId the name of the stream
+     * @return the statistics of the stream instance
+     */
+    static StreamStats createInstanceStats(String streamId) {
+        return new StreamStats(getStats(streamId));
+    }
+
+    private static StreamStats create(String streamId) {
+        StreamStats stats = new StreamStats(null);
+        MetricRegistry registry = DefaultMetricRegistry.getInstance();
+        if (registry != null) {
+            CallbackGauge.builder(METRIC_PREFIX + "published_count", stats, StreamStats::getPublishedCount)
+                    .tag(STREAM_TAG, streamId).register(registry);
+            CallbackGauge.builder(METRIC_PREFIX + "delivered_count", stats, StreamStats::getDeliveredCount)
+                    .tag(STREAM_TAG, streamId).register(registry);
+            CallbackGauge.builder(METRIC_PREFIX + "dropped_count", stats, StreamStats::getDroppedCount)
+                    .tag(STREAM_TAG, streamId).register(registry);
+            CallbackGauge.builder(METRIC_PREFIX + "queue_depth", stats, StreamStats::getQueueDepth)
+                    .tag(STREAM_TAG, streamId).register(registry);
+            CallbackGauge.builder(METRIC_PREFIX + "batch_count", stats, StreamStats::getBatchCount)
+                    .tag(STREAM_TAG, streamId).register(registry);
+            CallbackGauge.builder(METRIC_PREFIX + "average_delivery_latency_nanoseconds", stats,
+                    StreamStats::getAverageDeliveryLatency).tag(STREAM_TAG, streamId).register(registry);
+        }
+        return stats;
+    }
+
+    void eventPublished() {
+        this.publishedCount.increment();
+        if (this.streamNameStats != null) {
+            this.streamNameStats.eventPublished();
+        }
+    }
+
+    void eventsBuffered(int count) {
+        this.queueDepth.add(count);
+        if (this.streamNameStats != null) {
+            this.streamNameStats.eventsBuffered(count);
+        }
+    }
+
+    void eventsDropped(int count) {
+        this.droppedCount.add(count);
+        if (this.streamNameStats != null) {
+            this.streamNameStats.eventsDropped(count);
+        }
+    }
+
+    void batchDelivered(int count, long totalLatency) {
+        this.deliveredCount.add(count);
+        this.batchCount.increment();
+        this.totalDeliveryLatency.add(totalLatency);
+        if (this.streamNameStats != null) {
+            this.streamNameStats.batchDelivered(count, totalLatency);
+        }
+    }
+
+    public long getPublishedCount() {
+        return this.publishedCount.sum();
+    }
+
+    public long getDeliveredCount() {
+        return this.deliveredCount.sum();
+    }
+
+    /**
+     * Returns the number of events dropped by the overflow policies of the streams.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    /**
+     * Returns the number of events currently buffered, waiting to be delivered to the subscribers.
+     *
+     * @return the number of buffered events
+     */
+    public long getQueueDepth() {
+        return this.queueDepth.sum();
+    }
+
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    /**
+     * Returns the average time between publishing an event and delivering it to the subscribers.
+     *
+     * @return the average delivery latency in nanoseconds
+     */
+    public double getAverageDeliveryLatency() {
+        long delivered = this.getDeliveredCount();
+        return delivered == 0 ? 0 : (double) this.totalDeliveryLatency.sum() / delivered;
+    }
+
+    @Override
+    public String toString() {
+        return "Published: " + this.getPublishedCount() + ", Delivered: " + this.getDeliveredCount()
+                + ", Dropped: " + this.getDroppedCount() + ", Queue Depth: " + this.getQueueDepth()
+                + ", Batches: " + this.getBatchCount() + ", Average Delivery Latency (ns): "
+                + this.getAverageDeliveryLatency();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.runtime.stream;
+
+import org.ballerinalang.model.values.BValue;
+
+/**
+ * {@code StreamSubscriber} receives the events published to a stream through a {@link StreamTransport}.
+ *
+ * @since 0.974.1
+ */
+public interface StreamSubscriber {
+
+    /**
+     * Delivers a batch of events, in the order they were published. The batch array is reused by the
+     * transport, so it must not be retained after this call.
+     *
+     * @param events the array holding the events
+     * @param count  the number of events in the array
+     */
+    void deliver(BValue[] events, int count);
+
+}
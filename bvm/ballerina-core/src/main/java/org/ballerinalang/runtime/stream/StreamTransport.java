@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.runtime.stream;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.runtime.threadpool.ThreadPoolFactory;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@code StreamTransport} delivers the events published to a stream to its subscribers within the same JVM.
+ * <p>
+ * Published events are added to a bounded lock-free ring buffer, which supports concurrent publishers. The
+ * buffered events are consumed by a drain task, which is scheduled on the stream delivery executor when
+ * events are published while the stream is idle, and delivers them to the subscribers in batches. When the
+ * buffer is full, the {@link OverflowPolicy} of the stream decides whether the publisher waits, or which
+ * event is dropped.
+ * <p>
+ * The buffer size, overflow policy and sample rate are configured with
+ * {@code b7a.runtime.stream.<stream name>.buffer.size}, {@code .overflow.policy} and {@code .sample.rate},
+ * falling back to {@code b7a.runtime.stream.buffer.size}, {@code b7a.runtime.stream.overflow.policy} and
+ * {@code b7a.runtime.stream.sample.rate}.
+ *
+ * @since 0.974.1
+ */
+public class StreamTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamTransport.class);
+
+    private static final String STREAM_CONFIG_PREFIX = "b7a.runtime.stream.";
+
+    private static final String BUFFER_SIZE_CONFIG = "buffer.size";
+
+    private static final String OVERFLOW_POLICY_CONFIG = "overflow.policy";
+
+    private static final String SAMPLE_RATE_CONFIG = "sample.rate";
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private static final int MAX_BUFFER_SIZE = 1 << 20;
+
+    private static final int DEFAULT_SAMPLE_RATE = 10;
+
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private static final long FULL_BUFFER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final String streamId;
+
+    private final AtomicReferenceArray<BValue> buffer;
+
+    /* the publish times of the buffered events, each written before its event is added to the buffer */
+    private final long[] publishTimes;
+
+    private final int mask;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final int sampleRate;
+
+    private final AtomicLong overflowCount = new AtomicLong();
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    /* only written while holding the poll lock */
+    private volatile long consumerIndex;
+
+    /* held briefly to remove events from the buffer, by the drain task, or by a publisher dropping the
+     * oldest event, but never while delivering events */
+    private final Lock pollLock = new ReentrantLock();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile Thread drainingThread;
+
+    private final List<StreamSubscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final Executor executor;
+
+    private final StreamStats stats;
+
+    private final Runnable drainTask = this::drain;
+
+    public StreamTransport(String streamId) {
+        this.streamId = streamId;
+        int capacity = getBufferSize(streamId);
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.publishTimes = new long[capacity];
+        this.mask = capacity - 1;
+        String overflowPolicyProp = getConfig(streamId, OVERFLOW_POLICY_CONFIG);
+        this.overflowPolicy = overflowPolicyProp == null ? OverflowPolicy.BLOCK
+                : OverflowPolicy.fromString(overflowPolicyProp);
+        this.sampleRate = getIntConfig(streamId, SAMPLE_RATE_CONFIG, DEFAULT_SAMPLE_RATE, Integer.MAX_VALUE);
+        this.executor = ThreadPoolFactory.getInstance().getStreamDeliveryExecutor();
+        this.stats = StreamStats.createInstanceStats(streamId);
+    }
+
+    private static int getBufferSize(String streamId) {
+        int bufferSize = getIntConfig(streamId, BUFFER_SIZE_CONFIG, DEFAULT_BUFFER_SIZE, MAX_BUFFER_SIZE);
+        /* the ring buffer capacity is rounded up to a power of two */
+        return bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+    }
+
+    private static String getConfig(String streamId, String key) {
+        ConfigRegistry configRegistry = ConfigRegistry.getInstance();
+        String value = configRegistry.getAsString(STREAM_CONFIG_PREFIX + streamId + "." + key);
+        return value != null ? value : configRegistry.getAsString(STREAM_CONFIG_PREFIX + key);
+    }
+
+    private static int getIntConfig(String streamId, String key, int defaultValue, int maxValue) {
+        String prop = getConfig(streamId, key);
+        if (prop == null) {
+            return defaultValue;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(prop);
+        } catch (NumberFormatException ignore) {
+            throw new BallerinaException("invalid value for stream " + streamId + " '" + key + "': " + prop);
+        }
+        if (value < 1 || value > maxValue) {
+            throw new BallerinaException("stream " + streamId + " '" + key + "' must be between 1 and " + maxValue
+                    + " (inclusive)");
+        }
+        return value;
+    }
+
+    public void addSubscriber(StreamSubscriber subscriber) {
+        this.subscribers.add(subscriber);
+    }
+
+    public void removeSubscriber(StreamSubscriber subscriber) {
+        this.subscribers.remove(subscriber);
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return this.overflowPolicy;
+    }
+
+    public int getCapacity() {
+        return this.publishTimes.length;
+    }
+
+    public StreamStats getStats() {
+        return this.stats;
+    }
+
+    /**
+     * Publishes an event to the subscribers of the stream. The event is dropped if the stream has no
+     * subscribers, and the overflow policy is applied if the buffer of the stream is full.
+     *
+     * @param event the event to publish
+     */
+    public void publish(BValue event) {
+        if (this.subscribers.isEmpty()) {
+            return;
+        }
+        this.stats.eventPublished();
+        if (!this.offer(event) && !this.handleOverflow(event)) {
+            return;
+        }
+        if (!this.draining.get() && this.draining.compareAndSet(false, true)) {
+            this.executor.execute(this.drainTask);
+        }
+    }
+
+    /**
+     * Applies the overflow policy to an event which did not fit in the buffer.
+     *
+     * @return whether the event was added to the buffer
+     */
+    private boolean handleOverflow(BValue event) {
+        switch (this.overflowPolicy) {
+            case DROP_NEWEST:
+                this.stats.eventsDropped(1);
+                return false;
+            case DROP_OLDEST:
+                do {
+                    this.dropOldest();
+                } while (!this.offer(event));
+                return true;
+            case SAMPLE:
+                if (this.overflowCount.getAndIncrement() % this.sampleRate != 0) {
+                    this.stats.eventsDropped(1);
+                    return false;
+                }
+                return this.waitAndOffer(event);
+            default:
+                return this.waitAndOffer(event);
+        }
+    }
+
+    private boolean waitAndOffer(BValue event) {
+        do {
+            if (this.drainingThread == Thread.currentThread()) {
+                /* a subscriber publishing to its own stream cannot wait for itself to drain the buffer */
+                this.deliver(new BValue[] { event }, new long[] { System.nanoTime() }, 1);
+                return false;
+            }
+            LockSupport.parkNanos(FULL_BUFFER_PARK_NANOS);
+        } while (!this.offer(event));
+        return true;
+    }
+
+    private boolean offer(BValue event) {
+        long index;
+        do {
+            index = this.producerIndex.get();
+            if (index - this.consumerIndex >= this.publishTimes.length) {
+                return false;
+            }
+        } while (!this.producerIndex.compareAndSet(index, index + 1));
+        int slot = (int) index & this.mask;
+        this.publishTimes[slot] = System.nanoTime();
+        this.buffer.set(slot, event);
+        this.stats.eventsBuffered(1);
+        return true;
+    }
+
+    private int poll(BValue[] events, long[] times) {
+        this.pollLock.lock();
+        try {
+            long index = this.consumerIndex;
+            int count = 0;
+            while (count < events.length) {
+                int slot = (int) index & this.mask;
+                BValue event = this.buffer.get(slot);
+                if (event == null) {
+                    /* either the buffer is empty, or the publisher of the slot has not added its event yet,
+                     * in which case it schedules a new drain after adding it */
+                    break;
+                }
+                times[count] = this.publishTimes[slot];
+                events[count++] = event;
+                this.buffer.lazySet(slot, null);
+                index++;
+            }
+            this.consumerIndex = index;
+            this.stats.eventsBuffered(-count);
+            return count;
+        } finally {
+            this.pollLock.unlock();
+        }
+    }
+
+    private void dropOldest() {
+        this.pollLock.lock();
+        try {
+            long index = this.consumerIndex;
+            int slot = (int) index & this.mask;
+            if (this.buffer.get(slot) != null) {
+                this.buffer.lazySet(slot, null);
+                this.consumerIndex = index + 1;
+                this.stats.eventsBuffered(-1);
+                this.stats.eventsDropped(1);
+            }
+        } finally {
+            this.pollLock.unlock();
+        }
+    }
+    private void drain() {
+        BValue[] events = new BValue[MAX_BATCH_SIZE];
+        long[] times = new long[MAX_BATCH_SIZE];
+        do {
+            this.drainingThread = Thread.currentThread();
+            int count;
+            while ((count = this.poll(events, times)) > 0) {
+                this.deliver(events, times, count);
+            }
+            this.drainingThread = null;
+            /* publish the idle state before re-checking the buffer, so an event added concurrently is
+             * either delivered by this task, or schedules a new one */
+            this.draining.set(false);
+        } while (this.buffer.get((int) this.consumerIndex & this.mask) != null
+                && this.draining.compareAndSet(false, true));
+    }
+
+    private void deliver(BValue[] events, long[] times, int count) {
+        for (StreamSubscriber subscriber : this.subscribers) {
+            try {
+                subscriber.deliver(events, count);
+            } catch (RuntimeException e) {
+                logger.error("error delivering events of stream " + this.streamId + ": " + e.getMessage(), e);
+            }
+        }
+        long now = System.nanoTime();
+        long totalLatency = 0;
+        for (int i = 0; i < count; i++) {
+            totalLatency += now - times[i];
+        }
+        this.stats.batchDelivered(count, totalLatency);
+        Arrays.fill(events, 0, count, null);
+    }
+}
@@ -21,8 +21,10 @@ import org.ballerinalang.config.ConfigRegistry;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.omg.PortableServer.ThreadPolicyOperations;
 
+import java.io.PrintStream;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * {@code ThreadPoolFactory} holds the thread pools in Ballerina engine.
@@ -37,15 +39,113 @@ public class ThreadPoolFactory {
 
     private static final String WORKER_THREAD_POOL_SIZE_PROP = "b7a.runtime.scheduler.threadpoolsize";
 
+    private static final String SCHEDULER_MODE_PROP = "b7a.runtime.scheduler.mode";
+
+    private static final String SCHEDULER_PARALLELISM_PROP = "b7a.runtime.scheduler.parallelism";
+
+    private static final String SCHEDULER_MODE_FIXED = "fixed";
+
+    private static final String SCHEDULER_MODE_WORK_STEALING = "workstealing";
+
+    private static final String SCHEDULER_MODE_VIRTUAL = "virtual";
+
+    private static final PrintStream consoleError = System.err;
+
     private static ThreadPoolFactory instance;
 
     private ExecutorService workerExecutor;
 
+    private ExecutorService blockingNativeExecutor;
+
+    private WorkStealingExecutor workStealingExecutor;
+
+    private ExecutorService streamDeliveryExecutor;
+
     private ThreadPoolFactory() {
+        this(ConfigRegistry.getInstance().getAsString(SCHEDULER_MODE_PROP), consoleError);
+    }
+
+    /**
+     * Creates the thread pools of the given scheduler mode. The runtime uses the pools of the configured mode through
+     * {@link #getInstance()}.
+     *
+     * @param mode    the scheduler mode, or null for the default 'fixed' mode
+     * @param console the stream the warnings about the scheduler mode are printed to
+     */
+    public ThreadPoolFactory(String mode, PrintStream console) {
         int poolSize = this.extractThreadPoolSize();
-        this.workerExecutor = Executors.newFixedThreadPool(poolSize,
+        ExecutorService fixedExecutor = Executors.newFixedThreadPool(poolSize,
                 new BLangThreadFactory(new ThreadGroup("worker"), "worker-thread-pool"));
-    };
+        this.blockingNativeExecutor = fixedExecutor;
+        /* a stream delivery task invokes the subscribers synchronously, and there is at most one
+         * task per stream at a time */
+        this.streamDeliveryExecutor = Executors.newCachedThreadPool(
+                new BLangThreadFactory(new ThreadGroup("stream"), "stream-delivery"));
+        if (mode == null || SCHEDULER_MODE_FIXED.equalsIgnoreCase(mode)) {
+            this.workerExecutor = fixedExecutor;
+        } else if (SCHEDULER_MODE_WORK_STEALING.equalsIgnoreCase(mode)) {
+            /* the per-core workers must never block, so the blocking native calls they make are
+             * handed to the fixed thread pool, see #isBlockingNativeOffloaded() */
+            this.workStealingExecutor = new WorkStealingExecutor(this.extractParallelism(),
+                    new BLangThreadFactory(new ThreadGroup("worker"), "worker-work-stealing"));
+            this.workerExecutor = this.workStealingExecutor;
+        } else if (SCHEDULER_MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            ExecutorService virtualExecutor = createVirtualThreadExecutor("worker-virtual-");
+            if (virtualExecutor != null) {
+                /* a blocking native call only parks its virtual thread, so both the workers and the
+                 * blocking native calls run on virtual threads, without being bounded by the pool size */
+                this.workerExecutor = virtualExecutor;
+                this.blockingNativeExecutor = virtualExecutor;
+            } else {
+                console.println("ballerina: virtual threads are not supported by the current JVM, "
+                        + "falling back to the '" + SCHEDULER_MODE_FIXED + "' scheduler mode");
+                this.workerExecutor = fixedExecutor;
+            }
+        } else {
+            throw new BallerinaException("invalid value for '" + SCHEDULER_MODE_PROP + "': " + mode
+                    + ", expected '" + SCHEDULER_MODE_FIXED + "', '" + SCHEDULER_MODE_WORK_STEALING
+                    + "' or '" + SCHEDULER_MODE_VIRTUAL + "'");
+        }
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread per task. This is looked up reflectively,
+     * since the runtime is built to run on JVMs which do not have virtual threads.
+     *
+     * @param namePrefix the name prefix of the created threads
+     * @return the executor, or null if virtual threads are not available in the current JVM
+     */
+    private static ExecutorService createVirtualThreadExecutor(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            /* virtual threads are either not available, or are a disabled preview feature */
+            return null;
+        }
+    }
+
+    private int extractParallelism() {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        String parallelismProp = ConfigRegistry.getInstance().getAsString(SCHEDULER_PARALLELISM_PROP);
+        if (parallelismProp != null) {
+            try {
+                parallelism = Integer.parseInt(parallelismProp);
+                if (parallelism < MIN_THREAD_POOL_SIZE || parallelism > MAX_THREAD_POOL_SIZE) {
+                    throw new BallerinaException(SCHEDULER_PARALLELISM_PROP + " must be between "
+                            + MIN_THREAD_POOL_SIZE + " and " + MAX_THREAD_POOL_SIZE + " (inclusive)");
+                }
+            } catch (NumberFormatException ignore) {
+                throw new BallerinaException("invalid value for '" + SCHEDULER_PARALLELISM_PROP
+                        + "': " + parallelismProp);
+            }
+        }
+        return parallelism;
+    }
     
     private int extractThreadPoolSize() {
         int poolSize = DEFAULT_THREAD_POOL_SIZE;
@@ -80,4 +180,32 @@ public class ThreadPoolFactory {
         return workerExecutor;
     }
 
+    public ExecutorService getBlockingNativeExecutor() {
+        return blockingNativeExecutor;
+    }
+
+    public ExecutorService getStreamDeliveryExecutor() {
+        return streamDeliveryExecutor;
+    }
+
+    /**
+     * Returns whether a blocking native call made on the current thread has to be executed in the blocking native
+     * executor, while its caller waits for the response, instead of blocking the current thread. This is the case for
+     * the per-core workers of the work-stealing mode, as only as many of them as there are cores run the workers.
+     *
+     * @return true if blocking native calls have to be handed to the blocking native executor
+     */
+    public boolean isBlockingNativeOffloaded() {
+        return workStealingExecutor != null && workStealingExecutor.isWorkerThread();
+    }
+
+    /**
+     * Returns the work-stealing executor used for scheduling workers.
+     *
+     * @return the work-stealing executor, or null if the scheduler is not in work-stealing mode
+     */
+    public WorkStealingExecutor getWorkStealingExecutor() {
+        return workStealingExecutor;
+    }
+
 }
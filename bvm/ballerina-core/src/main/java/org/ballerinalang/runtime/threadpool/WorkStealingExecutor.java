@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.runtime.threadpool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@code WorkStealingExecutor} is an executor with a dedicated task deque per worker thread.
+ * Tasks submitted from one of its own worker threads (i.e. a worker execution context resumed
+ * by another worker) are pushed to the head of the submitting thread's deque, so they run on the
+ * same core while its data is still hot. Tasks submitted from other threads are distributed
+ * round-robin. Idle workers steal from the tail of other workers' deques before parking.
+ *
+ * @since 0.974.1
+ */
+public class WorkStealingExecutor extends AbstractExecutorService {
+
+    private static final long PARK_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Worker[] workers;
+
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    private final AtomicInteger terminatedWorkers = new AtomicInteger();
+
+    private final Object terminationLock = new Object();
+
+    private volatile boolean shutdown;
+
+    public WorkStealingExecutor(int parallelism, BLangThreadFactory threadFactory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            this.workers[i] = new Worker(i);
+        }
+        for (Worker worker : this.workers) {
+            worker.thread = threadFactory.newThread(worker);
+            worker.thread.start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        if (this.shutdown) {
+            throw new RejectedExecutionException("executor has been shutdown");
+        }
+        Worker current = this.currentWorker.get();
+        if (current != null) {
+            current.push(task);
+        } else {
+            int index = (this.nextWorker.getAndIncrement() & Integer.MAX_VALUE) % this.workers.length;
+            this.workers[index].pushExternal(task);
+        }
+        this.signalIdleWorker();
+    }
+
+    /**
+     * Returns the number of workers, i.e. the number of per-core deques of this executor.
+     *
+     * @return the number of workers
+     */
+    public int getParallelism() {
+        return this.workers.length;
+    }
+
+    /**
+     * Returns whether the current thread is one of the workers of this executor.
+     *
+     * @return true if the current thread is a worker of this executor
+     */
+    public boolean isWorkerThread() {
+        return this.currentWorker.get() != null;
+    }
+
+    public long getQueueDepth(int workerIndex) {
+        return this.workers[workerIndex].queueDepth.get();
+    }
+
+    public long getStealCount(int workerIndex) {
+        return this.workers[workerIndex].steals.get();
+    }
+
+    public long getParkCount(int workerIndex) {
+        return this.workers[workerIndex].parks.get();
+    }
+
+    public long getUnparkCount(int workerIndex) {
+        return this.workers[workerIndex].unparks.get();
+    }
+
+    public long getTotalQueueDepth() {
+        long total = 0;
+        for (Worker worker : this.workers) {
+            total += worker.queueDepth.get();
+        }
+        return total;
+    }
+
+    public long getTotalStealCount() {
+        long total = 0;
+        for (Worker worker : this.workers) {
+            total += worker.steals.get();
+        }
+        return total;
+    }
+
+    @Override
+    public void shutdown() {
+        this.shutdown = true;
+        for (Worker worker : this.workers) {
+            LockSupport.unpark(worker.thread);
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        this.shutdown();
+        List<Runnable> pending = new ArrayList<>();
+        for (Worker worker : this.workers) {
+            Runnable task;
+            while ((task = worker.pollLast()) != null) {
+                pending.add(task);
+            }
+            worker.thread.interrupt();
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return this.shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return this.terminatedWorkers.get() == this.workers.length;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this.terminationLock) {
+            while (!this.isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this.terminationLock, remaining);
+            }
+        }
+        return true;
+    }
+
+    private void signalIdleWorker() {
+        int start = ThreadLocalRandom.current().nextInt(this.workers.length);
+        for (int i = 0; i < this.workers.length; i++) {
+            Worker worker = this.workers[(start + i) % this.workers.length];
+            if (worker.idle.get() && worker.idle.compareAndSet(true, false)) {
+                worker.unparks.incrementAndGet();
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    private Runnable steal(Worker thief) {
+        int start = ThreadLocalRandom.current().nextInt(this.workers.length);
+        for (int i = 0; i < this.workers.length; i++) {
+            Worker victim = this.workers[(start + i) % this.workers.length];
+            if (victim == thief) {
+                continue;
+            }
+            Runnable task = victim.pollLast();
+            if (task != null) {
+                thief.steals.incrementAndGet();
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private Runnable findTask(Worker worker) {
+        Runnable task = worker.pollFirst();
+        if (task == null) {
+            task = this.steal(worker);
+        }
+        return task;
+    }
+
+    private void workerTerminated() {
+        synchronized (this.terminationLock) {
+            this.terminatedWorkers.incrementAndGet();
+            this.terminationLock.notifyAll();
+        }
+    }
+
+    /**
+     * This represents a single worker thread of the executor together with its task deque.
+     */
+    private class Worker implements Runnable {
+
+        private final int index;
+
+        private final ConcurrentLinkedDeque<Runnable> deque = new ConcurrentLinkedDeque<>();
+
+        private final AtomicLong queueDepth = new AtomicLong();
+
+        private final AtomicBoolean idle = new AtomicBoolean();
+
+        private final AtomicLong steals = new AtomicLong();
+
+        private final AtomicLong parks = new AtomicLong();
+
+        private final AtomicLong unparks = new AtomicLong();
+
+        private Thread thread;
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        void push(Runnable task) {
+            this.queueDepth.incrementAndGet();
+            this.deque.offerFirst(task);
+        }
+
+        void pushExternal(Runnable task) {
+            this.queueDepth.incrementAndGet();
+            this.deque.offerLast(task);
+        }
+
+        Runnable pollFirst() {
+            Runnable task = this.deque.pollFirst();
+            if (task != null) {
+                this.queueDepth.decrementAndGet();
+            }
+            return task;
+        }
+
+        Runnable pollLast() {
+            Runnable task = this.deque.pollLast();
+            if (task != null) {
+                this.queueDepth.decrementAndGet();
+            }
+            return task;
+        }
+
+        @Override
+        public void run() {
+            currentWorker.set(this);
+            try {
+                while (true) {
+                    Runnable task = findTask(this);
+                    if (task == null && shutdown) {
+                        break;
+                    }
+                    if (task == null) {
+                        /* publish the idle state before re-checking the deques, so a concurrent
+                         * submitter either sees this worker as idle or its task is found here */
+                        this.idle.set(true);
+                        task = findTask(this);
+                        if (task == null) {
+                            this.parks.incrementAndGet();
+                            LockSupport.parkNanos(this, PARK_TIMEOUT_NANOS);
+                        }
+                        this.idle.set(false);
+                        if (task == null) {
+                            continue;
+                        }
+                    }
+                    try {
+                        task.run();
+                    } catch (Throwable ignore) {
+                        /* the submitted tasks are responsible for handling their own errors,
+                         * a failing task must not take down the worker thread */
+                    }
+                }
+            } finally {
+                workerTerminated();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "worker-" + this.index;
+        }
+    }
+
+}
@@ -0,0 +1,803 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinalang.util;
+
+import org.ballerinalang.model.types.BField;
+import org.ballerinalang.model.types.BStructureType;
+import org.ballerinalang.model.types.TypeTags;
+import org.ballerinalang.model.values.BJSON;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BStringArray;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code ColumnarTable} stores the data of an in-memory table in the JVM heap, one column per field of the
+ * constraint type. The int, float and boolean columns are kept in primitive arrays, while the other columns
+ * are kept in object arrays.
+ * <p>
+ * The primary key columns are indexed by a hash index, which rejects duplicate keys, and each of the index
+ * columns is indexed by a hash index from a column value to the rows having it.
+ *
+ * @since 0.974.1
+ */
+public class ColumnarTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private final BStructureType type;
+
+    private final Column[] columns;
+
+    private final int[] keyColumns;
+
+    private final Map<Object, Integer> primaryKeyIndex;
+
+    /* the index of each column, or null for the columns, which are not indexed */
+    private final Map<Object, RowList>[] columnIndexes;
+
+    private int size;
+
+    private int capacity;
+
+    private int modCount;
+
+    @SuppressWarnings("unchecked")
+    public ColumnarTable(BStructureType type, BStringArray primaryKeys, BStringArray indexColumns) {
+        this.type = type;
+        BField[] fields = type.getFields();
+        this.columns = new Column[fields.length];
+        int[] fieldTypeCount = new int[6];
+        for (int i = 0; i < fields.length; i++) {
+            this.columns[i] = createColumn(fields[i], fieldTypeCount);
+        }
+        this.capacity = INITIAL_CAPACITY;
+        for (Column column : this.columns) {
+            column.resize(this.capacity);
+        }
+        if (primaryKeys != null && primaryKeys.size() > 0) {
+            this.keyColumns = new int[(int) primaryKeys.size()];
+            for (int i = 0; i < this.keyColumns.length; i++) {
+                this.keyColumns[i] = getIndexableColumn(primaryKeys.get(i));
+            }
+            this.primaryKeyIndex = new HashMap<>();
+        } else {
+            this.keyColumns = null;
+            this.primaryKeyIndex = null;
+        }
+        this.columnIndexes = new Map[fields.length];
+        if (indexColumns != null) {
+            for (int i = 0; i < indexColumns.size(); i++) {
+                this.columnIndexes[getIndexableColumn(indexColumns.get(i))] = new HashMap<>();
+            }
+        }
+    }
+
+    public BStructureType getType() {
+        return this.type;
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of modifications done to the table, which can be used to find whether the table
+     * has been modified since it was last read.
+     *
+     * @return the modification count
+     */
+    public synchronized int getModCount() {
+        return this.modCount;
+    }
+
+    /**
+     * Adds a record to the table as a new row.
+     *
+     * @param data the record to be added
+     */
+    public synchronized void insert(BStruct data) {
+        if (this.size == this.capacity) {
+            this.capacity = this.capacity * 2;
+            for (Column column : this.columns) {
+                column.resize(this.capacity);
+            }
+        }
+        int row = this.size;
+        for (Column column : this.columns) {
+            column.set(row, data);
+        }
+        if (this.primaryKeyIndex != null) {
+            Object key = getPrimaryKey(row);
+            if (this.primaryKeyIndex.putIfAbsent(key, row) != null) {
+                String message = "Unique index or primary key violation: duplicate value " + getPrimaryKeyString(row)
+                        + " for the primary key of table<" + this.type.getName() + ">";
+                for (Column column : this.columns) {
+                    column.clear(row);
+                }
+                throw new BallerinaException(message);
+            }
+        }
+        this.addToIndexes(row);
+        this.size++;
+        this.modCount++;
+    }
+
+    /**
+     * Removes the given rows from the table. The rows after the removed ones are moved up, keeping their order.
+     * The remaining rows are copied into new column arrays, so that the arrays taken by a {@link Snapshot} are
+     * never changed.
+     *
+     * @param rows the rows to be removed
+     */
+    public synchronized void remove(BitSet rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        int newSize = 0;
+        for (Column column : this.columns) {
+            newSize = column.retain(rows, this.size, this.capacity);
+        }
+        this.size = newSize;
+        this.rebuildIndexes();
+        this.modCount++;
+    }
+
+    /**
+     * Returns the rows currently in the table. The rows of a snapshot are not changed by the later
+     * modifications of the table, as the rows are only appended to the column arrays, and the arrays are
+     * replaced when rows are removed.
+     *
+     * @return the snapshot
+     */
+    synchronized Snapshot snapshot() {
+        Object[] vectors = new Object[this.columns.length];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = this.columns[i].values();
+        }
+        return new Snapshot(vectors, this.size, this.modCount);
+    }
+
+    /**
+     * Appends rows given as column arrays, which are of the same kinds as the columns of this table.
+     *
+     * @param vectors the values of the columns
+     * @param rows the rows of the column arrays to be appended in order, or null to append them all
+     * @param count the number of rows to be appended
+     */
+    synchronized void append(Object[] vectors, int[] rows, int count) {
+        int newSize = this.size + count;
+        if (newSize > this.capacity) {
+            this.capacity = Math.max(newSize, this.capacity * 2);
+            for (Column column : this.columns) {
+                column.resize(this.capacity);
+            }
+        }
+        for (int i = 0; i < this.columns.length; i++) {
+            Object values = this.columns[i].values();
+            if (rows == null) {
+                System.arraycopy(vectors[i], 0, values, this.size, count);
+            } else {
+                gather(vectors[i], rows, count, values, this.size);
+            }
+        }
+        for (int row = this.size; row < newSize; row++) {
+            this.addToIndexes(row);
+        }
+        this.size = newSize;
+        this.modCount++;
+    }
+
+    /**
+     * Creates a record from a row of the table.
+     *
+     * @param row the row
+     * @return a new record with the values of the row
+     */
+    public synchronized BStruct getRow(int row) {
+        BStruct data = new BStruct(this.type);
+        for (Column column : this.columns) {
+            column.get(row, data);
+        }
+        return data;
+    }
+
+    /**
+     * Finds the row with the given primary key.
+     *
+     * @param key the values of the primary key columns, in the order of the declaration of the primary key
+     * @return the row, or -1 when there is no such row or the table has no primary key
+     */
+    public synchronized int findRow(Object... key) {
+        if (this.primaryKeyIndex == null) {
+            return -1;
+        }
+        Integer row = this.primaryKeyIndex.get(key.length == 1 ? key[0] : Arrays.asList(key));
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * Finds the rows having the given value in an indexed column, or in the primary key column when the
+     * primary key has a single column.
+     *
+     * @param column the index of the column, in the order of the fields of the constraint type
+     * @param value the value
+     * @return the rows in ascending order, or null when the column is not indexed
+     */
+    public synchronized int[] findRows(int column, Object value) {
+        Map<Object, RowList> index = this.columnIndexes[column];
+        if (index == null) {
+            if (this.keyColumns == null || this.keyColumns.length != 1 || this.keyColumns[0] != column) {
+                return null;
+            }
+            Integer row = this.primaryKeyIndex.get(value);
+            return row == null ? NO_ROWS : new int[] { row };
+        }
+        RowList rows = index.get(value);
+        return rows == null ? NO_ROWS : Arrays.copyOf(rows.rows, rows.count);
+    }
+
+    /**
+     * Returns whether the rows with a value of a column can be found by {@link #findRows(int, Object)}.
+     *
+     * @param column the index of the column, in the order of the fields of the constraint type
+     * @return whether the column is indexed
+     */
+    public synchronized boolean isIndexed(int column) {
+        return this.columnIndexes[column] != null
+                || (this.keyColumns != null && this.keyColumns.length == 1 && this.keyColumns[0] == column);
+    }
+
+    /**
+     * Returns the index of a column from its name. The names are matched ignoring case, as the SQL backend does.
+     *
+     * @param name the name of the column
+     * @return the index of the column, in the order of the fields of the constraint type, or -1 if there is none
+     */
+    public int getColumnIndex(String name) {
+        for (int i = 0; i < this.columns.length; i++) {
+            if (this.columns[i].name.equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized String getString(int row, int column) {
+        return this.columns[column].getString(row);
+    }
+
+    public synchronized long getInt(int row, int column) {
+        return ((LongColumn) this.columns[column]).values[row];
+    }
+
+    public synchronized double getFloat(int row, int column) {
+        return ((DoubleColumn) this.columns[column]).values[row];
+    }
+
+    public synchronized boolean getBoolean(int row, int column) {
+        return ((BooleanColumn) this.columns[column]).values[row];
+    }
+
+    public synchronized Object getValue(int row, int column) {
+        return this.columns[column].getKey(row);
+    }
+
+    /**
+     * Returns a reference value of a JSON, XML or array column, without copying it. The value should not be
+     * changed by the caller.
+     *
+     * @param row the row
+     * @param column the index of the column
+     * @return the value
+     */
+    synchronized BRefType getRefValue(int row, int column) {
+        return ((RefColumn) this.columns[column]).getValue(row);
+    }
+
+    private static void gather(Object source, int[] rows, int count, Object target, int offset) {
+        if (source instanceof long[]) {
+            long[] from = (long[]) source;
+            long[] to = (long[]) target;
+            for (int i = 0; i < count; i++) {
+                to[offset + i] = from[rows[i]];
+            }
+        } else if (source instanceof double[]) {
+            double[] from = (double[]) source;
+            double[] to = (double[]) target;
+            for (int i = 0; i < count; i++) {
+                to[offset + i] = from[rows[i]];
+            }
+        } else if (source instanceof boolean[]) {
+            boolean[] from = (boolean[]) source;
+            boolean[] to = (boolean[]) target;
+            for (int i = 0; i < count; i++) {
+                to[offset + i] = from[rows[i]];
+            }
+        } else {
+            Object[] from = (Object[]) source;
+            Object[] to = (Object[]) target;
+            for (int i = 0; i < count; i++) {
+                to[offset + i] = from[rows[i]];
+            }
+        }
+    }
+
+    private int getIndexableColumn(String name) {
+        int column = this.getColumnIndex(name);
+        if (column == -1) {
+            throw new BallerinaException("column '" + name + "' not found in table<" + this.type.getName() + ">");
+        }
+        return column;
+    }
+
+    private Object getPrimaryKey(int row) {
+        if (this.keyColumns.length == 1) {
+            return this.columns[this.keyColumns[0]].getIndexKey(row);
+        }
+        List<Object> key = new ArrayList<>(this.keyColumns.length);
+        for (int column : this.keyColumns) {
+            key.add(this.columns[column].getIndexKey(row));
+        }
+        return key;
+    }
+
+    private String getPrimaryKeyString(int row) {
+        if (this.keyColumns.length == 1) {
+            return this.columns[this.keyColumns[0]].getString(row);
+        }
+        List<String> key = new ArrayList<>(this.keyColumns.length);
+        for (int column : this.keyColumns) {
+            key.add(this.columns[column].getString(row));
+        }
+        return key.toString();
+    }
+
+    private void addToIndexes(int row) {
+        for (int i = 0; i < this.columnIndexes.length; i++) {
+            Map<Object, RowList> index = this.columnIndexes[i];
+            if (index != null) {
+                index.computeIfAbsent(this.columns[i].getIndexKey(row), k -> new RowList()).add(row);
+            }
+        }
+    }
+
+    private void rebuildIndexes() {
+        if (this.primaryKeyIndex != null) {
+            this.primaryKeyIndex.clear();
+            for (int row = 0; row < this.size; row++) {
+                this.primaryKeyIndex.put(this.getPrimaryKey(row), row);
+            }
+        }
+        for (Map<Object, RowList> index : this.columnIndexes) {
+            if (index != null) {
+                index.clear();
+            }
+        }
+        for (int row = 0; row < this.size; row++) {
+            this.addToIndexes(row);
+        }
+    }
+
+    private static Column createColumn(BField field, int[] fieldTypeCount) {
+        String name = field.getFieldName();
+        switch (field.getFieldType().getTag()) {
+            case TypeTags.INT_TAG:
+                return new LongColumn(name, fieldTypeCount[0]++);
+            case TypeTags.FLOAT_TAG:
+                return new DoubleColumn(name, fieldTypeCount[1]++);
+            case TypeTags.STRING_TAG:
+                return new StringColumn(name, fieldTypeCount[2]++);
+            case TypeTags.BOOLEAN_TAG:
+                return new BooleanColumn(name, fieldTypeCount[3]++);
+            case TypeTags.BLOB_TAG:
+                return new BlobColumn(name, fieldTypeCount[4]++);
+            case TypeTags.JSON_TAG:
+            case TypeTags.XML_TAG:
+            case TypeTags.ARRAY_TAG:
+                return new RefColumn(name, fieldTypeCount[5]++);
+            default:
+                throw new BallerinaException("Unsupported column type for table : " + field.getFieldType());
+        }
+    }
+
+    /**
+     * The rows having a value of an indexed column, in ascending order.
+     */
+    private static class RowList {
+
+        private int[] rows = new int[2];
+
+        private int count;
+
+        private void add(int row) {
+            if (this.count == this.rows.length) {
+                this.rows = Arrays.copyOf(this.rows, this.count * 2);
+            }
+            this.rows[this.count++] = row;
+        }
+
+    }
+
+    /**
+     * The rows of a table at a point of time, given as the column arrays, the number of rows and the modification
+     * count of the table. The column arrays are {@code long[]}, {@code double[]} and {@code boolean[]} for the int,
+     * float and boolean columns, and {@code Object[]} for the other columns.
+     */
+    static final class Snapshot {
+
+        final Object[] columns;
+
+        final int size;
+
+        final int modCount;
+
+        Snapshot(Object[] columns, int size, int modCount) {
+            this.columns = columns;
+            this.size = size;
+            this.modCount = modCount;
+        }
+
+    }
+
+    /**
+     * A column of the table, which reads and writes the values of a field of the records.
+     */
+    private abstract static class Column {
+
+        protected final String name;
+
+        /* the index of the field among the fields of the same kind in the records */
+        protected final int fieldIndex;
+
+        Column(String name, int fieldIndex) {
+            this.name = name;
+            this.fieldIndex = fieldIndex;
+        }
+
+        abstract Object values();
+
+        abstract void setValues(Object values);
+
+        abstract Object newArray(int length);
+
+        abstract void set(int row, BStruct data);
+
+        abstract void get(int row, BStruct data);
+
+        abstract Object getKey(int row);
+
+        /* the key of the value in the primary key index and in the column indexes, which is equal for the
+         * values the SQL backend considers equal */
+        Object getIndexKey(int row) {
+            return this.getKey(row);
+        }
+
+        void resize(int capacity) {
+            Object values = this.values();
+            Object newValues = this.newArray(capacity);
+            if (values != null) {
+                System.arraycopy(values, 0, newValues, 0, Array.getLength(values));
+            }
+            this.setValues(newValues);
+        }
+
+        /* copies the rows, which are not removed, into a new array, and returns the number of them */
+        int retain(BitSet removed, int size, int capacity) {
+            Object values = this.values();
+            Object newValues = this.newArray(capacity);
+            int newSize = 0;
+            int from = removed.nextClearBit(0);
+            while (from < size) {
+                int to = removed.nextSetBit(from);
+                if (to < 0 || to > size) {
+                    to = size;
+                }
+                System.arraycopy(values, from, newValues, newSize, to - from);
+                newSize += to - from;
+                from = removed.nextClearBit(to);
+            }
+            this.setValues(newValues);
+            return newSize;
+        }
+
+        void clear(int row) {
+            /* nothing is referred to by the primitive columns */
+        }
+
+        String getString(int row) {
+            return String.valueOf(this.getKey(row));
+        }
+
+    }
+
+    private static class LongColumn extends Column {
+
+        private long[] values;
+
+        LongColumn(String name, int fieldIndex) {
+            super(name, fieldIndex);
+        }
+
+        @Override
+        Object values() {
+            return this.values;
+        }
+
+        @Override
+        void setValues(Object values) {
+            this.values = (long[]) values;
+        }
+
+        @Override
+        Object newArray(int length) {
+            return new long[length];
+        }
+
+        @Override
+        void set(int row, BStruct data) {
+            this.values[row] = data.getIntField(this.fieldIndex);
+        }
+
+        @Override
+        void get(int row, BStruct data) {
+            data.setIntField(this.fieldIndex, this.values[row]);
+        }
+
+        @Override
+        Object getKey(int row) {
+            return this.values[row];
+        }
+
+    }
+
+    private static class DoubleColumn extends Column {
+
+        private double[] values;
+
+        DoubleColumn(String name, int fieldIndex) {
+            super(name, fieldIndex);
+        }
+
+        @Override
+        Object values() {
+            return this.values;
+        }
+
+        @Override
+        void setValues(Object values) {
+            this.values = (double[]) values;
+        }
+
+        @Override
+        Object newArray(int length) {
+            return new double[length];
+        }
+
+        @Override
+        void set(int row, BStruct data) {
+            this.values[row] = data.getFloatField(this.fieldIndex);
+        }
+
+        @Override
+        void get(int row, BStruct data) {
+            data.setFloatField(this.fieldIndex, this.values[row]);
+        }
+
+        @Override
+        Object getKey(int row) {
+            return this.values[row];
+        }
+
+    }
+
+    private static class BooleanColumn extends Column {
+
+        private boolean[] values;
+
+        BooleanColumn(String name, int fieldIndex) {
+            super(name, fieldIndex);
+        }
+
+        @Override
+        Object values() {
+            return this.values;
+        }
+
+        @Override
+        void setValues(Object values) {
+            this.values = (boolean[]) values;
+        }
+
+        @Override
+        Object newArray(int length) {
+            return new boolean[length];
+        }
+
+        @Override
+        void set(int row, BStruct data) {
+            this.values[row] = data.getBooleanField(this.fieldIndex) == 1;
+        }
+
+        @Override
+        void get(int row, BStruct data) {
+            data.setBooleanField(this.fieldIndex, this.values[row] ? 1 : 0);
+        }
+
+        @Override
+        Object getKey(int row) {
+            return this.values[row];
+        }
+
+    }
+
+    /**
+     * A column of values of a reference type, which are kept in an object array.
+     */
+    private abstract static class ObjectColumn extends Column {
+
+        protected Object[] values;
+
+        ObjectColumn(String name, int fieldIndex) {
+            super(name, fieldIndex);
+        }
+
+        @Override
+        Object values() {
+            return this.values;
+        }
+
+        @Override
+        void setValues(Object values) {
+            this.values = (Object[]) values;
+        }
+
+        @Override
+        Object newArray(int length) {
+            return new Object[length];
+        }
+
+        @Override
+        void clear(int row) {
+            this.values[row] = null;
+        }
+
+        @Override
+        Object getKey(int row) {
+            return this.values[row];
+        }
+
+        @Override
+        String getString(int row) {
+            Object value = this.values[row];
+            return value == null ? null : value.toString();
+        }
+
+    }
+
+    private static class StringColumn extends ObjectColumn {
+
+        StringColumn(String name, int fieldIndex) {
+            super(name, fieldIndex);
+        }
+
+        @Override
+        void set(int row, BStruct data) {
+            this.values[row] = data.getStringField(this.fieldIndex);
+        }
+
+        @Override
+        void get(int row, BStruct data) {
+            data.setStringField(this.fieldIndex, (String) this.values[row]);
+        }
+
+    }
+
+    private static class BlobColumn extends ObjectColumn {
+
+        BlobColumn(String name, int fieldIndex) {
+            super(name, fieldIndex);
+        }
+
+        @Override
+        void set(int row, BStruct data) {
+            this.values[row] = data.getBlobField(this.fieldIndex);
+        }
+
+        @Override
+        void get(int row, BStruct data) {
+            data.setBlobField(this.fieldIndex, (byte[]) this.values[row]);
+        }
+
+        @Override
+        Object getIndexKey(int row) {
+            byte[] value = (byte[]) this.values[row];
+            return value == null ? null : ByteBuffer.wrap(value);
+        }
+
+        @Override
+        String getString(int row) {
+            byte[] value = (byte[]) this.values[row];
+            return value == null ? null : new String(value);
+        }
+
+    }
+
+    /**
+     * A column of JSON, XML or array values. The values are copied when they are added and read, so that the
+     * rows are not changed through the records. The JSON values are kept serialized, as they are read back
+     * by parsing them.
+     */
+    private static class RefColumn extends ObjectColumn {
+
+        RefColumn(String name, int fieldIndex) {
+            super(name, fieldIndex);
+        }
+
+        @Override
+        void set(int row, BStruct data) {
+            BRefType value = data.getRefField(this.fieldIndex);
+            if (value instanceof BJSON) {
+                this.values[row] = value.stringValue();
+            } else {
+                this.values[row] = value == null ? null : value.copy();
+            }
+        }
+
+        @Override
+        void get(int row, BStruct data) {
+            Object value = this.values[row];
+            if (value instanceof String) {
+                data.setRefField(this.fieldIndex, new BJSON((String) value));
+            } else {
+                data.setRefField(this.fieldIndex, value == null ? null : (BRefType) ((BRefType) value).copy());
+            }
+        }
+
+        @Override
+        Object getIndexKey(int row) {
+            return this.getString(row);
+        }
+
+        @Override
+        String getString(int row) {
+            Object value = this.values[row];
+            if (value == null || value instanceof String) {
+                return (String) value;
+            }
+            return ((BRefType) value).stringValue();
+        }
+
+        BRefType getValue(int row) {
+            Object value = this.values[row];
+            return value instanceof String ? new BJSON((String) value) : (BRefType) value;
+        }
+
+    }
+}
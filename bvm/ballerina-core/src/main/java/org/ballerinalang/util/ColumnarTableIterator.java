@@ -0,0 +1,120 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinalang.util;
+
+import org.ballerinalang.model.ColumnDefinition;
+import org.ballerinalang.model.DataIterator;
+import org.ballerinalang.model.types.BStructureType;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BStruct;
+
+import java.util.List;
+
+/**
+ * Iterator implementation for the tables stored in a {@link ColumnarTable}. The rows present when the
+ * iterator is created are iterated, as the table is not changed without resetting its iterator.
+ *
+ * @since 0.974.1
+ */
+public class ColumnarTableIterator implements DataIterator {
+
+    private final ColumnarTable table;
+
+    private final int end;
+
+    private int row = -1;
+
+    private List<ColumnDefinition> columnDefs;
+
+    public ColumnarTableIterator(ColumnarTable table) {
+        this.table = table;
+        this.end = table.size();
+    }
+
+    @Override
+    public boolean next() {
+        if (this.row < this.end) {
+            this.row++;
+        }
+        return this.row < this.end;
+    }
+
+    @Override
+    public void close(boolean isInTransaction) {
+        this.row = this.end;
+    }
+
+    @Override
+    public void reset(boolean isInTransaction) {
+        close(isInTransaction);
+    }
+
+    @Override
+    public String getString(int columnIndex) {
+        return this.table.getString(this.row, columnIndex - 1);
+    }
+
+    @Override
+    public long getInt(int columnIndex) {
+        return this.table.getInt(this.row, columnIndex - 1);
+    }
+
+    @Override
+    public double getFloat(int columnIndex) {
+        return this.table.getFloat(this.row, columnIndex - 1);
+    }
+
+    @Override
+    public boolean getBoolean(int columnIndex) {
+        return this.table.getBoolean(this.row, columnIndex - 1);
+    }
+
+    @Override
+    public String getBlob(int columnIndex) {
+        return this.table.getString(this.row, columnIndex - 1);
+    }
+
+    @Override
+    public Object[] getStruct(int columnIndex) {
+        return null;
+    }
+
+    @Override
+    public Object[] getArray(int columnIndex) {
+        BRefType value = this.table.getRefValue(this.row, columnIndex - 1);
+        return value == null ? null : TableUtils.getArrayData(value);
+    }
+
+    @Override
+    public BStruct generateNext() {
+        return this.table.getRow(this.row);
+    }
+
+    @Override
+    public List<ColumnDefinition> getColumnDefinitions() {
+        if (this.columnDefs == null) {
+            this.columnDefs = TableIterator.generateColumnDefinitions(this.table.getType());
+        }
+        return this.columnDefs;
+    }
+
+    @Override
+    public BStructureType getStructType() {
+        return this.table.getType();
+    }
+}
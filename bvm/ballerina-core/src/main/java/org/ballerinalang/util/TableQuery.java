@@ -0,0 +1,2178 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.ballerinalang.util;
+
+import org.ballerinalang.model.types.BField;
+import org.ballerinalang.model.types.BStructureType;
+import org.ballerinalang.model.types.TypeTags;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code TableQuery} runs the queries over in-memory tables, which are compiled into SQL by the compiler, directly
+ * over the column arrays of {@link ColumnarTable}s, instead of through the embedded SQL database.
+ * <p>
+ * The rows are processed in batches. The filters, projections, grouping keys and aggregates are evaluated a
+ * column at a time for all the rows of a batch, over primitive arrays for the int, float and boolean values.
+ * The equality conditions on indexed columns are answered from the indexes of the tables, and the joins on
+ * equality conditions are run as hash joins, or as index lookups when the joined column is indexed.
+ * <p>
+ * A query, which uses a construct not supported here, is not run, and is left to the SQL database.
+ *
+ * @since 0.974.1
+ */
+public class TableQuery {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private static final String TABLE_NAME = "[[tableName]]";
+
+    private static final UnsupportedQueryException UNSUPPORTED_QUERY = new UnsupportedQueryException();
+
+    private static final TableQuery UNSUPPORTED = new TableQuery();
+
+    /* the queries are constants of the programs, so that there is a limited number of them */
+    private static final Map<String, TableQuery> QUERIES = new ConcurrentHashMap<>();
+
+    private static final int ADD = 0;
+    private static final int SUB = 1;
+    private static final int MUL = 2;
+    private static final int DIV = 3;
+    private static final int MOD = 4;
+    private static final int EQ = 5;
+    private static final int NE = 6;
+    private static final int GT = 7;
+    private static final int GE = 8;
+    private static final int LT = 9;
+    private static final int LE = 10;
+    private static final int AND = 11;
+    private static final int OR = 12;
+
+    private static final String[] OPERATORS = { "+", "-", "*", "/", "%", "=", "!=", ">", ">=", "<", "<=" };
+
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int AVG = 2;
+    private static final int MIN = 3;
+    private static final int MAX = 4;
+
+    private static final String[] AGGREGATES = { "count", "sum", "avg", "min", "max" };
+
+    private static final String[] KEYWORDS = { "select", "from", "where", "as", "join", "on", "group", "by",
+            "having", "order", "limit", "and", "or", "not", "asc", "desc" };
+
+    /* the select expressions, or null when all the columns are selected */
+    private List<SelectItem> selectItems;
+
+    private Source from;
+
+    private Source join;
+
+    private Node joinCondition;
+
+    private List<Node> groupBy;
+
+    private Node having;
+
+    private List<OrderItem> orderBy;
+
+    private long limit = -1;
+
+    private TableQuery() {
+    }
+
+    /**
+     * Returns the query for a SQL query generated by the compiler.
+     *
+     * @param query the SQL query
+     * @return the query, or null when the query is not supported
+     */
+    public static TableQuery get(String query) {
+        TableQuery tableQuery = QUERIES.computeIfAbsent(query, TableQuery::parse);
+        return tableQuery == UNSUPPORTED ? null : tableQuery;
+    }
+
+    /**
+     * Runs the query over the given tables.
+     *
+     * @param fromTable the table queried
+     * @param joinTable the table joined, or null when the query has no join
+     * @param type the constraint type of the result
+     * @param params the values of the parameters of the query
+     * @return a new table with the result, or null when the query is not supported over the given tables
+     */
+    public ColumnarTable execute(ColumnarTable fromTable, ColumnarTable joinTable, BStructureType type,
+                                 BRefValueArray params) {
+        if ((this.join == null) != (joinTable == null)) {
+            return null;
+        }
+        try {
+            return new Execution(this, fromTable, joinTable, params).run(type);
+        } catch (UnsupportedQueryException e) {
+            return null;
+        }
+    }
+
+    private static TableQuery parse(String query) {
+        try {
+            return new Parser(query).parseQuery();
+        } catch (UnsupportedQueryException e) {
+            return UNSUPPORTED;
+        }
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNumeric(int tag) {
+        return tag == TypeTags.INT_TAG || tag == TypeTags.FLOAT_TAG;
+    }
+
+    private static boolean containsAggregate(Node node) {
+        if (node instanceof CallNode) {
+            return indexOf(AGGREGATES, ((CallNode) node).function) != -1;
+        } else if (node instanceof BinaryNode) {
+            return containsAggregate(((BinaryNode) node).lhs) || containsAggregate(((BinaryNode) node).rhs);
+        } else if (node instanceof NotNode) {
+            return containsAggregate(((NotNode) node).expr);
+        }
+        return false;
+    }
+
+    /* splits a condition into the conditions combined with and */
+    private static void addConjuncts(Node node, List<Node> conjuncts) {
+        if (node instanceof BinaryNode && ((BinaryNode) node).op == AND) {
+            addConjuncts(((BinaryNode) node).lhs, conjuncts);
+            addConjuncts(((BinaryNode) node).rhs, conjuncts);
+        } else {
+            conjuncts.add(node);
+        }
+    }
+
+    private static void filter(Batch batch, Expr condition) {
+        condition.eval(batch);
+        boolean[] matches = condition.booleans;
+        int count = 0;
+        for (int i = 0; i < batch.count; i++) {
+            if (matches[i]) {
+                batch.left[count] = batch.left[i];
+                batch.right[count] = batch.right[i];
+                batch.groups[count] = batch.groups[i];
+                count++;
+            }
+        }
+        batch.count = count;
+    }
+
+    /**
+     * Parses the SQL queries generated by the compiler for the queries over tables.
+     */
+    private static class Parser {
+
+        private final List<String> tokens;
+
+        private int position;
+
+        private int paramCount;
+
+        Parser(String query) {
+            this.tokens = tokenize(query);
+        }
+
+        private static List<String> tokenize(String query) {
+            List<String> tokens = new ArrayList<>();
+            int length = query.length();
+            int i = 0;
+            while (i < length) {
+                char ch = query.charAt(i);
+                if (Character.isWhitespace(ch)) {
+                    i++;
+                    continue;
+                }
+                int start = i;
+                if (query.startsWith(TABLE_NAME, i)) {
+                    i += TABLE_NAME.length();
+                } else if (Character.isLetter(ch) || ch == '_') {
+                    while (i < length && (Character.isLetterOrDigit(query.charAt(i)) || query.charAt(i) == '_')) {
+                        i++;
+                    }
+                } else if (Character.isDigit(ch)) {
+                    while (i < length && (Character.isDigit(query.charAt(i)) || query.charAt(i) == '.')) {
+                        i++;
+                    }
+                } else if ((ch == '>' || ch == '<' || ch == '!') && i + 1 < length && query.charAt(i + 1) == '=') {
+                    i += 2;
+                } else if ("?*(),.=<>+-/%".indexOf(ch) != -1) {
+                    i++;
+                } else {
+                    throw UNSUPPORTED_QUERY;
+                }
+                tokens.add(query.substring(start, i));
+            }
+            return tokens;
+        }
+
+        TableQuery parseQuery() {
+            TableQuery query = new TableQuery();
+            this.expect("select");
+            if (!this.accept("*")) {
+                query.selectItems = new ArrayList<>();
+                do {
+                    Node expr = this.parseExpr();
+                    query.selectItems.add(new SelectItem(expr, this.accept("as") ? this.identifier() : null));
+                } while (this.accept(","));
+            }
+            this.expect("from");
+            query.from = this.parseSource();
+            if (this.accept("join")) {
+                query.join = this.parseSource();
+                this.expect("on");
+                query.joinCondition = this.parseExpr();
+            }
+            if (this.accept("group")) {
+                this.expect("by");
+                query.groupBy = new ArrayList<>();
+                do {
+                    query.groupBy.add(this.parseExpr());
+                } while (this.accept(","));
+            }
+            if (this.accept("having")) {
+                query.having = this.parseExpr();
+            }
+            if (this.accept("order")) {
+                this.expect("by");
+                query.orderBy = new ArrayList<>();
+                do {
+                    Node expr = this.parseExpr();
+                    boolean descending = this.accept("desc");
+                    if (!descending) {
+                        this.accept("asc");
+                    }
+                    query.orderBy.add(new OrderItem(expr, descending));
+                } while (this.accept(","));
+            }
+            if (this.accept("limit")) {
+                query.limit = this.parseLimit(this.next());
+            }
+            if (this.position != this.tokens.size()) {
+                throw UNSUPPORTED_QUERY;
+            }
+            return query;
+        }
+
+        private long parseLimit(String token) {
+            try {
+                return Long.parseLong(token);
+            } catch (NumberFormatException e) {
+                throw UNSUPPORTED_QUERY;
+            }
+        }
+
+        private Source parseSource() {
+            this.expect("(");
+            this.expect("select");
+            this.expect("*");
+            this.expect("from");
+            this.expect(TABLE_NAME);
+            Node where = this.accept("where") ? this.parseExpr() : null;
+            this.expect(")");
+            return new Source(where, this.accept("as") ? this.identifier() : null);
+        }
+
+        private Node parseExpr() {
+            Node node = this.parseAnd();
+            while (this.accept("or")) {
+                node = new BinaryNode(OR, node, this.parseAnd());
+            }
+            return node;
+        }
+
+        private Node parseAnd() {
+            Node node = this.parseNot();
+            while (this.accept("and")) {
+                node = new BinaryNode(AND, node, this.parseNot());
+            }
+            return node;
+        }
+
+        private Node parseNot() {
+            if (this.accept("not")) {
+                return new NotNode(this.parseNot());
+            }
+            Node node = this.parseAdditive();
+            int op = indexOf(OPERATORS, this.peek());
+            if (op >= EQ) {
+                this.position++;
+                node = new BinaryNode(op, node, this.parseAdditive());
+            }
+            return node;
+        }
+
+        private Node parseAdditive() {
+            Node node = this.parseMultiplicative();
+            for (int op = indexOf(OPERATORS, this.peek()); op == ADD || op == SUB;
+                 op = indexOf(OPERATORS, this.peek())) {
+                this.position++;
+                node = new BinaryNode(op, node, this.parseMultiplicative());
+            }
+            return node;
+        }
+
+        private Node parseMultiplicative() {
+            Node node = this.parsePrimary();
+            for (int op = indexOf(OPERATORS, this.peek()); op == MUL || op == DIV || op == MOD;
+                 op = indexOf(OPERATORS, this.peek())) {
+                this.position++;
+                node = new BinaryNode(op, node, this.parsePrimary());
+            }
+            return node;
+        }
+
+        private Node parsePrimary() {
+            String token = this.next();
+            if (token.equals("?")) {
+                return new ValueNode(this.paramCount++, null);
+            } else if (Character.isDigit(token.charAt(0))) {
+                try {
+                    return new ValueNode(-1, token.indexOf('.') == -1 ? (Object) Long.valueOf(token)
+                            : (Object) Double.valueOf(token));
+                } catch (NumberFormatException e) {
+                    throw UNSUPPORTED_QUERY;
+                }
+            } else if (token.equals("(")) {
+                Node node = this.parseExpr();
+                this.expect(")");
+                return node;
+            }
+            this.position--;
+            String name = this.identifier();
+            if (this.accept("(")) {
+                List<Node> args = null;
+                if (!this.accept("*")) {
+                    args = new ArrayList<>();
+                    if (!this.peek().equals(")")) {
+                        do {
+                            args.add(this.parseExpr());
+                        } while (this.accept(","));
+                    }
+                }
+                this.expect(")");
+                return new CallNode(name.toLowerCase(Locale.ENGLISH), args);
+            } else if (this.accept(".")) {
+                return new ColumnNode(name, this.identifier());
+            }
+            return new ColumnNode(null, name);
+        }
+
+        private String identifier() {
+            String token = this.next();
+            char ch = token.charAt(0);
+            if (!(Character.isLetter(ch) || ch == '_') || indexOf(KEYWORDS, token) != -1) {
+                throw UNSUPPORTED_QUERY;
+            }
+            return token;
+        }
+
+        private String peek() {
+            return this.position < this.tokens.size() ? this.tokens.get(this.position) : "";
+        }
+
+        private String next() {
+            if (this.position == this.tokens.size()) {
+                throw UNSUPPORTED_QUERY;
+            }
+            return this.tokens.get(this.position++);
+        }
+
+        private boolean accept(String token) {
+            if (this.peek().equalsIgnoreCase(token)) {
+                this.position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!this.accept(token)) {
+                throw UNSUPPORTED_QUERY;
+            }
+        }
+
+    }
+
+    /**
+     * Runs a query over a pair of tables. The expressions of the query are bound to the columns of the tables
+     * before any row is read, so that an unsupported query is found before doing any work.
+     */
+    private static class Execution {
+
+        private static final int ROW_MODE = 0;
+
+        private static final int GROUP_MODE = 1;
+
+        private final TableQuery query;
+
+        private final Object[] params;
+
+        private final int[] paramTags;
+
+        private final Side left;
+
+        private final Side right;
+
+        private final Batch batch = new Batch();
+
+        private final List<AggregateExpr> aggregates = new ArrayList<>();
+
+        private final List<ColumnExpr> groupKeys = new ArrayList<>();
+
+        Execution(TableQuery query, ColumnarTable fromTable, ColumnarTable joinTable, BRefValueArray params) {
+            this.query = query;
+            int paramCount = params == null ? 0 : (int) params.size();
+            this.params = new Object[paramCount];
+            this.paramTags = new int[paramCount];
+            for (int i = 0; i < paramCount; i++) {
+                BRefType param = params.get(i);
+                if (param == null) {
+                    throw UNSUPPORTED_QUERY;
+                }
+                int tag = param.getType().getTag();
+                if (tag != TypeTags.INT_TAG && tag != TypeTags.FLOAT_TAG && tag != TypeTags.STRING_TAG
+                        && tag != TypeTags.BOOLEAN_TAG) {
+                    throw UNSUPPORTED_QUERY;
+                }
+                this.params[i] = param.value();
+                this.paramTags[i] = tag;
+            }
+            this.left = this.openSide(fromTable, query.from);
+            this.right = joinTable == null ? null : this.openSide(joinTable, query.join);
+        }
+
+        ColumnarTable run(BStructureType type) {
+            Side[] scope = this.right == null ? new Side[] { this.left } : new Side[] { this.left, this.right };
+            Expr leftWhere = this.bindCondition(this.query.from.where, new Side[] { this.left }, ROW_MODE);
+            Expr rightWhere = this.right == null ? null
+                    : this.bindCondition(this.query.join.where, new Side[] { this.right }, ROW_MODE);
+
+            /* the join condition is split into the equality conditions used as the keys and the others */
+            List<int[]> joinKeys = new ArrayList<>();
+            List<Expr> joinFilters = new ArrayList<>();
+            if (this.right != null) {
+                this.bindJoinCondition(joinKeys, joinFilters);
+            }
+
+            boolean grouped = this.query.groupBy != null || this.query.having != null
+                    || this.isAggregateQuery();
+            int mode = grouped ? GROUP_MODE : ROW_MODE;
+            if (this.query.groupBy != null) {
+                for (Node node : this.query.groupBy) {
+                    if (!(node instanceof ColumnNode)) {
+                        throw UNSUPPORTED_QUERY;
+                    }
+                    ColumnExpr key = (ColumnExpr) this.bind(node, scope, ROW_MODE);
+                    if (key.tag != TypeTags.INT_TAG && key.tag != TypeTags.FLOAT_TAG
+                            && key.tag != TypeTags.STRING_TAG && key.tag != TypeTags.BOOLEAN_TAG) {
+                        throw UNSUPPORTED_QUERY;
+                    }
+                    this.groupKeys.add(key);
+                }
+            }
+            Expr having = this.bindCondition(this.query.having, scope, GROUP_MODE);
+
+            BField[] fields = type.getFields();
+            List<Expr> columns = new ArrayList<>();
+            List<String> columnNames = new ArrayList<>();
+            if (this.query.selectItems == null) {
+                for (int slot = 0; slot < scope.length; slot++) {
+                    for (int column = 0; column < scope[slot].fields.length; column++) {
+                        columns.add(this.bindColumn(scope[slot], slot, column, mode));
+                        columnNames.add(scope[slot].fields[column].getFieldName());
+                    }
+                }
+            } else {
+                for (SelectItem item : this.query.selectItems) {
+                    columns.add(this.bind(item.expr, scope, mode));
+                    columnNames.add(item.alias != null ? item.alias
+                            : item.expr instanceof ColumnNode ? ((ColumnNode) item.expr).name : null);
+                }
+            }
+            if (columns.size() != fields.length) {
+                throw UNSUPPORTED_QUERY;
+            }
+            int[] fieldTags = new int[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                fieldTags[i] = fields[i].getFieldType().getTag();
+                if (!isAssignable(columns.get(i).tag, fieldTags[i])) {
+                    throw UNSUPPORTED_QUERY;
+                }
+            }
+
+            int orderCount = this.query.orderBy == null ? 0 : this.query.orderBy.size();
+            Expr[] orderKeys = new Expr[orderCount];
+            int[] orderColumns = new int[orderCount];
+            boolean[] descending = new boolean[orderCount];
+            for (int i = 0; i < orderCount; i++) {
+                OrderItem item = this.query.orderBy.get(i);
+                orderColumns[i] = -1;
+                if (item.expr instanceof ColumnNode && ((ColumnNode) item.expr).qualifier == null) {
+                    orderColumns[i] = indexOfName(columnNames, ((ColumnNode) item.expr).name);
+                }
+                Expr key = orderColumns[i] == -1 ? this.bind(item.expr, scope, mode) : columns.get(orderColumns[i]);
+                if (key.tag != TypeTags.INT_TAG && key.tag != TypeTags.FLOAT_TAG && key.tag != TypeTags.STRING_TAG
+                        && key.tag != TypeTags.BOOLEAN_TAG) {
+                    throw UNSUPPORTED_QUERY;
+                }
+                orderKeys[i] = orderColumns[i] == -1 ? key : null;
+                descending[i] = item.descending;
+            }
+
+            Sink sink = new Sink(columns.toArray(new Expr[columns.size()]), fieldTags, orderKeys, orderColumns,
+                    descending, this.query.limit);
+            if (sink.isFull()) {
+                return sink.toTable(type);
+            }
+            if (grouped) {
+                Grouper grouper = new Grouper(this.groupKeys, this.aggregates, this.query.groupBy == null);
+                this.produceRows(leftWhere, rightWhere, joinKeys, joinFilters, grouper);
+                grouper.produceGroups(having, sink);
+            } else {
+                this.produceRows(leftWhere, rightWhere, joinKeys, joinFilters, sink);
+            }
+            return sink.toTable(type);
+        }
+
+        private static int indexOfName(List<String> names, String name) {
+            for (int i = 0; i < names.size(); i++) {
+                if (name.equalsIgnoreCase(names.get(i))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean isAssignable(int exprTag, int fieldTag) {
+            if (isNumeric(fieldTag)) {
+                return isNumeric(exprTag);
+            }
+            return exprTag == fieldTag;
+        }
+
+        private boolean isAggregateQuery() {
+            if (this.query.selectItems != null) {
+                for (SelectItem item : this.query.selectItems) {
+                    if (containsAggregate(item.expr)) {
+                        return true;
+                    }
+                }
+            }
+            if (this.query.orderBy != null) {
+                for (OrderItem item : this.query.orderBy) {
+                    if (containsAggregate(item.expr)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /* takes the rows of a table, from its indexes if the condition of the table allows */
+        private Side openSide(ColumnarTable table, Source source) {
+            Side side = new Side(table, source.alias);
+            List<Node> conjuncts = new ArrayList<>();
+            if (source.where != null) {
+                addConjuncts(source.where, conjuncts);
+            }
+            synchronized (table) {
+                side.snapshot = table.snapshot();
+                for (Node conjunct : conjuncts) {
+                    int[] rows = this.lookUp(side, conjunct);
+                    if (rows != null) {
+                        side.candidates = rows;
+                        break;
+                    }
+                }
+            }
+            return side;
+        }
+
+        /* finds the rows matching a condition of the form column = value from the index of the column */
+        private int[] lookUp(Side side, Node condition) {
+            if (!(condition instanceof BinaryNode) || ((BinaryNode) condition).op != EQ) {
+                return null;
+            }
+            Node lhs = ((BinaryNode) condition).lhs;
+            Node rhs = ((BinaryNode) condition).rhs;
+            if (lhs instanceof ValueNode) {
+                Node node = lhs;
+                lhs = rhs;
+                rhs = node;
+            }
+            if (!(lhs instanceof ColumnNode) || !(rhs instanceof ValueNode)
+                    || ((ColumnNode) lhs).qualifier != null) {
+                return null;
+            }
+            int column = side.table.getColumnIndex(((ColumnNode) lhs).name);
+            if (column == -1) {
+                return null;
+            }
+            ValueNode valueNode = (ValueNode) rhs;
+            Object value = valueNode.param == -1 ? valueNode.value
+                    : valueNode.param < this.params.length ? this.params[valueNode.param] : null;
+            Object key;
+            switch (side.fields[column].getFieldType().getTag()) {
+                case TypeTags.INT_TAG:
+                    key = value instanceof Long ? value : null;
+                    break;
+                case TypeTags.FLOAT_TAG:
+                    key = value instanceof Number ? (Object) ((Number) value).doubleValue() : null;
+                    break;
+                case TypeTags.STRING_TAG:
+                    key = value instanceof String ? value : null;
+                    break;
+                case TypeTags.BOOLEAN_TAG:
+                    key = value instanceof Boolean ? value : null;
+                    break;
+                default:
+                    key = null;
+                    break;
+            }
+            if (key == null) {
+                return null;
+            }
+            return side.table.findRows(column, key);
+        }
+
+        private void bindJoinCondition(List<int[]> joinKeys, List<Expr> joinFilters) {
+            Side[] scope = { this.left, this.right };
+            List<Node> conjuncts = new ArrayList<>();
+            addConjuncts(this.query.joinCondition, conjuncts);
+            for (Node conjunct : conjuncts) {
+                if (conjunct instanceof BinaryNode && ((BinaryNode) conjunct).op == EQ
+                        && ((BinaryNode) conjunct).lhs instanceof ColumnNode
+                        && ((BinaryNode) conjunct).rhs instanceof ColumnNode) {
+                    int[] lhs = this.resolve((ColumnNode) ((BinaryNode) conjunct).lhs, scope);
+                    int[] rhs = this.resolve((ColumnNode) ((BinaryNode) conjunct).rhs, scope);
+                    if (lhs[0] != rhs[0]) {
+                        int[] leftColumn = lhs[0] == 0 ? lhs : rhs;
+                        int[] rightColumn = lhs[0] == 0 ? rhs : lhs;
+                        int leftTag = this.left.fields[leftColumn[1]].getFieldType().getTag();
+                        int rightTag = this.right.fields[rightColumn[1]].getFieldType().getTag();
+                        if (leftTag == rightTag && (leftTag == TypeTags.INT_TAG || leftTag == TypeTags.FLOAT_TAG
+                                || leftTag == TypeTags.STRING_TAG || leftTag == TypeTags.BOOLEAN_TAG)) {
+                            joinKeys.add(new int[] { leftColumn[1], rightColumn[1] });
+                            continue;
+                        }
+                    }
+                }
+                joinFilters.add(this.bindCondition(conjunct, scope, ROW_MODE));
+            }
+        }
+
+        private Expr bindCondition(Node node, Side[] scope, int mode) {
+            if (node == null) {
+                return null;
+            }
+            Expr condition = this.bind(node, scope, mode);
+            if (condition.tag != TypeTags.BOOLEAN_TAG) {
+                throw UNSUPPORTED_QUERY;
+            }
+            return condition;
+        }
+
+        /* finds the slot of the table and the index of the column referred to */
+        private int[] resolve(ColumnNode node, Side[] scope) {
+            int[] found = null;
+            for (int slot = 0; slot < scope.length; slot++) {
+                Side side = scope[slot];
+                if (node.qualifier != null && !node.qualifier.equalsIgnoreCase(side.alias)) {
+                    continue;
+                }
+                int column = side.table.getColumnIndex(node.name);
+                if (column != -1) {
+                    if (found != null) {
+                        throw UNSUPPORTED_QUERY;
+                    }
+                    found = new int[] { slot, column };
+                }
+            }
+            if (found == null) {
+                throw UNSUPPORTED_QUERY;
+            }
+            return found;
+        }
+
+        private ColumnExpr bindColumn(Side side, int slot, int column, int mode) {
+            if (mode == GROUP_MODE) {
+                boolean grouped = false;
+                for (ColumnExpr key : this.groupKeys) {
+                    grouped |= key.slot == slot && key.column == column;
+                }
+                if (!grouped) {
+                    throw UNSUPPORTED_QUERY;
+                }
+            }
+            return new ColumnExpr(side.fields[column].getFieldType().getTag(), slot, column,
+                    side.snapshot.columns[column]);
+        }
+
+        private Expr bind(Node node, Side[] scope, int mode) {
+            if (node instanceof ColumnNode) {
+                int[] column = this.resolve((ColumnNode) node, scope);
+                return this.bindColumn(scope[column[0]], column[0], column[1], mode);
+            } else if (node instanceof ValueNode) {
+                ValueNode valueNode = (ValueNode) node;
+                if (valueNode.param == -1) {
+                    return new ConstantExpr(valueNode.value instanceof Long ? TypeTags.INT_TAG : TypeTags.FLOAT_TAG,
+                            valueNode.value);
+                } else if (valueNode.param >= this.params.length) {
+                    throw UNSUPPORTED_QUERY;
+                }
+                return new ConstantExpr(this.paramTags[valueNode.param], this.params[valueNode.param]);
+            } else if (node instanceof NotNode) {
+                Expr expr = this.bind(((NotNode) node).expr, scope, mode);
+                if (expr.tag != TypeTags.BOOLEAN_TAG) {
+                    throw UNSUPPORTED_QUERY;
+                }
+                return new NotExpr(expr);
+            } else if (node instanceof BinaryNode) {
+                return this.bindBinary((BinaryNode) node, scope, mode);
+            }
+            return this.bindCall((CallNode) node, scope, mode);
+        }
+
+        private Expr bindBinary(BinaryNode node, Side[] scope, int mode) {
+            Expr lhs = this.bind(node.lhs, scope, mode);
+            Expr rhs = this.bind(node.rhs, scope, mode);
+            if (node.op == AND || node.op == OR) {
+                if (lhs.tag != TypeTags.BOOLEAN_TAG || rhs.tag != TypeTags.BOOLEAN_TAG) {
+                    throw UNSUPPORTED_QUERY;
+                }
+                return new LogicalExpr(node.op, lhs, rhs);
+            } else if (node.op >= EQ) {
+                int kind;
+                if (isNumeric(lhs.tag) && isNumeric(rhs.tag)) {
+                    kind = lhs.tag == TypeTags.INT_TAG && rhs.tag == TypeTags.INT_TAG ? TypeTags.INT_TAG
+                            : TypeTags.FLOAT_TAG;
+                } else if (lhs.tag == TypeTags.STRING_TAG && rhs.tag == TypeTags.STRING_TAG) {
+                    kind = TypeTags.STRING_TAG;
+                } else if (lhs.tag == TypeTags.BOOLEAN_TAG && rhs.tag == TypeTags.BOOLEAN_TAG
+                        && (node.op == EQ || node.op == NE)) {
+                    kind = TypeTags.BOOLEAN_TAG;
+                } else {
+                    throw UNSUPPORTED_QUERY;
+                }
+                return new CompareExpr(node.op, kind, lhs, rhs);
+            }
+            if (!isNumeric(lhs.tag) || !isNumeric(rhs.tag)) {
+                throw UNSUPPORTED_QUERY;
+            }
+            return new ArithmeticExpr(node.op, lhs, rhs);
+        }
+
+        private Expr bindCall(CallNode node, Side[] scope, int mode) {
+            if (node.function.equals("power") && node.args != null && node.args.size() == 2) {
+                Expr lhs = this.bind(node.args.get(0), scope, mode);
+                Expr rhs = this.bind(node.args.get(1), scope, mode);
+                if (!isNumeric(lhs.tag) || !isNumeric(rhs.tag)) {
+                    throw UNSUPPORTED_QUERY;
+                }
+                return new PowerExpr(lhs, rhs);
+            }
+            int function = indexOf(AGGREGATES, node.function);
+            if (function == -1 || mode != GROUP_MODE) {
+                throw UNSUPPORTED_QUERY;
+            }
+            Expr arg = null;
+            if (node.args == null) {
+                if (function != COUNT) {
+                    throw UNSUPPORTED_QUERY;
+                }
+            } else if (node.args.size() == 1) {
+                arg = this.bind(node.args.get(0), scope, ROW_MODE);
+            } else {
+                throw UNSUPPORTED_QUERY;
+            }
+            AggregateExpr aggregate = new AggregateExpr(function, arg);
+            this.aggregates.add(aggregate);
+            return aggregate;
+        }
+
+        /* passes the rows matching the conditions of the tables and the join to the consumer, in batches */
+        private void produceRows(Expr leftWhere, Expr rightWhere, List<int[]> joinKeys, List<Expr> joinFilters,
+                                 BatchConsumer consumer) {
+            if (this.right == null) {
+                this.scan(this.left, leftWhere, consumer);
+                return;
+            }
+            IntList leftRows = new IntList();
+            this.scan(this.left, leftWhere, batch -> {
+                leftRows.add(batch.left, batch.count);
+                return true;
+            });
+            Joiner joiner = new Joiner(joinFilters, consumer);
+            if (joinKeys.isEmpty()) {
+                IntList rightRows = new IntList();
+                this.scan(this.right, rightWhere, batch -> {
+                    rightRows.add(batch.left, batch.count);
+                    return true;
+                });
+                for (int i = 0; i < leftRows.count; i++) {
+                    for (int j = 0; j < rightRows.count; j++) {
+                        if (!joiner.emit(leftRows.values[i], rightRows.values[j])) {
+                            return;
+                        }
+                    }
+                }
+            } else if (rightWhere != null || joinKeys.size() != 1 || !this.joinByIndex(leftRows, joinKeys.get(0),
+                    joiner)) {
+                this.joinByHash(leftRows, rightWhere, joinKeys, joiner);
+            }
+            joiner.flush();
+        }
+
+        private void scan(Side side, Expr where, BatchConsumer consumer) {
+            Batch batch = this.batch;
+            int[] candidates = side.candidates;
+            int total = candidates == null ? side.snapshot.size : candidates.length;
+            for (int start = 0; start < total; start += BATCH_SIZE) {
+                int count = Math.min(BATCH_SIZE, total - start);
+                if (candidates == null) {
+                    for (int i = 0; i < count; i++) {
+                        batch.left[i] = start + i;
+                    }
+                } else {
+                    System.arraycopy(candidates, start, batch.left, 0, count);
+                }
+                batch.count = count;
+                if (where != null) {
+                    filter(batch, where);
+                }
+                if (batch.count > 0 && !consumer.accept(batch)) {
+                    return;
+                }
+            }
+        }
+
+        /* joins each of the rows of the left table with the rows found from the index of the right table */
+        private boolean joinByIndex(IntList leftRows, int[] joinKey, Joiner joiner) {
+            ColumnarTable table = this.right.table;
+            Object leftColumn = this.left.snapshot.columns[joinKey[0]];
+            synchronized (table) {
+                if (table.getModCount() != this.right.snapshot.modCount || !table.isIndexed(joinKey[1])) {
+                    return false;
+                }
+                for (int i = 0; i < leftRows.count; i++) {
+                    int leftRow = leftRows.values[i];
+                    Object key = key(leftColumn, leftRow, this.left.snapshot.size);
+                    if (key == null) {
+                        continue;
+                    }
+                    for (int rightRow : table.findRows(joinKey[1], key)) {
+                        if (!joiner.emit(leftRow, rightRow)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        private void joinByHash(IntList leftRows, Expr rightWhere, List<int[]> joinKeys, Joiner joiner) {
+            Map<Object, IntList> rightRowsByKey = new HashMap<>();
+            this.scan(this.right, rightWhere, batch -> {
+                for (int i = 0; i < batch.count; i++) {
+                    Object key = this.joinKey(this.right, joinKeys, 1, batch.left[i]);
+                    if (key != null) {
+                        rightRowsByKey.computeIfAbsent(key, k -> new IntList()).add(batch.left[i]);
+                    }
+                }
+                return true;
+            });
+            for (int i = 0; i < leftRows.count; i++) {
+                int leftRow = leftRows.values[i];
+                Object key = this.joinKey(this.left, joinKeys, 0, leftRow);
+                IntList rightRows = key == null ? null : rightRowsByKey.get(key);
+                if (rightRows != null) {
+                    for (int j = 0; j < rightRows.count; j++) {
+                        if (!joiner.emit(leftRow, rightRows.values[j])) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        private Object joinKey(Side side, List<int[]> joinKeys, int index, int row) {
+            if (joinKeys.size() == 1) {
+                return key(side.snapshot.columns[joinKeys.get(0)[index]], row, side.snapshot.size);
+            }
+            Object[] key = new Object[joinKeys.size()];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = key(side.snapshot.columns[joinKeys.get(i)[index]], row, side.snapshot.size);
+                if (key[i] == null) {
+                    return null;
+                }
+            }
+            return Arrays.asList(key);
+        }
+
+        /* the value of a column as the key of an index, which is null for the missing values */
+        private static Object key(Object column, int row, int size) {
+            if (row >= size) {
+                return null;
+            } else if (column instanceof long[]) {
+                return ((long[]) column)[row];
+            } else if (column instanceof double[]) {
+                return ((double[]) column)[row];
+            } else if (column instanceof boolean[]) {
+                return ((boolean[]) column)[row];
+            }
+            return ((Object[]) column)[row];
+        }
+
+    }
+
+    /**
+     * The rows of the tables read by a query.
+     */
+    private static class Side {
+
+        final ColumnarTable table;
+
+        final BField[] fields;
+
+        final String alias;
+
+        ColumnarTable.Snapshot snapshot;
+
+        /* the rows found from an index, or null to read all the rows */
+        int[] candidates;
+
+        Side(ColumnarTable table, String alias) {
+            this.table = table;
+            this.fields = table.getType().getFields();
+            this.alias = alias;
+        }
+
+    }
+
+    /**
+     * A batch of rows, given as the rows of the queried table, the rows of the joined table and the groups.
+     */
+    private static class Batch {
+
+        final int[] left = new int[BATCH_SIZE];
+
+        final int[] right = new int[BATCH_SIZE];
+
+        final int[] groups = new int[BATCH_SIZE];
+
+        int count;
+
+    }
+
+    /**
+     * Consumes the batches of rows produced by a step of a query.
+     */
+    private interface BatchConsumer {
+
+        /**
+         * Consumes a batch of rows.
+         *
+         * @param batch the batch
+         * @return whether more rows are needed
+         */
+        boolean accept(Batch batch);
+
+    }
+
+    /**
+     * Collects the joined pairs of rows into batches, and passes the ones matching the join condition on.
+     */
+    private static class Joiner {
+
+        /* separate from the batch of the execution, which is used for reading the rows of the joined table */
+        private final Batch batch = new Batch();
+
+        private final List<Expr> filters;
+
+        private final BatchConsumer consumer;
+
+        private boolean done;
+
+        Joiner(List<Expr> filters, BatchConsumer consumer) {
+            this.filters = filters;
+            this.consumer = consumer;
+        }
+
+        boolean emit(int leftRow, int rightRow) {
+            Batch batch = this.batch;
+            batch.left[batch.count] = leftRow;
+            batch.right[batch.count] = rightRow;
+            if (++batch.count == BATCH_SIZE) {
+                this.flush();
+            }
+            return !this.done;
+        }
+
+        void flush() {
+            if (this.done) {
+                return;
+            }
+            for (Expr filter : this.filters) {
+                filter(this.batch, filter);
+            }
+            if (this.batch.count > 0) {
+                this.done = !this.consumer.accept(this.batch);
+            }
+            this.batch.count = 0;
+        }
+
+    }
+
+    /**
+     * Groups the rows by the values of the grouping columns, and computes the aggregates of the groups.
+     */
+    private static class Grouper implements BatchConsumer {
+
+        private final List<ColumnExpr> keys;
+
+        private final List<AggregateExpr> aggregates;
+
+        private final Map<Object, Integer> groupIds = new HashMap<>();
+
+        /* a row of each group, from which the grouping columns are read */
+        private final IntList leftRows = new IntList();
+
+        private final IntList rightRows = new IntList();
+
+        private int groupCount;
+
+        Grouper(List<ColumnExpr> keys, List<AggregateExpr> aggregates, boolean singleGroup) {
+            this.keys = keys;
+            this.aggregates = aggregates;
+            if (singleGroup) {
+                /* the aggregates of a query without grouping are computed over all the rows, even if none */
+                this.groupCount = 1;
+                this.leftRows.add(0);
+                this.rightRows.add(0);
+                for (AggregateExpr aggregate : aggregates) {
+                    aggregate.reserve(1);
+                }
+            }
+        }
+
+        @Override
+        public boolean accept(Batch batch) {
+            for (Expr key : this.keys) {
+                key.eval(batch);
+            }
+            int keyCount = this.keys.size();
+            for (int i = 0; i < batch.count; i++) {
+                if (keyCount == 0) {
+                    batch.groups[i] = 0;
+                    continue;
+                }
+                Object key;
+                if (keyCount == 1) {
+                    key = this.keys.get(0).valueAt(i);
+                } else {
+                    Object[] values = new Object[keyCount];
+                    for (int j = 0; j < keyCount; j++) {
+                        values[j] = this.keys.get(j).valueAt(i);
+                    }
+                    key = Arrays.asList(values);
+                }
+                Integer groupId = this.groupIds.get(key);
+                if (groupId == null) {
+                    groupId = this.groupCount++;
+                    this.groupIds.put(key, groupId);
+                    this.leftRows.add(batch.left[i]);
+                    this.rightRows.add(batch.right[i]);
+                }
+                batch.groups[i] = groupId;
+            }
+            for (AggregateExpr aggregate : this.aggregates) {
+                aggregate.reserve(this.groupCount);
+                aggregate.accumulate(batch);
+            }
+            return true;
+        }
+
+        void produceGroups(Expr having, BatchConsumer consumer) {
+            Batch batch = new Batch();
+            for (int start = 0; start < this.groupCount; start += BATCH_SIZE) {
+                int count = Math.min(BATCH_SIZE, this.groupCount - start);
+                System.arraycopy(this.leftRows.values, start, batch.left, 0, count);
+                System.arraycopy(this.rightRows.values, start, batch.right, 0, count);
+                for (int i = 0; i < count; i++) {
+                    batch.groups[i] = start + i;
+                }
+                batch.count = count;
+                if (having != null) {
+                    filter(batch, having);
+                }
+                if (batch.count > 0 && !consumer.accept(batch)) {
+                    return;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Collects the selected columns of the result, and creates the result table from them.
+     */
+    private static class Sink implements BatchConsumer {
+
+        private final Expr[] columns;
+
+        private final int[] fieldTags;
+
+        /* the keys to order by, which are not selected columns */
+        private final Expr[] orderKeys;
+
+        /* the selected columns to order by, or -1 for the keys, which are not selected */
+        private final int[] orderColumns;
+
+        private final boolean[] descending;
+
+        private final long limit;
+
+        private final Object[] vectors;
+
+        private final Object[] keyVectors;
+
+        private int size;
+
+        private int capacity = BATCH_SIZE;
+
+        Sink(Expr[] columns, int[] fieldTags, Expr[] orderKeys, int[] orderColumns, boolean[] descending,
+             long limit) {
+            this.columns = columns;
+            this.fieldTags = fieldTags;
+            this.orderKeys = orderKeys;
+            this.orderColumns = orderColumns;
+            this.descending = descending;
+            this.limit = limit;
+            this.vectors = new Object[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                this.vectors[i] = newVector(fieldTags[i], this.capacity);
+            }
+            this.keyVectors = new Object[orderKeys.length];
+            for (int i = 0; i < orderKeys.length; i++) {
+                if (orderKeys[i] != null) {
+                    this.keyVectors[i] = newVector(orderKeys[i].tag, this.capacity);
+                }
+            }
+        }
+
+        private boolean isOrdered() {
+            return this.orderKeys.length > 0;
+        }
+
+        boolean isFull() {
+            return !this.isOrdered() && this.limit >= 0 && this.size >= this.limit;
+        }
+
+        @Override
+        public boolean accept(Batch batch) {
+            if (!this.isOrdered() && this.limit >= 0) {
+                batch.count = (int) Math.min(batch.count, this.limit - this.size);
+            }
+            int count = batch.count;
+            if (this.size + count > this.capacity) {
+                this.capacity = Math.max(this.size + count, this.capacity * 2);
+                for (int i = 0; i < this.vectors.length; i++) {
+                    this.vectors[i] = grow(this.vectors[i], this.capacity);
+                }
+                for (int i = 0; i < this.keyVectors.length; i++) {
+                    if (this.keyVectors[i] != null) {
+                        this.keyVectors[i] = grow(this.keyVectors[i], this.capacity);
+                    }
+                }
+            }
+            for (int i = 0; i < this.columns.length; i++) {
+                this.columns[i].eval(batch);
+                copy(this.columns[i], this.vectors[i], this.fieldTags[i], this.size, count);
+            }
+            for (int i = 0; i < this.orderKeys.length; i++) {
+                if (this.orderKeys[i] != null) {
+                    this.orderKeys[i].eval(batch);
+                    copy(this.orderKeys[i], this.keyVectors[i], this.orderKeys[i].tag, this.size, count);
+                }
+            }
+            this.size += count;
+            return !this.isFull();
+        }
+
+        ColumnarTable toTable(BStructureType type) {
+            ColumnarTable table = new ColumnarTable(type, null, null);
+            int count = this.limit >= 0 ? (int) Math.min(this.size, this.limit) : this.size;
+            if (count > 0) {
+                table.append(this.vectors, this.isOrdered() ? this.sortRows() : null, count);
+            }
+            return table;
+        }
+
+        private int[] sortRows() {
+            Object[] keys = new Object[this.orderKeys.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = this.orderColumns[i] == -1 ? this.keyVectors[i] : this.vectors[this.orderColumns[i]];
+            }
+            Integer[] rows = new Integer[this.size];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = i;
+            }
+            Arrays.sort(rows, (row1, row2) -> {
+                for (int i = 0; i < keys.length; i++) {
+                    int result = compare(keys[i], row1, row2);
+                    if (result != 0) {
+                        return this.descending[i] ? -result : result;
+                    }
+                }
+                return 0;
+            });
+            int[] order = new int[rows.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = rows[i];
+            }
+            return order;
+        }
+
+        private static int compare(Object vector, int row1, int row2) {
+            if (vector instanceof long[]) {
+                return Long.compare(((long[]) vector)[row1], ((long[]) vector)[row2]);
+            } else if (vector instanceof double[]) {
+                return Double.compare(((double[]) vector)[row1], ((double[]) vector)[row2]);
+            } else if (vector instanceof boolean[]) {
+                return Boolean.compare(((boolean[]) vector)[row1], ((boolean[]) vector)[row2]);
+            }
+            String value1 = (String) ((Object[]) vector)[row1];
+            String value2 = (String) ((Object[]) vector)[row2];
+            if (value1 == null || value2 == null) {
+                /* the missing values come first, as in the SQL database */
+                return value1 == null ? (value2 == null ? 0 : -1) : 1;
+            }
+            return value1.compareTo(value2);
+        }
+
+        private static Object newVector(int tag, int length) {
+            switch (tag) {
+                case TypeTags.INT_TAG:
+                    return new long[length];
+                case TypeTags.FLOAT_TAG:
+                    return new double[length];
+                case TypeTags.BOOLEAN_TAG:
+                    return new boolean[length];
+                default:
+                    return new Object[length];
+            }
+        }
+
+        private static Object grow(Object vector, int length) {
+            if (vector instanceof long[]) {
+                return Arrays.copyOf((long[]) vector, length);
+            } else if (vector instanceof double[]) {
+                return Arrays.copyOf((double[]) vector, length);
+            } else if (vector instanceof boolean[]) {
+                return Arrays.copyOf((boolean[]) vector, length);
+            }
+            return Arrays.copyOf((Object[]) vector, length);
+        }
+
+        /* copies the values of an expression into a vector, converting the numbers to the type of the vector */
+        private static void copy(Expr expr, Object vector, int tag, int offset, int count) {
+            if (tag == TypeTags.INT_TAG && expr.tag == TypeTags.FLOAT_TAG) {
+                long[] target = (long[]) vector;
+                for (int i = 0; i < count; i++) {
+                    target[offset + i] = (long) expr.doubles[i];
+                }
+            } else if (tag == TypeTags.FLOAT_TAG && expr.tag == TypeTags.INT_TAG) {
+                double[] target = (double[]) vector;
+                for (int i = 0; i < count; i++) {
+                    target[offset + i] = expr.longs[i];
+                }
+            } else {
+                System.arraycopy(expr.values(), 0, vector, offset, count);
+            }
+        }
+
+    }
+
+    /**
+     * A growable list of row numbers.
+     */
+    private static class IntList {
+
+        int[] values = new int[16];
+
+        int count;
+
+        void add(int value) {
+            if (this.count == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.count * 2);
+            }
+            this.values[this.count++] = value;
+        }
+
+        void add(int[] values, int count) {
+            if (this.count + count > this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.max(this.count + count, this.values.length * 2));
+            }
+            System.arraycopy(values, 0, this.values, this.count, count);
+            this.count += count;
+        }
+
+    }
+
+    /**
+     * An expression bound to the columns of the tables, which is evaluated for all the rows of a batch at once.
+     * The values are written into the array of the type of the expression: {@code longs} for int,
+     * {@code doubles} for float, {@code booleans} for boolean and {@code objects} for the other types.
+     */
+    private abstract static class Expr {
+
+        final int tag;
+
+        long[] longs;
+
+        double[] doubles;
+
+        boolean[] booleans;
+
+        Object[] objects;
+
+        Expr(int tag) {
+            this.tag = tag;
+            switch (tag) {
+                case TypeTags.INT_TAG:
+                    this.longs = new long[BATCH_SIZE];
+                    break;
+                case TypeTags.FLOAT_TAG:
+                    this.doubles = new double[BATCH_SIZE];
+                    break;
+                case TypeTags.BOOLEAN_TAG:
+                    this.booleans = new boolean[BATCH_SIZE];
+                    break;
+                default:
+                    this.objects = new Object[BATCH_SIZE];
+                    break;
+            }
+        }
+
+        abstract void eval(Batch batch);
+
+        Object values() {
+            switch (this.tag) {
+                case TypeTags.INT_TAG:
+                    return this.longs;
+                case TypeTags.FLOAT_TAG:
+                    return this.doubles;
+                case TypeTags.BOOLEAN_TAG:
+                    return this.booleans;
+                default:
+                    return this.objects;
+            }
+        }
+
+        Object valueAt(int i) {
+            switch (this.tag) {
+                case TypeTags.INT_TAG:
+                    return this.longs[i];
+                case TypeTags.FLOAT_TAG:
+                    return this.doubles[i];
+                case TypeTags.BOOLEAN_TAG:
+                    return this.booleans[i];
+                default:
+                    return this.objects[i];
+            }
+        }
+
+        /* the values as doubles, converted into the given array for the int expressions */
+        double[] asDoubles(int count, double[] buffer) {
+            if (this.tag == TypeTags.FLOAT_TAG) {
+                return this.doubles;
+            }
+            for (int i = 0; i < count; i++) {
+                buffer[i] = this.longs[i];
+            }
+            return buffer;
+        }
+
+    }
+
+    private static class ColumnExpr extends Expr {
+
+        final int slot;
+
+        final int column;
+
+        private final Object vector;
+
+        ColumnExpr(int tag, int slot, int column, Object vector) {
+            super(tag);
+            this.slot = slot;
+            this.column = column;
+            this.vector = vector;
+        }
+
+        @Override
+        void eval(Batch batch) {
+            int[] rows = this.slot == 0 ? batch.left : batch.right;
+            int count = batch.count;
+            switch (this.tag) {
+                case TypeTags.INT_TAG:
+                    long[] longColumn = (long[]) this.vector;
+                    for (int i = 0; i < count; i++) {
+                        this.longs[i] = longColumn[rows[i]];
+                    }
+                    break;
+                case TypeTags.FLOAT_TAG:
+                    double[] doubleColumn = (double[]) this.vector;
+                    for (int i = 0; i < count; i++) {
+                        this.doubles[i] = doubleColumn[rows[i]];
+                    }
+                    break;
+                case TypeTags.BOOLEAN_TAG:
+                    boolean[] booleanColumn = (boolean[]) this.vector;
+                    for (int i = 0; i < count; i++) {
+                        this.booleans[i] = booleanColumn[rows[i]];
+                    }
+                    break;
+                default:
+                    Object[] objectColumn = (Object[]) this.vector;
+                    for (int i = 0; i < count; i++) {
+                        this.objects[i] = objectColumn[rows[i]];
+                    }
+                    break;
+            }
+        }
+
+    }
+
+    private static class ConstantExpr extends Expr {
+
+        ConstantExpr(int tag, Object value) {
+            super(tag);
+            switch (tag) {
+                case TypeTags.INT_TAG:
+                    Arrays.fill(this.longs, (Long) value);
+                    break;
+                case TypeTags.FLOAT_TAG:
+                    Arrays.fill(this.doubles, (Double) value);
+                    break;
+                case TypeTags.BOOLEAN_TAG:
+                    Arrays.fill(this.booleans, (Boolean) value);
+                    break;
+                default:
+                    Arrays.fill(this.objects, value);
+                    break;
+            }
+        }
+
+        @Override
+        void eval(Batch batch) {
+            /* the values are filled when created */
+        }
+
+    }
+
+    private static class ArithmeticExpr extends Expr {
+
+        private final int op;
+
+        private final Expr lhs;
+
+        private final Expr rhs;
+
+        private final double[] lhsBuffer;
+
+        private final double[] rhsBuffer;
+
+        ArithmeticExpr(int op, Expr lhs, Expr rhs) {
+            super(lhs.tag == TypeTags.INT_TAG && rhs.tag == TypeTags.INT_TAG ? TypeTags.INT_TAG
+                    : TypeTags.FLOAT_TAG);
+            this.op = op;
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.lhsBuffer = this.tag == TypeTags.FLOAT_TAG && lhs.tag == TypeTags.INT_TAG
+                    ? new double[BATCH_SIZE] : null;
+            this.rhsBuffer = this.tag == TypeTags.FLOAT_TAG && rhs.tag == TypeTags.INT_TAG
+                    ? new double[BATCH_SIZE] : null;
+        }
+
+        @Override
+        void eval(Batch batch) {
+            this.lhs.eval(batch);
+            this.rhs.eval(batch);
+            int count = batch.count;
+            if (this.tag == TypeTags.INT_TAG) {
+                this.evalLongs(this.lhs.longs, this.rhs.longs, count);
+            } else {
+                this.evalDoubles(this.lhs.asDoubles(count, this.lhsBuffer), this.rhs.asDoubles(count, this.rhsBuffer),
+                        count);
+            }
+        }
+
+        private void evalLongs(long[] lhs, long[] rhs, int count) {
+            long[] result = this.longs;
+            switch (this.op) {
+                case ADD:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] + rhs[i];
+                    }
+                    break;
+                case SUB:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] - rhs[i];
+                    }
+                    break;
+                case MUL:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] * rhs[i];
+                    }
+                    break;
+                case DIV:
+                    for (int i = 0; i < count; i++) {
+                        if (rhs[i] == 0) {
+                            throw new BallerinaException("Division by zero");
+                        }
+                        result[i] = lhs[i] / rhs[i];
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        if (rhs[i] == 0) {
+                            throw new BallerinaException("Division by zero");
+                        }
+                        result[i] = lhs[i] % rhs[i];
+                    }
+                    break;
+            }
+        }
+
+        private void evalDoubles(double[] lhs, double[] rhs, int count) {
+            double[] result = this.doubles;
+            switch (this.op) {
+                case ADD:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] + rhs[i];
+                    }
+                    break;
+                case SUB:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] - rhs[i];
+                    }
+                    break;
+                case MUL:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] * rhs[i];
+                    }
+                    break;
+                case DIV:
+                    for (int i = 0; i < count; i++) {
+                        if (rhs[i] == 0) {
+                            throw new BallerinaException("Division by zero");
+                        }
+                        result[i] = lhs[i] / rhs[i];
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        if (rhs[i] == 0) {
+                            throw new BallerinaException("Division by zero");
+                        }
+                        result[i] = lhs[i] % rhs[i];
+                    }
+                    break;
+            }
+        }
+
+    }
+
+    private static class PowerExpr extends Expr {
+
+        private final Expr lhs;
+
+        private final Expr rhs;
+
+        private final double[] lhsBuffer = new double[BATCH_SIZE];
+
+        private final double[] rhsBuffer = new double[BATCH_SIZE];
+
+        PowerExpr(Expr lhs, Expr rhs) {
+            super(TypeTags.FLOAT_TAG);
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        @Override
+        void eval(Batch batch) {
+            this.lhs.eval(batch);
+            this.rhs.eval(batch);
+            int count = batch.count;
+            double[] lhs = this.lhs.asDoubles(count, this.lhsBuffer);
+            double[] rhs = this.rhs.asDoubles(count, this.rhsBuffer);
+            for (int i = 0; i < count; i++) {
+                this.doubles[i] = Math.pow(lhs[i], rhs[i]);
+            }
+        }
+
+    }
+
+    private static class CompareExpr extends Expr {
+
+        private final int op;
+
+        /* the type the operands are compared as */
+        private final int kind;
+
+        private final Expr lhs;
+
+        private final Expr rhs;
+
+        private final double[] lhsBuffer = new double[BATCH_SIZE];
+
+        private final double[] rhsBuffer = new double[BATCH_SIZE];
+
+        CompareExpr(int op, int kind, Expr lhs, Expr rhs) {
+            super(TypeTags.BOOLEAN_TAG);
+            this.op = op;
+            this.kind = kind;
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        @Override
+        void eval(Batch batch) {
+            this.lhs.eval(batch);
+            this.rhs.eval(batch);
+            int count = batch.count;
+            switch (this.kind) {
+                case TypeTags.INT_TAG:
+                    this.evalLongs(this.lhs.longs, this.rhs.longs, count);
+                    break;
+                case TypeTags.FLOAT_TAG:
+                    this.evalDoubles(this.lhs.asDoubles(count, this.lhsBuffer),
+                            this.rhs.asDoubles(count, this.rhsBuffer), count);
+                    break;
+                case TypeTags.BOOLEAN_TAG:
+                    for (int i = 0; i < count; i++) {
+                        this.booleans[i] = (this.lhs.booleans[i] == this.rhs.booleans[i]) == (this.op == EQ);
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        String lhs = (String) this.lhs.objects[i];
+                        String rhs = (String) this.rhs.objects[i];
+                        /* a comparison with a missing value is not true, as in the SQL database */
+                        this.booleans[i] = lhs != null && rhs != null && this.test(lhs.compareTo(rhs));
+                    }
+                    break;
+            }
+        }
+
+        private boolean test(int comparison) {
+            switch (this.op) {
+                case EQ:
+                    return comparison == 0;
+                case NE:
+                    return comparison != 0;
+                case GT:
+                    return comparison > 0;
+                case GE:
+                    return comparison >= 0;
+                case LT:
+                    return comparison < 0;
+                default:
+                    return comparison <= 0;
+            }
+        }
+
+        private void evalLongs(long[] lhs, long[] rhs, int count) {
+            boolean[] result = this.booleans;
+            switch (this.op) {
+                case EQ:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] == rhs[i];
+                    }
+                    break;
+                case NE:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] != rhs[i];
+                    }
+                    break;
+                case GT:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] > rhs[i];
+                    }
+                    break;
+                case GE:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] >= rhs[i];
+                    }
+                    break;
+                case LT:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] < rhs[i];
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] <= rhs[i];
+                    }
+                    break;
+            }
+        }
+
+        private void evalDoubles(double[] lhs, double[] rhs, int count) {
+            boolean[] result = this.booleans;
+            switch (this.op) {
+                case EQ:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] == rhs[i];
+                    }
+                    break;
+                case NE:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] != rhs[i];
+                    }
+                    break;
+                case GT:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] > rhs[i];
+                    }
+                    break;
+                case GE:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] >= rhs[i];
+                    }
+                    break;
+                case LT:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] < rhs[i];
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        result[i] = lhs[i] <= rhs[i];
+                    }
+                    break;
+            }
+        }
+
+    }
+
+    /**
+     * A logical expression, which evaluates its right operand only for the rows its left operand does not decide,
+     * so that a condition such as {@code b != 0 and a / b > 1} does not fail for the rows it excludes.
+     */
+    private static class LogicalExpr extends Expr {
+
+        private final int op;
+
+        private final Expr lhs;
+
+        private final Expr rhs;
+
+        /* the rows the right operand is evaluated for, and their positions in the evaluated batch */
+        private final Batch undecided = new Batch();
+
+        private final int[] positions = new int[BATCH_SIZE];
+
+        LogicalExpr(int op, Expr lhs, Expr rhs) {
+            super(TypeTags.BOOLEAN_TAG);
+            this.op = op;
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        @Override
+        void eval(Batch batch) {
+            this.lhs.eval(batch);
+            boolean[] lhs = this.lhs.booleans;
+            /* the value of the left operand which decides the result by itself */
+            boolean decisive = this.op != AND;
+            Batch undecided = this.undecided;
+            int count = batch.count;
+            int undecidedCount = 0;
+            for (int i = 0; i < count; i++) {
+                this.booleans[i] = lhs[i];
+                if (lhs[i] != decisive) {
+                    this.positions[undecidedCount] = i;
+                    undecided.left[undecidedCount] = batch.left[i];
+                    undecided.right[undecidedCount] = batch.right[i];
+                    undecided.groups[undecidedCount] = batch.groups[i];
+                    undecidedCount++;
+                }
+            }
+            if (undecidedCount == 0) {
+                return;
+            }
+            /* the result of an undecided row is the value of the right operand */
+            if (undecidedCount == count) {
+                this.rhs.eval(batch);
+                System.arraycopy(this.rhs.booleans, 0, this.booleans, 0, count);
+                return;
+            }
+            undecided.count = undecidedCount;
+            this.rhs.eval(undecided);
+            boolean[] rhs = this.rhs.booleans;
+            for (int i = 0; i < undecidedCount; i++) {
+                this.booleans[this.positions[i]] = rhs[i];
+            }
+        }
+
+    }
+
+    private static class NotExpr extends Expr {
+
+        private final Expr expr;
+
+        NotExpr(Expr expr) {
+            super(TypeTags.BOOLEAN_TAG);
+            this.expr = expr;
+        }
+
+        @Override
+        void eval(Batch batch) {
+            this.expr.eval(batch);
+            for (int i = 0; i < batch.count; i++) {
+                this.booleans[i] = !this.expr.booleans[i];
+            }
+        }
+
+    }
+
+    /**
+     * An aggregate function, which is accumulated for the groups while the rows are read, and evaluated to the
+     * values of the groups afterwards. As in the SQL database, the average of int values is an int, and the
+     * aggregates of a group without values are zero, or a missing value for strings.
+     */
+    private static class AggregateExpr extends Expr {
+
+        private final int function;
+
+        /* the argument, or null for counting the rows */
+        private final Expr arg;
+
+        private long[] counts = new long[0];
+
+        private long[] longValues;
+
+        private double[] doubleValues;
+
+        private Object[] objectValues;
+
+        AggregateExpr(int function, Expr arg) {
+            super(resultTag(function, arg));
+            this.function = function;
+            this.arg = arg;
+        }
+
+        private static int resultTag(int function, Expr arg) {
+            if (function == COUNT) {
+                return TypeTags.INT_TAG;
+            }
+            if (isNumeric(arg.tag) || (arg.tag == TypeTags.STRING_TAG && (function == MIN || function == MAX))) {
+                return arg.tag;
+            }
+            throw UNSUPPORTED_QUERY;
+        }
+
+        void reserve(int groupCount) {
+            if (groupCount <= this.counts.length) {
+                return;
+            }
+            int length = Math.max(groupCount, this.counts.length * 2);
+            this.counts = Arrays.copyOf(this.counts, length);
+            if (this.function != COUNT) {
+                switch (this.tag) {
+                    case TypeTags.INT_TAG:
+                        this.longValues = this.longValues == null ? new long[length]
+                                : Arrays.copyOf(this.longValues, length);
+                        break;
+                    case TypeTags.FLOAT_TAG:
+                        this.doubleValues = this.doubleValues == null ? new double[length]
+                                : Arrays.copyOf(this.doubleValues, length);
+                        break;
+                    default:
+                        this.objectValues = this.objectValues == null ? new Object[length]
+                                : Arrays.copyOf(this.objectValues, length);
+                        break;
+                }
+            }
+        }
+
+        void accumulate(Batch batch) {
+            int count = batch.count;
+            int[] groups = batch.groups;
+            if (this.arg == null) {
+                for (int i = 0; i < count; i++) {
+                    this.counts[groups[i]]++;
+                }
+                return;
+            }
+            this.arg.eval(batch);
+            switch (this.arg.tag) {
+                case TypeTags.INT_TAG:
+                    this.accumulateLongs(this.arg.longs, groups, count);
+                    break;
+                case TypeTags.FLOAT_TAG:
+                    this.accumulateDoubles(this.arg.doubles, groups, count);
+                    break;
+                default:
+                    this.accumulateObjects(this.arg.objects, groups, count);
+                    break;
+            }
+        }
+
+        private void accumulateLongs(long[] values, int[] groups, int count) {
+            long[] counts = this.counts;
+            long[] result = this.longValues;
+            for (int i = 0; i < count; i++) {
+                int group = groups[i];
+                long value = values[i];
+                switch (this.function) {
+                    case SUM:
+                    case AVG:
+                        result[group] += value;
+                        break;
+                    case MIN:
+                        result[group] = counts[group] == 0 ? value : Math.min(result[group], value);
+                        break;
+                    case MAX:
+                        result[group] = counts[group] == 0 ? value : Math.max(result[group], value);
+                        break;
+                    default:
+                        break;
+                }
+                counts[group]++;
+            }
+        }
+
+        private void accumulateDoubles(double[] values, int[] groups, int count) {
+            long[] counts = this.counts;
+            double[] result = this.doubleValues;
+            for (int i = 0; i < count; i++) {
+                int group = groups[i];
+                double value = values[i];
+                switch (this.function) {
+                    case SUM:
+                    case AVG:
+                        result[group] += value;
+                        break;
+                    case MIN:
+                        result[group] = counts[group] == 0 ? value : Math.min(result[group], value);
+                        break;
+                    case MAX:
+                        result[group] = counts[group] == 0 ? value : Math.max(result[group], value);
+                        break;
+                    default:
+                        break;
+                }
+                counts[group]++;
+            }
+        }
+
+        private void accumulateObjects(Object[] values, int[] groups, int count) {
+            for (int i = 0; i < count; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                int group = groups[i];
+                if (this.function == MIN || this.function == MAX) {
+                    String current = (String) this.objectValues[group];
+                    int comparison = current == null ? 0 : ((String) value).compareTo(current);
+                    if (current == null || (this.function == MIN ? comparison < 0 : comparison > 0)) {
+                        this.objectValues[group] = value;
+                    }
+                }
+                this.counts[group]++;
+            }
+        }
+
+        @Override
+        void eval(Batch batch) {
+            int count = batch.count;
+            int[] groups = batch.groups;
+            for (int i = 0; i < count; i++) {
+                int group = groups[i];
+                long groupCount = this.counts[group];
+                if (this.function == COUNT) {
+                    this.longs[i] = groupCount;
+                } else if (this.tag == TypeTags.INT_TAG) {
+                    long value = this.longValues[group];
+                    this.longs[i] = this.function == AVG && groupCount != 0 ? value / groupCount : value;
+                } else if (this.tag == TypeTags.FLOAT_TAG) {
+                    double value = this.doubleValues[group];
+                    this.doubles[i] = this.function == AVG && groupCount != 0 ? value / groupCount : value;
+                } else {
+                    this.objects[i] = this.objectValues[group];
+                }
+            }
+        }
+
+    }
+
+    private abstract static class Node {
+    }
+
+    private static class ColumnNode extends Node {
+
+        final String qualifier;
+
+        final String name;
+
+        ColumnNode(String qualifier, String name) {
+            this.qualifier = qualifier;
+            this.name = name;
+        }
+
+    }
+
+    /**
+     * A parameter of the query, or a number in the query.
+     */
+    private static class ValueNode extends Node {
+
+        /* the index of the parameter, or -1 for a number */
+        final int param;
+
+        final Object value;
+
+        ValueNode(int param, Object value) {
+            this.param = param;
+            this.value = value;
+        }
+
+    }
+
+    private static class BinaryNode extends Node {
+
+        final int op;
+
+        final Node lhs;
+
+        final Node rhs;
+
+        BinaryNode(int op, Node lhs, Node rhs) {
+            this.op = op;
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+    }
+
+    private static class NotNode extends Node {
+
+        final Node expr;
+
+        NotNode(Node expr) {
+            this.expr = expr;
+        }
+
+    }
+
+    private static class CallNode extends Node {
+
+        final String function;
+
+        /* the arguments, or null for a * argument */
+        final List<Node> args;
+
+        CallNode(String function, List<Node> args) {
+            this.function = function;
+            this.args = args;
+        }
+
+    }
+
+    /**
+     * A table read by the query, with its condition and alias.
+     */
+    private static class Source {
+
+        final Node where;
+
+        final String alias;
+
+        Source(Node where, String alias) {
+            this.where = where;
+            this.alias = alias;
+        }
+
+    }
+
+    private static class SelectItem {
+
+        final Node expr;
+
+        final String alias;
+
+        SelectItem(Node expr, String alias) {
+            this.expr = expr;
+            this.alias = alias;
+        }
+
+    }
+
+    private static class OrderItem {
+
+        final Node expr;
+
+        final boolean descending;
+
+        OrderItem(Node expr, boolean descending) {
+            this.expr = expr;
+            this.descending = descending;
+        }
+
+    }
+
+    /**
+     * Thrown when a query uses a construct, which is not supported here. It is thrown without a stack trace, as
+     * it only makes the query to be run by the SQL database.
+     */
+    private static class UnsupportedQueryException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedQueryException() {
+            super(null, null, false, false);
+        }
+
+    }
+}
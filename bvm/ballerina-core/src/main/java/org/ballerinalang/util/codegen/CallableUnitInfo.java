@@ -24,6 +24,7 @@ import org.ballerinalang.util.codegen.attributes.AnnotationAttributeInfo;
 import org.ballerinalang.util.codegen.attributes.AttributeInfo;
 import org.ballerinalang.util.codegen.attributes.AttributeInfoPool;
 import org.ballerinalang.util.codegen.cpentries.WorkerInfoPool;
+import org.ballerinalang.util.codegen.jvm.CompiledCallable;
 import org.ballerinalang.util.program.WorkerDataIndex;
 
 import java.util.HashMap;
@@ -71,6 +72,11 @@ public class CallableUnitInfo implements AttributeInfoPool, WorkerInfoPool {
     
     private boolean hasReturnType;
 
+    // Tiered execution state, see {@link org.ballerinalang.util.codegen.jvm.TieredCompiler}
+    private int invocationCount;
+    private volatile boolean tierUpAttempted;
+    private volatile CompiledCallable compiledCallable;
+
     private WorkerDataIndex calculateWorkerDataIndex(BType[] retTypes) {
         WorkerDataIndex index = new WorkerDataIndex();
         index.retRegs = new int[retTypes.length];
@@ -282,6 +288,32 @@ public class CallableUnitInfo implements AttributeInfoPool, WorkerInfoPool {
     public void setNativeCallableUnit(NativeCallableUnit nativeCallableUnit) {
         this.nativeCallableUnit = nativeCallableUnit;
     }
+
+    /**
+     * Increments the invocation count of this callable unit. The count is not synchronized, since it is
+     * only used as a hotness estimate.
+     *
+     * @return the incremented invocation count
+     */
+    public int incrementInvocationCount() {
+        return ++invocationCount;
+    }
+
+    public boolean isTierUpAttempted() {
+        return tierUpAttempted;
+    }
+
+    public void setTierUpAttempted(boolean tierUpAttempted) {
+        this.tierUpAttempted = tierUpAttempted;
+    }
+
+    public CompiledCallable getCompiledCallable() {
+        return compiledCallable;
+    }
+
+    public void setCompiledCallable(CompiledCallable compiledCallable) {
+        this.compiledCallable = compiledCallable;
+    }
     
     /**
      * This represents a worker set with different execution roles.
@@ -268,4 +268,47 @@ public class Instruction {
             return Mnemonics.getMnem(opcode) + " " + sj.toString();
         }
     }
+
+    /**
+     * {@code InstructionIntConstArith} represents the superinstruction of an integer constant load,
+     * followed by an integer addition or subtraction which uses the loaded constant.
+     *
+     * @since 0.974.1
+     */
+    public static class InstructionIntConstArith extends Instruction {
+
+        public long value;
+
+        InstructionIntConstArith(int opcode, long value, int constReg, int lhsReg, int rhsReg, int resultReg) {
+            super(opcode, constReg, lhsReg, rhsReg, resultReg);
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return super.toString() + " (" + value + ")";
+        }
+    }
+
+    /**
+     * {@code InstructionPair} represents a superinstruction which executes two consecutive instructions.
+     *
+     * @since 0.974.1
+     */
+    public static class InstructionPair extends Instruction {
+
+        public Instruction first;
+        public Instruction second;
+
+        InstructionPair(int opcode, Instruction first, Instruction second) {
+            super(opcode);
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public String toString() {
+            return Mnemonics.getMnem(opcode) + " [" + first + "; " + second + "]";
+        }
+    }
 }
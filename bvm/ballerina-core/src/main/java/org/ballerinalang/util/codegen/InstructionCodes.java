@@ -291,5 +291,16 @@ public interface InstructionCodes {
     int TEQ = 253;
     int TNE = 254;
 
-    int INSTRUCTION_CODE_COUNT = 255;
+    // Superinstructions, these are not emitted by the compiler, but created by the BVM when loading a package
+    int IGT_BR_FALSE = 255;
+    int IGE_BR_FALSE = 256;
+    int ILT_BR_FALSE = 257;
+    int ILE_BR_FALSE = 258;
+    int IEQ_BR_FALSE = 259;
+    int INE_BR_FALSE = 260;
+    int ICONST_IADD = 261;
+    int ICONST_ISUB = 262;
+    int FIELDLOAD_PAIR = 263;
+
+    int INSTRUCTION_CODE_COUNT = 264;
 }
@@ -270,6 +270,16 @@ public class Mnemonics {
         mnemonics[InstructionCodes.S2JSONX] = "s2jsonx";
         mnemonics[InstructionCodes.LOCK] = "lock";
         mnemonics[InstructionCodes.UNLOCK] = "unlock";
+
+        mnemonics[InstructionCodes.IGT_BR_FALSE] = "igt_br_false";
+        mnemonics[InstructionCodes.IGE_BR_FALSE] = "ige_br_false";
+        mnemonics[InstructionCodes.ILT_BR_FALSE] = "ilt_br_false";
+        mnemonics[InstructionCodes.ILE_BR_FALSE] = "ile_br_false";
+        mnemonics[InstructionCodes.IEQ_BR_FALSE] = "ieq_br_false";
+        mnemonics[InstructionCodes.INE_BR_FALSE] = "ine_br_false";
+        mnemonics[InstructionCodes.ICONST_IADD] = "iconst_iadd";
+        mnemonics[InstructionCodes.ICONST_ISUB] = "iconst_isub";
+        mnemonics[InstructionCodes.FIELDLOAD_PAIR] = "fieldload_pair";
     }
 
     public static String getMnem(int opcode) {
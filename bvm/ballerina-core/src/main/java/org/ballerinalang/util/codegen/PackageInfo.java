@@ -23,6 +23,7 @@ import org.ballerinalang.util.codegen.attributes.AttributeInfoPool;
 import org.ballerinalang.util.codegen.attributes.LineNumberTableAttributeInfo;
 import org.ballerinalang.util.codegen.cpentries.ConstantPool;
 import org.ballerinalang.util.codegen.cpentries.ConstantPoolEntry;
+import org.ballerinalang.util.codegen.jvm.TieredCompiler;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.util.ArrayList;
@@ -54,6 +55,8 @@ public class PackageInfo implements ConstantPool, AttributeInfoPool {
     private List<ConstantPoolEntry> constantPoolEntries = new ArrayList<>();
 
     private Instruction[] instructions;
+    private Instruction[] executableInstructions;
+    private int tierUpThreshold = TieredCompiler.TIERED_COMPILATION_DISABLED;
     private List<Instruction> instructionList = new ArrayList<>();
 
     public List<ImportPackageInfo> importPkgInfoList = new ArrayList<>();
@@ -201,6 +204,26 @@ public class PackageInfo implements ConstantPool, AttributeInfoPool {
         return instructions;
     }
 
+    /**
+     * Returns the instructions to be executed by the BVM. These are the same as the instructions of
+     * the package, unless superinstructions are enabled.
+     *
+     * @return the instructions to be executed
+     */
+    public Instruction[] getExecutableInstructions() {
+        return executableInstructions;
+    }
+
+    /**
+     * Returns the number of invocations after which a callable unit of this package is compiled to JVM
+     * bytecode, or {@link TieredCompiler#TIERED_COMPILATION_DISABLED}.
+     *
+     * @return the tier-up threshold
+     */
+    public int getTierUpThreshold() {
+        return tierUpThreshold;
+    }
+
     public int getInstructionCount() {
         return instructionList.size();
     }
@@ -280,6 +303,12 @@ public class PackageInfo implements ConstantPool, AttributeInfoPool {
     public void complete() {
         this.constPool = constantPoolEntries.toArray(new ConstantPoolEntry[0]);
         this.instructions = instructionList.toArray(new Instruction[0]);
+        if (SuperInstructionBuilder.isEnabled()) {
+            this.executableInstructions = SuperInstructionBuilder.build(this.instructions, this.constPool);
+        } else {
+            this.executableInstructions = this.instructions;
+        }
+        this.tierUpThreshold = TieredCompiler.getTierUpThreshold();
     }
 
     @Override
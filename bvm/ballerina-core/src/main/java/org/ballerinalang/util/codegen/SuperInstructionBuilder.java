@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.util.codegen;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.util.codegen.Instruction.InstructionIntConstArith;
+import org.ballerinalang.util.codegen.Instruction.InstructionPair;
+import org.ballerinalang.util.codegen.cpentries.ConstantPoolEntry;
+import org.ballerinalang.util.codegen.cpentries.IntegerCPEntry;
+
+/**
+ * {@code SuperInstructionBuilder} fuses common instruction sequences of a package into superinstructions,
+ * so the BVM dispatches fewer instructions.
+ * <p>
+ * A superinstruction replaces only the first instruction of a sequence, and skips the rest of the sequence
+ * after executing it. The other instructions are kept in place, so the instruction addresses used by
+ * jumps, error tables and line numbers stay valid, and a jump into the middle of a sequence still executes
+ * the original instructions.
+ *
+ * @since 0.974.1
+ */
+public class SuperInstructionBuilder {
+
+    private static final String SUPER_INSTRUCTIONS_CONFIG_PROP = "b7a.runtime.superinstructions";
+
+    public static boolean isEnabled() {
+        return ConfigRegistry.getInstance().getAsBoolean(SUPER_INSTRUCTIONS_CONFIG_PROP);
+    }
+
+    /**
+     * Creates a copy of the given instructions, where the fusable sequences start with a superinstruction.
+     *
+     * @param code      the instructions of a package
+     * @param constPool the constant pool of the package
+     * @return the instructions with superinstructions
+     */
+    public static Instruction[] build(Instruction[] code, ConstantPoolEntry[] constPool) {
+        Instruction[] result = code.clone();
+        for (int ip = 0; ip < code.length - 1; ip++) {
+            Instruction superInstruction = fuse(code[ip], code[ip + 1], constPool);
+            if (superInstruction != null) {
+                result[ip] = superInstruction;
+            }
+        }
+        return result;
+    }
+
+    private static Instruction fuse(Instruction first, Instruction second, ConstantPoolEntry[] constPool) {
+        switch (first.opcode) {
+            case InstructionCodes.IGT:
+            case InstructionCodes.IGE:
+            case InstructionCodes.ILT:
+            case InstructionCodes.ILE:
+            case InstructionCodes.IEQ:
+            case InstructionCodes.INE:
+                return fuseCompareAndBranch(first, second);
+            case InstructionCodes.ICONST:
+                long value = ((IntegerCPEntry) constPool[first.operands[0]]).getValue();
+                return fuseIntConstArith(value, first.operands[1], second);
+            case InstructionCodes.ICONST_0:
+            case InstructionCodes.ICONST_1:
+            case InstructionCodes.ICONST_2:
+            case InstructionCodes.ICONST_3:
+            case InstructionCodes.ICONST_4:
+            case InstructionCodes.ICONST_5:
+                return fuseIntConstArith(first.opcode - InstructionCodes.ICONST_0, first.operands[0], second);
+            case InstructionCodes.IFIELDLOAD:
+            case InstructionCodes.FFIELDLOAD:
+            case InstructionCodes.SFIELDLOAD:
+            case InstructionCodes.BFIELDLOAD:
+            case InstructionCodes.LFIELDLOAD:
+            case InstructionCodes.RFIELDLOAD:
+                return fuseFieldLoads(first, second);
+            default:
+                return null;
+        }
+    }
+
+    private static Instruction fuseCompareAndBranch(Instruction compare, Instruction branch) {
+        /* the branch must be on the result of the compare */
+        if (branch.opcode != InstructionCodes.BR_FALSE || branch.operands[0] != compare.operands[2]) {
+            return null;
+        }
+        int opcode;
+        switch (compare.opcode) {
+            case InstructionCodes.IGT:
+                opcode = InstructionCodes.IGT_BR_FALSE;
+                break;
+            case InstructionCodes.IGE:
+                opcode = InstructionCodes.IGE_BR_FALSE;
+                break;
+            case InstructionCodes.ILT:
+                opcode = InstructionCodes.ILT_BR_FALSE;
+                break;
+            case InstructionCodes.ILE:
+                opcode = InstructionCodes.ILE_BR_FALSE;
+                break;
+            case InstructionCodes.IEQ:
+                opcode = InstructionCodes.IEQ_BR_FALSE;
+                break;
+            default:
+                opcode = InstructionCodes.INE_BR_FALSE;
+                break;
+        }
+        return new Instruction(opcode, compare.operands[0], compare.operands[1], compare.operands[2],
+                branch.operands[1]);
+    }
+
+    private static Instruction fuseIntConstArith(long value, int constReg, Instruction arith) {
+        int opcode;
+        if (arith.opcode == InstructionCodes.IADD) {
+            opcode = InstructionCodes.ICONST_IADD;
+        } else if (arith.opcode == InstructionCodes.ISUB) {
+            opcode = InstructionCodes.ICONST_ISUB;
+        } else {
+            return null;
+        }
+        int lhsReg = arith.operands[0];
+        int rhsReg = arith.operands[1];
+        if (lhsReg != constReg && rhsReg != constReg) {
+            return null;
+        }
+        return new InstructionIntConstArith(opcode, value, constReg, lhsReg, rhsReg, arith.operands[2]);
+    }
+
+    private static Instruction fuseFieldLoads(Instruction first, Instruction second) {
+        switch (second.opcode) {
+            case InstructionCodes.IFIELDLOAD:
+            case InstructionCodes.FFIELDLOAD:
+            case InstructionCodes.SFIELDLOAD:
+            case InstructionCodes.BFIELDLOAD:
+            case InstructionCodes.LFIELDLOAD:
+            case InstructionCodes.RFIELDLOAD:
+                return new InstructionPair(InstructionCodes.FIELDLOAD_PAIR, first, second);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.util.codegen.jvm;
+
+import org.ballerinalang.bre.bvm.WorkerData;
+
+/**
+ * {@code CompiledCallable} is the JVM bytecode form of the default worker of a callable unit, generated
+ * by the {@link JVMBytecodeCompiler}.
+ *
+ * @since 0.974.1
+ */
+public interface CompiledCallable {
+
+    /**
+     * Executes the compiled worker.
+     *
+     * @param local  the local register bank of the worker, populated with the argument values
+     * @param result the register bank the return values are written to
+     */
+    void execute(WorkerData local, WorkerData result);
+
+}
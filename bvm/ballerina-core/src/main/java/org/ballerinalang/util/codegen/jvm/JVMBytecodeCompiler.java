@@ -0,0 +1,945 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.util.codegen.jvm;
+
+import org.ballerinalang.util.codegen.Instruction;
+import org.ballerinalang.util.codegen.InstructionCodes;
+import org.ballerinalang.util.codegen.cpentries.ConstantPoolEntry;
+import org.ballerinalang.util.codegen.cpentries.FloatCPEntry;
+import org.ballerinalang.util.codegen.cpentries.IntegerCPEntry;
+import org.ballerinalang.util.codegen.cpentries.StringCPEntry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code JVMBytecodeCompiler} translates the instructions of a worker into the {@code execute} method of a
+ * generated {@link CompiledCallable} class, so the JVM's JIT compiler can optimize it like any other Java code.
+ * <p>
+ * Only workers which access nothing but their own value type registers are compiled, i.e. workers built from
+ * constant loads, moves, integer/float/boolean arithmetic and comparisons, branches and returns. Such workers
+ * have no side effects outside their local register bank, so a failed compiled execution (e.g. a division by
+ * zero) can always be repeated by the interpreter from the start to produce the Ballerina error.
+ * <p>
+ * The generated classes use class file version 49, which is verified without stack map frames.
+ *
+ * @since 0.974.1
+ */
+public class JVMBytecodeCompiler {
+
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final int CLASS_FILE_MAJOR_VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final String OBJECT_CLASS = "java/lang/Object";
+    private static final String ARITHMETIC_EXCEPTION_CLASS = "java/lang/ArithmeticException";
+    private static final String WORKER_DATA_CLASS = "org/ballerinalang/bre/bvm/WorkerData";
+    private static final String COMPILED_CALLABLE_CLASS = "org/ballerinalang/util/codegen/jvm/CompiledCallable";
+    private static final String GENERATED_CLASS_PREFIX = "org/ballerinalang/util/codegen/jvm/gen/CompiledCallable$";
+    private static final String EXECUTE_DESCRIPTOR = "(L" + WORKER_DATA_CLASS + ";L" + WORKER_DATA_CLASS + ";)V";
+
+    /* local variable slots of the generated execute method */
+    private static final int SLOT_LOCAL = 1;
+    private static final int SLOT_RESULT = 2;
+    private static final int SLOT_LONG_REGS = 3;
+    private static final int SLOT_DOUBLE_REGS = 4;
+    private static final int SLOT_INT_REGS = 5;
+    private static final int SLOT_STRING_REGS = 6;
+    private static final int SLOT_RET_LONG_REGS = 7;
+    private static final int SLOT_RET_DOUBLE_REGS = 8;
+    private static final int SLOT_RET_INT_REGS = 9;
+    private static final int SLOT_RET_STRING_REGS = 10;
+    private static final int MAX_LOCALS = 11;
+    private static final int MAX_STACK = 8;
+
+    /* the compiled worker must fit in a method using 16 bit branch offsets */
+    private static final int MAX_INSTRUCTIONS = 1000;
+    private static final int MAX_CODE_LENGTH = Short.MAX_VALUE;
+
+    /* string constants are stored in the class file as modified UTF-8 with a 16 bit length */
+    private static final int MAX_UTF8_LENGTH = 0xFFFF;
+
+    /* JVM opcodes used by the generated code */
+    private static final int ACONST_NULL = 0x01;
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_1 = 0x04;
+    private static final int LCONST_0 = 0x09;
+    private static final int LCONST_1 = 0x0a;
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD = 0x19;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int IALOAD = 0x2e;
+    private static final int LALOAD = 0x2f;
+    private static final int DALOAD = 0x31;
+    private static final int AALOAD = 0x32;
+    private static final int ASTORE = 0x3a;
+    private static final int IASTORE = 0x4f;
+    private static final int LASTORE = 0x50;
+    private static final int DASTORE = 0x52;
+    private static final int AASTORE = 0x53;
+    private static final int DUP = 0x59;
+    private static final int LADD = 0x61;
+    private static final int DADD = 0x63;
+    private static final int LSUB = 0x65;
+    private static final int DSUB = 0x67;
+    private static final int LMUL = 0x69;
+    private static final int DMUL = 0x6b;
+    private static final int LDIV = 0x6d;
+    private static final int DDIV = 0x6f;
+    private static final int LREM = 0x71;
+    private static final int DREM = 0x73;
+    private static final int LNEG = 0x75;
+    private static final int DNEG = 0x77;
+    private static final int L2D = 0x8a;
+    private static final int D2L = 0x8f;
+    private static final int LCMP = 0x94;
+    private static final int DCMPL = 0x97;
+    private static final int DCMPG = 0x98;
+    private static final int IFEQ = 0x99;
+    private static final int IFNE = 0x9a;
+    private static final int IFLT = 0x9b;
+    private static final int IFGE = 0x9c;
+    private static final int IFGT = 0x9d;
+    private static final int IFLE = 0x9e;
+    private static final int IF_ICMPEQ = 0x9f;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int GOTO = 0xa7;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int NEW = 0xbb;
+    private static final int ATHROW = 0xbf;
+
+    private static final AtomicInteger GENERATED_CLASS_COUNT = new AtomicInteger();
+
+    private final Instruction[] code;
+    private final ConstantPoolEntry[] constPool;
+    private final int[] retRegs;
+    private final ConstantPool classConstPool = new ConstantPool();
+    private final CodeBuffer methodCode = new CodeBuffer();
+    private final List<int[]> branchFixups = new ArrayList<>();
+    private int[] codeOffsets;
+
+    private JVMBytecodeCompiler(Instruction[] code, ConstantPoolEntry[] constPool, int[] retRegs) {
+        this.code = code;
+        this.constPool = constPool;
+        this.retRegs = retRegs;
+    }
+
+    /**
+     * Compiles the worker starting at the given instruction address.
+     *
+     * @param code      the instructions of the package of the worker
+     * @param startIp   the address of the first instruction of the worker
+     * @param constPool the constant pool of the package
+     * @param retRegs   the result register indexes of the return values of the worker
+     * @return the compiled worker, or {@code null} if the worker cannot be compiled
+     */
+    public static CompiledCallable compile(Instruction[] code, int startIp, ConstantPoolEntry[] constPool,
+                                           int[] retRegs) {
+        JVMBytecodeCompiler compiler = new JVMBytecodeCompiler(code, constPool, retRegs);
+        boolean[] reachable = compiler.findReachableInstructions(startIp);
+        if (reachable == null) {
+            return null;
+        }
+        String className = GENERATED_CLASS_PREFIX + GENERATED_CLASS_COUNT.incrementAndGet();
+        byte[] classFile = compiler.generateClass(className, startIp, reachable);
+        if (classFile == null) {
+            return null;
+        }
+        try {
+            Class<?> clazz = new CompiledCallableLoader().define(className.replace('/', '.'), classFile);
+            return (CompiledCallable) clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            /* the interpreter is always a valid fallback */
+            return null;
+        }
+    }
+
+    private boolean[] findReachableInstructions(int startIp) {
+        boolean[] reachable = new boolean[this.code.length];
+        Deque<Integer> pending = new ArrayDeque<>();
+        pending.push(startIp);
+        int count = 0;
+        while (!pending.isEmpty()) {
+            int ip = pending.pop();
+            if (ip < 0 || ip >= this.code.length) {
+                return null;
+            }
+            if (reachable[ip]) {
+                continue;
+            }
+            reachable[ip] = true;
+            if (++count > MAX_INSTRUCTIONS) {
+                return null;
+            }
+            Instruction instruction = this.code[ip];
+            int opcode = instruction.getOpcode();
+            if (!isSupported(opcode)) {
+                return null;
+            }
+            if (opcode == InstructionCodes.SCONST && getUTF8Length(((StringCPEntry) this.constPool[
+                    instruction.getOperands()[0]]).getValue()) > MAX_UTF8_LENGTH) {
+                return null;
+            }
+            switch (opcode) {
+                case InstructionCodes.RET:
+                    break;
+                case InstructionCodes.GOTO:
+                    pending.push(instruction.getOperands()[0]);
+                    break;
+                case InstructionCodes.BR_TRUE:
+                case InstructionCodes.BR_FALSE:
+                    pending.push(instruction.getOperands()[1]);
+                    pending.push(ip + 1);
+                    break;
+                default:
+                    pending.push(ip + 1);
+                    break;
+            }
+        }
+        return reachable;
+    }
+
+    private static int getUTF8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                length++;
+            } else if (c > 0x07FF) {
+                length += 3;
+            } else {
+                length += 2;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isSupported(int opcode) {
+        switch (opcode) {
+            case InstructionCodes.NOP:
+            case InstructionCodes.ICONST:
+            case InstructionCodes.FCONST:
+            case InstructionCodes.SCONST:
+            case InstructionCodes.ICONST_0:
+            case InstructionCodes.ICONST_1:
+            case InstructionCodes.ICONST_2:
+            case InstructionCodes.ICONST_3:
+            case InstructionCodes.ICONST_4:
+            case InstructionCodes.ICONST_5:
+            case InstructionCodes.FCONST_0:
+            case InstructionCodes.FCONST_1:
+            case InstructionCodes.FCONST_2:
+            case InstructionCodes.FCONST_3:
+            case InstructionCodes.FCONST_4:
+            case InstructionCodes.FCONST_5:
+            case InstructionCodes.BCONST_0:
+            case InstructionCodes.BCONST_1:
+            case InstructionCodes.IMOVE:
+            case InstructionCodes.FMOVE:
+            case InstructionCodes.SMOVE:
+            case InstructionCodes.BMOVE:
+            case InstructionCodes.IADD:
+            case InstructionCodes.FADD:
+            case InstructionCodes.ISUB:
+            case InstructionCodes.FSUB:
+            case InstructionCodes.IMUL:
+            case InstructionCodes.FMUL:
+            case InstructionCodes.IDIV:
+            case InstructionCodes.FDIV:
+            case InstructionCodes.IMOD:
+            case InstructionCodes.FMOD:
+            case InstructionCodes.INEG:
+            case InstructionCodes.FNEG:
+            case InstructionCodes.BNOT:
+            case InstructionCodes.IEQ:
+            case InstructionCodes.FEQ:
+            case InstructionCodes.BEQ:
+            case InstructionCodes.INE:
+            case InstructionCodes.FNE:
+            case InstructionCodes.BNE:
+            case InstructionCodes.IGT:
+            case InstructionCodes.FGT:
+            case InstructionCodes.IGE:
+            case InstructionCodes.FGE:
+            case InstructionCodes.ILT:
+            case InstructionCodes.FLT:
+            case InstructionCodes.ILE:
+            case InstructionCodes.FLE:
+            case InstructionCodes.I2F:
+            case InstructionCodes.F2I:
+            case InstructionCodes.BR_TRUE:
+            case InstructionCodes.BR_FALSE:
+            case InstructionCodes.GOTO:
+            case InstructionCodes.IRET:
+            case InstructionCodes.FRET:
+            case InstructionCodes.SRET:
+            case InstructionCodes.BRET:
+            case InstructionCodes.RET:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private byte[] generateClass(String className, int startIp, boolean[] reachable) {
+        this.codeOffsets = new int[this.code.length];
+        Arrays.fill(this.codeOffsets, -1);
+        this.emitPrologue();
+        /* the worker entry must be the first instruction of the method */
+        if (!this.emitFrom(startIp, reachable)) {
+            return null;
+        }
+        for (int ip = 0; ip < this.code.length; ip++) {
+            if (reachable[ip] && this.codeOffsets[ip] == -1 && !this.emitFrom(ip, reachable)) {
+                return null;
+            }
+        }
+        for (int[] fixup : this.branchFixups) {
+            int target = this.codeOffsets[fixup[1]];
+            this.methodCode.putShort(fixup[0] + 1, target - fixup[0]);
+        }
+        if (this.methodCode.size() > MAX_CODE_LENGTH) {
+            return null;
+        }
+
+        int thisClass = this.classConstPool.classRef(className);
+        int superClass = this.classConstPool.classRef(OBJECT_CLASS);
+        int compiledCallableClass = this.classConstPool.classRef(COMPILED_CALLABLE_CLASS);
+        int objectInit = this.classConstPool.methodRef(OBJECT_CLASS, "<init>", "()V");
+        int codeAttribute = this.classConstPool.utf8("Code");
+        int initName = this.classConstPool.utf8("<init>");
+        int initDescriptor = this.classConstPool.utf8("()V");
+        int executeName = this.classConstPool.utf8("execute");
+        int executeDescriptor = this.classConstPool.utf8(EXECUTE_DESCRIPTOR);
+
+        CodeBuffer initCode = new CodeBuffer();
+        initCode.put(ALOAD_0);
+        initCode.put(INVOKESPECIAL);
+        initCode.putShort(objectInit);
+        initCode.put(RETURN);
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(CLASS_FILE_MAGIC);
+            out.writeShort(0);
+            out.writeShort(CLASS_FILE_MAJOR_VERSION);
+            this.classConstPool.writeTo(out);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(compiledCallableClass);
+            out.writeShort(0);
+            out.writeShort(2);
+            writeMethod(out, initName, initDescriptor, codeAttribute, 1, 1, initCode);
+            writeMethod(out, executeName, executeDescriptor, codeAttribute, MAX_STACK, MAX_LOCALS, this.methodCode);
+            out.writeShort(0);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute,
+                                    int maxStack, int maxLocals, CodeBuffer code) throws IOException {
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeAttribute);
+        out.writeInt(12 + code.size());
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.size());
+        code.writeTo(out);
+        /* no exception table and no code attributes */
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private void emitPrologue() {
+        this.emitLoadRegisterArray(SLOT_LOCAL, "longRegs", "[J", SLOT_LONG_REGS);
+        this.emitLoadRegisterArray(SLOT_LOCAL, "doubleRegs", "[D", SLOT_DOUBLE_REGS);
+        this.emitLoadRegisterArray(SLOT_LOCAL, "intRegs", "[I", SLOT_INT_REGS);
+        this.emitLoadRegisterArray(SLOT_LOCAL, "stringRegs", "[Ljava/lang/String;", SLOT_STRING_REGS);
+        this.emitLoadRegisterArray(SLOT_RESULT, "longRegs", "[J", SLOT_RET_LONG_REGS);
+        this.emitLoadRegisterArray(SLOT_RESULT, "doubleRegs", "[D", SLOT_RET_DOUBLE_REGS);
+        this.emitLoadRegisterArray(SLOT_RESULT, "intRegs", "[I", SLOT_RET_INT_REGS);
+        this.emitLoadRegisterArray(SLOT_RESULT, "stringRegs", "[Ljava/lang/String;", SLOT_RET_STRING_REGS);
+    }
+
+    private void emitLoadRegisterArray(int workerDataSlot, String field, String descriptor, int slot) {
+        this.emitLoadSlot(workerDataSlot);
+        this.methodCode.put(GETFIELD);
+        this.methodCode.putShort(this.classConstPool.fieldRef(WORKER_DATA_CLASS, field, descriptor));
+        this.methodCode.put(ASTORE);
+        this.methodCode.put(slot);
+    }
+
+    /**
+     * Emits the straight line sequence of instructions starting at the given address, up to an
+     * instruction which does not fall through, or one which is already emitted.
+     */
+    private boolean emitFrom(int startIp, boolean[] reachable) {
+        int ip = startIp;
+        while (reachable[ip] && this.codeOffsets[ip] == -1) {
+            this.codeOffsets[ip] = this.methodCode.size();
+            Instruction instruction = this.code[ip];
+            if (!this.emitInstruction(instruction.getOpcode(), instruction.getOperands())) {
+                return false;
+            }
+            int opcode = instruction.getOpcode();
+            if (opcode == InstructionCodes.RET || opcode == InstructionCodes.GOTO) {
+                return true;
+            }
+            ip++;
+        }
+        if (this.codeOffsets[ip] != -1) {
+            /* continue with the already emitted instruction */
+            this.emitBranch(GOTO, ip);
+        }
+        return true;
+    }
+
+    private boolean emitInstruction(int opcode, int[] operands) {
+        switch (opcode) {
+            case InstructionCodes.NOP:
+                break;
+            case InstructionCodes.ICONST:
+                this.emitStoreStart(SLOT_LONG_REGS, operands[1]);
+                this.emitLongConst(((IntegerCPEntry) this.constPool[operands[0]]).getValue());
+                this.methodCode.put(LASTORE);
+                break;
+            case InstructionCodes.FCONST:
+                this.emitStoreStart(SLOT_DOUBLE_REGS, operands[1]);
+                this.emitDoubleConst(((FloatCPEntry) this.constPool[operands[0]]).getValue());
+                this.methodCode.put(DASTORE);
+                break;
+            case InstructionCodes.SCONST:
+                this.emitStoreStart(SLOT_STRING_REGS, operands[1]);
+                this.emitStringConst(((StringCPEntry) this.constPool[operands[0]]).getValue());
+                this.methodCode.put(AASTORE);
+                break;
+            case InstructionCodes.ICONST_0:
+            case InstructionCodes.ICONST_1:
+            case InstructionCodes.ICONST_2:
+            case InstructionCodes.ICONST_3:
+            case InstructionCodes.ICONST_4:
+            case InstructionCodes.ICONST_5:
+                this.emitStoreStart(SLOT_LONG_REGS, operands[0]);
+                this.emitLongConst(opcode - InstructionCodes.ICONST_0);
+                this.methodCode.put(LASTORE);
+                break;
+            case InstructionCodes.FCONST_0:
+            case InstructionCodes.FCONST_1:
+            case InstructionCodes.FCONST_2:
+            case InstructionCodes.FCONST_3:
+            case InstructionCodes.FCONST_4:
+            case InstructionCodes.FCONST_5:
+                this.emitStoreStart(SLOT_DOUBLE_REGS, operands[0]);
+                this.emitDoubleConst(opcode - InstructionCodes.FCONST_0);
+                this.methodCode.put(DASTORE);
+                break;
+            case InstructionCodes.BCONST_0:
+            case InstructionCodes.BCONST_1:
+                this.emitStoreStart(SLOT_INT_REGS, operands[0]);
+                this.emitIntConst(opcode - InstructionCodes.BCONST_0);
+                this.methodCode.put(IASTORE);
+                break;
+            case InstructionCodes.IMOVE:
+                this.emitMove(SLOT_LONG_REGS, operands[0], SLOT_LONG_REGS, operands[1], LALOAD, LASTORE);
+                break;
+            case InstructionCodes.FMOVE:
+                this.emitMove(SLOT_DOUBLE_REGS, operands[0], SLOT_DOUBLE_REGS, operands[1], DALOAD, DASTORE);
+                break;
+            case InstructionCodes.SMOVE:
+                this.emitMove(SLOT_STRING_REGS, operands[0], SLOT_STRING_REGS, operands[1], AALOAD, AASTORE);
+                break;
+            case InstructionCodes.BMOVE:
+                this.emitMove(SLOT_INT_REGS, operands[0], SLOT_INT_REGS, operands[1], IALOAD, IASTORE);
+                break;
+            case InstructionCodes.IADD:
+                this.emitLongArithmetic(operands, LADD);
+                break;
+            case InstructionCodes.ISUB:
+                this.emitLongArithmetic(operands, LSUB);
+                break;
+            case InstructionCodes.IMUL:
+                this.emitLongArithmetic(operands, LMUL);
+                break;
+            case InstructionCodes.IDIV:
+                /* a zero divisor raises an ArithmeticException */
+                this.emitLongArithmetic(operands, LDIV);
+                break;
+            case InstructionCodes.IMOD:
+                this.emitLongArithmetic(operands, LREM);
+                break;
+            case InstructionCodes.FADD:
+                this.emitDoubleArithmetic(operands, DADD);
+                break;
+            case InstructionCodes.FSUB:
+                this.emitDoubleArithmetic(operands, DSUB);
+                break;
+            case InstructionCodes.FMUL:
+                this.emitDoubleArithmetic(operands, DMUL);
+                break;
+            case InstructionCodes.FDIV:
+                this.emitDoubleDivisorCheck(operands[1]);
+                this.emitDoubleArithmetic(operands, DDIV);
+                break;
+            case InstructionCodes.FMOD:
+                this.emitDoubleDivisorCheck(operands[1]);
+                this.emitDoubleArithmetic(operands, DREM);
+                break;
+            case InstructionCodes.INEG:
+                this.emitStoreStart(SLOT_LONG_REGS, operands[1]);
+                this.emitLoad(SLOT_LONG_REGS, operands[0], LALOAD);
+                this.methodCode.put(LNEG);
+                this.methodCode.put(LASTORE);
+                break;
+            case InstructionCodes.FNEG:
+                this.emitStoreStart(SLOT_DOUBLE_REGS, operands[1]);
+                this.emitLoad(SLOT_DOUBLE_REGS, operands[0], DALOAD);
+                this.methodCode.put(DNEG);
+                this.methodCode.put(DASTORE);
+                break;
+            case InstructionCodes.BNOT:
+                this.emitStoreStart(SLOT_INT_REGS, operands[1]);
+                this.emitLoad(SLOT_INT_REGS, operands[0], IALOAD);
+                this.emitBooleanValue(IFNE);
+                this.methodCode.put(IASTORE);
+                break;
+            case InstructionCodes.I2F:
+                this.emitStoreStart(SLOT_DOUBLE_REGS, operands[1]);
+                this.emitLoad(SLOT_LONG_REGS, operands[0], LALOAD);
+                this.methodCode.put(L2D);
+                this.methodCode.put(DASTORE);
+                break;
+            case InstructionCodes.F2I:
+                this.emitStoreStart(SLOT_LONG_REGS, operands[1]);
+                this.emitLoad(SLOT_DOUBLE_REGS, operands[0], DALOAD);
+                this.methodCode.put(D2L);
+                this.methodCode.put(LASTORE);
+                break;
+            case InstructionCodes.IEQ:
+                this.emitCompare(operands, SLOT_LONG_REGS, LALOAD, LCMP, IFNE);
+                break;
+            case InstructionCodes.INE:
+                this.emitCompare(operands, SLOT_LONG_REGS, LALOAD, LCMP, IFEQ);
+                break;
+            case InstructionCodes.IGT:
+                this.emitCompare(operands, SLOT_LONG_REGS, LALOAD, LCMP, IFLE);
+                break;
+            case InstructionCodes.IGE:
+                this.emitCompare(operands, SLOT_LONG_REGS, LALOAD, LCMP, IFLT);
+                break;
+            case InstructionCodes.ILT:
+                this.emitCompare(operands, SLOT_LONG_REGS, LALOAD, LCMP, IFGE);
+                break;
+            case InstructionCodes.ILE:
+                this.emitCompare(operands, SLOT_LONG_REGS, LALOAD, LCMP, IFGT);
+                break;
+            /* dcmpl and dcmpg are chosen so a NaN operand makes the comparison false, as in Java */
+            case InstructionCodes.FEQ:
+                this.emitCompare(operands, SLOT_DOUBLE_REGS, DALOAD, DCMPL, IFNE);
+                break;
+            case InstructionCodes.FNE:
+                this.emitCompare(operands, SLOT_DOUBLE_REGS, DALOAD, DCMPL, IFEQ);
+                break;
+            case InstructionCodes.FGT:
+                this.emitCompare(operands, SLOT_DOUBLE_REGS, DALOAD, DCMPL, IFLE);
+                break;
+            case InstructionCodes.FGE:
+                this.emitCompare(operands, SLOT_DOUBLE_REGS, DALOAD, DCMPL, IFLT);
+                break;
+            case InstructionCodes.FLT:
+                this.emitCompare(operands, SLOT_DOUBLE_REGS, DALOAD, DCMPG, IFGE);
+                break;
+            case InstructionCodes.FLE:
+                this.emitCompare(operands, SLOT_DOUBLE_REGS, DALOAD, DCMPG, IFGT);
+                break;
+            case InstructionCodes.BEQ:
+                this.emitCompare(operands, SLOT_INT_REGS, IALOAD, -1, IF_ICMPNE);
+                break;
+            case InstructionCodes.BNE:
+                this.emitCompare(operands, SLOT_INT_REGS, IALOAD, -1, IF_ICMPEQ);
+                break;
+            case InstructionCodes.BR_TRUE:
+                this.emitLoad(SLOT_INT_REGS, operands[0], IALOAD);
+                this.methodCode.put(ICONST_1);
+                this.emitBranch(IF_ICMPEQ, operands[1]);
+                break;
+            case InstructionCodes.BR_FALSE:
+                this.emitLoad(SLOT_INT_REGS, operands[0], IALOAD);
+                this.emitBranch(IFEQ, operands[1]);
+                break;
+            case InstructionCodes.GOTO:
+                this.emitBranch(GOTO, operands[0]);
+                break;
+            case InstructionCodes.IRET:
+                this.emitMove(SLOT_LONG_REGS, operands[1], SLOT_RET_LONG_REGS, this.retRegs[operands[0]], LALOAD,
+                        LASTORE);
+                break;
+            case InstructionCodes.FRET:
+                this.emitMove(SLOT_DOUBLE_REGS, operands[1], SLOT_RET_DOUBLE_REGS, this.retRegs[operands[0]],
+                        DALOAD, DASTORE);
+                break;
+            case InstructionCodes.SRET:
+                this.emitMove(SLOT_STRING_REGS, operands[1], SLOT_RET_STRING_REGS, this.retRegs[operands[0]],
+                        AALOAD, AASTORE);
+                break;
+            case InstructionCodes.BRET:
+                this.emitMove(SLOT_INT_REGS, operands[1], SLOT_RET_INT_REGS, this.retRegs[operands[0]], IALOAD,
+                        IASTORE);
+                break;
+            case InstructionCodes.RET:
+                this.methodCode.put(RETURN);
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    private void emitLoadSlot(int slot) {
+        if (slot <= 3) {
+            this.methodCode.put(ALOAD_0 + slot);
+        } else {
+            this.methodCode.put(ALOAD);
+            this.methodCode.put(slot);
+        }
+    }
+
+    private void emitStoreStart(int arraySlot, int reg) {
+        this.emitLoadSlot(arraySlot);
+        this.emitIntConst(reg);
+    }
+
+    private void emitLoad(int arraySlot, int reg, int loadOpcode) {
+        this.emitLoadSlot(arraySlot);
+        this.emitIntConst(reg);
+        this.methodCode.put(loadOpcode);
+    }
+
+    private void emitMove(int fromSlot, int fromReg, int toSlot, int toReg, int loadOpcode, int storeOpcode) {
+        this.emitStoreStart(toSlot, toReg);
+        this.emitLoad(fromSlot, fromReg, loadOpcode);
+        this.methodCode.put(storeOpcode);
+    }
+
+    private void emitLongArithmetic(int[] operands, int opcode) {
+        this.emitStoreStart(SLOT_LONG_REGS, operands[2]);
+        this.emitLoad(SLOT_LONG_REGS, operands[0], LALOAD);
+        this.emitLoad(SLOT_LONG_REGS, operands[1], LALOAD);
+        this.methodCode.put(opcode);
+        this.methodCode.put(LASTORE);
+    }
+
+    private void emitDoubleArithmetic(int[] operands, int opcode) {
+        this.emitStoreStart(SLOT_DOUBLE_REGS, operands[2]);
+        this.emitLoad(SLOT_DOUBLE_REGS, operands[0], DALOAD);
+        this.emitLoad(SLOT_DOUBLE_REGS, operands[1], DALOAD);
+        this.methodCode.put(opcode);
+        this.methodCode.put(DASTORE);
+    }
+
+    /**
+     * Emits a check throwing an {@link ArithmeticException} for a zero float divisor, which the BVM
+     * reports as a division by zero error.
+     */
+    private void emitDoubleDivisorCheck(int divisorReg) {
+        this.emitLoad(SLOT_DOUBLE_REGS, divisorReg, DALOAD);
+        this.methodCode.put(DCONST_0);
+        this.methodCode.put(DCMPL);
+        /* skip the ifne, new, dup, invokespecial and athrow instructions */
+        this.methodCode.put(IFNE);
+        this.methodCode.putShort(11);
+        this.methodCode.put(NEW);
+        this.methodCode.putShort(this.classConstPool.classRef(ARITHMETIC_EXCEPTION_CLASS));
+        this.methodCode.put(DUP);
+        this.methodCode.put(INVOKESPECIAL);
+        this.methodCode.putShort(this.classConstPool.methodRef(ARITHMETIC_EXCEPTION_CLASS, "<init>", "()V"));
+        this.methodCode.put(ATHROW);
+    }
+
+    private void emitCompare(int[] operands, int arraySlot, int loadOpcode, int compareOpcode, int falseBranch) {
+        this.emitStoreStart(SLOT_INT_REGS, operands[2]);
+        this.emitLoad(arraySlot, operands[0], loadOpcode);
+        this.emitLoad(arraySlot, operands[1], loadOpcode);
+        if (compareOpcode != -1) {
+            this.methodCode.put(compareOpcode);
+        }
+        this.emitBooleanValue(falseBranch);
+        this.methodCode.put(IASTORE);
+    }
+
+    /**
+     * Emits code pushing 0 if the given branch is taken on the current stack, and 1 otherwise.
+     */
+    private void emitBooleanValue(int falseBranch) {
+        /* skip the branch, iconst_1 and goto instructions */
+        this.methodCode.put(falseBranch);
+        this.methodCode.putShort(7);
+        this.methodCode.put(ICONST_1);
+        /* skip the goto and iconst_0 instructions */
+        this.methodCode.put(GOTO);
+        this.methodCode.putShort(4);
+        this.methodCode.put(ICONST_0);
+    }
+
+    private void emitBranch(int opcode, int targetIp) {
+        this.branchFixups.add(new int[] { this.methodCode.size(), targetIp });
+        this.methodCode.put(opcode);
+        this.methodCode.putShort(0);
+    }
+
+    private void emitIntConst(int value) {
+        if (value >= -1 && value <= 5) {
+            this.methodCode.put(ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            this.methodCode.put(BIPUSH);
+            this.methodCode.put(value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            this.methodCode.put(SIPUSH);
+            this.methodCode.putShort(value);
+        } else {
+            this.methodCode.put(LDC_W);
+            this.methodCode.putShort(this.classConstPool.integer(value));
+        }
+    }
+
+    private void emitLongConst(long value) {
+        if (value == 0 || value == 1) {
+            this.methodCode.put(LCONST_0 + (int) value);
+        } else {
+            this.methodCode.put(LDC2_W);
+            this.methodCode.putShort(this.classConstPool.longValue(value));
+        }
+    }
+
+    private void emitDoubleConst(double value) {
+        if (Double.doubleToRawLongBits(value) == 0L || value == 1.0) {
+            this.methodCode.put(DCONST_0 + (int) value);
+        } else {
+            this.methodCode.put(LDC2_W);
+            this.methodCode.putShort(this.classConstPool.doubleValue(value));
+        }
+    }
+
+    private void emitStringConst(String value) {
+        if (value == null) {
+            this.methodCode.put(ACONST_NULL);
+        } else {
+            this.methodCode.put(LDC_W);
+            this.methodCode.putShort(this.classConstPool.string(value));
+        }
+    }
+
+    /**
+     * A growable byte buffer holding the code of a method.
+     */
+    private static class CodeBuffer {
+
+        private byte[] bytes = new byte[256];
+
+        private int size;
+
+        void put(int value) {
+            if (this.size == this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, this.size * 2);
+            }
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        void putShort(int value) {
+            this.put(value >> 8);
+            this.put(value);
+        }
+
+        void putShort(int offset, int value) {
+            this.bytes[offset] = (byte) (value >> 8);
+            this.bytes[offset + 1] = (byte) value;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.write(this.bytes, 0, this.size);
+        }
+    }
+
+    /**
+     * The constant pool of a generated class. Entries are written as they are added, and equal entries
+     * are shared.
+     */
+    private static class ConstantPool {
+
+        private static final int CONSTANT_UTF8 = 1;
+        private static final int CONSTANT_INTEGER = 3;
+        private static final int CONSTANT_LONG = 5;
+        private static final int CONSTANT_DOUBLE = 6;
+        private static final int CONSTANT_CLASS = 7;
+        private static final int CONSTANT_STRING = 8;
+        private static final int CONSTANT_FIELDREF = 9;
+        private static final int CONSTANT_METHODREF = 10;
+        private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream out = new DataOutputStream(this.bytes);
+
+        private final Map<String, Integer> entries = new HashMap<>();
+
+        private int nextIndex = 1;
+
+        int utf8(String value) {
+            String key = "utf8:" + value;
+            Integer index = this.entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                this.out.writeByte(CONSTANT_UTF8);
+                this.out.writeUTF(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this.addEntry(key, 1);
+        }
+
+        int integer(int value) {
+            return this.addValueEntry("int:" + value, CONSTANT_INTEGER, value, 1);
+        }
+
+        int longValue(long value) {
+            return this.addValueEntry("long:" + value, CONSTANT_LONG, value, 2);
+        }
+
+        int doubleValue(double value) {
+            return this.addValueEntry("double:" + Double.doubleToRawLongBits(value), CONSTANT_DOUBLE,
+                    Double.doubleToRawLongBits(value), 2);
+        }
+
+        int classRef(String internalName) {
+            return this.addRefEntry("class:" + internalName, CONSTANT_CLASS, this.utf8(internalName), -1);
+        }
+
+        int string(String value) {
+            return this.addRefEntry("string:" + value, CONSTANT_STRING, this.utf8(value), -1);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return this.addRefEntry("field:" + owner + "." + name + ":" + descriptor, CONSTANT_FIELDREF,
+                    this.classRef(owner), this.nameAndType(name, descriptor));
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return this.addRefEntry("method:" + owner + "." + name + descriptor, CONSTANT_METHODREF,
+                    this.classRef(owner), this.nameAndType(name, descriptor));
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            return this.addRefEntry("nat:" + name + ":" + descriptor, CONSTANT_NAME_AND_TYPE, this.utf8(name),
+                    this.utf8(descriptor));
+        }
+
+        private int addValueEntry(String key, int tag, long value, int slots) {
+            Integer index = this.entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                this.out.writeByte(tag);
+                if (slots == 2) {
+                    this.out.writeLong(value);
+                } else {
+                    this.out.writeInt((int) value);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this.addEntry(key, slots);
+        }
+
+        private int addRefEntry(String key, int tag, int first, int second) {
+            Integer index = this.entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                this.out.writeByte(tag);
+                this.out.writeShort(first);
+                if (second != -1) {
+                    this.out.writeShort(second);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return this.addEntry(key, 1);
+        }
+
+        private int addEntry(String key, int slots) {
+            int index = this.nextIndex;
+            this.nextIndex += slots;
+            this.entries.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream classOut) throws IOException {
+            this.out.flush();
+            classOut.writeShort(this.nextIndex);
+            this.bytes.writeTo(classOut);
+        }
+    }
+
+    /**
+     * Defines a single generated class, so the class can be unloaded together with its loader.
+     */
+    private static class CompiledCallableLoader extends ClassLoader {
+
+        CompiledCallableLoader() {
+            super(CompiledCallable.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return this.defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
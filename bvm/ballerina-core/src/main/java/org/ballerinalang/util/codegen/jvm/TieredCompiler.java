@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.util.codegen.jvm;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.util.codegen.CallableUnitInfo;
+import org.ballerinalang.util.codegen.CallableUnitInfo.WorkerSet;
+import org.ballerinalang.util.codegen.PackageInfo;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+/**
+ * {@code TieredCompiler} decides when a callable unit is hot enough to be executed as JVM bytecode instead
+ * of being interpreted. Tiered compilation is disabled by default, and is enabled with
+ * {@code b7a.runtime.tiered.compilation=true}. A callable unit is compiled once its invocation count reaches
+ * {@code b7a.runtime.tiered.threshold}. Compilation is attempted only once per callable unit.
+ *
+ * @since 0.974.1
+ */
+public class TieredCompiler {
+
+    /**
+     * The tier-up threshold of a package when tiered compilation is disabled.
+     */
+    public static final int TIERED_COMPILATION_DISABLED = -1;
+
+    private static final String TIERED_COMPILATION_CONFIG_PROP = "b7a.runtime.tiered.compilation";
+
+    private static final String TIER_UP_THRESHOLD_CONFIG_PROP = "b7a.runtime.tiered.threshold";
+
+    private static final int DEFAULT_TIER_UP_THRESHOLD = 10000;
+
+    /**
+     * Returns the configured number of invocations after which a callable unit is compiled.
+     *
+     * @return the tier-up threshold, or {@link #TIERED_COMPILATION_DISABLED}
+     */
+    public static int getTierUpThreshold() {
+        ConfigRegistry configRegistry = ConfigRegistry.getInstance();
+        if (!configRegistry.getAsBoolean(TIERED_COMPILATION_CONFIG_PROP)) {
+            return TIERED_COMPILATION_DISABLED;
+        }
+        String thresholdProp = configRegistry.getAsString(TIER_UP_THRESHOLD_CONFIG_PROP);
+        if (thresholdProp == null) {
+            return DEFAULT_TIER_UP_THRESHOLD;
+        }
+        int threshold;
+        try {
+            threshold = Integer.parseInt(thresholdProp);
+        } catch (NumberFormatException ignore) {
+            throw new BallerinaException("invalid value for '" + TIER_UP_THRESHOLD_CONFIG_PROP + "': "
+                    + thresholdProp);
+        }
+        if (threshold < 1) {
+            throw new BallerinaException(TIER_UP_THRESHOLD_CONFIG_PROP + " must be positive");
+        }
+        return threshold;
+    }
+
+    /**
+     * Counts an invocation of the given callable unit, and returns its compiled form if it is hot and
+     * could be compiled.
+     *
+     * @param callableUnitInfo the invoked callable unit
+     * @return the compiled callable unit, or {@code null} if it should be interpreted
+     */
+    public static CompiledCallable getCompiledCallable(CallableUnitInfo callableUnitInfo) {
+        int threshold = callableUnitInfo.getPackageInfo().getTierUpThreshold();
+        if (threshold == TIERED_COMPILATION_DISABLED || callableUnitInfo.isTierUpAttempted()) {
+            return callableUnitInfo.getCompiledCallable();
+        }
+        if (callableUnitInfo.incrementInvocationCount() < threshold) {
+            return null;
+        }
+        return compile(callableUnitInfo);
+    }
+
+    private static CompiledCallable compile(CallableUnitInfo callableUnitInfo) {
+        synchronized (callableUnitInfo) {
+            if (!callableUnitInfo.isTierUpAttempted()) {
+                callableUnitInfo.setCompiledCallable(doCompile(callableUnitInfo));
+                callableUnitInfo.setTierUpAttempted(true);
+            }
+            return callableUnitInfo.getCompiledCallable();
+        }
+    }
+
+    private static CompiledCallable doCompile(CallableUnitInfo callableUnitInfo) {
+        WorkerSet workerSet = callableUnitInfo.getWorkerSet();
+        /* only the default worker of a callable unit without other workers is compiled */
+        if (callableUnitInfo.isNative() || workerSet.initWorker != null || workerSet.generalWorkers.length != 1) {
+            return null;
+        }
+        PackageInfo packageInfo = callableUnitInfo.getPackageInfo();
+        int startIp = workerSet.generalWorkers[0].getCodeAttributeInfo().getCodeAddrs();
+        return JVMBytecodeCompiler.compile(packageInfo.getInstructions(), startIp, packageInfo.getConstPoolEntries(),
+                callableUnitInfo.retWorkerIndex.retRegs);
+    }
+}
@@ -95,6 +95,18 @@ public class MetricsLaunchListener implements LaunchListener {
                 BLangScheduler.SchedulerStats::getWaitingForResponseWorkerCount).register();
         CallbackGauge.builder(prefix + "waiting_for_lock_worker_count", schedulerStats,
                 BLangScheduler.SchedulerStats::getWaitingForLockWorkerCount).register();
+        for (int i = 0; i < schedulerStats.getCoreCount(); i++) {
+            final int core = i;
+            final String coreTag = String.valueOf(core);
+            CallbackGauge.builder(prefix + "queue_depth", schedulerStats,
+                    stats -> stats.getQueueDepth(core)).tag("core", coreTag).register();
+            CallbackGauge.builder(prefix + "steal_count", schedulerStats,
+                    stats -> stats.getStealCount(core)).tag("core", coreTag).register();
+            CallbackGauge.builder(prefix + "park_count", schedulerStats,
+                    stats -> stats.getParkCount(core)).tag("core", coreTag).register();
+            CallbackGauge.builder(prefix + "unpark_count", schedulerStats,
+                    stats -> stats.getUnparkCount(core)).tag("core", coreTag).register();
+        }
     }
 
     @Override
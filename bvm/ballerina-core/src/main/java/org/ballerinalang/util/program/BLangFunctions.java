@@ -31,6 +31,7 @@ import org.ballerinalang.bre.bvm.ForkJoinWorkerResponseContext;
 import org.ballerinalang.bre.bvm.InitWorkerResponseContext;
 import org.ballerinalang.bre.bvm.SyncCallableWorkerResponseContext;
 import org.ballerinalang.bre.bvm.WorkerData;
+import org.ballerinalang.bre.bvm.WorkerDataPool;
 import org.ballerinalang.bre.bvm.WorkerExecutionContext;
 import org.ballerinalang.bre.bvm.WorkerResponseContext;
 import org.ballerinalang.model.NativeCallableUnit;
@@ -39,6 +40,7 @@ import org.ballerinalang.model.types.BTypes;
 import org.ballerinalang.model.values.BCallableFuture;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.runtime.threadpool.ThreadPoolFactory;
 import org.ballerinalang.util.BLangConstants;
 import org.ballerinalang.util.FunctionFlags;
 import org.ballerinalang.util.codegen.CallableUnitInfo;
@@ -50,6 +52,8 @@ import org.ballerinalang.util.codegen.PackageInfo;
 import org.ballerinalang.util.codegen.ProgramFile;
 import org.ballerinalang.util.codegen.WorkerInfo;
 import org.ballerinalang.util.codegen.attributes.CodeAttributeInfo;
+import org.ballerinalang.util.codegen.jvm.CompiledCallable;
+import org.ballerinalang.util.codegen.jvm.TieredCompiler;
 import org.ballerinalang.util.exceptions.BLangNullReferenceException;
 import org.ballerinalang.util.exceptions.BLangRuntimeException;
 import org.ballerinalang.util.observability.CallableUnitCallbackObserver;
@@ -307,6 +311,14 @@ public class BLangFunctions {
     private static WorkerExecutionContext invokeNonNativeCallable(CallableUnitInfo callableUnitInfo,
                                                                   WorkerExecutionContext parentCtx, int[] argRegs,
                                                                   int[] retRegs, boolean waitForResponse, int flags) {
+        if (!waitForResponse && isTieredExecutionApplicable(parentCtx, flags)) {
+            CompiledCallable compiledCallable = TieredCompiler.getCompiledCallable(callableUnitInfo);
+            if (compiledCallable != null
+                    && executeCompiledCallable(compiledCallable, parentCtx, argRegs, retRegs, callableUnitInfo)) {
+                /* we want the parent to continue, since we got the response of the compiled call already */
+                return parentCtx;
+            }
+        }
         WorkerSet workerSet = callableUnitInfo.getWorkerSet();
         int generalWorkersCount = workerSet.generalWorkers.length;
         CallableWorkerResponseContext respCtx = createWorkerResponseContext(callableUnitInfo.getRetParamTypes(),
@@ -337,8 +349,15 @@ public class BLangFunctions {
             executeWorker(respCtx, parentCtx, argRegs, callableUnitInfo, workerSet.generalWorkers[i],
                     wdi, initWorkerLocalData, initWorkerCAI, false, observerContext);
         }
-        WorkerExecutionContext runInCallerCtx = executeWorker(respCtx, parentCtx, argRegs, callableUnitInfo, 
-                workerSet.generalWorkers[0], wdi, initWorkerLocalData, initWorkerCAI, true, observerContext);
+        WorkerExecutionContext runInCallerCtx;
+        if (generalWorkersCount == 1 && initWorkerLocalData == null && !waitForResponse
+                && isWorkerDataPoolingApplicable(parentCtx)) {
+            runInCallerCtx = executePooledWorker(respCtx, parentCtx, argRegs, callableUnitInfo,
+                    workerSet.generalWorkers[0], wdi, observerContext);
+        } else {
+            runInCallerCtx = executeWorker(respCtx, parentCtx, argRegs, callableUnitInfo,
+                    workerSet.generalWorkers[0], wdi, initWorkerLocalData, initWorkerCAI, true, observerContext);
+        }
         if (waitForResponse) {
             BLangScheduler.executeNow(runInCallerCtx);
             respCallback.waitForResponse();
@@ -408,7 +427,15 @@ public class BLangFunctions {
         }
         try {
             ObserverContext observerContext = checkAndStartNativeCallableObservation(ctx, callableUnitInfo, flags);
-            if (nativeCallable.isBlocking()) {
+            if (nativeCallable.isBlocking() && ThreadPoolFactory.getInstance().isBlockingNativeOffloaded()) {
+                CallableUnitCallback callback = getNativeCallableUnitCallback(parentCtx, ctx, observerContext,
+                        retRegs, retTypes, flags);
+                ThreadPoolFactory.getInstance().getBlockingNativeExecutor().submit(
+                        () -> executeBlockingNative(nativeCallable, parentCtx, ctx, callback));
+                /* the per-core worker must not block, so the parent suspends until notified, as it does for a
+                 * non-blocking native call */
+                return null;
+            } else if (nativeCallable.isBlocking()) {
                 nativeCallable.execute(ctx, null);
                 BLangVMUtils.populateWorkerDataWithValues(parentLocalData, retRegs, ctx.getReturnValues(), retTypes);
                 checkAndStopCallableObservation(observerContext, flags);
@@ -430,6 +457,20 @@ public class BLangFunctions {
         }
     }
 
+    private static void executeBlockingNative(NativeCallableUnit nativeCallable, WorkerExecutionContext parentCtx,
+                                              Context ctx, CallableUnitCallback callback) {
+        try {
+            nativeCallable.execute(ctx, null);
+        } catch (BLangNullReferenceException e) {
+            callback.notifyFailure(BLangVMErrors.createNullRefException(parentCtx));
+            return;
+        } catch (Throwable e) {
+            callback.notifyFailure(BLangVMErrors.createError(parentCtx, e.getMessage()));
+            return;
+        }
+        callback.notifySuccess();
+    }
+
     private static void invokeNativeCallableAsync(CallableUnitInfo callableUnitInfo,
             WorkerExecutionContext parentCtx, int[] argRegs, int[] retRegs, int flags) {
         WorkerData caleeSF = BLangVMUtils.createWorkerDataForLocal(callableUnitInfo.getDefaultWorkerInfo(), parentCtx,
@@ -439,6 +480,7 @@ public class BLangFunctions {
         if (nativeCallable == null) {
             return;
         }
+        BLangVMUtils.markShared(caleeSF);
         AsyncInvocableWorkerResponseContext respCtx;
         if (nativeCallable.isBlocking()) {
             respCtx = BLangScheduler.executeBlockingNativeAsync(nativeCallable, nativeCtx, flags);
@@ -463,6 +505,9 @@ public class BLangFunctions {
         if (initWorkerLocalData != null) {
             BLangVMUtils.mergeInitWorkertData(initWorkerLocalData, workerLocal, initWorkerCAI);
         }
+        if (!runInCaller) {
+            BLangVMUtils.markShared(workerLocal);
+        }
         WorkerData workerResult = BLangVMUtils.createWorkerData(wdi);
         WorkerExecutionContext ctx = new WorkerExecutionContext(parentCtx, respCtx, callableUnitInfo, workerInfo,
                 workerLocal, workerResult, wdi.retRegs, runInCaller);
@@ -471,6 +516,68 @@ public class BLangFunctions {
         return ctx;
     }
     
+    private static boolean isWorkerDataPoolingApplicable(WorkerExecutionContext parentCtx) {
+        /* root contexts can be shared between threads, and the debugger may inspect the local data of
+         * a worker after it returns */
+        return !parentCtx.isRootContext() && !parentCtx.programFile.getDebugger().isDebugEnabled();
+    }
+
+    /**
+     * Executes the single worker of a synchronously invoked callable in the strand of the caller, using a
+     * local register bank from the worker data pool of the strand at the depth of the callee. The register
+     * bank is released back to the pool when the worker returns.
+     */
+    private static WorkerExecutionContext executePooledWorker(WorkerResponseContext respCtx,
+            WorkerExecutionContext parentCtx, int[] argRegs, CallableUnitInfo callableUnitInfo,
+            WorkerInfo workerInfo, WorkerDataIndex wdi, ObserverContext observerContext) {
+        WorkerDataPool pool = parentCtx.getWorkerDataPool();
+        int depth = parentCtx.getStrandDepth() + 1;
+        WorkerData workerLocal = pool.acquire(depth, workerInfo.getCodeAttributeInfo());
+        BLangVMUtils.copyArgValues(parentCtx.workerLocal, workerLocal, argRegs, callableUnitInfo.getParamTypes());
+        WorkerData workerResult = BLangVMUtils.createWorkerData(wdi);
+        WorkerExecutionContext ctx = new WorkerExecutionContext(parentCtx, respCtx, callableUnitInfo, workerInfo,
+                workerLocal, workerResult, wdi.retRegs, true);
+        ctx.joinStrand(parentCtx);
+        ctx.workerLocalPool = pool;
+        ObservabilityUtils.setObserverContextToWorkerExecutionContext(ctx, observerContext);
+        BLangScheduler.schedule(ctx);
+        return ctx;
+    }
+    
+    private static boolean isTieredExecutionApplicable(WorkerExecutionContext parentCtx, int flags) {
+        /* compiled callables cannot be observed or stepped through by the debugger */
+        return !(ObservabilityUtils.isObservabilityEnabled() && FunctionFlags.isObserved(flags))
+                && !parentCtx.programFile.getDebugger().isDebugEnabled();
+    }
+
+    /**
+     * Executes the JVM bytecode form of a synchronously invoked callable in the caller's thread. Compiled
+     * callables only access their local registers, so when the compiled execution fails with an arithmetic
+     * error, the callable is executed again by the interpreter, which raises the Ballerina error.
+     */
+    private static boolean executeCompiledCallable(CompiledCallable compiledCallable,
+            WorkerExecutionContext parentCtx, int[] argRegs, int[] retRegs, CallableUnitInfo callableUnitInfo) {
+        WorkerInfo workerInfo = callableUnitInfo.getWorkerSet().generalWorkers[0];
+        WorkerDataPool pool = isWorkerDataPoolingApplicable(parentCtx) ? parentCtx.getWorkerDataPool() : null;
+        int depth = parentCtx.getStrandDepth() + 1;
+        WorkerData workerLocal = pool != null ? pool.acquire(depth, workerInfo.getCodeAttributeInfo())
+                : new WorkerData(workerInfo.getCodeAttributeInfo());
+        BLangVMUtils.copyArgValues(parentCtx.workerLocal, workerLocal, argRegs, callableUnitInfo.getParamTypes());
+        WorkerData workerResult = BLangVMUtils.createWorkerData(callableUnitInfo.retWorkerIndex);
+        try {
+            compiledCallable.execute(workerLocal, workerResult);
+        } catch (ArithmeticException e) {
+            return false;
+        } finally {
+            if (pool != null) {
+                pool.release(depth, workerLocal);
+            }
+        }
+        BLangVMUtils.mergeResultData(workerResult, parentCtx.workerLocal, callableUnitInfo.getRetParamTypes(),
+                retRegs);
+        return true;
+    }
+
     private static WorkerData executeInitWorker(WorkerExecutionContext parentCtx, int[] argRegs,
             CallableUnitInfo callableUnitInfo, WorkerInfo workerInfo, WorkerDataIndex wdi,
             ObserverContext observerContext) {
@@ -563,6 +670,9 @@ public class BLangFunctions {
             WorkerExecutionContext parentCtx, int[] argRegs, WorkerInfo workerInfo,
             Map<String, Object> globalProps, boolean runInCaller) {
         WorkerData workerLocal = BLangVMUtils.createWorkerDataForLocal(workerInfo, parentCtx, argRegs);
+        if (!runInCaller) {
+            BLangVMUtils.markShared(workerLocal);
+        }
         WorkerExecutionContext ctx = new WorkerExecutionContext(parentCtx, respCtx, parentCtx.callableUnitInfo,
                 workerInfo, workerLocal, runInCaller);
         return BLangScheduler.schedule(ctx);
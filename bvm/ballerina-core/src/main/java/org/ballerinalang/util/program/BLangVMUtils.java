@@ -22,15 +22,19 @@ import org.ballerinalang.bre.bvm.CPU.HandleErrorException;
 import org.ballerinalang.bre.bvm.WorkerData;
 import org.ballerinalang.bre.bvm.WorkerExecutionContext;
 import org.ballerinalang.model.types.BType;
+import org.ballerinalang.model.types.StructShape;
 import org.ballerinalang.model.types.TypeTags;
 import org.ballerinalang.model.values.BBlob;
 import org.ballerinalang.model.values.BBoolean;
 import org.ballerinalang.model.values.BFloat;
 import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BMap;
 import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BRefValueArray;
 import org.ballerinalang.model.values.BString;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.model.values.BXML;
 import org.ballerinalang.util.BLangConstants;
 import org.ballerinalang.util.codegen.CallableUnitInfo;
 import org.ballerinalang.util.codegen.ServiceInfo;
@@ -39,6 +43,9 @@ import org.ballerinalang.util.codegen.attributes.CodeAttributeInfo;
 import org.ballerinalang.util.transactions.LocalTransactionInfo;
 
 import java.io.PrintStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Utilities related to the Ballerina VM.
@@ -134,6 +141,75 @@ public class BLangVMUtils {
         return new WorkerData(workerInfo.getCodeAttributeInfo());
     }
 
+    /**
+     * Marks a value as shared between threads. This is called before the value is published to
+     * other workers, so thread-confined values switch to their concurrent representation first.
+     * The structs, arrays and maps the value refers to are walked as well, so that the values
+     * nested in them are switched too. This is only an early switch: maps reaching other threads
+     * in any other way switch safely on their first access from another thread.
+     *
+     * @param value the value being published
+     */
+    @SuppressWarnings("rawtypes")
+    public static void markShared(BRefType value) {
+        if (value instanceof BStruct || value instanceof BRefValueArray || value instanceof BMap) {
+            markShared(value, Collections.newSetFromMap(new IdentityHashMap<>()));
+        } else if (value instanceof BXML) {
+            /* an XML value read in the streaming mode builds its tree as it is navigated, which is not thread
+             * safe, so the tree is completed before other workers can navigate it */
+            ((BXML) value).build();
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void markShared(BRefType value, Set<BRefType> visited) {
+        if (value instanceof BXML) {
+            ((BXML) value).build();
+            return;
+        }
+        /* the structures referring to each other are walked once */
+        if (value == null || !visited.add(value)) {
+            return;
+        }
+        if (value instanceof BStruct) {
+            BStruct struct = (BStruct) value;
+            StructShape shape = struct.getType().getShape();
+            for (int i = 0; i < shape.objectCount - shape.refOffset; i++) {
+                markShared(struct.getRefField(i), visited);
+            }
+        } else if (value instanceof BRefValueArray) {
+            BRefValueArray array = (BRefValueArray) value;
+            for (int i = 0; i < array.size(); i++) {
+                markShared(array.get(i), visited);
+            }
+        } else if (value instanceof BMap) {
+            BMap map = (BMap) value;
+            map.share();
+            for (Object key : map.keySet()) {
+                Object element = map.get(key);
+                if (element instanceof BRefType) {
+                    markShared((BRefType) element, visited);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the reference values of a worker's local data as shared between threads, before the
+     * worker is scheduled to run in another thread.
+     *
+     * @param data the local data of the worker
+     */
+    @SuppressWarnings("rawtypes")
+    public static void markShared(WorkerData data) {
+        if (data.refRegs == null) {
+            return;
+        }
+        for (BRefType value : data.refRegs) {
+            markShared(value);
+        }
+    }
+
     @SuppressWarnings("rawtypes")
     public static void populateWorkerDataWithValues(WorkerData data, int[] regIndexes, BValue[] vals, BType[] types) {
         if (vals == null) {
@@ -43,6 +43,26 @@ public type ByteChannel object {
     }
     public native function write(blob content, int offset) returns int|error;
 
+    documentation {
+        Source bytes from a given input/output resource into several blobs with a single read operation.
+
+        The blobs are filled in order, a blob will be shorter than requested if the bytes ran out while filling it.
+
+        P{{nBytes}} Number of bytes which should be read into each blob
+        R{{}} Content, the total number of bytes read or an error
+    }
+    public native function readVectored(@sensitive int[] nBytes) returns @tainted (blob[], int)|error;
+
+    documentation {
+        Sink the bytes of several blobs to a given input/output resource with a single write operation.
+
+        This operation will be asynchronous, write might return without writing all the content.
+
+        P{{contents}} Blocks of bytes which should be written, in order
+        R{{}} Total number of bytes written or an error
+    }
+    public native function writeVectored(blob[] contents) returns int|error;
+
     documentation {
         Closes a given byte channel.
 
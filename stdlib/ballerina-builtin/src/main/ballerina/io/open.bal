@@ -21,12 +21,16 @@ documentation {
    WRITE - open the file in write mode
    READ/WRITE - open the file either to read or write
    APPEND - append to existing file instead of replacing
+   MAPPED READ - memory map an existing file to read it
+   MAPPED READ/WRITE - memory map an existing file to either read or write it, writes beyond its end will grow the file
 }
-public type Mode "r"|"w"|"rw"|"a";
+public type Mode "r"|"w"|"rw"|"a"|"mr"|"mrw";
 @final public Mode READ = "r";
 @final public Mode WRITE = "w";
 @final public Mode RW = "rw";
 @final public Mode APPEND = "a";
+@final public Mode MAPPED_READ = "mr";
+@final public Mode MAPPED_RW = "mrw";
 
 documentation {
     Retrieves a ByteChannel from a given file path.
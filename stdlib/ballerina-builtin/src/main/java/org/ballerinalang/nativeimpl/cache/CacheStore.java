@@ -0,0 +1,675 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.ballerinalang.nativeimpl.cache;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.util.metrics.CallbackGauge;
+import org.ballerinalang.util.metrics.DefaultMetricRegistry;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.ballerinalang.util.observability.ObservabilityConstants.CONFIG_METRICS_ENABLED;
+
+/**
+ * The store of the entries of a ballerina/cache:Cache.
+ * <p>
+ * The entries are held in segments, each with its own lock, so that the caches with large capacities can be used
+ * concurrently. Each segment orders its entries in doubly linked lists by their use, so that the entry to be evicted
+ * is found without going through the entries. With the LRU policy, the least recently used entries are evicted. With
+ * the W-TinyLFU policy, the new entries are kept in a small LRU window, and an entry leaving the window is admitted
+ * to the main part of the segment only if it is used more frequently than the entry it replaces, as estimated with
+ * a count-min sketch of the recent uses of the keys.
+ * <p>
+ * The entries expire once they are not used for the expiry time. Each segment keeps its entries in a timer wheel by
+ * their expiry times, so that only the entries, which are due, are visited when the expired entries are removed.
+ *
+ * @since 0.974.1
+ */
+public class CacheStore {
+
+    /**
+     * The policies for choosing the entries to be evicted when the cache is full.
+     */
+    public enum EvictionPolicy {
+        LRU, W_TINY_LFU
+    }
+
+    /* the key of the store in the native data of the cache object */
+    static final String NATIVE_DATA_KEY = "CacheStore";
+
+    /* a segment per this many entries of the capacity, so that the small caches are not segmented */
+    private static final int SEGMENT_CAPACITY = 1024;
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /* the number of ticks of the timer wheels within the expiry time */
+    private static final int WHEEL_TICKS = 64;
+
+    private static final ScheduledExecutorService EXPIRY_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "BLangCacheExpiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Segment[] segments;
+
+    private final long expiryTimeMillis;
+
+    /* the order of the insertions, by which the keys are listed */
+    private final AtomicLong insertions = new AtomicLong();
+
+    public CacheStore(int capacity, long expiryTimeMillis, double evictionFactor, EvictionPolicy evictionPolicy) {
+        this.expiryTimeMillis = expiryTimeMillis;
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && (long) segmentCount * 2 * SEGMENT_CAPACITY <= capacity) {
+            segmentCount *= 2;
+        }
+        long tickMillis = Math.max(1, expiryTimeMillis / WHEEL_TICKS);
+        long now = System.currentTimeMillis();
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+            this.segments[i] = new Segment(segmentCapacity, evictionFactor, evictionPolicy, tickMillis, now);
+        }
+        ExpiryTask.schedule(this, tickMillis);
+    }
+
+    static CacheStore of(BStruct cache) {
+        return (CacheStore) cache.getNativeData(NATIVE_DATA_KEY);
+    }
+
+    /**
+     * Returns the value of a key, and marks the entry as used.
+     *
+     * @param key the key
+     * @return the value, or null if there is no entry for the key
+     */
+    public BValue get(String key) {
+        int hash = spread(key.hashCode());
+        Node node;
+        Segment segment = this.segmentFor(hash);
+        synchronized (segment) {
+            long now = System.currentTimeMillis();
+            segment.expire(now);
+            node = segment.get(key, hash, now, this.expiryTimeMillis);
+        }
+        if (node == null) {
+            Metrics.MISSES.increment();
+            return null;
+        }
+        Metrics.HITS.increment();
+        return node.value;
+    }
+
+    /**
+     * Adds an entry, or replaces the value of the entry of the key, evicting entries if the cache is full.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(String key, BValue value) {
+        int hash = spread(key.hashCode());
+        Segment segment = this.segmentFor(hash);
+        int evictions;
+        synchronized (segment) {
+            long now = System.currentTimeMillis();
+            segment.expire(now);
+            evictions = segment.put(key, hash, value, now + this.expiryTimeMillis, this.insertions);
+        }
+        if (evictions > 0) {
+            Metrics.EVICTIONS.add(evictions);
+        }
+    }
+
+    /**
+     * Returns whether there is an entry for a key, without marking the entry as used.
+     *
+     * @param key the key
+     * @return whether there is an entry for the key
+     */
+    public boolean hasKey(String key) {
+        int hash = spread(key.hashCode());
+        Segment segment = this.segmentFor(hash);
+        synchronized (segment) {
+            long now = System.currentTimeMillis();
+            segment.expire(now);
+            Node node = segment.entries.get(key);
+            return node != null && node.expiresAt > now;
+        }
+    }
+
+    public void remove(String key) {
+        int hash = spread(key.hashCode());
+        Segment segment = this.segmentFor(hash);
+        synchronized (segment) {
+            Node node = segment.entries.get(key);
+            if (node != null) {
+                segment.remove(node);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        long now = System.currentTimeMillis();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.expire(now);
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the keys of the entries, in the order the entries were added.
+     *
+     * @return the keys
+     */
+    public String[] keys() {
+        List<Node> nodes = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.expire(now);
+                nodes.addAll(segment.entries.values());
+            }
+        }
+        if (this.segments.length > 1) {
+            nodes.sort(Comparator.comparingLong(node -> node.insertion));
+        }
+        String[] keys = new String[nodes.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = nodes.get(i).key;
+        }
+        return keys;
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.expire(now);
+            }
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return this.segments[(hash >>> 16) & (this.segments.length - 1)];
+    }
+
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A part of the entries of a cache, which is used under its lock.
+     */
+    private static class Segment {
+
+        /* the entries, in the order they were added */
+        final Map<String, Node> entries = new LinkedHashMap<>();
+
+        private final int capacity;
+
+        private final EvictionPolicy evictionPolicy;
+
+        /* the number of entries evicted at once with the LRU policy */
+        private final int evictionCount;
+
+        /* the entries by their use, the least recently used first, and all the entries with the LRU policy */
+        private final Queue window = new Queue(Queue.WINDOW);
+
+        private final Queue probation = new Queue(Queue.PROBATION);
+
+        private final Queue protectedQueue = new Queue(Queue.PROTECTED);
+
+        private final int windowCapacity;
+
+        private final int protectedCapacity;
+
+        private final FrequencySketch sketch;
+
+        private final TimerWheel wheel;
+
+        Segment(int capacity, double evictionFactor, EvictionPolicy evictionPolicy, long tickMillis, long now) {
+            this.capacity = Math.max(capacity, 1);
+            this.evictionPolicy = evictionPolicy;
+            this.evictionCount = Math.max(1, (int) (this.capacity * evictionFactor));
+            if (evictionPolicy == EvictionPolicy.W_TINY_LFU) {
+                this.windowCapacity = Math.max(1, this.capacity / 100);
+                this.protectedCapacity = (this.capacity - this.windowCapacity) * 4 / 5;
+                this.sketch = new FrequencySketch(this.capacity);
+            } else {
+                this.windowCapacity = this.capacity;
+                this.protectedCapacity = 0;
+                this.sketch = null;
+            }
+            this.wheel = new TimerWheel(tickMillis, now);
+        }
+
+        Node get(String key, int hash, long now, long expiryTimeMillis) {
+            if (this.sketch != null) {
+                this.sketch.increment(hash);
+            }
+            Node node = this.entries.get(key);
+            if (node == null) {
+                return null;
+            } else if (node.expiresAt <= now) {
+                this.remove(node);
+                return null;
+            }
+            node.expiresAt = now + expiryTimeMillis;
+            this.wheel.schedule(node);
+            this.touch(node);
+            return node;
+        }
+
+        int put(String key, int hash, BValue value, long expiresAt, AtomicLong insertions) {
+            if (this.sketch != null) {
+                this.sketch.increment(hash);
+            }
+            Node node = this.entries.get(key);
+            if (node != null) {
+                node.value = value;
+                node.expiresAt = expiresAt;
+                this.wheel.schedule(node);
+                this.touch(node);
+                return 0;
+            }
+            int evictions = 0;
+            if (this.evictionPolicy == EvictionPolicy.LRU && this.entries.size() >= this.capacity) {
+                for (int i = 0; i < this.evictionCount && this.window.head != null; i++) {
+                    this.remove(this.window.head);
+                    evictions++;
+                }
+            }
+            node = new Node(key, hash, value, expiresAt, insertions.getAndIncrement());
+            this.entries.put(key, node);
+            this.wheel.schedule(node);
+            this.window.addLast(node);
+            if (this.evictionPolicy == EvictionPolicy.W_TINY_LFU) {
+                evictions += this.admit();
+            }
+            return evictions;
+        }
+
+        /* moves the entry leaving the window to the main part, if it is used more often than the one it replaces */
+        private int admit() {
+            if (this.window.size <= this.windowCapacity) {
+                return 0;
+            }
+            Node candidate = this.window.head;
+            this.window.remove(candidate);
+            this.probation.addLast(candidate);
+            if (this.probation.size + this.protectedQueue.size <= this.capacity - this.windowCapacity) {
+                return 0;
+            }
+            Node victim = this.probation.head != candidate ? this.probation.head : this.protectedQueue.head;
+            if (victim == null || this.sketch.frequency(candidate.hash) <= this.sketch.frequency(victim.hash)) {
+                victim = candidate;
+            }
+            this.remove(victim);
+            return 1;
+        }
+
+        /* marks an entry as used */
+        private void touch(Node node) {
+            Queue queue = this.queueOf(node);
+            if (queue == this.probation) {
+                /* an entry used again while on probation is protected, pushing the least used one back */
+                this.probation.remove(node);
+                this.protectedQueue.addLast(node);
+                if (this.protectedQueue.size > this.protectedCapacity) {
+                    Node demoted = this.protectedQueue.head;
+                    this.protectedQueue.remove(demoted);
+                    this.probation.addLast(demoted);
+                }
+            } else {
+                queue.remove(node);
+                queue.addLast(node);
+            }
+        }
+
+        void remove(Node node) {
+            this.entries.remove(node.key);
+            this.queueOf(node).remove(node);
+            this.wheel.cancel(node);
+        }
+
+        void expire(long now) {
+            Node expired = this.wheel.advance(now);
+            while (expired != null) {
+                Node next = expired.wheelNext;
+                expired.wheelNext = null;
+                this.entries.remove(expired.key);
+                this.queueOf(expired).remove(expired);
+                expired = next;
+            }
+        }
+
+        private Queue queueOf(Node node) {
+            return node.queue == Queue.WINDOW ? this.window
+                    : node.queue == Queue.PROBATION ? this.probation : this.protectedQueue;
+        }
+
+    }
+
+    /**
+     * An entry of a cache, which is linked into a queue of its segment and into a bucket of the timer wheel.
+     */
+    private static class Node {
+
+        final String key;
+
+        final int hash;
+
+        final long insertion;
+
+        BValue value;
+
+        long expiresAt;
+
+        int queue;
+
+        /* the bucket of the timer wheel, or -1 if the entry is not in the wheel */
+        int bucket = -1;
+
+        Node prev;
+
+        Node next;
+
+        Node wheelPrev;
+
+        Node wheelNext;
+
+        Node(String key, int hash, BValue value, long expiresAt, long insertion) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.insertion = insertion;
+        }
+
+    }
+
+    /**
+     * A doubly linked list of entries, in the order of their use.
+     */
+    private static class Queue {
+
+        static final int WINDOW = 0;
+
+        static final int PROBATION = 1;
+
+        static final int PROTECTED = 2;
+
+        final int id;
+
+        Node head;
+
+        Node tail;
+
+        int size;
+
+        Queue(int id) {
+            this.id = id;
+        }
+
+        void addLast(Node node) {
+            node.queue = this.id;
+            node.prev = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+        }
+
+        void remove(Node node) {
+            if (node.prev == null) {
+                this.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            this.size--;
+        }
+
+    }
+
+    /**
+     * A hashed timer wheel of the entries by their expiry times. The wheel spans more than the expiry time, so that
+     * the entries of a bucket are due in the same turn of the wheel.
+     */
+    private static class TimerWheel {
+
+        private final long tickMillis;
+
+        private final Node[] buckets;
+
+        private long currentTick;
+
+        TimerWheel(long tickMillis, long now) {
+            this.tickMillis = tickMillis;
+            this.buckets = new Node[Integer.highestOneBit(WHEEL_TICKS + 2) << 1];
+            this.currentTick = now / tickMillis;
+        }
+
+        void schedule(Node node) {
+            this.cancel(node);
+            int bucket = (int) (node.expiresAt / this.tickMillis) & (this.buckets.length - 1);
+            node.bucket = bucket;
+            node.wheelNext = this.buckets[bucket];
+            if (node.wheelNext != null) {
+                node.wheelNext.wheelPrev = node;
+            }
+            this.buckets[bucket] = node;
+        }
+
+        void cancel(Node node) {
+            if (node.bucket == -1) {
+                return;
+            }
+            if (node.wheelPrev != null) {
+                node.wheelPrev.wheelNext = node.wheelNext;
+            } else {
+                this.buckets[node.bucket] = node.wheelNext;
+            }
+            if (node.wheelNext != null) {
+                node.wheelNext.wheelPrev = node.wheelPrev;
+            }
+            node.bucket = -1;
+            node.wheelPrev = null;
+            node.wheelNext = null;
+        }
+
+        /*
+         * unlinks the entries of the ticks passed since the last call, and returns them linked through wheelNext.
+         * The entries due within the current tick are left for the next tick.
+         */
+        Node advance(long now) {
+            long targetTick = now / this.tickMillis;
+            long firstTick = Math.max(this.currentTick, targetTick - this.buckets.length);
+            Node expired = null;
+            for (long tick = firstTick; tick < targetTick; tick++) {
+                int bucket = (int) tick & (this.buckets.length - 1);
+                Node node = this.buckets[bucket];
+                while (node != null) {
+                    Node next = node.wheelNext;
+                    if (node.expiresAt <= now) {
+                        this.cancel(node);
+                        node.wheelNext = expired;
+                        expired = node;
+                    }
+                    node = next;
+                }
+            }
+            this.currentTick = Math.max(this.currentTick, targetTick);
+            return expired;
+        }
+
+    }
+
+    /**
+     * Estimates how often the keys are used, in 4 bit counters of a count-min sketch. The counters are halved
+     * periodically, so that the recent uses count more.
+     */
+    private static class FrequencySketch {
+
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+                0xcbf29ce484222325L };
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+
+        private final int sampleSize;
+
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            this.table = new long[Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1];
+            this.sampleSize = 10 * capacity;
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, (int) ((this.table[this.indexOf(hash, i)] >>> offsetOf(hash, i))
+                        & 0xF));
+            }
+            return frequency;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = this.indexOf(hash, i);
+                int offset = offsetOf(hash, i);
+                if (((this.table[index] >>> offset) & 0xF) != 0xF) {
+                    this.table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++this.additions == this.sampleSize) {
+                for (int i = 0; i < this.table.length; i++) {
+                    this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+                }
+                this.additions /= 2;
+            }
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & (this.table.length - 1);
+        }
+
+        /* each row uses 4 of the 16 counters of a long */
+        private static int offsetOf(int hash, int i) {
+            return ((i << 2) + ((hash >>> (i << 3)) & 3)) << 2;
+        }
+
+    }
+
+    /**
+     * Removes the expired entries of a cache periodically, while the cache is in use.
+     */
+    private static class ExpiryTask implements Runnable {
+
+        private final WeakReference<CacheStore> store;
+
+        private ScheduledFuture<?> future;
+
+        private ExpiryTask(CacheStore store) {
+            this.store = new WeakReference<>(store);
+        }
+
+        static void schedule(CacheStore store, long tickMillis) {
+            ExpiryTask task = new ExpiryTask(store);
+            synchronized (task) {
+                task.future = EXPIRY_EXECUTOR.scheduleWithFixedDelay(task, tickMillis, tickMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            CacheStore store = this.store.get();
+            if (store != null) {
+                store.expire();
+                return;
+            }
+            synchronized (this) {
+                this.future.cancel(false);
+            }
+        }
+
+    }
+
+    /**
+     * The counters of the uses of the caches, which are published as metrics when the metrics are enabled.
+     */
+    private static class Metrics {
+
+        static final LongAdder HITS = new LongAdder();
+
+        static final LongAdder MISSES = new LongAdder();
+
+        static final LongAdder EVICTIONS = new LongAdder();
+
+        static {
+            if (ConfigRegistry.getInstance().getAsBoolean(CONFIG_METRICS_ENABLED)
+                    && DefaultMetricRegistry.getInstance() != null) {
+                CallbackGauge.builder("ballerina_cache_hit_count", HITS, LongAdder::sum)
+                        .description("Number of cache lookups which found a value").register();
+                CallbackGauge.builder("ballerina_cache_miss_count", MISSES, LongAdder::sum)
+                        .description("Number of cache lookups which did not find a value").register();
+                CallbackGauge.builder("ballerina_cache_eviction_count", EVICTIONS, LongAdder::sum)
+                        .description("Number of cache entries evicted as the cache was full").register();
+            }
+        }
+
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.ballerinalang.nativeimpl.cache;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+
+/**
+ * Native function ballerina/cache:Cache.put. Adds an entry, evicting entries if the cache is full.
+ *
+ * @since 0.974.1
+ */
+@BallerinaFunction(
+        orgName = "ballerina", packageName = "cache",
+        functionName = "put",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "Cache", structPackage = "ballerina/cache"),
+        args = {@Argument(name = "key", type = TypeKind.STRING), @Argument(name = "value", type = TypeKind.ANY)},
+        isPublic = true
+)
+public class Put extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BStruct cache = (BStruct) context.getRefArgument(0);
+        String key = context.getStringArgument(0);
+        CacheStore.of(cache).put(key, context.getNullableRefArgument(1));
+    }
+}
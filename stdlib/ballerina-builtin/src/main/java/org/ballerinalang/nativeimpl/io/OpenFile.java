@@ -22,6 +22,7 @@ import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BString;
 import org.ballerinalang.nativeimpl.io.channels.AbstractNativeChannel;
 import org.ballerinalang.nativeimpl.io.channels.FileIOChannel;
+import org.ballerinalang.nativeimpl.io.channels.MappedFileIOChannel;
 import org.ballerinalang.nativeimpl.io.channels.base.Channel;
 import org.ballerinalang.nativeimpl.io.utils.IOUtils;
 import org.ballerinalang.natives.annotations.Argument;
@@ -56,6 +57,14 @@ public class OpenFile extends AbstractNativeChannel {
      * Index which will specify the file access mode.
      */
     private static final int FILE_ACCESS_MODE_INDEX = 0;
+    /**
+     * Access mode flag which specifies that the file should be memory mapped.
+     */
+    private static final String MAPPED_ACCESS_MODE = "m";
+    /**
+     * Access mode flag which specifies that the file should be written.
+     */
+    private static final String WRITE_ACCESS_MODE = "w";
 
     /**
      * {@inheritDoc}
@@ -67,8 +76,13 @@ public class OpenFile extends AbstractNativeChannel {
         Channel channel;
         try {
             Path path = Paths.get(pathUrl);
-            FileChannel fileChannel = IOUtils.openFileChannel(path, accessMode.stringValue());
-            channel = new FileIOChannel(fileChannel);
+            String mode = accessMode.stringValue();
+            FileChannel fileChannel = IOUtils.openFileChannel(path, mode);
+            if (mode.contains(MAPPED_ACCESS_MODE)) {
+                channel = new MappedFileIOChannel(fileChannel, mode.contains(WRITE_ACCESS_MODE));
+            } else {
+                channel = new FileIOChannel(fileChannel);
+            }
         } catch (AccessDeniedException e) {
             throw new BallerinaException("Do not have access to write file: ", e);
         } catch (Throwable e) {
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.nativeimpl.io;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.CallableUnitCallback;
+import org.ballerinalang.model.NativeCallableUnit;
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.BTupleType;
+import org.ballerinalang.model.types.BTypes;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBlobArray;
+import org.ballerinalang.model.values.BIntArray;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.ballerinalang.nativeimpl.io.events.EventContext;
+import org.ballerinalang.nativeimpl.io.events.EventResult;
+import org.ballerinalang.nativeimpl.io.events.bytes.ReadVectoredBytesEvent;
+import org.ballerinalang.nativeimpl.io.utils.IOUtils;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+
+import java.util.Arrays;
+
+/**
+ * Native function ballerina/io#readVectored.
+ *
+ * @since 0.974.1
+ */
+@BallerinaFunction(
+        orgName = "ballerina", packageName = "io",
+        functionName = "readVectored",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "ByteChannel", structPackage = "ballerina/io"),
+        args = {@Argument(name = "nBytes", type = TypeKind.ARRAY, elementType = TypeKind.INT)},
+        returnType = {@ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.BLOB),
+                @ReturnType(type = TypeKind.INT),
+                @ReturnType(type = TypeKind.RECORD, structType = "IOError", structPackage = "ballerina/io")},
+        isPublic = true
+)
+public class ReadVectoredBytes implements NativeCallableUnit {
+
+    private static final BTupleType readTupleType = new BTupleType(Arrays.asList(new BArrayType(BTypes.typeBlob),
+            BTypes.typeInt));
+
+    /**
+     * Specifies the index which contains the byte channel in ballerina/io#readVectored.
+     */
+    private static final int BYTE_CHANNEL_INDEX = 0;
+    /**
+     * Specifies the index which holds the number of bytes of each array in ballerina/io#readVectored.
+     */
+    private static final int NUMBER_OF_BYTES_INDEX = 1;
+
+    /*
+     * Function which will be notified on the response obtained after the async operation.
+     *
+     * @param result context of the callback.
+     * @return Once the callback is processed we further return back the result.
+     */
+    private static EventResult readResponse(EventResult<Integer, EventContext> result) {
+        BRefValueArray contentTuple = new BRefValueArray(readTupleType);
+        EventContext eventContext = result.getContext();
+        Context context = eventContext.getContext();
+        Throwable error = eventContext.getError();
+        CallableUnitCallback callback = eventContext.getCallback();
+        byte[][] content = (byte[][]) eventContext.getProperties().get(ReadVectoredBytesEvent.CONTENT_PROPERTY);
+        if (null != error) {
+            BStruct errorStruct = IOUtils.createError(context, error.getMessage());
+            context.setReturnValues(errorStruct);
+        } else {
+            Integer numberOfBytes = result.getResponse();
+            contentTuple.add(0, new BBlobArray(content));
+            contentTuple.add(1, new BInteger(numberOfBytes));
+            context.setReturnValues(contentTuple);
+        }
+        callback.notifySuccess();
+        return result;
+    }
+
+    /**
+     * <p>
+     * Reads bytes from a given channel into several arrays with a single read operation.
+     * </p>
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(Context context, CallableUnitCallback callback) {
+        BStruct channel = (BStruct) context.getRefArgument(BYTE_CHANNEL_INDEX);
+        BIntArray nBytes = (BIntArray) context.getRefArgument(NUMBER_OF_BYTES_INDEX);
+        byte[][] content = new byte[(int) nBytes.size()][];
+        for (int i = 0; i < content.length; i++) {
+            long arraySize = nBytes.get(i);
+            content[i] = new byte[arraySize <= 0 ? IOConstants.CHANNEL_BUFFER_SIZE : (int) arraySize];
+        }
+        Channel byteChannel = (Channel) channel.getNativeData(IOConstants.BYTE_CHANNEL_NAME);
+        EventContext eventContext = new EventContext(context, callback);
+        IOUtils.read(byteChannel, content, eventContext, ReadVectoredBytes::readResponse);
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
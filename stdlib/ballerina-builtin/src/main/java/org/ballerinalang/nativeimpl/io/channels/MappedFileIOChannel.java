@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.nativeimpl.io.channels;
+
+import org.ballerinalang.nativeimpl.io.BallerinaIOException;
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.ballerinalang.nativeimpl.io.channels.base.readers.BlockingReader;
+import org.ballerinalang.nativeimpl.io.channels.base.writers.BlockingWriter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * <p>
+ * Represents a channel which performs I/O operations on a memory mapped file.
+ * </p>
+ * <p>
+ * Bytes are copied straight from/to the mapping instead of being read into intermediate heap buffers. Since a single
+ * mapping cannot exceed 2GB, the file is mapped through a window which is remapped as the channel moves past it.
+ * Writes beyond the end of the file grow it by at most {@link #GROWTH_STEP} bytes past the bytes they require at a
+ * time, and the file is truncated back to the bytes written when the channel is closed.
+ * </p>
+ *
+ * @since 0.974.1
+ */
+public class MappedFileIOChannel extends Channel {
+
+    /**
+     * The default size of the mapped window.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * The number of bytes the file is grown by when a write goes beyond its end, unless the write requires more.
+     */
+    public static final int GROWTH_STEP = 1024 * 1024;
+
+    /**
+     * Maintains the file channel implementation.
+     */
+    private FileChannel channel;
+
+    /**
+     * Specifies whether the file is mapped to be written.
+     */
+    private boolean writable;
+
+    /**
+     * The maximum size of the mapped window.
+     */
+    private int windowSize;
+
+    /**
+     * The window of the file which is currently mapped.
+     */
+    private MappedByteBuffer window;
+
+    /**
+     * The position of the file the window begins at.
+     */
+    private long windowStart;
+
+    /**
+     * The position of the file the next read/write will begin at.
+     */
+    private long position;
+
+    /**
+     * The number of bytes in the file, excluding the bytes the mapped windows grew the file by.
+     */
+    private long size;
+
+    /**
+     * Specifies whether the channel has reached EoF.
+     */
+    private boolean hasReachedToEnd = false;
+
+    public MappedFileIOChannel(FileChannel channel, boolean writable) throws IOException {
+        this(channel, writable, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileIOChannel(FileChannel channel, boolean writable, int windowSize) throws IOException {
+        super(channel, new BlockingReader(), new BlockingWriter());
+        this.channel = channel;
+        this.writable = writable;
+        this.windowSize = windowSize;
+        this.size = channel.size();
+    }
+
+    /**
+     * Maps the window which holds the given number of bytes from the current position, if the current window does not.
+     * A writable window covers the rest of the file up to the window size, and only when that is not enough the file is
+     * grown to hold the required bytes, or a growth step past the current position if that is more.
+     *
+     * @param required the number of bytes which should be accessible through the window.
+     * @return the offset of the current position within the window.
+     * @throws IOException during I/O error.
+     */
+    private int mapWindow(int required) throws IOException {
+        if (null == window || position < windowStart || position + required > windowStart + window.limit()) {
+            long length;
+            if (writable) {
+                length = Math.min(windowSize, channel.size() - position);
+                if (length < required) {
+                    length = Math.max(required, Math.min(windowSize, GROWTH_STEP));
+                }
+            } else {
+                length = Math.min(windowSize, size - position);
+            }
+            FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            window = channel.map(mode, position, length);
+            //Primitives are encoded big-endian, the same as DataChannel encodes them for the other channels
+            window.order(ByteOrder.BIG_ENDIAN);
+            windowStart = position;
+        }
+        return (int) (position - windowStart);
+    }
+
+    /**
+     * Returns the number of bytes remaining in the file from the current position.
+     *
+     * @return the number of bytes remaining.
+     */
+    public long remaining() {
+        return size - position;
+    }
+
+    /**
+     * Reads the given bytes from the mapping.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(ByteBuffer buffer) throws IOException {
+        if (position >= size) {
+            hasReachedToEnd = true;
+            return 0;
+        }
+        int count = (int) Math.min(buffer.remaining(), size - position);
+        int offset = mapWindow(1);
+        count = Math.min(count, window.limit() - offset);
+        ByteBuffer source = window.duplicate();
+        source.position(offset);
+        source.limit(offset + count);
+        buffer.put(source);
+        position += count;
+        return count;
+    }
+
+    /**
+     * Writes the given bytes to the mapping.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public int write(ByteBuffer content) throws IOException {
+        if (!writable) {
+            throw new BallerinaIOException("file is not mapped to be written");
+        }
+        int offset = mapWindow(1);
+        int count = Math.min(content.remaining(), window.limit() - offset);
+        ByteBuffer target = window.duplicate();
+        target.position(offset);
+        ByteBuffer source = content.duplicate();
+        source.limit(source.position() + count);
+        target.put(source);
+        content.position(content.position() + count);
+        position += count;
+        size = Math.max(size, position);
+        return count;
+    }
+
+    /**
+     * Reads the given buffers from the mapping, one after the other.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long read(ByteBuffer[] buffers) throws IOException {
+        long readBytes = 0;
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining() && position < size) {
+                readBytes = readBytes + read(buffer);
+            }
+        }
+        if (readBytes == 0 && position >= size) {
+            hasReachedToEnd = true;
+        }
+        return readBytes;
+    }
+
+    /**
+     * Writes the given buffers to the mapping, one after the other.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public long write(ByteBuffer[] content) throws IOException {
+        long writtenBytes = 0;
+        for (ByteBuffer buffer : content) {
+            while (buffer.hasRemaining()) {
+                writtenBytes = writtenBytes + write(buffer);
+            }
+        }
+        return writtenBytes;
+    }
+
+    /**
+     * Reads a big-endian signed value of the given number of bytes directly from the mapping.
+     *
+     * @param numberOfBytes the number of bytes of the value, i.e 2, 4 or 8.
+     * @return the value read.
+     * @throws IOException if there are not enough bytes left in the file.
+     */
+    public long readLong(int numberOfBytes) throws IOException {
+        if (remaining() < numberOfBytes) {
+            hasReachedToEnd = true;
+            throw new EOFException("reached the end of the file while reading " + numberOfBytes + " bytes");
+        }
+        int offset = mapWindow(numberOfBytes);
+        long value;
+        if (numberOfBytes == Long.BYTES) {
+            value = window.getLong(offset);
+        } else if (numberOfBytes == Integer.BYTES) {
+            value = window.getInt(offset);
+        } else if (numberOfBytes == Short.BYTES) {
+            value = window.getShort(offset);
+        } else {
+            value = window.get(offset);
+        }
+        position += numberOfBytes;
+        return value;
+    }
+
+    /**
+     * Writes a value as a big-endian value of the given number of bytes directly to the mapping.
+     *
+     * @param value         the value which should be written.
+     * @param numberOfBytes the number of bytes of the value, i.e 2, 4 or 8.
+     * @throws IOException during I/O error.
+     */
+    public void writeLong(long value, int numberOfBytes) throws IOException {
+        if (!writable) {
+            throw new BallerinaIOException("file is not mapped to be written");
+        }
+        int offset = mapWindow(numberOfBytes);
+        if (numberOfBytes == Long.BYTES) {
+            window.putLong(offset, value);
+        } else if (numberOfBytes == Integer.BYTES) {
+            window.putInt(offset, (int) value);
+        } else if (numberOfBytes == Short.BYTES) {
+            window.putShort(offset, (short) value);
+        } else {
+            window.put(offset, (byte) value);
+        }
+        position += numberOfBytes;
+        size = Math.max(size, position);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasReachedEnd() {
+        return hasReachedToEnd;
+    }
+
+    /**
+     * Transfer file content to the specified destination.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void transfer(int position, int count, WritableByteChannel dstChannel) throws IOException {
+        try {
+            channel.transferTo(position, count, dstChannel);
+        } catch (IOException e) {
+            throw new BallerinaIOException("Error occurred while transferring file", e);
+        }
+    }
+
+    /**
+     * Flushes the mapping and drops the part of the file the mapped window grew it by, before closing the file.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        if (writable && channel.isOpen()) {
+            if (null != window) {
+                window.force();
+            }
+            window = null;
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+        }
+        window = null;
+        super.close();
+    }
+}
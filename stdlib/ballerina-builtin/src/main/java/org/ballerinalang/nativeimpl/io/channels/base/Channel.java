@@ -28,6 +28,7 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
@@ -179,6 +180,68 @@ public abstract class Channel {
         return writer.write(content, channel);
     }
 
+    /**
+     * <p>
+     * Reads bytes from the channel into a sequence of buffers.
+     * </p>
+     * <p>
+     * If the underlying channel is a file, the buffers are filled in a single scattering read operation. Otherwise each
+     * buffer is read into in turn through the reader of the channel, until a buffer could not be filled.
+     * </p>
+     *
+     * @param buffers the buffers which will hold the content.
+     * @return the number of bytes read.
+     * @throws IOException errors occur during reading from channel.
+     */
+    public long read(ByteBuffer[] buffers) throws IOException {
+        if (channel instanceof FileChannel) {
+            long readBytes = ((FileChannel) channel).read(buffers);
+            if (readBytes <= 0) {
+                readBytes = 0;
+                hasReachedToEnd = true;
+            }
+            return readBytes;
+        }
+        long readBytes = 0;
+        for (ByteBuffer buffer : buffers) {
+            while (buffer.hasRemaining()) {
+                int count = read(buffer);
+                if (count == 0) {
+                    return readBytes;
+                }
+                readBytes = readBytes + count;
+            }
+        }
+        return readBytes;
+    }
+
+    /**
+     * <p>
+     * Writes the content of a sequence of buffers to the channel.
+     * </p>
+     * <p>
+     * If the underlying channel is a file, the buffers are written in a single gathering write operation. Otherwise each
+     * buffer is written in turn through the writer of the channel, until a buffer could not be written completely.
+     * </p>
+     *
+     * @param content the buffers which hold the content.
+     * @return the number of bytes written to the channel.
+     * @throws IOException errors occur during writing data to channel.
+     */
+    public long write(ByteBuffer[] content) throws IOException {
+        if (channel instanceof FileChannel) {
+            return ((FileChannel) channel).write(content);
+        }
+        long writtenBytes = 0;
+        for (ByteBuffer buffer : content) {
+            writtenBytes = writtenBytes + write(buffer);
+            if (buffer.hasRemaining()) {
+                break;
+            }
+        }
+        return writtenBytes;
+    }
+
     /**
      * This will return {@link InputStream} from underlying {@link ByteChannel}.
      *
@@ -19,6 +19,8 @@
 
 package org.ballerinalang.nativeimpl.io.channels.base;
 
+import org.ballerinalang.nativeimpl.io.channels.MappedFileIOChannel;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -35,10 +37,21 @@ public class DataChannel {
      * Represents network byte order.
      */
     private ByteOrder order;
+    /**
+     * Holds the bytes of a primitive value, reused by all the reads of the channel.
+     */
+    private ByteBuffer primitiveBuffer = ByteBuffer.allocate(Long.BYTES);
+    /**
+     * The source if it's a memory mapped file, which primitives are read from/written to directly.
+     */
+    private MappedFileIOChannel mappedChannel;
 
     public DataChannel(Channel channel, ByteOrder order) {
         this.channel = channel;
         this.order = order;
+        if (channel instanceof MappedFileIOChannel) {
+            this.mappedChannel = (MappedFileIOChannel) channel;
+        }
     }
 
     /**
@@ -67,7 +80,12 @@ public class DataChannel {
             throw new UnsupportedOperationException();
         } else {
             requiredNumberOfBytes = representation.getNumberOfBytes();
-            buffer = ByteBuffer.allocate(requiredNumberOfBytes);
+            if (null != mappedChannel && mappedChannel.remaining() >= requiredNumberOfBytes) {
+                return mappedChannel.readLong(requiredNumberOfBytes);
+            }
+            buffer = primitiveBuffer;
+            buffer.clear();
+            buffer.limit(requiredNumberOfBytes);
             buffer.order(order);
         }
         readFull(buffer);
@@ -139,6 +157,10 @@ public class DataChannel {
      * @throws IOException during i/o error.
      */
     public void writeFixedLong(long value, Representation representation) throws IOException {
+        if (null != mappedChannel && !Representation.VARIABLE.equals(representation)) {
+            mappedChannel.writeLong(value, representation.getNumberOfBytes());
+            return;
+        }
         byte[] bytes = encodeLong(value, representation);
         channel.write(ByteBuffer.wrap(bytes));
     }
@@ -209,7 +231,9 @@ public class DataChannel {
      * @throws IOException during i/o error.
      */
     public boolean readBoolean() throws IOException {
-        ByteBuffer buffer = ByteBuffer.allocate(1);
+        ByteBuffer buffer = primitiveBuffer;
+        buffer.clear();
+        buffer.limit(1);
         readFull(buffer);
         buffer.flip();
         return buffer.get() == 1;
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.nativeimpl.io.events.bytes;
+
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.ballerinalang.nativeimpl.io.events.Event;
+import org.ballerinalang.nativeimpl.io.events.EventContext;
+import org.ballerinalang.nativeimpl.io.events.EventResult;
+import org.ballerinalang.nativeimpl.io.events.result.NumericResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Reads bytes from the source into several arrays with a single read operation.
+ *
+ * @since 0.974.1
+ */
+public class ReadVectoredBytesEvent implements Event {
+    /**
+     * Holds the name of the property which will hold a reference to the arrays of byte content.
+     */
+    public static final String CONTENT_PROPERTY = "vectored_byte_content";
+    /**
+     * Buffers which will be provided to the channel.
+     */
+    private ByteBuffer[] content;
+    /**
+     * Will be used to read bytes.
+     */
+    private Channel channel;
+    /**
+     * Holds context to the event.
+     */
+    private EventContext context;
+
+    private static final Logger log = LoggerFactory.getLogger(ReadVectoredBytesEvent.class);
+
+    public ReadVectoredBytesEvent(Channel channel, byte[][] content, EventContext context) {
+        this.content = new ByteBuffer[content.length];
+        for (int i = 0; i < content.length; i++) {
+            this.content[i] = ByteBuffer.wrap(content[i]);
+        }
+        this.context = context;
+        this.channel = channel;
+    }
+
+    /**
+     * <p>
+     * Return the arrays which contain the read data.
+     * </p>
+     * <p>
+     * Arrays which are not filled will be shrunk to fit for what's filled.
+     * </p>
+     *
+     * @return arrays which contain data read from the channel.
+     */
+    private byte[][] getContentData() {
+        byte[][] data = new byte[content.length][];
+        for (int i = 0; i < content.length; i++) {
+            byte[] array = content[i].array();
+            int readPosition = content[i].position();
+            data[i] = readPosition == array.length ? array : Arrays.copyOfRange(array, 0, readPosition);
+        }
+        return data;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EventResult get() {
+        NumericResult result;
+        try {
+            int numberOfBytesRead = (int) channel.read(content);
+            context.getProperties().put(CONTENT_PROPERTY, getContentData());
+            result = new NumericResult(numberOfBytesRead, context);
+        } catch (IOException e) {
+            log.error("Error occurred while reading bytes", e);
+            context.setError(e);
+            result = new NumericResult(context);
+        } catch (Throwable e) {
+            log.error("Unidentified error occurred while reading bytes", e);
+            context.setError(e);
+            result = new NumericResult(context);
+        }
+        return result;
+    }
+}
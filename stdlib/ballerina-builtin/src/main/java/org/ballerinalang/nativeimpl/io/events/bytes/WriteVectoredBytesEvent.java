@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.nativeimpl.io.events.bytes;
+
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.ballerinalang.nativeimpl.io.events.Event;
+import org.ballerinalang.nativeimpl.io.events.EventContext;
+import org.ballerinalang.nativeimpl.io.events.EventResult;
+import org.ballerinalang.nativeimpl.io.events.result.NumericResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes the bytes of several arrays with a single write operation.
+ *
+ * @since 0.974.1
+ */
+public class WriteVectoredBytesEvent implements Event {
+    /**
+     * Channel the bytes will be written.
+     */
+    private Channel byteChannel;
+    /**
+     * The references to the content which should be written.
+     */
+    private ByteBuffer[] writeBuffers;
+    /**
+     * Holds the context to the event.
+     */
+    private EventContext context;
+
+    private static final Logger log = LoggerFactory.getLogger(WriteVectoredBytesEvent.class);
+
+    public WriteVectoredBytesEvent(Channel byteChannel, byte[][] content, EventContext context) {
+        this.byteChannel = byteChannel;
+        writeBuffers = new ByteBuffer[content.length];
+        for (int i = 0; i < content.length; i++) {
+            writeBuffers[i] = ByteBuffer.wrap(content[i]);
+        }
+        this.context = context;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EventResult get() {
+        NumericResult result;
+        try {
+            int numberOfBytesWritten = (int) byteChannel.write(writeBuffers);
+            result = new NumericResult(numberOfBytesWritten, context);
+        } catch (IOException e) {
+            log.error("Error occurred while writing bytes", e);
+            context.setError(e);
+            result = new NumericResult(context);
+        } catch (Throwable e) {
+            log.error("Unidentified error occurred while writing bytes", e);
+            context.setError(e);
+            result = new NumericResult(context);
+        }
+        return result;
+    }
+}
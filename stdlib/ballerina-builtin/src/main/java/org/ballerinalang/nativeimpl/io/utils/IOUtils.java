@@ -33,7 +33,9 @@ import org.ballerinalang.nativeimpl.io.events.EventManager;
 import org.ballerinalang.nativeimpl.io.events.EventResult;
 import org.ballerinalang.nativeimpl.io.events.bytes.CloseByteChannelEvent;
 import org.ballerinalang.nativeimpl.io.events.bytes.ReadBytesEvent;
+import org.ballerinalang.nativeimpl.io.events.bytes.ReadVectoredBytesEvent;
 import org.ballerinalang.nativeimpl.io.events.bytes.WriteBytesEvent;
+import org.ballerinalang.nativeimpl.io.events.bytes.WriteVectoredBytesEvent;
 import org.ballerinalang.nativeimpl.io.events.characters.CloseCharacterChannelEvent;
 import org.ballerinalang.nativeimpl.io.events.characters.ReadCharactersEvent;
 import org.ballerinalang.nativeimpl.io.events.characters.WriteCharactersEvent;
@@ -272,6 +274,40 @@ public class IOUtils {
         future.thenApply(function);
     }
 
+    /**
+     * <p>
+     * Reads bytes into several arrays asynchronously, with a single read operation, and trigger the callback.
+     * </p>
+     *
+     * @param channel  the channel which the bytes should be read from.
+     * @param content  the arrays which will hold the content which will be read, in order.
+     * @param context  context which will be obtained from the native function call.
+     * @param function the callback function which will be triggered.
+     */
+    public static void read(Channel channel, byte[][] content, EventContext context,
+                            Function<EventResult, EventResult> function) {
+        ReadVectoredBytesEvent event = new ReadVectoredBytesEvent(channel, content, context);
+        CompletableFuture<EventResult> future = EventManager.getInstance().publish(event);
+        future.thenApply(function);
+    }
+
+    /**
+     * <p>
+     * Writes the bytes of several arrays asynchronously, with a single write operation.
+     * </p>
+     *
+     * @param channel  channel which will be used to write bytes.
+     * @param content  the arrays which hold the content which will be written, in order.
+     * @param context  context of the native function call.
+     * @param function callback function which should be called upon completion.
+     */
+    public static void write(Channel channel, byte[][] content, EventContext context,
+                             Function<EventResult, EventResult> function) {
+        WriteVectoredBytesEvent event = new WriteVectoredBytesEvent(channel, content, context);
+        CompletableFuture<EventResult> future = EventManager.getInstance().publish(event);
+        future.thenApply(function);
+    }
+
     /**
      * Reads delimited records asynchronously.
      *
@@ -85,6 +85,12 @@ documentation {
 }
 @final public string S_MAX_AGE = "s-maxage";
 
+documentation {
+    Indicates that a cache may serve the response for the specified number of seconds after it becomes stale, while
+    revalidating it with the origin server in the background.
+}
+@final public string STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+
 // Other constants
 documentation {
     Setting this as the `max-stale` directives indicates that the `max-stale` directive does not specify a limit.
@@ -175,6 +181,7 @@ documentation {
     F{{proxyRevalidate}} Sets the `proxy-revalidate` directive
     F{{maxAge}} Sets the `max-age` directive
     F{{sMaxAge}} Sets the `s-maxage` directive
+    F{{staleWhileRevalidate}} Sets the `stale-while-revalidate` directive
     F{{noCacheFields}} Optional fields for the `no-cache` directive. Before sending a listed field in a response, it
                        must be validated with the origin server.
     F{{privateFields}} Optional fields for the `private` directive. A cache can omit the fields specified and store
@@ -190,6 +197,7 @@ public type ResponseCacheControl object {
         boolean proxyRevalidate = false;
         int maxAge = -1;
         int sMaxAge = -1;
+        int staleWhileRevalidate = -1;
         string[] noCacheFields = [];
         string[] privateFields = [];
     }
@@ -245,6 +253,11 @@ public type ResponseCacheControl object {
             i = i + 1;
         }
 
+        if (self.staleWhileRevalidate >= 0) {
+            directives[i] = STALE_WHILE_REVALIDATE + "=" + self.staleWhileRevalidate;
+            i = i + 1;
+        }
+
         return buildCommaSeparatedString(directives);
     }
 };
@@ -19,7 +19,9 @@ import ballerina/cache;
 
 documentation {
     Implements a cache for storing HTTP responses. This cache complies with the caching policy set when configuring
-    HTTP caching in the HTTP client endpoint.
+    HTTP caching in the HTTP client endpoint. Only the headers of the responses are kept in the cache, while their
+    bodies are kept in a store outside the heap. Each response served from the cache is a copy of the cached
+    response, which reads the body from the store.
 }
 public type HttpCache object {
 
@@ -27,8 +29,31 @@ public type HttpCache object {
         cache:Cache cache;
         CachingPolicy policy = CACHE_CONTROL_AND_VALIDATORS;
         boolean isShared;
+        int fetchTimeoutMillis = 60000;
     }
 
+    native function initStores(int maxEntrySize, int maxStorageSize);
+
+    // Reads the body of the inbound response into the off-heap store and links it with the cached response. Returns
+    // false if the body is too large to be cached.
+    native function storeBody(Response inboundResponse, Response cachedResponse) returns boolean;
+
+    // Sets the stored body of the cached response as the body of the given response. Returns false if the body has
+    // been evicted from the store.
+    native function attachBody(Response cachedResponse, Response response) returns boolean;
+
+    native function releaseBody(Response cachedResponse);
+
+    // Concurrent requests for a resource missing in the cache are coalesced, so that only the request which claims
+    // the fetch of a resource goes to the origin server, while the others wait for it to complete. Returns the claim
+    // to complete the fetch with, or 0 if another request is fetching the resource. The claim expires after the given
+    // timeout. Resources whose last fetched response was not cached are not coalesced.
+    native function claimFetch(string key, int timeoutMillis) returns int;
+
+    native function awaitFetch(string key, int timeoutMillis);
+
+    native function completeFetch(string key, int claim, boolean cached);
+
     function isAllowedToCache (Response response) returns boolean {
         if (self.policy == CACHE_CONTROL_AND_VALIDATORS) {
             return response.hasHeader(CACHE_CONTROL) && (response.hasHeader(ETAG) || response.hasHeader(LAST_MODIFIED));
@@ -55,14 +80,18 @@ public type HttpCache object {
             isCacheableStatusCode(inboundResponse.statusCode) ||
             !(respCacheControl.isPrivate ?: false)) {
 
-            // IMPT: The call to getBinaryPayload() builds the payload from the stream. If this is not done, the stream
-            // will be read by the client and the response will be after the first cache hit.
-            match inboundResponse.getBinaryPayload() {
-                blob => {}
-                error => {}
+            // The inbound response is read by the client, so a copy of it is cached instead. The body is read into
+            // the off-heap store, and the inbound response is given a fresh view of it.
+            Response cachedResponse = copyResponse(inboundResponse);
+            if (!self.storeBody(inboundResponse, cachedResponse)) {
+                log:printDebug("Response for " + key + " is not cached, as its body is too large");
+                return;
             }
+            // The age of the copies served is calculated from the Date header, which is set to the current time
+            // if the origin server did not send one.
+            _ = getDateValue(cachedResponse);
             log:printDebug("Adding new cache entry for: " + key);
-            addEntry(cache, key, inboundResponse);
+            addEntry(cache, key, cachedResponse);
         }
     }
 
@@ -70,10 +99,19 @@ public type HttpCache object {
         return cache.hasKey(key);
     }
 
-    function get (string key) returns Response {
+    function get (string key) returns Response? {
         match <Response[]>cache.get(key) {
-            Response[] cacheEntry => return cacheEntry[lengthof cacheEntry - 1];
-            error err => throw err;
+            Response[] cacheEntry => {
+                Response cachedResponse = cacheEntry[lengthof cacheEntry - 1];
+                Response response = copyResponse(cachedResponse);
+                if (!self.attachBody(cachedResponse, response)) {
+                    log:printDebug("Body of the cached response for " + key + " has been evicted");
+                    self.remove(key);
+                    return ();
+                }
+                return response;
+            }
+            error => return ();
         }
     }
 
@@ -129,6 +167,14 @@ public type HttpCache object {
     }
 
     function remove (string key) {
+        match getAll(key) {
+            Response[] responses => {
+                foreach cachedResponse in responses {
+                    self.releaseBody(cachedResponse);
+                }
+            }
+            () => {}
+        }
         cache.remove(key);
     }
 };
@@ -140,9 +186,26 @@ function createHttpCache (string name, CacheConfig cacheConfig) returns HttpCach
     httpCache.cache = backingCache;
     httpCache.policy = cacheConfig.policy;
     httpCache.isShared = cacheConfig.isShared;
+    httpCache.initStores(cacheConfig.maxEntrySize, cacheConfig.maxStorageSize);
     return httpCache;
 }
 
+function copyResponse (Response response) returns Response {
+    Response copy = new;
+    copy.statusCode = response.statusCode;
+    copy.reasonPhrase = response.reasonPhrase;
+    copy.server = response.server;
+    copy.resolvedRequestedURI = response.resolvedRequestedURI;
+    copy.cacheControl = response.cacheControl;
+    copy.requestTime = response.requestTime;
+    copy.receivedTime = response.receivedTime;
+    shareHeaders(response, copy);
+    return copy;
+}
+
+// Makes the copy share the headers of the response. The headers are cloned only once either of them modifies them.
+native function shareHeaders(Response response, Response copy);
+
 
 function isCacheableStatusCode (int statusCode) returns boolean {
     return statusCode == OK_200 || statusCode == NON_AUTHORITATIVE_INFORMATION_203 ||
@@ -66,6 +66,10 @@ documentation {
     F{{policy}} Gives the user some control over the caching behaviour. By default, this is set to
                 `CACHE_CONTROL_AND_VALIDATORS`. The default behaviour is to allow caching only when the `cache-control`
                 header and either the `etag` or `last-modified` header are present.
+    F{{maxEntrySize}} The maximum size (in bytes) of a response body to be cached. Responses with larger bodies are
+                      not cached.
+    F{{maxStorageSize}} The maximum number of bytes the bodies of the cached responses may take up. The bodies are
+                        kept outside the heap, and the least recently used ones are evicted to make room for new ones.
 }
 public type CacheConfig {
     boolean enabled = true,
@@ -74,6 +78,8 @@ public type CacheConfig {
     int capacity = 8388608, // 8MB
     float evictionFactor = 0.2,
     CachingPolicy policy = CACHE_CONTROL_AND_VALIDATORS,
+    int maxEntrySize = 1048576, // 1MB
+    int maxStorageSize = 67108864, // 64MB
 };
 
 documentation {
@@ -107,6 +113,7 @@ public type HttpCachingClient object {
     public new(serviceUri, config, cacheConfig) {
         self.httpClient = createHttpSecureClient(serviceUri, config);
         self.cache = createHttpCache("http-cache", cacheConfig);
+        self.cache.fetchTimeoutMillis = config.timeoutMillis;
     }
 
     documentation {
@@ -437,70 +444,128 @@ function getCachedResponse(HttpCache cache, CallerActions httpClient, Request re
                            boolean isShared) returns Response|error {
     time:Time currentT = time:currentTime();
     req.parseCacheControlHeader();
+    string key = getCacheKey(httpMethod, path);
 
-    if (cache.hasKey(getCacheKey(httpMethod, path))) {
-        Response cachedResponse = cache.get(getCacheKey(httpMethod, path));
-        // Based on https://tools.ietf.org/html/rfc7234#section-4
-        log:printDebug("Cached response found for: '" + httpMethod + " " + path + "'");
+    match cache.get(key) {
+        Response cachedResponse => {
+            // Based on https://tools.ietf.org/html/rfc7234#section-4
+            log:printDebug("Cached response found for: '" + httpMethod + " " + path + "'");
 
-        updateResponseTimestamps(cachedResponse, currentT.time, currentT.time);
-        setAgeHeader(cachedResponse);
+            updateResponseTimestamps(cachedResponse, currentT.time, currentT.time);
+            setAgeHeader(cachedResponse);
 
-        if (isFreshResponse(cachedResponse, isShared)) {
-            // If the no-cache directive is not set, responses can be served straight from the cache, without
-            // validating with the origin server.
-            if (!(req.cacheControl.noCache ?: false) && !(cachedResponse.cacheControl.noCache ?: false)
+            if (isFreshResponse(cachedResponse, isShared)) {
+                // If the no-cache directive is not set, responses can be served straight from the cache, without
+                // validating with the origin server.
+                if (!(req.cacheControl.noCache ?: false) && !(cachedResponse.cacheControl.noCache ?: false)
                                                                                         && !req.hasHeader(PRAGMA)) {
-                log:printDebug("Serving a cached fresh response without validating with the origin server");
-                return cachedResponse;
-            } else {
-                log:printDebug("Serving a cached fresh response after validating with the origin server");
-                return getValidationResponse(httpClient, req, cachedResponse, cache, currentT, path, httpMethod, true);
+                    log:printDebug("Serving a cached fresh response without validating with the origin server");
+                    return cachedResponse;
+                } else {
+                    log:printDebug("Serving a cached fresh response after validating with the origin server");
+                    return getValidationResponse(httpClient, req, cachedResponse, cache, currentT, path, httpMethod,
+                                                 true);
+                }
             }
-        }
-
-        // If a fresh response is not available, serve a stale response, provided that it is not prohibited by
-        // a directive and is explicitly allowed in the request.
-        if (isAllowedToBeServedStale(req.cacheControl, cachedResponse, isShared)) {
 
-            // If the no-cache directive is not set, responses can be served straight from the cache, without
-            // validating with the origin server.
-            if (!(req.cacheControl.noCache ?: false) && ! (cachedResponse.cacheControl.noCache ?: false)
-                                                                                            && !req.hasHeader(PRAGMA)) {
-                log:printDebug("Serving cached stale response without validating with the origin server");
+            // Based on https://tools.ietf.org/html/rfc5861#section-3
+            // Within the stale-while-revalidate window, the stale response is served right away, while it is
+            // revalidated with the origin server in the background.
+            if (isAllowedToBeRevalidatedInBackground(req, cachedResponse, isShared)) {
+                // Only one request revalidates a stale response at a time
+                int revalidationClaim = cache.claimFetch(key, cache.fetchTimeoutMillis);
+                if (revalidationClaim != 0) {
+                    future revalidation = start revalidateInBackground(httpClient, req, cache, path, httpMethod,
+                                                                       revalidationClaim);
+                }
+                log:printDebug("Serving a cached stale response while revalidating it in the background");
                 cachedResponse.setHeader(WARNING, WARNING_110_RESPONSE_IS_STALE);
                 return cachedResponse;
             }
+
+            // If a fresh response is not available, serve a stale response, provided that it is not prohibited by
+            // a directive and is explicitly allowed in the request.
+            if (isAllowedToBeServedStale(req.cacheControl, cachedResponse, isShared)) {
+
+                // If the no-cache directive is not set, responses can be served straight from the cache, without
+                // validating with the origin server.
+                if (!(req.cacheControl.noCache ?: false) && ! (cachedResponse.cacheControl.noCache ?: false)
+                                                                                        && !req.hasHeader(PRAGMA)) {
+                    log:printDebug("Serving cached stale response without validating with the origin server");
+                    cachedResponse.setHeader(WARNING, WARNING_110_RESPONSE_IS_STALE);
+                    return cachedResponse;
+                }
+            }
+
+            log:printDebug("Validating a stale response for '" + path + "' with the origin server.");
+            match getValidationResponse(httpClient, req, cachedResponse, cache, currentT, path, httpMethod, false) {
+                Response validatedResponse => {
+                    updateResponseTimestamps(validatedResponse, currentT.time, time:currentTime().time);
+                    setAgeHeader(validatedResponse);
+                    return validatedResponse;
+                }
+
+                error err => return err;
+            }
         }
 
-        log:printDebug("Validating a stale response for '" + path + "' with the origin server.");
-        match getValidationResponse(httpClient, req, cachedResponse, cache, currentT, path, httpMethod, false) {
-            Response validatedResponse => {
-                updateResponseTimestamps(validatedResponse, currentT.time, time:currentTime().time);
-                setAgeHeader(validatedResponse);
-                return validatedResponse;
+        () => log:printDebug("Cached response not found for: '" + httpMethod + " " + path + "'");
+    }
+
+    // If another request is already fetching the response, wait for it and serve the response it cached
+    int fetchClaim = cache.claimFetch(key, cache.fetchTimeoutMillis);
+    if (fetchClaim == 0) {
+        log:printDebug("Waiting for the ongoing request to: " + path);
+        cache.awaitFetch(key, cache.fetchTimeoutMillis);
+        match cache.get(key) {
+            Response coalescedResponse => {
+                updateResponseTimestamps(coalescedResponse, currentT.time, time:currentTime().time);
+                setAgeHeader(coalescedResponse);
+                return coalescedResponse;
             }
 
-            error err => return err;
+            () => log:printDebug("Response of the ongoing request to '" + path + "' was not cached");
         }
-    } else {
-        log:printDebug("Cached response not found for: '" + httpMethod + " " + path + "'");
+        return fetchNewResponse(httpClient, req, cache, currentT, key, path, httpMethod);
+    }
+
+    // The fetch is completed however it ends, so that the requests waiting for it are released
+    try {
+        return fetchNewResponse(httpClient, req, cache, currentT, key, path, httpMethod);
+    } finally {
+        cache.completeFetch(key, fetchClaim, cache.hasKey(key));
     }
+}
 
+function fetchNewResponse(CallerActions httpClient, Request req, HttpCache cache, time:Time currentT, string key,
+                          string path, string httpMethod) returns Response|error {
     log:printDebug("Sending new request to: " + path);
-    var response = sendNewRequest(httpClient, req, path, httpMethod);
-    match response {
-        Response newResponse => {
-            if (cache.isAllowedToCache(newResponse)) {
-                newResponse.requestTime = currentT.time;
-                newResponse.receivedTime = time:currentTime().time;
-                cache.put(getCacheKey(httpMethod, path), req.cacheControl, newResponse);
+    Response newResponse = check sendNewRequest(httpClient, req, path, httpMethod);
+    if (cache.isAllowedToCache(newResponse)) {
+        newResponse.requestTime = currentT.time;
+        newResponse.receivedTime = time:currentTime().time;
+        cache.put(key, req.cacheControl, newResponse);
+    }
+    return newResponse;
+}
+
+function revalidateInBackground(CallerActions httpClient, Request req, HttpCache cache, string path,
+                                string httpMethod, int claim) {
+    string key = getCacheKey(httpMethod, path);
+    try {
+        match cache.get(key) {
+            Response cachedResponse => {
+                match getValidationResponse(httpClient, req, cachedResponse, cache, time:currentTime(), path,
+                                            httpMethod, false) {
+                    Response validatedResponse => log:printDebug("Revalidated the stale response for: " + path);
+                    error err => log:printDebug("Revalidation of the stale response for '" + path + "' failed");
+                }
             }
 
-            return newResponse;
+            () => {}
         }
-
-        error err => return err;
+    } finally {
+        cache.completeFetch(key, claim, cache.hasKey(key));
     }
 }
 
@@ -572,6 +637,10 @@ function handle304Response(Response validationResponse, Response cachedResponse,
             foreach resp in matchingCachedResponses {
                 updateResponse(resp, validationResponse);
             }
+            // The response served is a copy of the latest cached response, so it is updated as well
+            if (cachedResponse.getHeader(ETAG) == etag) {
+                updateResponse(cachedResponse, validationResponse);
+            }
             log:printDebug("304 response received, with a strong validator. Response(s) updated");
             return cachedResponse;
         } else if (hasAWeakValidator(validationResponse, etag)) {
@@ -581,6 +650,9 @@ function handle304Response(Response validationResponse, Response cachedResponse,
             foreach resp in matchingCachedResponses {
                 updateResponse(resp, validationResponse);
             }
+            if (cachedResponse.hasHeader(ETAG) && weakValidatorEquals(etag, cachedResponse.getHeader(ETAG))) {
+                updateResponse(cachedResponse, validationResponse);
+            }
             log:printDebug("304 response received, with a weak validator. Response(s) updated");
             return cachedResponse;
         }
@@ -591,6 +663,11 @@ function handle304Response(Response validationResponse, Response cachedResponse,
     if (!cachedResponse.hasHeader(ETAG) && !cachedResponse.hasHeader(LAST_MODIFIED) &&
                                                         !validationResponse.hasHeader(LAST_MODIFIED)) {
         log:printDebug("304 response received and stored response do not have validators. Updating the stored response.");
+        match cache.getAll(getCacheKey(httpMethod, path)) {
+            Response[] cachedResponses => updateResponse(cachedResponses[lengthof cachedResponses - 1],
+                                                         validationResponse);
+            () => {}
+        }
         updateResponse(cachedResponse, validationResponse);
     }
 
@@ -604,8 +681,8 @@ function invalidateResponses(HttpCache httpCache, Response inboundResponse, stri
     // TODO: Improve this logic in accordance with the spec
     if (isCacheableStatusCode(inboundResponse.statusCode) &&
         inboundResponse.statusCode >= 200 && inboundResponse.statusCode < 400) {
-        httpCache.cache.remove(getCacheKey(GET, path));
-        httpCache.cache.remove(getCacheKey(HEAD, path));
+        httpCache.remove(getCacheKey(GET, path));
+        httpCache.remove(getCacheKey(HEAD, path));
     }
 }
 
@@ -674,6 +751,27 @@ function isAllowedToBeServedStale(RequestCacheControl? requestCacheControl, Resp
     return isStaleResponseAccepted(requestCacheControl, cachedResponse, isSharedCache);
 }
 
+// Based on https://tools.ietf.org/html/rfc5861#section-3
+function isAllowedToBeRevalidatedInBackground(Request req, Response cachedResponse, boolean isSharedCache)
+                                                                                                returns boolean {
+    if ((req.cacheControl.noCache ?: false) || req.hasHeader(PRAGMA)) {
+        return false;
+    }
+
+    match cachedResponse.cacheControl {
+        ResponseCacheControl respCC => {
+            if (respCC.staleWhileRevalidate < 0 || respCC.noCache ||
+                                                    isServingStaleProhibited(req.cacheControl, respCC)) {
+                return false;
+            }
+            return (getResponseAge(cachedResponse) - getFreshnessLifetime(cachedResponse, isSharedCache)) <=
+                                                                                        respCC.staleWhileRevalidate;
+        }
+
+        () => return false;
+    }
+}
+
 // Based on https://tools.ietf.org/html/rfc7234#section-4.2.4
 function isServingStaleProhibited(RequestCacheControl? requestCacheControl,
                                   ResponseCacheControl? responseCacheControl) returns boolean {
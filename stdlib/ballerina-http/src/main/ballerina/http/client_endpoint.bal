@@ -180,11 +180,14 @@ documentation {
                               indicates that the number of connections are not restricted.
     F{{waitTime}} Maximum waiting time for a request to grab an idle connection from the client
     F{{maxActiveStreamsPerConnection}} Maximum number of active streams allowed per an HTTP/2 connection
+    F{{adaptive}} Whether the number of requests in flight to an upstream host adapts to its observed latency and load,
+                  within the connections allowed. Requests which exceed it wait for at most `waitTime`
 }
 public type ConnectionThrottling {
     int maxActiveConnections = -1,
     int waitTime = 60000,
     int maxActiveStreamsPerConnection = -1,
+    boolean adaptive = false,
 };
 
 documentation {
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Headers of a message which are shared with other messages until they are modified. The views sharing a set of
+ * headers only read it, and a view copies the headers into a set of its own the first time it is modified, so that
+ * the messages sharing the headers never see the modifications of each other.
+ *
+ * @since 0.974.1
+ */
+public class CopyOnWriteHttpHeaders extends HttpHeaders {
+
+    /* the headers shared with the other views, which are never modified */
+    private volatile HttpHeaders shared;
+
+    /* the headers of this view, once it has been modified */
+    private volatile HttpHeaders own;
+
+    private CopyOnWriteHttpHeaders(HttpHeaders shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * Creates a view of the given headers, to be used by another message. If the given headers are a view, the new
+     * view shares the same headers. Otherwise the headers are copied once, as they may still be modified by the
+     * message they belong to.
+     *
+     * @param headers the headers to be shared
+     * @return the view of the headers
+     */
+    public static CopyOnWriteHttpHeaders share(HttpHeaders headers) {
+        if (headers instanceof CopyOnWriteHttpHeaders) {
+            return ((CopyOnWriteHttpHeaders) headers).fork();
+        }
+        return new CopyOnWriteHttpHeaders(new DefaultHttpHeaders(false).add(headers));
+    }
+
+    private synchronized CopyOnWriteHttpHeaders fork() {
+        if (own != null) {
+            // The headers of this view are shared from now on, so it copies them again if it is modified further
+            shared = own;
+            own = null;
+        }
+        return new CopyOnWriteHttpHeaders(shared);
+    }
+
+    private HttpHeaders current() {
+        HttpHeaders headers = own;
+        return headers != null ? headers : shared;
+    }
+
+    /* called only while holding the lock of the view, so that a fork does not share headers being modified */
+    private HttpHeaders modifiable() {
+        if (own == null) {
+            own = new DefaultHttpHeaders(false).add(shared);
+        }
+        return own;
+    }
+
+    @Override
+    public String get(String name) {
+        return current().get(name);
+    }
+
+    @Override
+    public Integer getInt(CharSequence name) {
+        return current().getInt(name);
+    }
+
+    @Override
+    public int getInt(CharSequence name, int defaultValue) {
+        return current().getInt(name, defaultValue);
+    }
+
+    @Override
+    public Short getShort(CharSequence name) {
+        return current().getShort(name);
+    }
+
+    @Override
+    public short getShort(CharSequence name, short defaultValue) {
+        return current().getShort(name, defaultValue);
+    }
+
+    @Override
+    public Long getTimeMillis(CharSequence name) {
+        return current().getTimeMillis(name);
+    }
+
+    @Override
+    public long getTimeMillis(CharSequence name, long defaultValue) {
+        return current().getTimeMillis(name, defaultValue);
+    }
+
+    @Override
+    public List<String> getAll(String name) {
+        return current().getAll(name);
+    }
+
+    @Override
+    public List<Map.Entry<String, String>> entries() {
+        return current().entries();
+    }
+
+    @Override
+    public boolean contains(String name) {
+        return current().contains(name);
+    }
+
+    @Override
+    @Deprecated
+    public Iterator<Map.Entry<String, String>> iterator() {
+        return current().iterator();
+    }
+
+    @Override
+    public Iterator<Map.Entry<CharSequence, CharSequence>> iteratorCharSequence() {
+        return current().iteratorCharSequence();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return current().isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return current().size();
+    }
+
+    @Override
+    public Set<String> names() {
+        return current().names();
+    }
+
+    @Override
+    public synchronized HttpHeaders add(String name, Object value) {
+        modifiable().add(name, value);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders add(String name, Iterable<?> values) {
+        modifiable().add(name, values);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders addInt(CharSequence name, int value) {
+        modifiable().addInt(name, value);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders addShort(CharSequence name, short value) {
+        modifiable().addShort(name, value);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders set(String name, Object value) {
+        modifiable().set(name, value);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders set(String name, Iterable<?> values) {
+        modifiable().set(name, values);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders setInt(CharSequence name, int value) {
+        modifiable().setInt(name, value);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders setShort(CharSequence name, short value) {
+        modifiable().setShort(name, value);
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders remove(String name) {
+        if (current().contains(name)) {
+            modifiable().remove(name);
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized HttpHeaders clear() {
+        own = new DefaultHttpHeaders(false);
+        return this;
+    }
+}
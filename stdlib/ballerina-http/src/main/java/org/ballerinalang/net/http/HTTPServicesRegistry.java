@@ -24,6 +24,7 @@ import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
 import org.ballerinalang.connector.api.Service;
 import org.ballerinalang.connector.api.Struct;
 import org.ballerinalang.connector.api.Value;
+import org.ballerinalang.net.uri.PathTrie;
 import org.ballerinalang.util.codegen.ProgramFile;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.slf4j.Logger;
@@ -125,8 +126,7 @@ public class HTTPServicesRegistry {
             logger.info(errLog);
 
             //basePath will get cached after registering service
-            sortedServiceURIs.add(basePath);
-            sortedServiceURIs.sort((basePath1, basePath2) -> basePath2.length() - basePath1.length());
+            cacheBasePath(hostName, basePath);
             registerUpgradableWebSocketService(httpService);
         }
     }
@@ -161,23 +161,29 @@ public class HTTPServicesRegistry {
         return basePath;
     }
 
-    public String findTheMostSpecificBasePath(String requestURIPath, Map<String, HttpService> services,
-                                              List<String> sortedServiceURIs) {
-        for (Object key : sortedServiceURIs) {
-            if (!requestURIPath.toLowerCase().contains(key.toString().toLowerCase())) {
-                continue;
-            }
-            if (requestURIPath.length() <= key.toString().length()) {
-                return key.toString();
-            }
-            if (requestURIPath.charAt(key.toString().length()) == '/') {
-                return key.toString();
-            }
-        }
-        if (services.containsKey(HttpConstants.DEFAULT_BASE_PATH)) {
-            return HttpConstants.DEFAULT_BASE_PATH;
-        }
-        return null;
+    /**
+     * Caches the base path of a service registered for a host, to dispatch the requests to the host by.
+     *
+     * @param hostName the host the service is registered for.
+     * @param basePath the base path of the service.
+     */
+    protected void cacheBasePath(String hostName, String basePath) {
+        ServicesMapHolder servicesMapHolder = servicesMapByHost.get(hostName);
+        servicesMapHolder.sortedServiceURIs.add(basePath);
+        servicesMapHolder.sortedServiceURIs.sort((basePath1, basePath2) -> basePath2.length() - basePath1.length());
+        servicesMapHolder.basePaths.put(basePath, basePath);
+    }
+
+    /**
+     * Find the base path of the service which should serve the given request path. This is the longest base path
+     * registered for the host, which is a prefix of the request path ending at a path segment boundary, ignoring case.
+     *
+     * @param requestURIPath the path of the request.
+     * @param hostName       the host the services are registered for.
+     * @return the base path of the service, or null if there is no such service
+     */
+    public String findTheMostSpecificBasePath(String requestURIPath, String hostName) {
+        return servicesMapByHost.get(hostName).basePaths.getLongestPrefix(requestURIPath);
     }
 
     /**
@@ -186,6 +192,7 @@ public class HTTPServicesRegistry {
     protected class ServicesMapHolder {
         private Map<String, HttpService> servicesByBasePath;
         private List<String> sortedServiceURIs;
+        private PathTrie<String> basePaths = new PathTrie<>(false);
 
         public ServicesMapHolder(Map<String, HttpService> servicesByBasePath, List<String> sortedServiceURIs) {
             this.servicesByBasePath = servicesByBasePath;
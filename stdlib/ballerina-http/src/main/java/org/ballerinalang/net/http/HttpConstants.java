@@ -175,6 +175,8 @@ public class HttpConstants {
     public static final String ENTITY = "Entity";
     public static final String RESPONSE_CACHE_CONTROL = "ResponseCacheControl";
     public static final String REQUEST_CACHE_CONTROL = "RequestCacheControl";
+    public static final String HTTP_CACHE = "HttpCache";
+    public static final String CACHED_RESPONSE_BODY = "cached_response_body";
     public static final String STRUCT_GENERIC_ERROR = "error";
     public static final String HTTP_TIMEOUT_ERROR = "HttpTimeoutError";
     public static final String TYPE_STRING = "string";
@@ -245,6 +247,7 @@ public class HttpConstants {
     public static final int RES_CACHE_CONTROL_PROXY_REVALIDATE_INDEX = 5;
     public static final int RES_CACHE_CONTROL_MAX_AGE_INDEX = 0;
     public static final int RES_CACHE_CONTROL_S_MAXAGE_INDEX = 1;
+    public static final int RES_CACHE_CONTROL_STALE_WHILE_REVALIDATE_INDEX = 2;
     public static final int RES_CACHE_CONTROL_NO_CACHE_FIELDS_INDEX = 0;
     public static final int RES_CACHE_CONTROL_PRIVATE_FIELDS_INDEX = 1;
 
@@ -311,6 +314,7 @@ public class HttpConstants {
 
     //Client Endpoint
     public static final String CLIENT_ENDPOINT_CONFIG = "config";
+    public static final String CLIENT_UPSTREAM_ENDPOINT = "UPSTREAM_ENDPOINT";
     public static final int CLIENT_ENDPOINT_CONFIG_INDEX = 0;
     public static final int CLIENT_ENDPOINT_URL_INDEX = 0;
 
@@ -320,6 +324,7 @@ public class HttpConstants {
     public static final String CLIENT_EP_ENDPOINT_TIMEOUT = "timeoutMillis";
     public static final String CLIENT_EP_IS_KEEP_ALIVE = "keepAlive";
     public static final String CLIENT_EP_HTTP_VERSION = "httpVersion";
+    public static final String HTTP_VERSION_2_0 = "2.0";
     public static final String CLIENT_EP_FORWARDED = "forwarded";
     public static final String TARGET_SERVICES = "targets";
     public static final String CLIENT_EP_ACCEPT_ENCODING = "acceptEncoding";
@@ -330,6 +335,7 @@ public class HttpConstants {
     public static final String CONNECTION_THROTTLING_WAIT_TIME = "waitTime";
     public static final String CONNECTION_THROTTLING_MAX_ACTIVE_STREAMS_PER_CONNECTION =
             "maxActiveStreamsPerConnection";
+    public static final String CONNECTION_THROTTLING_ADAPTIVE = "adaptive";
 
     //FollowRedirect Indexes
     public static final String FOLLOW_REDIRECT_STRUCT_REFERENCE = "followRedirects";
@@ -18,7 +18,6 @@
 package org.ballerinalang.net.http;
 
 import io.netty.handler.codec.http.HttpHeaderNames;
-import org.ballerinalang.connector.api.BLangConnectorSPIUtil;
 import org.ballerinalang.connector.api.BallerinaConnectorException;
 import org.ballerinalang.mime.util.EntityBodyHandler;
 import org.ballerinalang.model.types.BStructureType;
@@ -34,7 +33,6 @@ import org.ballerinalang.model.values.BXML;
 import org.ballerinalang.net.uri.URIUtil;
 import org.ballerinalang.runtime.message.BlobDataSource;
 import org.ballerinalang.runtime.message.StringDataSource;
-import org.ballerinalang.util.codegen.ProgramFile;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,17 +43,9 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
-import static org.ballerinalang.mime.util.Constants.ENTITY;
-import static org.ballerinalang.mime.util.Constants.MEDIA_TYPE;
-import static org.ballerinalang.mime.util.Constants.PROTOCOL_PACKAGE_MIME;
-import static org.ballerinalang.net.http.HttpConstants.CONNECTION;
 import static org.ballerinalang.net.http.HttpConstants.DEFAULT_HOST;
-import static org.ballerinalang.net.http.HttpConstants.PROTOCOL_PACKAGE_HTTP;
-import static org.ballerinalang.net.http.HttpConstants.REQUEST;
-import static org.ballerinalang.net.http.HttpConstants.SERVICE_ENDPOINT;
 import static org.ballerinalang.net.http.HttpConstants.SERVICE_ENDPOINT_CONNECTION_INDEX;
 
 /**
@@ -67,18 +57,18 @@ public class HttpDispatcher {
 
     private static final Logger breLog = LoggerFactory.getLogger(HttpDispatcher.class);
 
+    /**
+     * The characters other than letters and digits, which may appear unescaped in the path and query of a uri.
+     */
+    private static final String PLAIN_URI_CHARACTERS = "-._~!$&'()*+,;=:@/?";
+
     protected static HttpService findService(HTTPServicesRegistry servicesRegistry, HTTPCarbonMessage inboundReqMsg) {
         try {
-            Map<String, HttpService> servicesOnInterface;
-            List<String> sortedServiceURIs;
             String hostName = inboundReqMsg.getHeader(HttpHeaderNames.HOST.toString());
-            if (hostName != null && servicesRegistry.getServicesMapHolder(hostName) != null) {
-                servicesOnInterface = servicesRegistry.getServicesByHost(hostName);
-                sortedServiceURIs = servicesRegistry.getSortedServiceURIsByHost(hostName);
-            } else {
-                servicesOnInterface = servicesRegistry.getServicesByHost(DEFAULT_HOST);
-                sortedServiceURIs = servicesRegistry.getSortedServiceURIsByHost(DEFAULT_HOST);
+            if (hostName == null || servicesRegistry.getServicesMapHolder(hostName) == null) {
+                hostName = DEFAULT_HOST;
             }
+            Map<String, HttpService> servicesOnInterface = servicesRegistry.getServicesByHost(hostName);
 
             String rawUri = (String) inboundReqMsg.getProperty(HttpConstants.TO);
             inboundReqMsg.setProperty(HttpConstants.RAW_URI, rawUri);
@@ -88,32 +78,71 @@ public class HttpDispatcher {
             inboundReqMsg.setProperty(HttpConstants.TO, uriWithoutMatrixParams);
             inboundReqMsg.setProperty(HttpConstants.MATRIX_PARAMS, matrixParams);
 
-            URI validatedUri = getValidatedURI(uriWithoutMatrixParams);
+            String path;
+            String rawPath;
+            String query;
+            String rawQuery;
+            if (isPlainURI(uriWithoutMatrixParams)) {
+                //Nothing is escaped in the uri, hence the decoded components are the same as the raw ones
+                int queryIndex = uriWithoutMatrixParams.indexOf('?');
+                rawPath = queryIndex < 0 ? uriWithoutMatrixParams : uriWithoutMatrixParams.substring(0, queryIndex);
+                rawQuery = queryIndex < 0 ? null : uriWithoutMatrixParams.substring(queryIndex + 1);
+                path = rawPath;
+                query = rawQuery;
+            } else {
+                URI validatedUri = getValidatedURI(uriWithoutMatrixParams);
+                path = validatedUri.getPath();
+                rawPath = validatedUri.getRawPath();
+                query = validatedUri.getQuery();
+                rawQuery = validatedUri.getRawQuery();
+            }
 
-            String basePath = servicesRegistry.findTheMostSpecificBasePath(validatedUri.getPath(),
-                    servicesOnInterface, sortedServiceURIs);
+            String basePath = servicesRegistry.findTheMostSpecificBasePath(path, hostName);
 
             if (basePath == null) {
                 inboundReqMsg.setProperty(HttpConstants.HTTP_STATUS_CODE, 404);
-                throw new BallerinaConnectorException("no matching service found for path : " +
-                        validatedUri.getRawPath());
+                throw new BallerinaConnectorException("no matching service found for path : " + rawPath);
             }
 
             HttpService service = servicesOnInterface.get(basePath);
-            setInboundReqProperties(inboundReqMsg, validatedUri, basePath);
+            setInboundReqProperties(inboundReqMsg, path, query, rawQuery, basePath);
             return service;
         } catch (Throwable e) {
             throw new BallerinaConnectorException(e.getMessage());
         }
     }
 
-    private static void setInboundReqProperties(HTTPCarbonMessage inboundReqMsg, URI requestUri, String basePath) {
-        String subPath = URIUtil.getSubPath(requestUri.getPath(), basePath);
+    private static void setInboundReqProperties(HTTPCarbonMessage inboundReqMsg, String path, String query,
+                                                String rawQuery, String basePath) {
+        String subPath = URIUtil.getSubPath(path, basePath);
         inboundReqMsg.setProperty(HttpConstants.BASE_PATH, basePath);
         inboundReqMsg.setProperty(HttpConstants.SUB_PATH, subPath);
-        inboundReqMsg.setProperty(HttpConstants.QUERY_STR, requestUri.getQuery());
+        inboundReqMsg.setProperty(HttpConstants.QUERY_STR, query);
         //store query params comes with request as it is
-        inboundReqMsg.setProperty(HttpConstants.RAW_QUERY_STR, requestUri.getRawQuery());
+        inboundReqMsg.setProperty(HttpConstants.RAW_QUERY_STR, rawQuery);
+    }
+
+    /**
+     * Checks whether the given uri is an absolute path, with an optional query, which neither has escaped nor illegal
+     * characters, so that it can be split into its components without being parsed as a {@link URI}.
+     *
+     * @param uriStr the uri to check.
+     * @return true if the uri is a plain absolute path
+     */
+    private static boolean isPlainURI(String uriStr) {
+        if (uriStr.isEmpty() || uriStr.charAt(0) != '/' || uriStr.startsWith("//")) {
+            return false;
+        }
+        for (int i = 1; i < uriStr.length(); i++) {
+            char ch = uriStr.charAt(i);
+            if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')) {
+                continue;
+            }
+            if (PLAIN_URI_CHARACTERS.indexOf(ch) < 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static URI getValidatedURI(String uriStr) {
@@ -166,23 +195,18 @@ public class HttpDispatcher {
     }
 
     public static BValue[] getSignatureParameters(HttpResource httpResource, HTTPCarbonMessage httpCarbonMessage) {
-        //TODO Think of keeping struct type globally rather than creating for each request
-        ProgramFile programFile =
-                httpResource.getBalResource().getResourceInfo().getServiceInfo().getPackageInfo().getProgramFile();
-
-        BStruct serviceEndpoint = BLangConnectorSPIUtil.createBStruct(programFile, PROTOCOL_PACKAGE_HTTP,
-                                                                      SERVICE_ENDPOINT);
-        BStruct connection = BLangConnectorSPIUtil.createBStruct(programFile, PROTOCOL_PACKAGE_HTTP, CONNECTION);
-        BStruct inRequest = BLangConnectorSPIUtil.createBStruct(programFile, PROTOCOL_PACKAGE_HTTP, REQUEST);
-        BStruct inRequestEntity = BLangConnectorSPIUtil.createBStruct(programFile, PROTOCOL_PACKAGE_MIME, ENTITY);
-        BStruct mediaType = BLangConnectorSPIUtil.createBStruct(programFile, PROTOCOL_PACKAGE_MIME, MEDIA_TYPE);
+        InboundStructTypes structTypes = httpResource.getInboundStructTypes();
+        BStruct serviceEndpoint = structTypes.createServiceEndpoint();
+        BStruct connection = structTypes.createConnection();
+        BStruct inRequest = structTypes.createRequest();
+        BStruct inRequestEntity = structTypes.createEntity();
+        BStruct mediaType = structTypes.createMediaType();
 
         HttpUtil.enrichServiceEndpointInfo(serviceEndpoint, httpCarbonMessage, httpResource);
         HttpUtil.enrichConnectionInfo(connection, httpCarbonMessage);
         serviceEndpoint.setRefField(SERVICE_ENDPOINT_CONNECTION_INDEX, connection);
 
-        HttpUtil.enrichConnectionInfo(connection, httpCarbonMessage);
-        HttpUtil.populateInboundRequest(inRequest, inRequestEntity, mediaType, httpCarbonMessage, programFile);
+        HttpUtil.populateInboundRequest(inRequest, inRequestEntity, mediaType, httpCarbonMessage, structTypes);
 
         SignatureParams signatureParams = httpResource.getSignatureParams();
         BValue[] bValues = new BValue[signatureParams.getParamCount()];
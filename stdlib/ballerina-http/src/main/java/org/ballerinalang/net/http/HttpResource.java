@@ -62,11 +62,14 @@ public class HttpResource {
     private SignatureParams signatureParams;
     private HttpService parentService;
     private boolean transactionInfectable = true; //default behavior
+    private InboundStructTypes inboundStructTypes;
 
     protected HttpResource(Resource resource, HttpService parentService) {
         this.balResource = resource;
         this.parentService = parentService;
         this.producesSubTypes = new ArrayList<>();
+        this.inboundStructTypes = new InboundStructTypes(
+                resource.getResourceInfo().getServiceInfo().getPackageInfo().getProgramFile());
     }
 
     public String getName() {
@@ -81,6 +84,10 @@ public class HttpResource {
         return signatureParams;
     }
 
+    public InboundStructTypes getInboundStructTypes() {
+        return inboundStructTypes;
+    }
+
     public HttpService getParentService() {
         return parentService;
     }
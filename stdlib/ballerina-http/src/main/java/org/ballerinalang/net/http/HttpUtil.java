@@ -18,7 +18,10 @@
 
 package org.ballerinalang.net.http;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpContent;
 import io.netty.handler.codec.http.DefaultHttpRequest;
 import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.DefaultLastHttpContent;
@@ -48,6 +51,7 @@ import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.net.http.caching.RequestCacheControlStruct;
 import org.ballerinalang.net.http.caching.ResponseCacheControlStruct;
 import org.ballerinalang.net.http.session.Session;
+import org.ballerinalang.runtime.message.MessageDataSource;
 import org.ballerinalang.services.ErrorHandlerUtils;
 import org.ballerinalang.util.codegen.ProgramFile;
 import org.ballerinalang.util.exceptions.BallerinaException;
@@ -68,6 +72,7 @@ import org.wso2.transport.http.netty.message.Http2PushPromise;
 import org.wso2.transport.http.netty.message.HttpMessageDataStreamer;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
@@ -134,8 +139,7 @@ public class HttpUtil {
 
     public static BValue[] getProperty(Context context, boolean isRequest) {
         BStruct httpMessageStruct = (BStruct) context.getRefArgument(0);
-        HTTPCarbonMessage httpCarbonMessage = HttpUtil
-                .getCarbonMsg(httpMessageStruct, HttpUtil.createHttpCarbonMessage(isRequest));
+        HTTPCarbonMessage httpCarbonMessage = HttpUtil.getCarbonMsg(httpMessageStruct, isRequest);
         String propertyName = context.getStringArgument(0);
 
         Object propertyValue = httpCarbonMessage.getProperty(propertyName);
@@ -157,8 +161,7 @@ public class HttpUtil {
         String propertyValue = context.getStringArgument(1);
 
         if (propertyName != null && propertyValue != null) {
-            HTTPCarbonMessage httpCarbonMessage = HttpUtil
-                    .getCarbonMsg(httpMessageStruct, HttpUtil.createHttpCarbonMessage(isRequest));
+            HTTPCarbonMessage httpCarbonMessage = HttpUtil.getCarbonMsg(httpMessageStruct, isRequest);
             httpCarbonMessage.setProperty(propertyName, propertyValue);
         }
     }
@@ -174,7 +177,7 @@ public class HttpUtil {
                 , org.ballerinalang.mime.util.Constants.PROTOCOL_PACKAGE_MIME
                 , org.ballerinalang.mime.util.Constants.ENTITY);
         HTTPCarbonMessage httpCarbonMessage = HttpUtil.getCarbonMsg(httpMessageStruct,
-                HttpUtil.createHttpCarbonMessage(isRequestStruct(httpMessageStruct)));
+                                                                    isRequestStruct(httpMessageStruct));
         entity.addNativeData(ENTITY_HEADERS, httpCarbonMessage.getHeaders());
         entity.addNativeData(ENTITY_BYTE_CHANNEL, null);
         httpMessageStruct.setRefField(isRequestStruct(httpMessageStruct) ? REQUEST_ENTITY_INDEX : RESPONSE_ENTITY_INDEX
@@ -192,8 +195,7 @@ public class HttpUtil {
     public static void setEntity(Context context, boolean isRequest) {
         BStruct httpMessageStruct = (BStruct) context.getRefArgument(HTTP_MESSAGE_INDEX);
 
-        HTTPCarbonMessage httpCarbonMessage = HttpUtil.getCarbonMsg(httpMessageStruct,
-                HttpUtil.createHttpCarbonMessage(isRequest));
+        HTTPCarbonMessage httpCarbonMessage = HttpUtil.getCarbonMsg(httpMessageStruct, isRequest);
         BStruct entity = (BStruct) context.getRefArgument(ENTITY_INDEX);
         String contentType = MimeUtil.getContentTypeWithParameters(entity);
         if (checkEntityBodyAvailability(entity)) {
@@ -248,8 +250,7 @@ public class HttpUtil {
      */
     public static void populateEntityBody(Context context, BStruct httpMessageStruct, BStruct entity,
                                           boolean isRequest) {
-        HTTPCarbonMessage httpCarbonMessage = HttpUtil
-                .getCarbonMsg(httpMessageStruct, HttpUtil.createHttpCarbonMessage(isRequest));
+        HTTPCarbonMessage httpCarbonMessage = HttpUtil.getCarbonMsg(httpMessageStruct, isRequest);
         HttpMessageDataStreamer httpMessageDataStreamer = new HttpMessageDataStreamer(httpCarbonMessage);
         String contentType = httpCarbonMessage.getHeader(HttpHeaderNames.CONTENT_TYPE.toString());
         if (MimeUtil.isNotNullAndEmpty(contentType) && contentType.startsWith(MULTIPART_AS_PRIMARY_TYPE)
@@ -268,14 +269,28 @@ public class HttpUtil {
                 throw new BallerinaException("Invalid content length");
             }
             if (contentLength > 0) {
-                entity.addNativeData(ENTITY_BYTE_CHANNEL, new EntityWrapper(
-                        new EntityBodyChannel(httpMessageDataStreamer.getInputStream())));
+                entity.addNativeData(ENTITY_BYTE_CHANNEL, new InboundEntityWrapper(httpCarbonMessage,
+                        httpMessageDataStreamer.getInputStream()));
             }
         }
         httpMessageStruct.setRefField(isRequest ? REQUEST_ENTITY_INDEX : RESPONSE_ENTITY_INDEX, entity);
         httpMessageStruct.addNativeData(IS_BODY_BYTE_CHANNEL_ALREADY_SET, true);
     }
 
+    /**
+     * Set the given stream as the body of the entity of a request or response, replacing the body it had.
+     *
+     * @param httpMessageStruct Represent ballerina request/response
+     * @param stream            Represent the stream the body is to be read from
+     */
+    public static void setEntityBody(BStruct httpMessageStruct, InputStream stream) {
+        BStruct entity = (BStruct) httpMessageStruct.getRefField(isRequestStruct(httpMessageStruct) ?
+                REQUEST_ENTITY_INDEX : RESPONSE_ENTITY_INDEX);
+        entity.addNativeData(ENTITY_BYTE_CHANNEL, new EntityWrapper(new EntityBodyChannel(stream)));
+        EntityBodyHandler.addMessageDataSource(entity, null);
+        httpMessageStruct.addNativeData(IS_BODY_BYTE_CHANNEL_ALREADY_SET, true);
+    }
+
     public static BStruct extractEntity(BStruct httpMessageStruct) {
         Object isEntityBodyAvailable = httpMessageStruct.getNativeData(IS_BODY_BYTE_CHANNEL_ALREADY_SET);
         if (isEntityBodyAvailable == null || !((Boolean) isEntityBodyAvailable)) {
@@ -295,6 +310,35 @@ public class HttpUtil {
         }
     }
 
+    /**
+     * Serialize the given data source as the content of the given message. A data source which can write its data
+     * directly to a buffer is written to a pooled buffer, which is handed over to the transport as is. Any other
+     * data source is written to the message output stream.
+     *
+     * @param messageDataSource   Represent the data source to be serialized
+     * @param message             Represent the message the data is the content of
+     * @param messageOutputStream Represent the output stream of the message
+     */
+    public static void serializeDataSource(MessageDataSource messageDataSource, HTTPCarbonMessage message,
+                                           OutputStream messageOutputStream) {
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.buffer();
+        boolean serialized = false;
+        try {
+            serialized = messageDataSource.serializeData(buffer);
+        } finally {
+            if (!serialized) {
+                buffer.release();
+            }
+        }
+        if (!serialized) {
+            messageDataSource.serializeData(messageOutputStream);
+        } else if (buffer.isReadable()) {
+            message.addHttpContent(new DefaultHttpContent(buffer));
+        } else {
+            buffer.release();
+        }
+    }
+
     public static void prepareOutboundResponse(Context context, HTTPCarbonMessage inboundRequestMsg,
                                                HTTPCarbonMessage outboundResponseMsg, BStruct outboundResponseStruct) {
 
@@ -481,6 +525,47 @@ public class HttpUtil {
         return defaultMsg;
     }
 
+    /**
+     * Get the transport message of a request/response struct, creating an empty one only if the struct does not
+     * have one yet.
+     *
+     * @param struct    request/response struct.
+     * @param isRequest boolean representing whether the message is a request or a response
+     * @return the transport message of the struct
+     */
+    public static HTTPCarbonMessage getCarbonMsg(BStruct struct, boolean isRequest) {
+        HTTPCarbonMessage httpCarbonMessage = (HTTPCarbonMessage) struct.getNativeData(TRANSPORT_MESSAGE);
+        if (httpCarbonMessage != null) {
+            return httpCarbonMessage;
+        }
+        httpCarbonMessage = createHttpCarbonMessage(isRequest);
+        addCarbonMsg(struct, httpCarbonMessage);
+        return httpCarbonMessage;
+    }
+
+    /**
+     * Makes the target request/response share the headers of the source request/response, instead of copying them.
+     * The headers are copied only once either of them modifies its headers. The target should be a newly created
+     * request/response, as its transport message is replaced with one carrying the shared headers.
+     *
+     * @param source request/response struct whose headers are shared.
+     * @param target request/response struct to share the headers with.
+     */
+    public static void shareHeaders(BStruct source, BStruct target) {
+        boolean isRequest = isRequestStruct(source);
+        BStruct sourceEntity = (BStruct) source.getRefField(isRequest ? REQUEST_ENTITY_INDEX : RESPONSE_ENTITY_INDEX);
+        HttpHeaders sourceHeaders = (HttpHeaders) sourceEntity.getNativeData(ENTITY_HEADERS);
+        if (sourceHeaders == null) {
+            sourceHeaders = getCarbonMsg(source, isRequest).getHeaders();
+        }
+        HttpHeaders sharedHeaders = CopyOnWriteHttpHeaders.share(sourceHeaders);
+        addCarbonMsg(target, createHttpCarbonMessage(isRequest, sharedHeaders));
+        BStruct targetEntity = (BStruct) target.getRefField(isRequest ? REQUEST_ENTITY_INDEX : RESPONSE_ENTITY_INDEX);
+        if (targetEntity != null) {
+            targetEntity.addNativeData(ENTITY_HEADERS, sharedHeaders);
+        }
+    }
+
     /**
      * Gets the {@code Http2PushPromise} represented by the PushPromise struct.
      *
@@ -535,6 +620,35 @@ public class HttpUtil {
 
     public static void populateInboundRequest(BStruct inboundRequestStruct, BStruct entity, BStruct mediaType,
                                               HTTPCarbonMessage inboundRequestMsg, ProgramFile programFile) {
+        String cacheControlHeader = populateInboundRequest(inboundRequestStruct, entity, mediaType, inboundRequestMsg);
+        if (cacheControlHeader != null) {
+            BStruct cacheControlStruct = BLangConnectorSPIUtil.createBStruct(programFile, PROTOCOL_PACKAGE_HTTP,
+                                                                             REQUEST_CACHE_CONTROL);
+            populateRequestCacheControl(inboundRequestStruct, cacheControlStruct, cacheControlHeader);
+        }
+    }
+
+    /**
+     * Populate inbound request with headers and entity, creating the structs it refers to from the structure types
+     * cached for the resource the request is dispatched to.
+     *
+     * @param inboundRequestStruct Represent the request struct
+     * @param entity               Entity of the request
+     * @param mediaType            Content type of the request
+     * @param inboundRequestMsg    Represent carbon message.
+     * @param structTypes          Structure types cached for the resource
+     */
+    public static void populateInboundRequest(BStruct inboundRequestStruct, BStruct entity, BStruct mediaType,
+                                              HTTPCarbonMessage inboundRequestMsg, InboundStructTypes structTypes) {
+        String cacheControlHeader = populateInboundRequest(inboundRequestStruct, entity, mediaType, inboundRequestMsg);
+        if (cacheControlHeader != null) {
+            populateRequestCacheControl(inboundRequestStruct, structTypes.createRequestCacheControl(),
+                                        cacheControlHeader);
+        }
+    }
+
+    private static String populateInboundRequest(BStruct inboundRequestStruct, BStruct entity, BStruct mediaType,
+                                                 HTTPCarbonMessage inboundRequestMsg) {
         inboundRequestStruct.addNativeData(TRANSPORT_MESSAGE, inboundRequestMsg);
         inboundRequestStruct.addNativeData(REQUEST, true);
 
@@ -545,14 +659,14 @@ public class HttpUtil {
         inboundRequestStruct.setRefField(REQUEST_ENTITY_INDEX, entity);
         inboundRequestStruct.addNativeData(IS_BODY_BYTE_CHANNEL_ALREADY_SET, false);
 
-        String cacheControlHeader = inboundRequestMsg.getHeader(CACHE_CONTROL.toString());
-        if (cacheControlHeader != null) {
-            BStruct cacheControlStruct = BLangConnectorSPIUtil.createBStruct(programFile, PROTOCOL_PACKAGE_HTTP,
-                                                                             REQUEST_CACHE_CONTROL);
-            RequestCacheControlStruct requestCacheControl = new RequestCacheControlStruct(cacheControlStruct);
-            requestCacheControl.populateStruct(cacheControlHeader);
-            inboundRequestStruct.setRefField(REQUEST_CACHE_CONTROL_INDEX, requestCacheControl.getStruct());
-        }
+        return inboundRequestMsg.getHeader(CACHE_CONTROL.toString());
+    }
+
+    private static void populateRequestCacheControl(BStruct inboundRequestStruct, BStruct cacheControlStruct,
+                                                    String cacheControlHeader) {
+        RequestCacheControlStruct requestCacheControl = new RequestCacheControlStruct(cacheControlStruct);
+        requestCacheControl.populateStruct(cacheControlHeader);
+        inboundRequestStruct.setRefField(REQUEST_CACHE_CONTROL_INDEX, requestCacheControl.getStruct());
     }
 
     private static void enrichWithInboundRequestHeaders(BStruct inboundRequestStruct,
@@ -599,12 +713,8 @@ public class HttpUtil {
      */
     public static void enrichServiceEndpointInfo(BStruct serviceEndpoint, HTTPCarbonMessage inboundMsg,
                                                  HttpResource httpResource) {
-        BStruct remote = BLangConnectorSPIUtil.createBStruct(
-                httpResource.getBalResource().getResourceInfo().getServiceInfo().getPackageInfo().getProgramFile(),
-                PROTOCOL_PACKAGE_HTTP, HttpConstants.REMOTE);
-        BStruct local = BLangConnectorSPIUtil.createBStruct(
-                httpResource.getBalResource().getResourceInfo().getServiceInfo().getPackageInfo().getProgramFile(),
-                PROTOCOL_PACKAGE_HTTP, HttpConstants.LOCAL);
+        BStruct remote = httpResource.getInboundStructTypes().createRemote();
+        BStruct local = httpResource.getInboundStructTypes().createLocal();
 
         Object remoteSocketAddress = inboundMsg.getProperty(HttpConstants.REMOTE_ADDRESS);
         if (remoteSocketAddress instanceof InetSocketAddress) {
@@ -680,7 +790,7 @@ public class HttpUtil {
      */
     private static void populateEntity(BStruct entity, BStruct mediaType, HTTPCarbonMessage cMsg) {
         String contentType = cMsg.getHeader(HttpHeaderNames.CONTENT_TYPE.toString());
-        MimeUtil.setContentType(mediaType, entity, contentType);
+        MimeUtil.setContentTypeLazily(mediaType, entity, contentType);
         long contentLength = -1;
         String lengthStr = cMsg.getHeader(HttpHeaderNames.CONTENT_LENGTH.toString());
         try {
@@ -992,6 +1102,26 @@ public class HttpUtil {
         return httpCarbonMessage;
     }
 
+    /**
+     * Creates an empty transport message which carries the given headers, rather than a set of headers of its own.
+     *
+     * @param isRequest boolean representing whether the message is a request or a response
+     * @param headers   headers of the message
+     * @return the transport message created
+     */
+    public static HTTPCarbonMessage createHttpCarbonMessage(boolean isRequest, HttpHeaders headers) {
+        HTTPCarbonMessage httpCarbonMessage;
+        if (isRequest) {
+            httpCarbonMessage = new HTTPCarbonMessage(
+                    new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "", headers));
+        } else {
+            httpCarbonMessage = new HTTPCarbonMessage(
+                    new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, headers));
+        }
+        httpCarbonMessage.completeMessage();
+        return httpCarbonMessage;
+    }
+
     public static void checkFunctionValidity(BStruct connectionStruct, HTTPCarbonMessage reqMsg) {
         serverConnectionStructCheck(reqMsg);
         methodInvocationCheck(connectionStruct, reqMsg);
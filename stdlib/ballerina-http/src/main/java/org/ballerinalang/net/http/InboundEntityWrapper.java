@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http;
+
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.ballerinalang.mime.util.EntityBodyChannel;
+import org.ballerinalang.mime.util.EntityBodyHandler;
+import org.ballerinalang.mime.util.EntityWrapper;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.wso2.transport.http.netty.message.HTTPCarbonMessage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.ballerinalang.mime.util.Constants.ENTITY_BYTE_CHANNEL;
+
+/**
+ * Byte channel of the body of an inbound message, which remembers whether the body has been read. As long as it has
+ * not, the body can be passed through to an outbound message as the content the transport received, without being
+ * read into a stream and written out again.
+ *
+ * @since 0.974.1
+ */
+public class InboundEntityWrapper extends EntityWrapper {
+
+    private final HTTPCarbonMessage inboundMessage;
+    private final ReadTrackingInputStream inputStream;
+
+    public InboundEntityWrapper(HTTPCarbonMessage inboundMessage, InputStream inputStream) {
+        this(inboundMessage, new ReadTrackingInputStream(inputStream));
+    }
+
+    private InboundEntityWrapper(HTTPCarbonMessage inboundMessage, ReadTrackingInputStream inputStream) {
+        super(new EntityBodyChannel(inputStream));
+        this.inboundMessage = inboundMessage;
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Pass the body of the given entity through to the given outbound message, if the body is the untouched body of
+     * an inbound message. The content of the inbound message is handed over to the outbound message as it arrives,
+     * so the reference counted buffers of the transport are written out as they are, and the body is never held as a
+     * whole. If the outbound message is the inbound message itself, as when a received message is forwarded or
+     * responded with, the body already is its content and nothing needs to be moved.
+     *
+     * @param entityStruct    Represent a ballerina entity
+     * @param outboundMessage Represent the message the body should be written to
+     * @return true if the body was passed through, false if it has to be serialized
+     * @throws ContentUnavailableException When the content of the inbound message runs out before its last content,
+     *                                     in which case the outbound message must be failed rather than completed
+     */
+    public static boolean passThrough(BStruct entityStruct, HTTPCarbonMessage outboundMessage)
+            throws ContentUnavailableException {
+        Channel byteChannel = EntityBodyHandler.getByteChannel(entityStruct);
+        if (!(byteChannel instanceof InboundEntityWrapper)) {
+            return false;
+        }
+        InboundEntityWrapper entityWrapper = (InboundEntityWrapper) byteChannel;
+        if (!entityWrapper.inputStream.markConsumed()) {
+            return false;
+        }
+        //The byte channel is not closed, as that would release the content which is passed through
+        entityStruct.addNativeData(ENTITY_BYTE_CHANNEL, null);
+        if (entityWrapper.inboundMessage == outboundMessage) {
+            return true;
+        }
+        HttpContent httpContent;
+        do {
+            httpContent = entityWrapper.inboundMessage.getHttpContent();
+            if (httpContent == null) {
+                throw new ContentUnavailableException("content of the inbound message is no longer available");
+            }
+            outboundMessage.addHttpContent(httpContent);
+        } while (!(httpContent instanceof LastHttpContent));
+        return true;
+    }
+
+    /**
+     * Signals that the content of an inbound message ran out while it was passed through. Part of the content may
+     * have been added to the outbound message already, so ending the outbound message would send a truncated body.
+     */
+    public static class ContentUnavailableException extends IOException {
+
+        private ContentUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Input stream which remembers whether it has been read from.
+     */
+    private static class ReadTrackingInputStream extends FilterInputStream {
+
+        private volatile boolean touched;
+
+        private ReadTrackingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        /* returns true if the stream was untouched, in which case it must not be read from anymore */
+        private synchronized boolean markConsumed() {
+            if (touched) {
+                return false;
+            }
+            touched = true;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            touched = true;
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            touched = true;
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            touched = true;
+            return super.skip(n);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http;
+
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.model.types.BStructureType;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.util.codegen.PackageInfo;
+import org.ballerinalang.util.codegen.ProgramFile;
+import org.ballerinalang.util.codegen.StructureTypeInfo;
+
+import static org.ballerinalang.mime.util.Constants.ENTITY;
+import static org.ballerinalang.mime.util.Constants.MEDIA_TYPE;
+import static org.ballerinalang.mime.util.Constants.PROTOCOL_PACKAGE_MIME;
+import static org.ballerinalang.net.http.HttpConstants.CONNECTION;
+import static org.ballerinalang.net.http.HttpConstants.LOCAL;
+import static org.ballerinalang.net.http.HttpConstants.PROTOCOL_PACKAGE_HTTP;
+import static org.ballerinalang.net.http.HttpConstants.REMOTE;
+import static org.ballerinalang.net.http.HttpConstants.REQUEST;
+import static org.ballerinalang.net.http.HttpConstants.REQUEST_CACHE_CONTROL;
+import static org.ballerinalang.net.http.HttpConstants.SERVICE_ENDPOINT;
+
+/**
+ * Holds the structure types of the structs a resource is invoked with, resolved from the program file once when the
+ * resource is deployed, rather than looking up the packages and structs by name for each inbound request.
+ *
+ * @since 0.974.1
+ */
+public class InboundStructTypes {
+
+    private final BStructureType serviceEndpoint;
+    private final BStructureType connection;
+    private final BStructureType remote;
+    private final BStructureType local;
+    private final BStructureType request;
+    private final BStructureType requestCacheControl;
+    private final BStructureType entity;
+    private final BStructureType mediaType;
+
+    public InboundStructTypes(ProgramFile programFile) {
+        PackageInfo httpPackage = getPackageInfo(programFile, PROTOCOL_PACKAGE_HTTP);
+        PackageInfo mimePackage = getPackageInfo(programFile, PROTOCOL_PACKAGE_MIME);
+        this.serviceEndpoint = getStructType(httpPackage, SERVICE_ENDPOINT);
+        this.connection = getStructType(httpPackage, CONNECTION);
+        this.remote = getStructType(httpPackage, REMOTE);
+        this.local = getStructType(httpPackage, LOCAL);
+        this.request = getStructType(httpPackage, REQUEST);
+        this.requestCacheControl = getStructType(httpPackage, REQUEST_CACHE_CONTROL);
+        this.entity = getStructType(mimePackage, ENTITY);
+        this.mediaType = getStructType(mimePackage, MEDIA_TYPE);
+    }
+
+    private static PackageInfo getPackageInfo(ProgramFile programFile, String pkgPath) {
+        PackageInfo packageInfo = programFile.getPackageInfo(pkgPath);
+        if (packageInfo == null) {
+            throw new BallerinaConnectorException("package - " + pkgPath + " does not exist");
+        }
+        return packageInfo;
+    }
+
+    private static BStructureType getStructType(PackageInfo packageInfo, String structName) {
+        StructureTypeInfo structInfo = packageInfo.getStructInfo(structName);
+        if (structInfo == null) {
+            throw new BallerinaConnectorException("struct - " + structName + " does not exist in package - " +
+                                                          packageInfo.getPkgPath());
+        }
+        return structInfo.getType();
+    }
+
+    public BStruct createServiceEndpoint() {
+        return new BStruct(serviceEndpoint);
+    }
+
+    public BStruct createConnection() {
+        return new BStruct(connection);
+    }
+
+    public BStruct createRemote() {
+        return new BStruct(remote);
+    }
+
+    public BStruct createLocal() {
+        return new BStruct(local);
+    }
+
+    public BStruct createRequest() {
+        return new BStruct(request);
+    }
+
+    public BStruct createRequestCacheControl() {
+        return new BStruct(requestCacheControl);
+    }
+
+    public BStruct createEntity() {
+        return new BStruct(entity);
+    }
+
+    public BStruct createMediaType() {
+        return new BStruct(mediaType);
+    }
+}
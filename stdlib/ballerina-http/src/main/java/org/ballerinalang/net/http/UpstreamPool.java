@@ -0,0 +1,496 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http;
+
+import org.ballerinalang.bre.bvm.AsyncTimer;
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.runtime.threadpool.ThreadPoolFactory;
+import org.ballerinalang.util.metrics.CallbackGauge;
+import org.ballerinalang.util.metrics.DefaultMetricRegistry;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+import static org.ballerinalang.util.observability.ObservabilityConstants.CONFIG_METRICS_ENABLED;
+import static org.ballerinalang.util.observability.ObservabilityConstants.TAG_KEY_PEER_ADDRESS;
+
+/**
+ * Limits the number of requests the HTTP clients have in flight to an upstream host, so that the connections the
+ * transport pools for the host follow the load instead of a static size. The limit is sized from Little's law: the
+ * number of requests in flight is the rate at which they arrive times the time each of them takes, which is measured
+ * as the requests complete. When requests have to wait while the upstream still responds as fast as it did when idle,
+ * the limit is raised right away, so that bursts do not wait for the next adaptation. For HTTP/2 the limit counts
+ * streams, as many of them are multiplexed on a connection.
+ * <p>
+ * The adaptive client endpoints of an upstream host share its pool, so that the limit follows the load of the host
+ * rather than the part of it each endpoint sends. Each of them passes its bounds along with its requests, and the pool
+ * is bounded by the largest of them. The requests of the clients which do not limit them are only tracked: they are
+ * published and they are part of the latency of the host, but they do not take the place of limited requests.
+ * <p>
+ * The pools publish their utilization as metrics when the metrics are enabled. A pool which stays idle is evicted, and
+ * the gauges of its host read zero until the host is requested again, as metrics cannot be unregistered.
+ *
+ * @since 0.974.1
+ */
+public class UpstreamPool {
+
+    /**
+     * The least number of requests the pool lets in flight, unless the endpoint allows less.
+     */
+    public static final int MIN_LIMIT = 4;
+
+    /**
+     * The number of requests the pool lets in flight before the load has been observed.
+     */
+    public static final int INITIAL_LIMIT = 64;
+
+    /* the factor the concurrency given by Little's law is multiplied by, to absorb the variance of the load */
+    private static final double HEADROOM = 1.5;
+
+    /* the weight of the latest sample in the moving averages of the latency and the arrival rate */
+    private static final double SMOOTHING = 0.3;
+
+    /* the upstream is considered saturated once its latency exceeds the latency it had when idle by this factor */
+    private static final double SATURATION_FACTOR = 2;
+
+    private static final long ADAPTATION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    /* the time after which a pool without requests is evicted, and the interval at which the pools are checked */
+    private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toNanos(5);
+    private static final long EVICTION_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private static final boolean METRICS_ENABLED = ConfigRegistry.getInstance().getAsBoolean(CONFIG_METRICS_ENABLED);
+
+    private static final ConcurrentMap<String, UpstreamPool> POOLS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong LAST_EVICTION = new AtomicLong(System.nanoTime());
+
+    private final String upstream;
+    private final LongSupplier clock;
+    private final Executor executor;
+
+    /* the requests waiting to be let in flight, in the order they arrived */
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    private boolean bounded;
+    private volatile int maxLimit = Integer.MAX_VALUE;
+    private volatile int streamsPerConnection = 1;
+    private volatile int limit = INITIAL_LIMIT;
+    private volatile int inFlight;
+    private volatile int tracked;
+    private volatile int queued;
+
+    /* moving average of the time the requests are in flight, in nanoseconds */
+    private volatile double latency;
+    /* the latency of the upstream when it is idle, which rises slowly to follow an upstream which became slower */
+    private double idleLatency = Double.MAX_VALUE;
+    /* moving average of the number of limited requests which arrive per second */
+    private double arrivalRate;
+    private long arrivals;
+    private long intervalStart;
+    private long lastUsed;
+    private boolean evicted;
+
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder waitTime = new LongAdder();
+    private final LongAdder waitTimeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public UpstreamPool(String upstream, LongSupplier clock, Executor executor) {
+        this.upstream = upstream;
+        this.clock = clock;
+        this.executor = executor;
+        this.intervalStart = clock.getAsLong();
+        this.lastUsed = intervalStart;
+    }
+
+    /**
+     * Get the pool of the given upstream host, creating it if the host has not been requested yet or its pool has
+     * been evicted.
+     *
+     * @param host the host name of the upstream.
+     * @param port the port of the upstream.
+     * @return the pool of the upstream
+     */
+    public static UpstreamPool getPool(String host, int port) {
+        evictIdlePools();
+        return getPool(host + ":" + port);
+    }
+
+    private static UpstreamPool getPool(String upstream) {
+        return POOLS.computeIfAbsent(upstream, key -> {
+            registerMetrics(key);
+            return new UpstreamPool(key, System::nanoTime, ThreadPoolFactory.getInstance().getWorkerExecutor());
+        });
+    }
+
+    private static void evictIdlePools() {
+        long now = System.nanoTime();
+        long lastEviction = LAST_EVICTION.get();
+        if (now - lastEviction < EVICTION_INTERVAL || !LAST_EVICTION.compareAndSet(lastEviction, now)) {
+            return;
+        }
+        for (UpstreamPool pool : POOLS.values()) {
+            if (pool.evictIfIdle()) {
+                POOLS.remove(pool.upstream, pool);
+            }
+        }
+    }
+
+    /**
+     * Whether the requests of the clients which do not limit them should still be tracked, to be published.
+     *
+     * @return true if the metrics are enabled
+     */
+    public static boolean isTracked() {
+        return METRICS_ENABLED;
+    }
+
+    /**
+     * Bound the pool by the connections an endpoint allows to the upstream. An HTTP/2 endpoint passes the streams
+     * it allows on a connection, so that the pool lets that many requests in flight on each of the connections. Once
+     * several endpoints bounded the pool, it lets in flight as many requests as the largest of their bounds, and it
+     * counts the connections by the fewest streams any of them allows on a connection.
+     *
+     * @param maxActiveConnections          the maximum number of connections, or -1 if they are not restricted.
+     * @param maxActiveStreamsPerConnection the maximum number of requests in flight on a connection.
+     */
+    public synchronized void configure(int maxActiveConnections, int maxActiveStreamsPerConnection) {
+        int streams = Math.max(1, maxActiveStreamsPerConnection);
+        int bound = Integer.MAX_VALUE;
+        if (maxActiveConnections > 0) {
+            bound = (int) Math.min(Integer.MAX_VALUE, (long) maxActiveConnections * streams);
+        }
+        if (bounded) {
+            streamsPerConnection = Math.min(streamsPerConnection, streams);
+            maxLimit = Math.max(maxLimit, bound);
+        } else {
+            streamsPerConnection = streams;
+            maxLimit = bound;
+            bounded = true;
+        }
+        limit = Math.min(limit, maxLimit);
+    }
+
+    /**
+     * Let the given request in flight as soon as the limit of the pool allows it, after the requests which already
+     * wait. The request is sent on the calling thread if it can be let in flight right away, else it waits for a
+     * request in flight to complete.
+     *
+     * @param endpoint  the bounds of the endpoint which sends the request.
+     * @param request   sends the request, which releases the given lease once the request completes.
+     * @param onTimeout fails the request, if it could not be let in flight within the wait time of the endpoint.
+     */
+    public void acquire(Endpoint endpoint, Consumer<Lease> request, Runnable onTimeout) {
+        Lease lease = new Lease(true);
+        Waiter waiter = null;
+        List<Waiter> admitted = new ArrayList<>();
+        synchronized (this) {
+            if (evicted) {
+                // The pool was evicted after the request got it, so the request goes to the pool which replaced it
+                lease = null;
+            } else {
+                long now = clock.getAsLong();
+                lastUsed = now;
+                configure(endpoint.maxActiveConnections, endpoint.maxActiveStreamsPerConnection);
+                arrivals++;
+                adapt(now);
+                if (inFlight >= limit && limit < maxLimit && latency <= idleLatency * SATURATION_FACTOR) {
+                    limit = (int) Math.min(maxLimit, (long) limit * 2);
+                }
+                // Whatever the limit was raised by goes to the requests which waited first
+                admitWaiters(now, admitted);
+                if (inFlight < limit) {
+                    inFlight++;
+                    lease.start = now;
+                } else {
+                    waiter = new Waiter(lease, request, onTimeout, now,
+                                        now + TimeUnit.MILLISECONDS.toNanos(endpoint.maxWaitMillis));
+                    waiters.add(waiter);
+                    queued = waiters.size();
+                }
+            }
+        }
+        if (lease == null) {
+            getPool(upstream).acquire(endpoint, request, onTimeout);
+            return;
+        }
+        dispatch(admitted);
+        if (waiter != null) {
+            Waiter timedWaiter = waiter;
+            AsyncTimer.schedule(() -> expire(timedWaiter), endpoint.maxWaitMillis);
+        } else {
+            request.accept(lease);
+        }
+    }
+
+    /**
+     * Count a request in flight without limiting it, so that it is part of the load the pool publishes.
+     *
+     * @return the lease to be released once the request completes
+     */
+    public Lease track() {
+        Lease lease = new Lease(false);
+        synchronized (this) {
+            if (!evicted) {
+                long now = clock.getAsLong();
+                lastUsed = now;
+                tracked++;
+                lease.start = now;
+                return lease;
+            }
+        }
+        return getPool(upstream).track();
+    }
+
+    private void release(Lease lease, boolean failed) {
+        if (failed) {
+            errors.increment();
+        }
+        List<Waiter> admitted = new ArrayList<>();
+        List<Waiter> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.getAsLong();
+            lastUsed = now;
+            if (lease.limited) {
+                inFlight--;
+            } else {
+                tracked--;
+            }
+            double sample = now - lease.start;
+            latency = latency == 0 ? sample : latency + SMOOTHING * (sample - latency);
+            idleLatency = Math.min(idleLatency, latency);
+            adapt(now);
+            for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+                Waiter waiter = iterator.next();
+                if (waiter.deadline - now < 0) {
+                    iterator.remove();
+                    expired.add(waiter);
+                }
+            }
+            admitWaiters(now, admitted);
+        }
+        for (Waiter waiter : expired) {
+            timeout(waiter);
+        }
+        dispatch(admitted);
+    }
+
+    /* called by the timer of a waiter, which may have been let in flight or timed out already */
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (!waiters.remove(waiter)) {
+                return;
+            }
+            queued = waiters.size();
+        }
+        timeout(waiter);
+    }
+
+    private void timeout(Waiter waiter) {
+        waitTimeouts.increment();
+        executor.execute(waiter.onTimeout);
+    }
+
+    /* called only while holding the lock of the pool */
+    private void admitWaiters(long now, List<Waiter> admitted) {
+        while (inFlight < limit && !waiters.isEmpty()) {
+            Waiter waiter = waiters.poll();
+            inFlight++;
+            waiter.lease.start = now;
+            waitCount.increment();
+            waitTime.add(now - waiter.enqueued);
+            admitted.add(waiter);
+        }
+        queued = waiters.size();
+    }
+
+    private void dispatch(List<Waiter> admitted) {
+        // Leases are released on the I/O threads of the transport, which must not send the waiting requests
+        for (Waiter waiter : admitted) {
+            executor.execute(() -> waiter.request.accept(waiter.lease));
+        }
+    }
+
+    /* called only while holding the lock of the pool */
+    private void adapt(long now) {
+        long elapsed = now - intervalStart;
+        if (elapsed < ADAPTATION_INTERVAL) {
+            return;
+        }
+        double rate = arrivals * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        arrivalRate = arrivalRate == 0 ? rate : arrivalRate + SMOOTHING * (rate - arrivalRate);
+        arrivals = 0;
+        intervalStart = now;
+        if (latency > 0) {
+            idleLatency = Math.min(latency, idleLatency * (1 + SMOOTHING));
+            double concurrency = arrivalRate * latency / TimeUnit.SECONDS.toNanos(1);
+            limit = (int) Math.min(maxLimit, Math.max(MIN_LIMIT, Math.ceil(concurrency * HEADROOM)));
+        }
+    }
+
+    private synchronized boolean evictIfIdle() {
+        evicted = inFlight == 0 && tracked == 0 && waiters.isEmpty() && clock.getAsLong() - lastUsed >= IDLE_TIMEOUT;
+        return evicted;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getTracked() {
+        return tracked;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    /**
+     * Get the number of connections the requests the pool lets in flight need.
+     *
+     * @return the number of connections
+     */
+    public int getConnections() {
+        int connections = limit / streamsPerConnection;
+        return limit % streamsPerConnection == 0 ? connections : connections + 1;
+    }
+
+    private static void registerMetrics(String upstream) {
+        if (!METRICS_ENABLED || DefaultMetricRegistry.getInstance() == null) {
+            return;
+        }
+        registerGauge(upstream, "ballerina_http_client_pool_in_flight",
+                      "Number of requests in flight to the upstream host", pool -> pool.inFlight + pool.tracked);
+        registerGauge(upstream, "ballerina_http_client_pool_limit",
+                      "Number of requests let in flight to the upstream host", UpstreamPool::getLimit);
+        registerGauge(upstream, "ballerina_http_client_pool_utilization", "Ratio of the limit of the pool in use",
+                      pool -> (double) pool.inFlight / pool.limit);
+        registerGauge(upstream, "ballerina_http_client_pool_connections",
+                      "Number of connections needed by the requests let in flight", UpstreamPool::getConnections);
+        registerGauge(upstream, "ballerina_http_client_pool_queued", "Number of requests waiting to be let in flight",
+                      UpstreamPool::getQueued);
+        registerGauge(upstream, "ballerina_http_client_pool_wait_count", "Number of requests which had to wait",
+                      pool -> pool.waitCount.sum());
+        registerGauge(upstream, "ballerina_http_client_pool_wait_time_total",
+                      "Total time requests waited to be let in flight in milliseconds",
+                      pool -> pool.waitTime.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        registerGauge(upstream, "ballerina_http_client_pool_wait_timeout_count",
+                      "Number of requests which timed out waiting to be let in flight",
+                      pool -> pool.waitTimeouts.sum());
+        registerGauge(upstream, "ballerina_http_client_pool_error_count", "Number of requests which failed",
+                      pool -> pool.errors.sum());
+        registerGauge(upstream, "ballerina_http_client_pool_latency",
+                      "Moving average of the time requests are in flight in milliseconds",
+                      pool -> pool.latency / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static void registerGauge(String upstream, String name, String description,
+                                      ToDoubleFunction<UpstreamPool> valueFunction) {
+        // The gauge reads the pool which currently serves the host, as it outlives the pools evicted from it
+        CallbackGauge.builder(name, POOLS, pools -> {
+            UpstreamPool pool = pools.get(upstream);
+            return pool == null ? 0 : valueFunction.applyAsDouble(pool);
+        }).description(description).tag(TAG_KEY_PEER_ADDRESS, upstream).register();
+    }
+
+    /**
+     * The bounds an adaptive client endpoint puts on the requests it sends to an upstream host.
+     */
+    public static class Endpoint {
+
+        private final int maxActiveConnections;
+        private final int maxActiveStreamsPerConnection;
+        private final long maxWaitMillis;
+
+        /**
+         * Create the bounds of an endpoint.
+         *
+         * @param maxActiveConnections          the maximum number of connections, or -1 if they are not restricted.
+         * @param maxActiveStreamsPerConnection the maximum number of requests in flight on a connection.
+         * @param maxWaitMillis                 the maximum time a request may wait to be let in flight.
+         */
+        public Endpoint(int maxActiveConnections, int maxActiveStreamsPerConnection, long maxWaitMillis) {
+            this.maxActiveConnections = maxActiveConnections;
+            this.maxActiveStreamsPerConnection = maxActiveStreamsPerConnection;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+    }
+
+    /**
+     * A request let in flight, which has to be released once it completes.
+     */
+    public class Lease {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final boolean limited;
+
+        private long start;
+
+        private Lease(boolean limited) {
+            this.limited = limited;
+        }
+
+        /**
+         * Release the request, letting the next waiting request in flight. Releasing a request more than once has no
+         * effect.
+         *
+         * @param failed whether the request failed
+         */
+        public void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                UpstreamPool.this.release(this, failed);
+            }
+        }
+    }
+
+    private static class Waiter {
+
+        private final Lease lease;
+        private final Consumer<Lease> request;
+        private final Runnable onTimeout;
+        private final long enqueued;
+        private final long deadline;
+
+        private Waiter(Lease lease, Consumer<Lease> request, Runnable onTimeout, long enqueued, long deadline) {
+            this.lease = lease;
+            this.request = request;
+            this.onTimeout = onTimeout;
+            this.enqueued = enqueued;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -35,6 +35,8 @@ import org.ballerinalang.net.http.AcceptEncodingConfig;
 import org.ballerinalang.net.http.DataContext;
 import org.ballerinalang.net.http.HttpConstants;
 import org.ballerinalang.net.http.HttpUtil;
+import org.ballerinalang.net.http.InboundEntityWrapper;
+import org.ballerinalang.net.http.UpstreamPool;
 import org.ballerinalang.runtime.message.MessageDataSource;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.ballerinalang.util.observability.ObservabilityConstants;
@@ -93,8 +95,7 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
             requestStruct = BLangConnectorSPIUtil.createBStruct(context, HTTP_PACKAGE_PATH, REQUEST);
         }
 
-        HTTPCarbonMessage requestMsg = HttpUtil
-                .getCarbonMsg(requestStruct, HttpUtil.createHttpCarbonMessage(true));
+        HTTPCarbonMessage requestMsg = HttpUtil.getCarbonMsg(requestStruct, true);
 
         HttpUtil.checkEntityAvailability(context, requestStruct);
         HttpUtil.enrichOutboundMessage(requestMsg, requestStruct);
@@ -253,15 +254,39 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
         }
         outboundRequestMsg.setProperty(HttpConstants.ORIGIN_HOST,
                                        dataContext.context.getProperty(HttpConstants.ORIGIN_HOST));
-        sendOutboundRequest(dataContext, outboundRequestMsg, async);
+
+        BStruct bConnector = (BStruct) dataContext.context.getRefArgument(0);
+        UpstreamPool.Endpoint upstreamEndpoint = (UpstreamPool.Endpoint) bConnector.getNativeData(
+                HttpConstants.CLIENT_UPSTREAM_ENDPOINT);
+        String host = (String) outboundRequestMsg.getProperty(Constants.HTTP_HOST);
+        if (host == null || (upstreamEndpoint == null && !UpstreamPool.isTracked())) {
+            sendOutboundRequest(dataContext, outboundRequestMsg, async, null);
+            return;
+        }
+        int port = (Integer) outboundRequestMsg.getProperty(Constants.HTTP_PORT);
+        UpstreamPool upstreamPool = UpstreamPool.getPool(host, port);
+        // A submitted request is released once its response handle is returned, so it is only tracked
+        if (upstreamEndpoint == null || async) {
+            sendOutboundRequest(dataContext, outboundRequestMsg, async, upstreamPool.track());
+        } else {
+            upstreamPool.acquire(upstreamEndpoint,
+                                 lease -> sendOutboundRequest(dataContext, outboundRequestMsg, false, lease), () -> {
+                BallerinaConnectorException exception = new BallerinaConnectorException(
+                        "Timed out waiting for a connection to " + host + ":" + port);
+                dataContext.notifyInboundResponseStatus(null, HttpUtil.getError(dataContext.context, exception));
+            });
+        }
     }
 
-    private void sendOutboundRequest(DataContext dataContext, HTTPCarbonMessage outboundRequestMsg, boolean async) {
+    private void sendOutboundRequest(DataContext dataContext, HTTPCarbonMessage outboundRequestMsg, boolean async,
+                                     UpstreamPool.Lease lease) {
         try {
-            send(dataContext, outboundRequestMsg, async);
+            send(dataContext, outboundRequestMsg, async, lease);
         } catch (BallerinaConnectorException e) {
+            releaseLease(lease, true);
             dataContext.notifyInboundResponseStatus(null, HttpUtil.getError(dataContext.context, e));
         } catch (Exception e) {
+            releaseLease(lease, true);
             BallerinaException exception = new BallerinaException("Failed to send outboundRequestMsg to the backend",
                                                                   e, dataContext.context);
             dataContext.notifyInboundResponseStatus(null, HttpUtil.getError(dataContext.context, exception));
@@ -277,8 +302,10 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
      * @param dataContext        holds the ballerina context and callback
      * @param outboundRequestMsg Outbound request that needs to be sent across the wire
      * @param async              whether a handle should be return
+     * @param lease              the lease of the request in the upstream pool, if the request is pooled
      */
-    private void send(DataContext dataContext, HTTPCarbonMessage outboundRequestMsg, boolean async) {
+    private void send(DataContext dataContext, HTTPCarbonMessage outboundRequestMsg, boolean async,
+                      UpstreamPool.Lease lease) {
         BStruct bConnector = (BStruct) dataContext.context.getRefArgument(0);
         Struct httpClient = BLangConnectorSPIUtil.toStruct(bConnector);
         HttpClientConnector clientConnector = (HttpClientConnector)
@@ -295,8 +322,8 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
         final HttpMessageDataStreamer outboundMsgDataStreamer = getHttpMessageDataStreamer(outboundRequestMsg);
 
         final HTTPClientConnectorListener httpClientConnectorLister = ObservabilityUtils.isObservabilityEnabled() ?
-                new ObservableHttpClientConnectorListener(dataContext, outboundMsgDataStreamer) :
-                new HTTPClientConnectorListener(dataContext, outboundMsgDataStreamer);
+                new ObservableHttpClientConnectorListener(dataContext, outboundMsgDataStreamer, lease) :
+                new HTTPClientConnectorListener(dataContext, outboundMsgDataStreamer, lease);
         final OutputStream messageOutputStream = outboundMsgDataStreamer.getOutputStream();
         HttpResponseFuture future = clientConnector.send(outboundRequestMsg);
         if (async) {
@@ -306,9 +333,9 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
         }
         try {
             if (boundaryString != null) {
-                serializeMultiparts(dataContext.context, messageOutputStream, boundaryString);
+                serializeMultiparts(dataContext.context, outboundRequestMsg, messageOutputStream, boundaryString);
             } else {
-                serializeDataSource(dataContext.context, messageOutputStream);
+                serializeDataSource(dataContext.context, outboundRequestMsg, messageOutputStream);
             }
         } catch (IOException | EncoderException serializerException) {
             // We don't have to do anything here as the client connector will notify
@@ -334,11 +361,12 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
      * if it exist as a byte channel.
      *
      * @param context             Represent the ballerina context which is the runtime state of the program
+     * @param message             Outbound message to which the payload is written
      * @param boundaryString      Boundary string that should be used in encoding body parts
      * @param messageOutputStream Output stream to which the payload is written
      */
-    private void serializeMultiparts(Context context, OutputStream messageOutputStream, String boundaryString)
-            throws IOException {
+    private void serializeMultiparts(Context context, HTTPCarbonMessage message, OutputStream messageOutputStream,
+                                     String boundaryString) throws IOException {
         BStruct entityStruct = getEntityStruct(context);
         if (entityStruct != null) {
             BRefValueArray bodyParts = EntityBodyHandler.getBodyPartArray(entityStruct);
@@ -346,7 +374,7 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
                 serializeMultipartDataSource(messageOutputStream, boundaryString,
                                              entityStruct);
             } else { //If the content is in a byte channel
-                serializeDataSource(context, messageOutputStream);
+                serializeDataSource(context, message, messageOutputStream);
             }
         }
     }
@@ -370,7 +398,8 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
         HttpUtil.closeMessageOutputStream(messageOutputStream);
     }
 
-    private void serializeDataSource(Context context, OutputStream messageOutputStream) throws IOException {
+    private void serializeDataSource(Context context, HTTPCarbonMessage message, OutputStream messageOutputStream)
+            throws IOException {
         BStruct requestStruct = ((BStruct) context.getNullableRefArgument(1));
         if (requestStruct == null) {
             return;
@@ -381,11 +410,17 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
             MessageDataSource messageDataSource = EntityBodyHandler.getMessageDataSource(entityStruct);
             if (messageDataSource != null) {
                 try {
-                    messageDataSource.serializeData(messageOutputStream);
+                    HttpUtil.serializeDataSource(messageDataSource, message, messageOutputStream);
                 } finally {
                     HttpUtil.closeMessageOutputStream(messageOutputStream);
                 }
             } else { //When the entity body is a byte channel and when it is not null
+                //The content passed through ends with the last content of the inbound message. When the inbound
+                //content runs out, the exception leaves the message without its last content, so that it fails
+                //instead of ending truncated.
+                if (InboundEntityWrapper.passThrough(entityStruct, message)) {
+                    return;
+                }
                 if (EntityBodyHandler.getByteChannel(entityStruct) != null) {
                     try {
                         EntityBodyHandler.writeByteChannelToOutputStream(entityStruct, messageOutputStream);
@@ -397,6 +432,12 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
         }
     }
 
+    private static void releaseLease(UpstreamPool.Lease lease, boolean failed) {
+        if (lease != null) {
+            lease.release(failed);
+        }
+    }
+
     @Override
     public boolean isBlocking() {
         return false;
@@ -406,15 +447,19 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
 
         private DataContext dataContext;
         private HttpMessageDataStreamer outboundMsgDataStreamer;
+        private UpstreamPool.Lease lease;
         // Reference for post validation.
 
-        private HTTPClientConnectorListener(DataContext dataContext, HttpMessageDataStreamer outboundMsgDataStreamer) {
+        private HTTPClientConnectorListener(DataContext dataContext, HttpMessageDataStreamer outboundMsgDataStreamer,
+                                            UpstreamPool.Lease lease) {
             this.dataContext = dataContext;
             this.outboundMsgDataStreamer = outboundMsgDataStreamer;
+            this.lease = lease;
         }
 
         @Override
         public void onMessage(HTTPCarbonMessage inboundResponseMessage) {
+            releaseLease(lease, false);
             this.outboundMsgDataStreamer.setIoException(new IOException("Response message already received"));
             this.dataContext.notifyInboundResponseStatus
                     (HttpUtil.createResponseStruct(this.dataContext.context, inboundResponseMessage), null);
@@ -422,6 +467,7 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
 
         @Override
         public void onResponseHandle(ResponseHandle responseHandle) {
+            releaseLease(lease, false);
             BStruct httpFuture = BLangConnectorSPIUtil.createBStruct(this.dataContext.context,
                                                                      HttpConstants.PROTOCOL_PACKAGE_HTTP,
                                                                      HttpConstants.HTTP_FUTURE);
@@ -431,6 +477,7 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
 
         @Override
         public void onError(Throwable throwable) {
+            releaseLease(lease, true);
             BStruct httpConnectorError;
             if (throwable instanceof EndpointTimeOutException) {
                 httpConnectorError = BLangConnectorSPIUtil.createBStruct(this.dataContext.context,
@@ -456,8 +503,9 @@ public abstract class AbstractHTTPAction implements NativeCallableUnit {
         private final Context context;
 
         private ObservableHttpClientConnectorListener(DataContext dataContext,
-                                                      HttpMessageDataStreamer outboundMsgDataStreamer) {
-            super(dataContext, outboundMsgDataStreamer);
+                                                      HttpMessageDataStreamer outboundMsgDataStreamer,
+                                                      UpstreamPool.Lease lease) {
+            super(dataContext, outboundMsgDataStreamer, lease);
             this.context = dataContext.context;
         }
 
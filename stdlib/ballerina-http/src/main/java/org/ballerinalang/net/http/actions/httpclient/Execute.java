@@ -67,8 +67,7 @@ public class Execute extends AbstractHTTPAction {
         String path = context.getStringArgument(1);
         BStruct requestStruct = ((BStruct) context.getRefArgument(1));
 
-        HTTPCarbonMessage outboundRequestMsg = HttpUtil
-                .getCarbonMsg(requestStruct, HttpUtil.createHttpCarbonMessage(true));
+        HTTPCarbonMessage outboundRequestMsg = HttpUtil.getCarbonMsg(requestStruct, true);
 
         HttpUtil.checkEntityAvailability(context, requestStruct);
         HttpUtil.enrichOutboundMessage(outboundRequestMsg, requestStruct);
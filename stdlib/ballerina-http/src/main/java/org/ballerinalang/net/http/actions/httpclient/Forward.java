@@ -75,8 +75,7 @@ public class Forward extends AbstractHTTPAction {
                 !HttpUtil.isEntityDataSourceAvailable(requestStruct)) {
             throw new BallerinaException("invalid inbound request parameter");
         }
-        HTTPCarbonMessage outboundRequestMsg = HttpUtil
-                .getCarbonMsg(requestStruct, HttpUtil.createHttpCarbonMessage(true));
+        HTTPCarbonMessage outboundRequestMsg = HttpUtil.getCarbonMsg(requestStruct, true);
 
         if (HttpUtil.isEntityDataSourceAvailable(requestStruct)) {
             HttpUtil.enrichOutboundMessage(outboundRequestMsg, requestStruct);
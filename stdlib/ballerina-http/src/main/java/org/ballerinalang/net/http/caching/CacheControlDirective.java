@@ -39,7 +39,8 @@ public enum CacheControlDirective {
     INVALID("invalid"),
     ONLY_IF_CACHED("only-if-cached"),
     MAX_STALE("max-stale"),
-    MIN_FRESH("min-fresh");
+    MIN_FRESH("min-fresh"),
+    STALE_WHILE_REVALIDATE("stale-while-revalidate");
 
     private String directiveValue;
 
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http.caching;
+
+import org.ballerinalang.bre.bvm.AsyncTimer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps track of the requests the HTTP caching client has sent to the origin server for the responses it is going
+ * to cache. A request claims the key of the resource before fetching it, and the requests which cannot claim the key
+ * wait for the one fetching it to complete, so that concurrent cache misses for a resource result in a single call
+ * to the origin server.
+ * <p>
+ * Only the resources whose responses are cached are coalesced: once a fetch completes without caching the response,
+ * the resource is fetched by every request, until a response of it is cached again. A claim is bounded by the given
+ * timeout, after which the next request may claim the resource again, so that a fetch which never completes does not
+ * hold up the requests for the resource. The requests waiting for a fetch are called back rather than blocked.
+ *
+ * @since 0.974.1
+ */
+public class RequestCoalescer {
+
+    public static final String NATIVE_DATA_KEY = "RequestCoalescer";
+
+    /**
+     * The claim returned to a request which has to wait for the ongoing fetch of the resource.
+     */
+    public static final long NOT_CLAIMED = 0;
+
+    /* the number of resources remembered as not cached */
+    private static final int MAX_UNCACHED_KEYS = 1024;
+
+    private final Map<String, Fetch> inFlight = new ConcurrentHashMap<>();
+
+    private final Set<String> uncachedKeys = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_UNCACHED_KEYS;
+                }
+            }));
+
+    private final AtomicLong claims = new AtomicLong();
+
+    private final LongSupplier clock;
+
+    public RequestCoalescer() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Creates a request coalescer.
+     *
+     * @param clock the source of the current time in nanoseconds
+     */
+    public RequestCoalescer(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Claims the fetching of a resource.
+     *
+     * @param key           the cache key of the resource
+     * @param timeoutMillis the time after which the claim expires, if the fetch is not completed
+     * @return the claim to complete the fetch with, if the resource is not being fetched already and the caller has
+     * to fetch it, or {@link #NOT_CLAIMED} if the caller has to wait for the ongoing fetch
+     */
+    public long claim(String key, long timeoutMillis) {
+        long claim = claims.incrementAndGet();
+        if (uncachedKeys.contains(key)) {
+            return claim;
+        }
+        Fetch fetch = new Fetch(claim, clock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+        Fetch ongoing = inFlight.putIfAbsent(key, fetch);
+        if (ongoing == null) {
+            return claim;
+        }
+        if (ongoing.deadline - clock.getAsLong() <= 0 && inFlight.replace(key, ongoing, fetch)) {
+            ongoing.release();
+            return claim;
+        }
+        return NOT_CLAIMED;
+    }
+
+    /**
+     * Waits for the ongoing fetch of a resource to complete, without blocking the caller.
+     *
+     * @param key           the cache key of the resource
+     * @param timeoutMillis the maximum time to wait
+     * @param callback      called once the fetch completes or the time to wait runs out
+     */
+    public void await(String key, long timeoutMillis, Runnable callback) {
+        Fetch fetch = inFlight.get(key);
+        if (fetch == null) {
+            callback.run();
+            return;
+        }
+        fetch.addWaiter(callback, timeoutMillis);
+    }
+
+    /**
+     * Completes the fetch of a resource, releasing the requests waiting for it.
+     *
+     * @param key    the cache key of the resource
+     * @param claim  the claim returned when the fetch was claimed
+     * @param cached whether the response fetched was cached
+     */
+    public void complete(String key, long claim, boolean cached) {
+        if (cached) {
+            uncachedKeys.remove(key);
+        } else {
+            uncachedKeys.add(key);
+        }
+        Fetch fetch = inFlight.get(key);
+        if (fetch != null && fetch.claim == claim && inFlight.remove(key, fetch)) {
+            fetch.release();
+        }
+    }
+
+    /**
+     * An ongoing fetch of a resource, and the requests waiting for it.
+     */
+    private static class Fetch {
+
+        private final long claim;
+
+        private final long deadline;
+
+        private List<Waiter> waiters = new ArrayList<>();
+
+        private Fetch(long claim, long deadline) {
+            this.claim = claim;
+            this.deadline = deadline;
+        }
+
+        private void addWaiter(Runnable callback, long timeoutMillis) {
+            Waiter waiter = new Waiter(callback);
+            synchronized (this) {
+                if (waiters != null) {
+                    waiters.add(waiter);
+                    AsyncTimer.schedule(waiter::release, timeoutMillis);
+                    return;
+                }
+            }
+            waiter.release();
+        }
+
+        private void release() {
+            List<Waiter> released;
+            synchronized (this) {
+                released = waiters;
+                waiters = null;
+            }
+            for (Waiter waiter : released) {
+                waiter.release();
+            }
+        }
+    }
+
+    /**
+     * A request waiting for a fetch, which is released either by the fetch or by its timeout, whichever comes first.
+     */
+    private static class Waiter {
+
+        private final Runnable callback;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Waiter(Runnable callback) {
+            this.callback = callback;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                callback.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http.caching;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Stores the bodies of the responses cached by the HTTP caching client in direct buffers, outside the Java heap.
+ * Only the headers of a cached response are kept on the heap, so that large cached payloads neither fill up the
+ * heap nor add to the GC pauses. Bodies larger than the maximum entry size are not admitted, and the least recently
+ * used bodies are evicted once the bodies stored exceed the maximum size of the store.
+ *
+ * @since 0.974.1
+ */
+public class ResponseBodyStore {
+
+    public static final String NATIVE_DATA_KEY = "ResponseBodyStore";
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final int TRANSFER_SIZE = 8 * 1024;
+
+    private final long maxEntrySize;
+
+    private final long maxSize;
+
+    /* the bodies stored, in the order of their last access */
+    private final LinkedHashMap<Body, Body> bodies = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long size;
+
+    public ResponseBodyStore(long maxEntrySize, long maxSize) {
+        this.maxEntrySize = maxEntrySize;
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Reads a response body off the heap and stores it, if it is not larger than the maximum entry size. If the
+     * body is too large, reading stops as soon as the limit is exceeded, and the returned body is not stored. The
+     * bytes read so far can then be read back from it, followed by the rest of the given stream.
+     *
+     * @param stream        the stream of the response body
+     * @param contentLength the expected length of the body, or -1 if it is not known
+     * @return the body read
+     * @throws IOException if the body cannot be read from the stream
+     */
+    public Body store(InputStream stream, long contentLength) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        byte[] transfer = new byte[TRANSFER_SIZE];
+        ByteBuffer chunk = null;
+        long length = 0;
+        int count;
+        while (length <= maxEntrySize && (count = stream.read(transfer)) != -1) {
+            for (int offset = 0; offset < count; ) {
+                if (chunk == null || !chunk.hasRemaining()) {
+                    /* the first chunk is sized to hold the whole body, when its length is known */
+                    int capacity = chunks.isEmpty() && contentLength > 0 && contentLength <= maxEntrySize ?
+                            (int) Math.max(contentLength, count) : CHUNK_SIZE;
+                    chunk = ByteBuffer.allocateDirect(capacity);
+                    chunks.add(chunk);
+                }
+                int copied = Math.min(count - offset, chunk.remaining());
+                chunk.put(transfer, offset, copied);
+                offset += copied;
+            }
+            length += count;
+        }
+        if (chunk != null && chunk.position() < chunk.capacity() / 2) {
+            /* do not hold on to the mostly unused end of the last chunk */
+            chunk.flip();
+            ByteBuffer trimmed = ByteBuffer.allocateDirect(chunk.remaining()).put(chunk);
+            chunks.set(chunks.size() - 1, trimmed);
+        }
+        long capacity = 0;
+        for (ByteBuffer buffer : chunks) {
+            buffer.flip();
+            capacity += buffer.capacity();
+        }
+        Body body = new Body(chunks.toArray(new ByteBuffer[chunks.size()]), length, capacity);
+        if (length <= maxEntrySize) {
+            admit(body);
+        }
+        return body;
+    }
+
+    private synchronized void admit(Body body) {
+        if (body.capacity > maxSize) {
+            return;
+        }
+        Iterator<Body> lru = bodies.keySet().iterator();
+        while (size + body.capacity > maxSize && lru.hasNext()) {
+            Body evicted = lru.next();
+            lru.remove();
+            size -= evicted.capacity;
+            evicted.chunks = null;
+        }
+        bodies.put(body, body);
+        size += body.capacity;
+        body.stored = true;
+    }
+
+    /**
+     * Opens a stream to read a stored body, and marks the body as the most recently used one.
+     *
+     * @param body the body to read
+     * @return the stream of the body, or null if the body has been evicted
+     */
+    public InputStream open(Body body) {
+        synchronized (this) {
+            if (bodies.get(body) == null) {
+                return null;
+            }
+        }
+        return body.newInputStream();
+    }
+
+    /**
+     * Removes a body from the store, when the response it belongs to is removed from the cache.
+     *
+     * @param body the body to remove
+     */
+    public synchronized void release(Body body) {
+        if (bodies.remove(body) != null) {
+            size -= body.capacity;
+            body.chunks = null;
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * A response body read into direct buffers. The buffers are freed by the garbage collector, once the body is
+     * evicted and the last stream reading it is gone.
+     */
+    public static class Body {
+
+        private volatile ByteBuffer[] chunks;
+
+        private final long length;
+
+        private final long capacity;
+
+        private boolean stored;
+
+        private Body(ByteBuffer[] chunks, long length, long capacity) {
+            this.chunks = chunks;
+            this.length = length;
+            this.capacity = capacity;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public boolean isStored() {
+            return stored;
+        }
+
+        /**
+         * Opens a stream to read the body, regardless of whether it is in the store.
+         *
+         * @return the stream of the body, or null if the body has been evicted
+         */
+        public InputStream newInputStream() {
+            ByteBuffer[] chunks = this.chunks;
+            return chunks == null ? null : new BodyInputStream(chunks);
+        }
+    }
+
+    /**
+     * Reads a body over duplicates of its chunks, so that any number of streams may read it at the same time.
+     */
+    private static class BodyInputStream extends InputStream {
+
+        private final ByteBuffer[] chunks;
+
+        private int index = -1;
+
+        private ByteBuffer current;
+
+        private BodyInputStream(ByteBuffer[] chunks) {
+            this.chunks = chunks;
+        }
+
+        private boolean advance() {
+            while (current == null || !current.hasRemaining()) {
+                if (++index >= chunks.length) {
+                    current = null;
+                    index = chunks.length;
+                    return false;
+                }
+                current = chunks[index].duplicate();
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return advance() ? current.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < length && advance()) {
+                int count = Math.min(length - read, current.remaining());
+                current.get(bytes, offset + read, count);
+                read += count;
+            }
+            return read == 0 ? -1 : read;
+        }
+
+        @Override
+        public int available() {
+            int available = current == null ? 0 : current.remaining();
+            for (int i = index + 1; i < chunks.length; i++) {
+                available += chunks[i].remaining();
+            }
+            return available;
+        }
+    }
+}
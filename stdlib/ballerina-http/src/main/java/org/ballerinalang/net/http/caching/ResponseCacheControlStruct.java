@@ -35,6 +35,7 @@ import static org.ballerinalang.net.http.HttpConstants.RES_CACHE_CONTROL_NO_STOR
 import static org.ballerinalang.net.http.HttpConstants.RES_CACHE_CONTROL_NO_TRANSFORM_INDEX;
 import static org.ballerinalang.net.http.HttpConstants.RES_CACHE_CONTROL_PRIVATE_FIELDS_INDEX;
 import static org.ballerinalang.net.http.HttpConstants.RES_CACHE_CONTROL_PROXY_REVALIDATE_INDEX;
+import static org.ballerinalang.net.http.HttpConstants.RES_CACHE_CONTROL_STALE_WHILE_REVALIDATE_INDEX;
 import static org.ballerinalang.net.http.HttpConstants.RES_CACHE_CONTROL_S_MAXAGE_INDEX;
 import static org.ballerinalang.net.http.HttpUtil.FALSE;
 import static org.ballerinalang.net.http.HttpUtil.TRUE;
@@ -71,6 +72,7 @@ public class ResponseCacheControlStruct {
         responseCacheControl.setBooleanField(RES_CACHE_CONTROL_NO_TRANSFORM_INDEX, 1);
         responseCacheControl.setIntField(RES_CACHE_CONTROL_MAX_AGE_INDEX, -1);
         responseCacheControl.setIntField(RES_CACHE_CONTROL_S_MAXAGE_INDEX, -1);
+        responseCacheControl.setIntField(RES_CACHE_CONTROL_STALE_WHILE_REVALIDATE_INDEX, -1);
     }
 
     public ResponseCacheControlStruct setMustRevalidate(boolean mustRevalidate) {
@@ -125,6 +127,11 @@ public class ResponseCacheControlStruct {
         return this;
     }
 
+    public ResponseCacheControlStruct setStaleWhileRevalidate(long staleWhileRevalidate) {
+        responseCacheControl.setIntField(RES_CACHE_CONTROL_STALE_WHILE_REVALIDATE_INDEX, staleWhileRevalidate);
+        return this;
+    }
+
     public void populateStruct(String cacheControlHeaderVal) {
         Map<CacheControlDirective, String> controlDirectives = CacheControlParser.parse(cacheControlHeaderVal);
 
@@ -167,6 +174,10 @@ public class ResponseCacheControlStruct {
                 case S_MAXAGE:
                     responseCacheControl.setIntField(RES_CACHE_CONTROL_S_MAXAGE_INDEX, Long.parseLong(value));
                     break;
+                case STALE_WHILE_REVALIDATE:
+                    responseCacheControl.setIntField(RES_CACHE_CONTROL_STALE_WHILE_REVALIDATE_INDEX,
+                                                     Long.parseLong(value));
+                    break;
                 default:
                     break;
             }
@@ -212,6 +223,11 @@ public class ResponseCacheControlStruct {
             directivesBuilder.add("s-maxage=" + responseCacheControl.getIntField(RES_CACHE_CONTROL_S_MAXAGE_INDEX));
         }
 
+        long staleWhileRevalidate = responseCacheControl.getIntField(RES_CACHE_CONTROL_STALE_WHILE_REVALIDATE_INDEX);
+        if (staleWhileRevalidate >= 0) {
+            directivesBuilder.add("stale-while-revalidate=" + staleWhileRevalidate);
+        }
+
         return directivesBuilder.toString();
     }
 
@@ -32,6 +32,7 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.net.http.HttpConnectionManager;
 import org.ballerinalang.net.http.HttpConstants;
 import org.ballerinalang.net.http.HttpUtil;
+import org.ballerinalang.net.http.UpstreamPool;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.wso2.transport.http.netty.common.ProxyServerConfiguration;
 import org.wso2.transport.http.netty.config.Parameter;
@@ -97,6 +98,7 @@ public class CreateHttpClient extends BlockingNativeCallableUnit {
         populateSenderConfigurationOptions(senderConfiguration, clientEndpointConfig);
         Struct connectionThrottling = clientEndpointConfig.getStructField(HttpConstants.
                 CONNECTION_THROTTLING_STRUCT_REFERENCE);
+        UpstreamPool.Endpoint upstreamEndpoint = null;
         if (connectionThrottling != null) {
             long maxActiveConnections = connectionThrottling
                     .getIntField(HttpConstants.CONNECTION_THROTTLING_MAX_ACTIVE_CONNECTIONS);
@@ -117,6 +119,16 @@ public class CreateHttpClient extends BlockingNativeCallableUnit {
             long waitTime = connectionThrottling
                     .getIntField(HttpConstants.CONNECTION_THROTTLING_WAIT_TIME);
             senderConfiguration.getPoolConfiguration().setMaxWaitTime(waitTime);
+            if (connectionThrottling.getBooleanField(HttpConstants.CONNECTION_THROTTLING_ADAPTIVE)) {
+                int streamsPerConnection = 1;
+                if (HttpConstants.HTTP_VERSION_2_0.equals(
+                        clientEndpointConfig.getStringField(HttpConstants.CLIENT_EP_HTTP_VERSION))) {
+                    streamsPerConnection = maxActiveStreamsPerConnection == -1 ? Integer.MAX_VALUE :
+                            (int) maxActiveStreamsPerConnection;
+                }
+                upstreamEndpoint = new UpstreamPool.Endpoint((int) maxActiveConnections, streamsPerConnection,
+                                                             waitTime);
+            }
         }
         HttpClientConnector httpClientConnector = httpConnectorFactory
                 .createHttpClientConnector(properties, senderConfiguration);
@@ -124,6 +136,9 @@ public class CreateHttpClient extends BlockingNativeCallableUnit {
                 CALLER_ACTIONS, urlString, clientEndpointConfig);
         httpClient.addNativeData(HttpConstants.CALLER_ACTIONS, httpClientConnector);
         httpClient.addNativeData(HttpConstants.CLIENT_ENDPOINT_CONFIG, clientEndpointConfig);
+        if (upstreamEndpoint != null) {
+            httpClient.addNativeData(HttpConstants.CLIENT_UPSTREAM_ENDPOINT, upstreamEndpoint);
+        }
         context.setReturnValues(httpClient);
     }
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http.nativeimpl.cache;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.http.HttpUtil;
+import org.ballerinalang.net.http.caching.ResponseBodyStore;
+
+import java.io.InputStream;
+
+import static org.ballerinalang.net.http.HttpConstants.CACHED_RESPONSE_BODY;
+
+/**
+ * Sets the body of a cached response, which is kept in the off-heap store of an HTTP cache, as the body of the copy
+ * of the cached response which is served. Each copy reads the body through a view of its own.
+ *
+ * @since 0.974.1
+ */
+@BallerinaFunction(
+        orgName = "ballerina", packageName = "http",
+        functionName = "attachBody",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "HttpCache", structPackage = "ballerina/http"),
+        args = {@Argument(name = "cachedResponse", type = TypeKind.OBJECT),
+                @Argument(name = "response", type = TypeKind.OBJECT)},
+        returnType = {@ReturnType(type = TypeKind.BOOLEAN)}
+)
+public class AttachBody extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BStruct httpCache = (BStruct) context.getRefArgument(0);
+        BStruct cachedResponse = (BStruct) context.getRefArgument(1);
+        BStruct response = (BStruct) context.getRefArgument(2);
+        ResponseBodyStore store = (ResponseBodyStore) httpCache.getNativeData(ResponseBodyStore.NATIVE_DATA_KEY);
+        ResponseBodyStore.Body body = (ResponseBodyStore.Body) cachedResponse.getNativeData(CACHED_RESPONSE_BODY);
+        InputStream stream = body != null ? store.open(body) : null;
+        if (stream == null) {
+            // The body has been evicted to make room for the bodies of other responses
+            context.setReturnValues(new BBoolean(false));
+            return;
+        }
+        HttpUtil.setEntityBody(response, stream);
+        context.setReturnValues(new BBoolean(true));
+    }
+}
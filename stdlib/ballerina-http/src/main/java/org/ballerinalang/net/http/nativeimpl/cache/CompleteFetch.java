@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http.nativeimpl.cache;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.net.http.caching.RequestCoalescer;
+
+/**
+ * Completes the fetching of a resource claimed by a request, and releases the requests waiting for it.
+ *
+ * @since 0.974.1
+ */
+@BallerinaFunction(
+        orgName = "ballerina", packageName = "http",
+        functionName = "completeFetch",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "HttpCache", structPackage = "ballerina/http"),
+        args = {@Argument(name = "key", type = TypeKind.STRING),
+                @Argument(name = "claim", type = TypeKind.INT),
+                @Argument(name = "cached", type = TypeKind.BOOLEAN)}
+)
+public class CompleteFetch extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BStruct httpCache = (BStruct) context.getRefArgument(0);
+        RequestCoalescer coalescer = (RequestCoalescer) httpCache.getNativeData(RequestCoalescer.NATIVE_DATA_KEY);
+        coalescer.complete(context.getStringArgument(0), context.getIntArgument(0), context.getBooleanArgument(0));
+        context.setReturnValues();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http.nativeimpl.cache;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.net.http.caching.ResponseBodyStore;
+
+import static org.ballerinalang.net.http.HttpConstants.CACHED_RESPONSE_BODY;
+
+/**
+ * Removes the body of a cached response from the off-heap store of an HTTP cache.
+ *
+ * @since 0.974.1
+ */
+@BallerinaFunction(
+        orgName = "ballerina", packageName = "http",
+        functionName = "releaseBody",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "HttpCache", structPackage = "ballerina/http"),
+        args = {@Argument(name = "cachedResponse", type = TypeKind.OBJECT)}
+)
+public class ReleaseBody extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BStruct httpCache = (BStruct) context.getRefArgument(0);
+        BStruct cachedResponse = (BStruct) context.getRefArgument(1);
+        ResponseBodyStore store = (ResponseBodyStore) httpCache.getNativeData(ResponseBodyStore.NATIVE_DATA_KEY);
+        ResponseBodyStore.Body body = (ResponseBodyStore.Body) cachedResponse.getNativeData(CACHED_RESPONSE_BODY);
+        if (body != null) {
+            store.release(body);
+        }
+        context.setReturnValues();
+    }
+}
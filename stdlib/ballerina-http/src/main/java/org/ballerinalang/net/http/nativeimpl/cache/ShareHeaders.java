@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http.nativeimpl.cache;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.net.http.HttpUtil;
+
+/**
+ * Makes a copy of a response share the headers of the response, instead of copying the headers one by one. Either
+ * response copies the headers only once it modifies them, so a cached response can be served any number of times
+ * without its headers being cloned.
+ *
+ * @since 0.974.1
+ */
+@BallerinaFunction(
+        orgName = "ballerina", packageName = "http",
+        functionName = "shareHeaders",
+        args = {@Argument(name = "response", type = TypeKind.OBJECT, structType = "Response",
+                          structPackage = "ballerina/http"),
+                @Argument(name = "copy", type = TypeKind.OBJECT, structType = "Response",
+                          structPackage = "ballerina/http")}
+)
+public class ShareHeaders extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BStruct response = (BStruct) context.getRefArgument(0);
+        BStruct copy = (BStruct) context.getRefArgument(1);
+        HttpUtil.shareHeaders(response, copy);
+        context.setReturnValues();
+    }
+}
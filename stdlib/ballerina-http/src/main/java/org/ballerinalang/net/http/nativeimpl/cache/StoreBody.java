@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.http.nativeimpl.cache;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BlockingNativeCallableUnit;
+import org.ballerinalang.mime.util.EntityBodyHandler;
+import org.ballerinalang.mime.util.HeaderUtil;
+import org.ballerinalang.mime.util.MimeUtil;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.http.HttpUtil;
+import org.ballerinalang.net.http.caching.ResponseBodyStore;
+import org.ballerinalang.runtime.message.MessageDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+
+import static org.ballerinalang.mime.util.Constants.IS_BODY_BYTE_CHANNEL_ALREADY_SET;
+import static org.ballerinalang.mime.util.Constants.MULTIPART_AS_PRIMARY_TYPE;
+import static org.ballerinalang.mime.util.Constants.RESPONSE_ENTITY_INDEX;
+import static org.ballerinalang.net.http.HttpConstants.CACHED_RESPONSE_BODY;
+
+/**
+ * Reads the body of an inbound response into the off-heap store of an HTTP cache, and links it with the copy of the
+ * response which is cached. The inbound response is given a fresh view of the body, so that it can still be read.
+ *
+ * @since 0.974.1
+ */
+@BallerinaFunction(
+        orgName = "ballerina", packageName = "http",
+        functionName = "storeBody",
+        receiver = @Receiver(type = TypeKind.OBJECT, structType = "HttpCache", structPackage = "ballerina/http"),
+        args = {@Argument(name = "inboundResponse", type = TypeKind.OBJECT),
+                @Argument(name = "cachedResponse", type = TypeKind.OBJECT)},
+        returnType = {@ReturnType(type = TypeKind.BOOLEAN)}
+)
+public class StoreBody extends BlockingNativeCallableUnit {
+
+    @Override
+    public void execute(Context context) {
+        BStruct httpCache = (BStruct) context.getRefArgument(0);
+        BStruct inboundResponse = (BStruct) context.getRefArgument(1);
+        BStruct cachedResponse = (BStruct) context.getRefArgument(2);
+        ResponseBodyStore store = (ResponseBodyStore) httpCache.getNativeData(ResponseBodyStore.NATIVE_DATA_KEY);
+        BStruct entity = (BStruct) inboundResponse.getRefField(RESPONSE_ENTITY_INDEX);
+
+        // Multipart bodies are decoded into body parts as they are read, so they are not cached
+        String contentType = MimeUtil.getContentTypeWithParameters(entity);
+        if (contentType != null && contentType.startsWith(MULTIPART_AS_PRIMARY_TYPE)) {
+            context.setReturnValues(new BBoolean(false));
+            return;
+        }
+        long contentLength = getContentLength(entity);
+        if (contentLength > store.getMaxEntrySize()) {
+            context.setReturnValues(new BBoolean(false));
+            return;
+        }
+
+        Object isBodyAvailable = inboundResponse.getNativeData(IS_BODY_BYTE_CHANNEL_ALREADY_SET);
+        if (isBodyAvailable == null || !((Boolean) isBodyAvailable)) {
+            HttpUtil.populateEntityBody(context, inboundResponse, entity, false);
+        }
+        MessageDataSource dataSource = EntityBodyHandler.getMessageDataSource(entity);
+        Channel byteChannel = EntityBodyHandler.getByteChannel(entity);
+        try {
+            InputStream stream;
+            if (dataSource != null) {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                dataSource.serializeData(outputStream);
+                stream = new ByteArrayInputStream(outputStream.toByteArray());
+            } else if (byteChannel != null) {
+                stream = byteChannel.getInputStream();
+            } else {
+                stream = new ByteArrayInputStream(new byte[0]);
+            }
+            ResponseBodyStore.Body body = store.store(stream, contentLength);
+            if (dataSource == null && byteChannel != null) {
+                if (body.isStored()) {
+                    byteChannel.close();
+                    HttpUtil.setEntityBody(inboundResponse, body.newInputStream());
+                } else {
+                    // The part of the body read so far is put in front of the part yet to be read
+                    HttpUtil.setEntityBody(inboundResponse, new SequenceInputStream(body.newInputStream(), stream));
+                }
+            }
+            if (body.isStored()) {
+                cachedResponse.addNativeData(CACHED_RESPONSE_BODY, body);
+            }
+            context.setReturnValues(new BBoolean(body.isStored()));
+        } catch (IOException e) {
+            // The response is then served without being cached
+            context.setReturnValues(new BBoolean(false));
+        }
+    }
+
+    private static long getContentLength(BStruct entity) {
+        String lengthStr = HeaderUtil.getHeaderValue(entity, HttpHeaderNames.CONTENT_LENGTH.toString());
+        if (lengthStr == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lengthStr.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
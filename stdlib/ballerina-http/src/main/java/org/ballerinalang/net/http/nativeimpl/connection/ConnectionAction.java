@@ -27,6 +27,7 @@ import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.net.http.DataContext;
 import org.ballerinalang.net.http.HttpConstants;
 import org.ballerinalang.net.http.HttpUtil;
+import org.ballerinalang.net.http.InboundEntityWrapper;
 import org.ballerinalang.runtime.message.MessageDataSource;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.wso2.transport.http.netty.contract.HttpConnectorListener;
@@ -65,10 +66,10 @@ public abstract class ConnectionAction implements NativeCallableUnit {
         BStruct entityStruct = extractEntity(outboundResponseStruct);
         if (entityStruct != null) {
             if (boundaryString != null) {
-                serializeMultiparts(boundaryString, entityStruct, messageOutputStream);
+                serializeMultiparts(boundaryString, entityStruct, responseMessage, messageOutputStream);
             } else {
                 MessageDataSource outboundMessageSource = EntityBodyHandler.getMessageDataSource(entityStruct);
-                serializeMsgDataSource(outboundMessageSource, entityStruct, messageOutputStream);
+                serializeMsgDataSource(outboundMessageSource, entityStruct, responseMessage, messageOutputStream);
             }
         }
     }
@@ -79,22 +80,17 @@ public abstract class ConnectionAction implements NativeCallableUnit {
      *
      * @param boundaryString           Boundary string that should be used in encoding body parts
      * @param entityStruct             Represent the entity that holds the actual body
+     * @param message                  Represent the message the body is written to
      * @param messageOutputStream      Represent the output stream
      */
-    private void serializeMultiparts(String boundaryString, BStruct entityStruct, OutputStream messageOutputStream) {
+    private void serializeMultiparts(String boundaryString, BStruct entityStruct, HTTPCarbonMessage message,
+                                     OutputStream messageOutputStream) {
         BRefValueArray bodyParts = EntityBodyHandler.getBodyPartArray(entityStruct);
         if (bodyParts != null && bodyParts.size() > 0) {
             MultipartDataSource multipartDataSource = new MultipartDataSource(entityStruct, boundaryString);
-            serializeMsgDataSource(multipartDataSource, entityStruct, messageOutputStream);
+            serializeMsgDataSource(multipartDataSource, entityStruct, message, messageOutputStream);
         } else {
-            try {
-                EntityBodyHandler.writeByteChannelToOutputStream(entityStruct, messageOutputStream);
-            } catch (IOException e) {
-                throw new BallerinaException("Error occurred while serializing byte channel content : " +
-                        e.getMessage());
-            } finally {
-                HttpUtil.closeMessageOutputStream(messageOutputStream);
-            }
+            serializeMsgDataSource(null, entityStruct, message, messageOutputStream);
         }
     }
 
@@ -105,17 +101,30 @@ public abstract class ConnectionAction implements NativeCallableUnit {
     }
 
     protected void serializeMsgDataSource(MessageDataSource outboundMessageSource, BStruct entityStruct,
-                                          OutputStream messageOutputStream) {
+                                          HTTPCarbonMessage message, OutputStream messageOutputStream) {
+        boolean passedThrough = false;
+        boolean failedToPassThrough = false;
         try {
             if (outboundMessageSource != null) {
-                outboundMessageSource.serializeData(messageOutputStream);
+                HttpUtil.serializeDataSource(outboundMessageSource, message, messageOutputStream);
             } else { //When the entity body is a byte channel
-                EntityBodyHandler.writeByteChannelToOutputStream(entityStruct, messageOutputStream);
+                passedThrough = InboundEntityWrapper.passThrough(entityStruct, message);
+                if (!passedThrough) {
+                    EntityBodyHandler.writeByteChannelToOutputStream(entityStruct, messageOutputStream);
+                }
             }
+        } catch (InboundEntityWrapper.ContentUnavailableException e) {
+            failedToPassThrough = true;
+            throw new BallerinaException("Error occurred while passing the message content through : " +
+                    e.getMessage());
         } catch (IOException e) {
             throw new BallerinaException("Error occurred while serializing message data source : " + e.getMessage());
         } finally {
-            HttpUtil.closeMessageOutputStream(messageOutputStream);
+            //The content passed through ends with the last content of the inbound message. When the inbound content
+            //ran out, the message is left without its last content, so that it fails instead of ending truncated.
+            if (!passedThrough && !failedToPassThrough) {
+                HttpUtil.closeMessageOutputStream(messageOutputStream);
+            }
         }
     }
 
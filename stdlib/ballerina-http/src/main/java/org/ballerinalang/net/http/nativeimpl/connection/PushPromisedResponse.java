@@ -75,8 +75,7 @@ public class PushPromisedResponse extends ConnectionAction {
         }
 
         BStruct outboundResponseStruct = (BStruct) context.getRefArgument(2);
-        HTTPCarbonMessage outboundResponseMsg = HttpUtil
-                .getCarbonMsg(outboundResponseStruct, HttpUtil.createHttpCarbonMessage(false));
+        HTTPCarbonMessage outboundResponseMsg = HttpUtil.getCarbonMsg(outboundResponseStruct, false);
 
         HttpUtil.prepareOutboundResponse(context, inboundRequestMsg, outboundResponseMsg, outboundResponseStruct);
         pushResponseRobust(dataContext, inboundRequestMsg, outboundResponseStruct, outboundResponseMsg,
@@ -97,7 +96,7 @@ public class PushPromisedResponse extends ConnectionAction {
         BStruct entityStruct = extractEntity(outboundResponseStruct);
         if (entityStruct != null) {
             MessageDataSource outboundMessageSource = EntityBodyHandler.getMessageDataSource(entityStruct);
-            serializeMsgDataSource(outboundMessageSource, entityStruct, messageOutputStream);
+            serializeMsgDataSource(outboundMessageSource, entityStruct, responseMessage, messageOutputStream);
         }
     }
 }
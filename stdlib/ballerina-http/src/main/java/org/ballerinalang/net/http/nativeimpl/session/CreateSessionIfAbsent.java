@@ -59,8 +59,7 @@ public class CreateSessionIfAbsent extends BlockingNativeCallableUnit {
         try {
             BStruct requestStruct  = ((BStruct) context.getRefArgument(0));
             //TODO check below line
-            HTTPCarbonMessage httpCarbonMessage = HttpUtil
-                    .getCarbonMsg(requestStruct, HttpUtil.createHttpCarbonMessage(true));
+            HTTPCarbonMessage httpCarbonMessage = HttpUtil.getCarbonMsg(requestStruct, true);
             String cookieHeader = httpCarbonMessage.getHeader(HttpConstants.COOKIE_HEADER);
             String path = (String) httpCarbonMessage.getProperty(HttpConstants.BASE_PATH);
             Session session = (Session) httpCarbonMessage.getProperty(HttpConstants.HTTP_SESSION);
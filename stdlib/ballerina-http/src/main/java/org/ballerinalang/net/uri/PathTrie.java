@@ -0,0 +1,435 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.uri;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Radix trie which maps paths to the data routed to them. The trie is compiled again whenever a path is added, which
+ * only happens while services are deployed, so that lookups need neither locks nor allocations.
+ * <p>
+ * Templates, in which a path segment of the form {@code {name}} matches any non-empty path segment, are added with
+ * {@link #putTemplate(String, Object)} and looked up with {@link #match}, which captures the path parameters as index
+ * ranges of the path instead of creating substrings.
+ *
+ * @param <DataType> Type of data which is mapped to the paths.
+ * @since 0.974.1
+ */
+public class PathTrie<DataType> {
+
+    /**
+     * The result of {@link #match} when none of the templates matches the path.
+     */
+    public static final int NOT_MATCHED = 0;
+
+    /**
+     * The result of {@link #match} when a template matches the path, and its data is accepted.
+     */
+    public static final int MATCHED = 1;
+
+    /**
+     * The result of {@link #match} when the path could not be matched, but a literal segment of a template is a
+     * proper prefix of the corresponding path segment, or a parameter name repeats along the path. A matcher which
+     * treats literal segments as prefixes, or compares repeated parameters, may still match the path.
+     */
+    public static final int AMBIGUOUS = -1;
+
+    private static final String[][] NO_PARAMS = new String[0][];
+
+    private final boolean caseSensitive;
+
+    private final Map<String, DataType> paths = new LinkedHashMap<>();
+
+    private final Map<String, DataType> templates = new LinkedHashMap<>();
+
+    /* the names of the parameter segments, by their ids, which are published along with the root */
+    private String[][] paramNames = NO_PARAMS;
+
+    private int maxParams;
+
+    private volatile TrieNode<DataType> root = new TrieNode<>("");
+
+    public PathTrie(boolean caseSensitive) {
+        this.caseSensitive = caseSensitive;
+    }
+
+    /**
+     * Maps the given path to the given data, replacing the data the path was mapped to, if any.
+     *
+     * @param path path to be mapped.
+     * @param data data to be mapped to the path.
+     */
+    public synchronized void put(String path, DataType data) {
+        paths.put(path, data);
+        compile();
+    }
+
+    /**
+     * Maps the given template to the given data, replacing the data the template was mapped to, if any. The path
+     * segments of the template of the form {@code {name}} match any non-empty path segment. The parameter segments
+     * at the same position of different templates are merged, so a matched segment is captured for all their names.
+     *
+     * @param template template to be mapped, with no braces other than the parameter segments.
+     * @param data data to be mapped to the template.
+     */
+    public synchronized void putTemplate(String template, DataType data) {
+        templates.put(template, data);
+        compile();
+    }
+
+    private void compile() {
+        TrieNode<DataType> compiled = new TrieNode<>("");
+        for (Map.Entry<String, DataType> entry : paths.entrySet()) {
+            compiled.insert(fold(entry.getKey())).data = entry.getValue();
+        }
+        for (Map.Entry<String, DataType> entry : templates.entrySet()) {
+            insertTemplate(compiled, entry.getKey()).data = entry.getValue();
+        }
+        List<String[]> names = new ArrayList<>();
+        maxParams = compiled.assignParamIds(names, 0);
+        paramNames = names.toArray(new String[names.size()][]);
+        root = compiled;
+    }
+
+    private TrieNode<DataType> insertTemplate(TrieNode<DataType> node, String template) {
+        int offset = 0;
+        while (offset < template.length()) {
+            int open = template.indexOf('{', offset);
+            if (open == -1) {
+                return node.insert(fold(template.substring(offset)));
+            }
+            if (open > offset) {
+                node = node.insert(fold(template.substring(offset, open)));
+            }
+            int close = template.indexOf('}', open);
+            node = node.addParam(template.substring(open + 1, close));
+            offset = close + 1;
+        }
+        return node;
+    }
+
+    /**
+     * Get the data mapped to the given path.
+     *
+     * @param path path to look up.
+     * @return the data mapped to the path, or null if the path is not mapped
+     */
+    public DataType get(String path) {
+        TrieNode<DataType> node = root;
+        int offset = 0;
+        while (offset < path.length()) {
+            node = node.getChild(fold(path.charAt(offset)));
+            if (node == null || !node.labelMatches(path, offset, caseSensitive)) {
+                return null;
+            }
+            offset += node.label.length();
+        }
+        return node.data;
+    }
+
+    /**
+     * Get the data mapped to the longest path which is a prefix of the given path, and ends at a path segment
+     * boundary of it. i.e /hello is a prefix of /hello and /hello/world, but not of /helloworld.
+     *
+     * @param path path to look up.
+     * @return the data mapped to the longest prefix of the path, or null if none of the prefixes is mapped
+     */
+    public DataType getLongestPrefix(String path) {
+        TrieNode<DataType> node = root;
+        DataType data = null;
+        int offset = 0;
+        while (true) {
+            if (node.data != null && isSegmentBoundary(path, offset)) {
+                data = node.data;
+            }
+            if (offset == path.length()) {
+                return data;
+            }
+            node = node.getChild(fold(path.charAt(offset)));
+            if (node == null || !node.labelMatches(path, offset, caseSensitive)) {
+                return data;
+            }
+            offset += node.label.length();
+        }
+    }
+
+    /**
+     * Matches the given path against the templates. The literal segments of the templates are preferred to their
+     * parameter segments at each position, and the next alternative is tried when the data of a matching template is
+     * not accepted. The parameters of the matched template are captured in the given array, which holds their count
+     * followed by the id, the start index and the end index in the path of each of them, in the order of the path.
+     *
+     * @param path path to be matched.
+     * @param captures array the parameters are captured to, of length {@code 1 + 3 * getMaxParams()} at least.
+     * @param acceptor decides whether the data of a matching template is taken.
+     * @param msg first argument passed to the acceptor.
+     * @param agent second argument passed to the acceptor.
+     * @param <MsgType> Type of the first argument of the acceptor.
+     * @param <AgentType> Type of the second argument of the acceptor.
+     * @return {@link #MATCHED}, {@link #NOT_MATCHED} or {@link #AMBIGUOUS}
+     */
+    public <MsgType, AgentType> int match(String path, int[] captures,
+                                          Acceptor<? super DataType, MsgType, AgentType> acceptor, MsgType msg,
+                                          AgentType agent) {
+        captures[0] = 0;
+        return match(root, path, 0, captures, acceptor, msg, agent);
+    }
+
+    private <MsgType, AgentType> int match(TrieNode<DataType> node, String path, int offset, int[] captures,
+                                           Acceptor<? super DataType, MsgType, AgentType> acceptor, MsgType msg,
+                                           AgentType agent) {
+        if (offset == path.length()) {
+            return node.data != null && acceptor.accept(node.data, msg, agent) ? MATCHED : NOT_MATCHED;
+        }
+        char ch = path.charAt(offset);
+        /* a template segment ending here is a prefix of the path segment, if the path segment goes on */
+        boolean prefixed = ch != '/' && node.getChild('/') != null;
+        int result = NOT_MATCHED;
+        TrieNode<DataType> child = node.getChild(fold(ch));
+        if (child != null) {
+            result = child.matchLabel(path, offset, caseSensitive);
+            if (result == MATCHED) {
+                result = match(child, path, offset + child.label.length(), captures, acceptor, msg, agent);
+            }
+            if (result != NOT_MATCHED) {
+                return result;
+            }
+        }
+        if (prefixed) {
+            return AMBIGUOUS;
+        }
+        TrieNode<DataType> param = node.paramChild;
+        if (param == null) {
+            return NOT_MATCHED;
+        }
+        int end = path.indexOf('/', offset);
+        end = end == -1 ? path.length() : end;
+        if (end == offset || isCaptured(param.paramId, captures)) {
+            return AMBIGUOUS;
+        }
+        int count = captures[0];
+        captures[1 + 3 * count] = param.paramId;
+        captures[2 + 3 * count] = offset;
+        captures[3 + 3 * count] = end;
+        captures[0] = count + 1;
+        result = match(param, path, end, captures, acceptor, msg, agent);
+        if (result == NOT_MATCHED) {
+            captures[0] = count;
+        }
+        return result;
+    }
+
+    /* whether a name of the given parameter segment is already captured along the path */
+    private boolean isCaptured(int paramId, int[] captures) {
+        for (String name : paramNames[paramId]) {
+            for (int i = 0; i < captures[0]; i++) {
+                for (String captured : paramNames[captures[1 + 3 * i]]) {
+                    if (name.equals(captured)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the names of a parameter segment captured by {@link #match}.
+     *
+     * @param paramId id of the parameter segment.
+     * @return the names of the parameters of the templates at the segment.
+     */
+    public String[] getParamNames(int paramId) {
+        return paramNames[paramId];
+    }
+
+    /**
+     * Returns the largest number of parameters along any of the templates.
+     *
+     * @return the number of parameters.
+     */
+    public int getMaxParams() {
+        return maxParams;
+    }
+
+    private static boolean isSegmentBoundary(String path, int offset) {
+        return offset == path.length() || path.charAt(offset) == '/' || (offset > 0 && path.charAt(offset - 1) == '/');
+    }
+
+    private String fold(String path) {
+        return caseSensitive ? path : path.toLowerCase();
+    }
+
+    private char fold(char ch) {
+        return caseSensitive ? ch : Character.toLowerCase(ch);
+    }
+
+    /**
+     * Decides whether the data of a template matching a path is taken by {@link #match}.
+     *
+     * @param <DataType> Type of data which is mapped to the templates.
+     * @param <MsgType> Type of the first argument.
+     * @param <AgentType> Type of the second argument.
+     */
+    public interface Acceptor<DataType, MsgType, AgentType> {
+
+        boolean accept(DataType data, MsgType msg, AgentType agent);
+    }
+
+    /**
+     * Node of the trie. The edge to a node is labelled with the characters all the paths below it share, and the
+     * children of a node are kept sorted by the first character of their labels, to be looked up by binary search.
+     *
+     * @param <DataType> Type of data which is mapped to the paths.
+     */
+    private static class TrieNode<DataType> {
+
+        private static final char[] NO_CHARACTERS = new char[0];
+
+        private String label;
+
+        private DataType data;
+
+        private char[] firstCharacters = NO_CHARACTERS;
+
+        private TrieNode<DataType>[] children = newChildren(0);
+
+        /* the node reached by a parameter segment starting after this node, which has an empty label */
+        private TrieNode<DataType> paramChild;
+
+        private String[] paramNames;
+
+        private int paramId;
+
+        private TrieNode(String label) {
+            this.label = label;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <DataType> TrieNode<DataType>[] newChildren(int length) {
+            return (TrieNode<DataType>[]) new TrieNode[length];
+        }
+
+        private TrieNode<DataType> getChild(char firstCharacter) {
+            int index = Arrays.binarySearch(firstCharacters, firstCharacter);
+            return index < 0 ? null : children[index];
+        }
+
+        private boolean labelMatches(String path, int offset, boolean caseSensitive) {
+            int length = label.length();
+            if (path.length() - offset < length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                char ch = path.charAt(offset + i);
+                if (label.charAt(i) != (caseSensitive ? ch : Character.toLowerCase(ch))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /* checks the label against the path, and tells a template segment ending before the path segment does */
+        private int matchLabel(String path, int offset, boolean caseSensitive) {
+            int length = label.length();
+            for (int i = 0; i < length; i++) {
+                if (offset + i == path.length()) {
+                    return NOT_MATCHED;
+                }
+                char ch = path.charAt(offset + i);
+                if (label.charAt(i) != (caseSensitive ? ch : Character.toLowerCase(ch))) {
+                    return label.charAt(i) == '/' ? AMBIGUOUS : NOT_MATCHED;
+                }
+            }
+            return MATCHED;
+        }
+
+        private TrieNode<DataType> addParam(String name) {
+            if (paramChild == null) {
+                paramChild = new TrieNode<>("");
+                paramChild.paramNames = new String[] { name };
+            } else if (!Arrays.asList(paramChild.paramNames).contains(name)) {
+                paramChild.paramNames = Arrays.copyOf(paramChild.paramNames, paramChild.paramNames.length + 1);
+                paramChild.paramNames[paramChild.paramNames.length - 1] = name;
+            }
+            return paramChild;
+        }
+
+        /* numbers the parameter segments below this node, and returns the most parameters along a path */
+        private int assignParamIds(List<String[]> names, int depth) {
+            int maxDepth = depth;
+            for (TrieNode<DataType> child : children) {
+                maxDepth = Math.max(maxDepth, child.assignParamIds(names, depth));
+            }
+            if (paramChild != null) {
+                paramChild.paramId = names.size();
+                names.add(paramChild.paramNames);
+                maxDepth = Math.max(maxDepth, paramChild.assignParamIds(names, depth + 1));
+            }
+            return maxDepth;
+        }
+
+        /* adds the path below this node, and returns the node the path ends at */
+        private TrieNode<DataType> insert(String path) {
+            TrieNode<DataType> node = this;
+            int offset = 0;
+            while (offset < path.length()) {
+                int index = Arrays.binarySearch(node.firstCharacters, path.charAt(offset));
+                if (index < 0) {
+                    node.addChild(-index - 1, new TrieNode<>(path.substring(offset)));
+                    node = node.children[-index - 1];
+                    break;
+                }
+                TrieNode<DataType> child = node.children[index];
+                int common = 0;
+                while (common < child.label.length() && offset + common < path.length()
+                        && child.label.charAt(common) == path.charAt(offset + common)) {
+                    common++;
+                }
+                if (common < child.label.length()) {
+                    TrieNode<DataType> split = new TrieNode<>(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.addChild(0, child);
+                    node.children[index] = split;
+                    child = split;
+                }
+                node = child;
+                offset += common;
+            }
+            return node;
+        }
+
+        private void addChild(int index, TrieNode<DataType> child) {
+            char[] characters = new char[firstCharacters.length + 1];
+            TrieNode<DataType>[] nodes = newChildren(children.length + 1);
+            System.arraycopy(firstCharacters, 0, characters, 0, index);
+            System.arraycopy(children, 0, nodes, 0, index);
+            characters[index] = child.label.charAt(0);
+            nodes[index] = child;
+            System.arraycopy(firstCharacters, index, characters, index + 1, firstCharacters.length - index);
+            System.arraycopy(children, index, nodes, index + 1, children.length - index);
+            firstCharacters = characters;
+            children = nodes;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.ballerinalang.net.uri.parser.Node;
 import org.ballerinalang.net.uri.parser.URITemplateParser;
 
 import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
 import java.util.Map;
 
 /**
@@ -37,12 +38,53 @@ public class URITemplate<DataType, InboundMsgType> {
 
     private Node<DataType, InboundMsgType> syntaxTree;
 
+    /**
+     * The data elements of the templates which consist of literal path segments only, by their paths. These are the
+     * first to be tried in the tree as well, hence a match here is final.
+     */
+    private PathTrie<DataElement<DataType, InboundMsgType>> literalRoutes = new PathTrie<>(true);
+
+    /**
+     * The data elements of all the templates, as long as every template consists of literal segments and single
+     * variable segments only, i.e. {@code /orders/{orderId}/items}. The trie tries the alternatives in the order of
+     * the tree, and leaves the paths the prefix semantics of the tree's literals could match differently to the tree.
+     */
+    private PathTrie<DataElement<DataType, InboundMsgType>> templateRoutes = new PathTrie<>(true);
+
+    private final PathTrie.Acceptor<DataElement<DataType, InboundMsgType>, InboundMsgType, DataReturnAgent<DataType>>
+            acceptor = DataElement::getData;
+
+    private static final ThreadLocal<int[]> CAPTURES = ThreadLocal.withInitial(() -> new int[16]);
+
     public URITemplate(Node<DataType, InboundMsgType> syntaxTree) {
         this.syntaxTree = syntaxTree;
     }
 
     public DataType matches(String uri, Map<String, String> variables, InboundMsgType inboundMsg) {
         DataReturnAgent<DataType> dataReturnAgent = new DataReturnAgent<>();
+        PathTrie<DataElement<DataType, InboundMsgType>> templateRoutes = this.templateRoutes;
+        if (templateRoutes != null && uri.length() > 1 && uri.charAt(0) == '/' && !uri.contains("//")) {
+            int[] captures = getCaptures(templateRoutes.getMaxParams());
+            int result = templateRoutes.match(uri, captures, acceptor, inboundMsg, dataReturnAgent);
+            if (result == PathTrie.MATCHED) {
+                putVariables(templateRoutes, uri, captures, variables);
+                return dataReturnAgent.getData();
+            }
+            if (result == PathTrie.NOT_MATCHED) {
+                if (dataReturnAgent.getError() != null) {
+                    throw dataReturnAgent.getError();
+                }
+                return null;
+            }
+            dataReturnAgent = new DataReturnAgent<>();
+        }
+        DataElement<DataType, InboundMsgType> literalRoute = literalRoutes.get(uri);
+        if (literalRoute != null) {
+            if (literalRoute.getData(inboundMsg, dataReturnAgent)) {
+                return dataReturnAgent.getData();
+            }
+            dataReturnAgent = new DataReturnAgent<>();
+        }
         boolean isFound = syntaxTree.matchAll(uri, variables, 0, inboundMsg, dataReturnAgent);
         if (isFound) {
             return dataReturnAgent.getData();
@@ -59,7 +101,87 @@ public class URITemplate<DataType, InboundMsgType> {
         uriTemplate = removeTheFirstAndLastBackSlash(uriTemplate);
 
         URITemplateParser<DataType, InboundMsgType> parser = new URITemplateParser<>(syntaxTree, elementCreator);
-        parser.parse(uriTemplate, resource);
+        Node<DataType, InboundMsgType> node = parser.parse(uriTemplate, resource);
+        if (isLiteral(uriTemplate)) {
+            literalRoutes.put("/" + uriTemplate, node.getDataElement());
+        }
+        if (templateRoutes != null && !"/".equals(uriTemplate) && !uriTemplate.isEmpty()) {
+            if (isSimple(uriTemplate)) {
+                templateRoutes.putTemplate("/" + uriTemplate, node.getDataElement());
+            } else {
+                templateRoutes = null;
+            }
+        }
+    }
+
+    private static int[] getCaptures(int maxParams) {
+        int[] captures = CAPTURES.get();
+        if (captures.length < 1 + 3 * maxParams) {
+            captures = new int[1 + 3 * maxParams];
+            CAPTURES.set(captures);
+        }
+        return captures;
+    }
+
+    private static void putVariables(PathTrie<?> templateRoutes, String uri, int[] captures,
+                                     Map<String, String> variables) {
+        for (int i = 0; i < captures[0]; i++) {
+            String value = decode(uri.substring(captures[2 + 3 * i], captures[3 + 3 * i]));
+            for (String name : templateRoutes.getParamNames(captures[1 + 3 * i])) {
+                variables.put(name, value);
+            }
+        }
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value.replaceAll("\\+", "%2B"), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException("Error while encoding value: " + value, e);
+        }
+    }
+
+    /* whether each segment of the template is either literal, or a single variable with no modifier */
+    private boolean isSimple(String template) {
+        for (String segment : template.split("/", -1)) {
+            if (segment.isEmpty()) {
+                return false;
+            }
+            if (segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}' && segment.length() > 2) {
+                for (int i = 1; i < segment.length() - 1; i++) {
+                    if (!isVariableCharacter(segment.charAt(i))) {
+                        return false;
+                    }
+                }
+            } else if (!isLiteral(segment)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVariableCharacter(char ch) {
+        return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9') || ch == '.'
+                || ch == '-' || ch == '_';
+    }
+
+    private boolean isLiteral(String template) {
+        if ("/".equals(template) || template.isEmpty() || template.contains("//")) {
+            return false;
+        }
+        for (int i = 0; i < template.length(); i++) {
+            switch (template.charAt(i)) {
+                case '{':
+                case '}':
+                case '*':
+                case '%':
+                case '+':
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return true;
     }
 
     private String removeTheFirstAndLastBackSlash(String template) throws URITemplateException {
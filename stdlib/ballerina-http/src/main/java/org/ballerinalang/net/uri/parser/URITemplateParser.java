@@ -44,6 +44,15 @@ public class URITemplateParser<DataType, InboundMgsType> {
         this.elementCreator = elementCreator;
     }
 
+    /**
+     * Parses the given template and adds its path segments to the tree.
+     *
+     * @param template the template to be parsed.
+     * @param resource the data which should be stored for the template.
+     * @return the node of the tree the data is stored in.
+     * @throws URITemplateException if the template is invalid.
+     * @throws UnsupportedEncodingException if a literal of the template cannot be decoded.
+     */
     public Node<DataType, InboundMgsType> parse(String template, DataType resource)
             throws URITemplateException, UnsupportedEncodingException {
         if (!"/".equals(template) && template.endsWith("/")) {
@@ -115,7 +124,7 @@ public class URITemplateParser<DataType, InboundMgsType> {
         }
         this.currentNode.getDataElement().setData(resource);
 
-        return syntaxTree;
+        return currentNode;
     }
 
     private void addNode(Node<DataType, InboundMgsType> node) throws URITemplateException {
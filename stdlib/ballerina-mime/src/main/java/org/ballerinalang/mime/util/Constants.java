@@ -101,6 +101,8 @@ public class Constants {
     public static final String MULTIPART_ENCODER = "MultipartEncoder";
     public static final String BODY_PARTS = "body_parts";
     public static final String ENTITY_HEADERS = "entity_headers";
+    public static final String UNPARSED_MEDIA_TYPE = "unparsed_media_type";
+    public static final String UNPARSED_CONTENT_TYPE = "unparsed_content_type";
 
     public static final String CHARSET = "charset";
 
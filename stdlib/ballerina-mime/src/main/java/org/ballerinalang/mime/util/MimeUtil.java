@@ -72,6 +72,8 @@ import static org.ballerinalang.mime.util.Constants.STRUCT_GENERIC_ERROR;
 import static org.ballerinalang.mime.util.Constants.SUBTYPE_INDEX;
 import static org.ballerinalang.mime.util.Constants.SUFFIX_INDEX;
 import static org.ballerinalang.mime.util.Constants.TEMP_FILE_EXTENSION;
+import static org.ballerinalang.mime.util.Constants.UNPARSED_CONTENT_TYPE;
+import static org.ballerinalang.mime.util.Constants.UNPARSED_MEDIA_TYPE;
 import static org.ballerinalang.util.BLangConstants.BALLERINA_BUILTIN_PKG;
 
 /**
@@ -89,11 +91,9 @@ public class MimeUtil {
      * @return content-type in 'primarytype/subtype' format
      */
     public static String getBaseType(BStruct entity) {
-        if (entity.getRefField(MEDIA_TYPE_INDEX) != null) {
-            BStruct mediaType = (BStruct) entity.getRefField(MEDIA_TYPE_INDEX);
-            if (mediaType != null) {
-                return mediaType.getStringField(PRIMARY_TYPE_INDEX) + "/" + mediaType.getStringField(SUBTYPE_INDEX);
-            }
+        BStruct mediaType = getMediaTypeStruct(entity);
+        if (mediaType != null) {
+            return mediaType.getStringField(PRIMARY_TYPE_INDEX) + "/" + mediaType.getStringField(SUBTYPE_INDEX);
         }
         return null;
     }
@@ -105,10 +105,10 @@ public class MimeUtil {
      * @return content-type in 'primarytype/subtype; key=value;' format
      */
     public static String getContentTypeWithParameters(BStruct entity) {
-        if (entity.getRefField(MEDIA_TYPE_INDEX) == null) {
+        BStruct mediaType = getMediaTypeStruct(entity);
+        if (mediaType == null) {
             return HeaderUtil.getHeaderValue(entity, HttpHeaderNames.CONTENT_TYPE.toString());
         }
-        BStruct mediaType = (BStruct) entity.getRefField(MEDIA_TYPE_INDEX);
         String primaryType = mediaType.getStringField(PRIMARY_TYPE_INDEX);
         String subType = mediaType.getStringField(SUBTYPE_INDEX);
         String contentType = null;
@@ -159,6 +159,39 @@ public class MimeUtil {
         entityStruct.setRefField(MEDIA_TYPE_INDEX, mimeType);
     }
 
+    /**
+     * Set the Content-Type of an inbound message to the given 'Entity', to be parsed into the given 'MediaType'
+     * struct only once the media type of the entity is needed. Most services never look at the media type of the
+     * messages they receive, unless they bind the payload to a parameter.
+     *
+     * @param mediaType    Represent 'MediaType' struct
+     * @param entityStruct Represent 'Entity' struct
+     * @param contentType  Content-Type value in string
+     */
+    public static void setContentTypeLazily(BStruct mediaType, BStruct entityStruct, String contentType) {
+        entityStruct.addNativeData(UNPARSED_MEDIA_TYPE, mediaType);
+        entityStruct.addNativeData(UNPARSED_CONTENT_TYPE, contentType);
+    }
+
+    /**
+     * Given a ballerina entity, get its 'MediaType' struct, parsing the Content-Type which was set to it lazily, if
+     * no media type has been set to the entity since.
+     *
+     * @param entity Represent an 'Entity'
+     * @return 'MediaType' struct of the entity, or null if it does not have one
+     */
+    public static BStruct getMediaTypeStruct(BStruct entity) {
+        BStruct mediaType = (BStruct) entity.getRefField(MEDIA_TYPE_INDEX);
+        if (mediaType == null) {
+            BStruct unparsedMediaType = (BStruct) entity.getNativeData(UNPARSED_MEDIA_TYPE);
+            if (unparsedMediaType != null) {
+                setContentType(unparsedMediaType, entity, (String) entity.getNativeData(UNPARSED_CONTENT_TYPE));
+                mediaType = unparsedMediaType;
+            }
+        }
+        return mediaType;
+    }
+
     /**
      * Parse 'MediaType' struct with the given Content-Type.
      *
@@ -45,7 +45,6 @@ import static org.ballerinalang.mime.util.Constants.BOUNDARY;
 import static org.ballerinalang.mime.util.Constants.CONTENT_ID;
 import static org.ballerinalang.mime.util.Constants.CONTENT_ID_INDEX;
 import static org.ballerinalang.mime.util.Constants.ENTITY_HEADERS;
-import static org.ballerinalang.mime.util.Constants.MEDIA_TYPE_INDEX;
 import static org.ballerinalang.mime.util.Constants.PARAMETER_MAP_INDEX;
 
 /**
@@ -127,7 +126,7 @@ public class MultipartDataSource extends BallerinaMessageDataSource {
         String childBoundaryString = null;
         if (MimeUtil.isNestedPartsAvailable(childPart)) {
             childBoundaryString = MimeUtil.getNewMultipartDelimiter();
-            BStruct mediaType = (BStruct) childPart.getRefField(MEDIA_TYPE_INDEX);
+            BStruct mediaType = MimeUtil.getMediaTypeStruct(childPart);
             BMap<String, BValue> paramMap = (mediaType.getRefField(PARAMETER_MAP_INDEX) != null) ?
                     (BMap<String, BValue>) mediaType.getRefField(PARAMETER_MAP_INDEX) : new BMap<>();
             paramMap.put(BOUNDARY, new BString(childBoundaryString));
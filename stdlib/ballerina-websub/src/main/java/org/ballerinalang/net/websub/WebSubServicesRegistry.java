@@ -143,8 +143,7 @@ public class WebSubServicesRegistry extends HTTPServicesRegistry {
         logger.info("Service deployed : " + service.getName() + " with context " + httpService.getBasePath());
 
         //basePath will get cached after registering service
-        sortedServiceURIs.add(httpService.getBasePath());
-        sortedServiceURIs.sort((basePath1, basePath2) -> basePath2.length() - basePath1.length());
+        cacheBasePath(hostName, httpService.getBasePath());
 
         WebSubSubscriberServiceValidator.validateResources(httpService, topicHeader, topicResourceMap);
     }
@@ -22,6 +22,7 @@ import org.apache.commons.logging.LogFactory;
 import org.ballerinalang.launcher.util.BCompileUtil;
 import org.ballerinalang.launcher.util.BRunUtil;
 import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BBoolean;
 import org.ballerinalang.model.values.BFloat;
 import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BString;
@@ -175,6 +176,14 @@ public class CacheTest {
         Assert.assertEquals(((BInteger) returns[1]).intValue(), 5);
     }
 
+    @Test
+    public void testWTinyLfuEviction() {
+        BValue[] returns = BRunUtil.invoke(compileResult, "testWTinyLfuEviction");
+        Assert.assertTrue(returns.length == 2);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 5);
+        Assert.assertTrue(((BBoolean) returns[1]).booleanValue());
+    }
+
     @Test
     public void testExpiredCacheAccess() {
         BValue[] returns = BRunUtil.invoke(compileResult, "testExpiredCacheAccess");
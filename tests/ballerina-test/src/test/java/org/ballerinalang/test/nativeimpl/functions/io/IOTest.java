@@ -23,7 +23,9 @@ import org.ballerinalang.launcher.util.BServiceUtil;
 import org.ballerinalang.launcher.util.CompileResult;
 import org.ballerinalang.model.util.StringUtils;
 import org.ballerinalang.model.values.BBlob;
+import org.ballerinalang.model.values.BBlobArray;
 import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BIntArray;
 import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BJSON;
 import org.ballerinalang.model.values.BString;
@@ -304,6 +306,88 @@ public class IOTest {
         BRunUtil.invokeStateful(bytesInputOutputProgramFile, "close");
     }
 
+    @Test(description = "Test 'readBytes' function on a memory mapped file")
+    public void testReadBytesMapped() throws URISyntaxException {
+        String resourceToRead = "datafiles/io/text/6charfile.txt";
+
+        //Will initialize the channel in mapped read mode
+        BValue[] args = {new BString(getAbsoluteFilePath(resourceToRead)), new BString("mr")};
+        BRunUtil.invokeStateful(bytesInputOutputProgramFile, "initFileChannel", args);
+
+        args = new BValue[]{new BInteger(4)};
+        BValue[] returns = BRunUtil.invokeStateful(bytesInputOutputProgramFile, "readBytes", args);
+        Assert.assertEquals(((BBlob) returns[0]).blobValue(), "1234".getBytes());
+
+        //Only the remaining bytes are read
+        returns = BRunUtil.invokeStateful(bytesInputOutputProgramFile, "readBytes", args);
+        Assert.assertEquals(((BBlob) returns[0]).blobValue(), "56".getBytes());
+
+        returns = BRunUtil.invokeStateful(bytesInputOutputProgramFile, "readBytes", args);
+        Assert.assertEquals(((BBlob) returns[0]).blobValue(), new byte[0]);
+
+        BRunUtil.invokeStateful(bytesInputOutputProgramFile, "close");
+    }
+
+    @Test(description = "Test 'writeBytes' function on a memory mapped file")
+    public void testWriteBytesMapped() throws IOException {
+        byte[] content = {-1, 46, 77, 90, 38};
+        Path sourceToWrite = Paths.get(currentDirectoryPath, "mappedBytesFile.txt");
+        Files.write(sourceToWrite, new byte[0]);
+
+        //Will initialize the channel in mapped read/write mode
+        BValue[] args = {new BString(sourceToWrite.toString()), new BString("mrw")};
+        BRunUtil.invokeStateful(bytesInputOutputProgramFile, "initFileChannel", args);
+
+        args = new BValue[]{new BBlob(content), new BInteger(0)};
+        BValue[] returns = BRunUtil.invokeStateful(bytesInputOutputProgramFile, "writeBytes", args);
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), content.length);
+
+        BRunUtil.invokeStateful(bytesInputOutputProgramFile, "close");
+
+        //The file should be truncated to the bytes written
+        Assert.assertEquals(Files.readAllBytes(sourceToWrite), content);
+    }
+
+    @Test(description = "Test 'readVectored' function in ballerina/io package")
+    public void testReadVectoredBytes() throws URISyntaxException {
+        String resourceToRead = "datafiles/io/text/6charfile.txt";
+        for (String mode : new String[]{"r", "mr"}) {
+            BValue[] args = {new BString(getAbsoluteFilePath(resourceToRead)), new BString(mode)};
+            BRunUtil.invokeStateful(bytesInputOutputProgramFile, "initFileChannel", args);
+
+            //The last blob is shorter than requested, since the bytes ran out
+            args = new BValue[]{new BIntArray(new long[]{2, 3, 4})};
+            BValue[] returns = BRunUtil.invokeStateful(bytesInputOutputProgramFile, "readVectoredBytes", args);
+            BBlobArray contents = (BBlobArray) returns[0];
+            Assert.assertEquals(contents.size(), 3);
+            Assert.assertEquals(contents.get(0), "12".getBytes());
+            Assert.assertEquals(contents.get(1), "345".getBytes());
+            Assert.assertEquals(contents.get(2), "6".getBytes());
+
+            BRunUtil.invokeStateful(bytesInputOutputProgramFile, "close");
+        }
+    }
+
+    @Test(description = "Test 'writeVectored' function in ballerina/io package")
+    public void testWriteVectoredBytes() throws IOException {
+        byte[][] contents = {"The quick ".getBytes(), "brown fox".getBytes()};
+        for (String mode : new String[]{"w", "mrw"}) {
+            Path sourceToWrite = Paths.get(currentDirectoryPath, "vectoredBytesFile.txt");
+            Files.write(sourceToWrite, new byte[0]);
+
+            BValue[] args = {new BString(sourceToWrite.toString()), new BString(mode)};
+            BRunUtil.invokeStateful(bytesInputOutputProgramFile, "initFileChannel", args);
+
+            args = new BValue[]{new BBlobArray(contents)};
+            BValue[] returns = BRunUtil.invokeStateful(bytesInputOutputProgramFile, "writeVectoredBytes", args);
+            Assert.assertEquals(((BInteger) returns[0]).intValue(), 19);
+
+            BRunUtil.invokeStateful(bytesInputOutputProgramFile, "close");
+
+            Assert.assertEquals(Files.readAllBytes(sourceToWrite), "The quick brown fox".getBytes());
+        }
+    }
+
     @Test(description = "Test 'writeCharacters' function in ballerina/io package")
     public void testWriteCharacters() {
         String content = "The quick brown fox jumps over the lazy dog";
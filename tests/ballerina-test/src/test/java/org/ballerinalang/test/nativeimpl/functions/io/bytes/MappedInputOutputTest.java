@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.nativeimpl.functions.io.bytes;
+
+import org.ballerinalang.nativeimpl.io.channels.FileIOChannel;
+import org.ballerinalang.nativeimpl.io.channels.MappedFileIOChannel;
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.ballerinalang.nativeimpl.io.channels.base.DataChannel;
+import org.ballerinalang.nativeimpl.io.channels.base.Representation;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Test memory mapped and vectored byte i/o.
+ */
+public class MappedInputOutputTest {
+
+    /**
+     * A window smaller than the files of the tests, so that the files are remapped as they are read/written.
+     */
+    private static final int WINDOW_SIZE = 16;
+
+    /**
+     * Specifies the default directory path.
+     */
+    private String currentDirectoryPath = "/tmp/";
+
+    @BeforeClass
+    public void setup() {
+        currentDirectoryPath = System.getProperty("user.dir") + "/target/";
+    }
+
+    @Test(description = "Read bytes of a file through a window smaller than the file")
+    public void testReadThroughWindow() throws IOException {
+        Path path = createFile("mapped_read.bin", 100);
+        Channel channel = new MappedFileIOChannel(FileChannel.open(path, StandardOpenOption.READ), false, WINDOW_SIZE);
+        ByteBuffer buffer = ByteBuffer.allocate(120);
+        while (!channel.hasReachedEnd()) {
+            channel.read(buffer);
+        }
+        channel.close();
+        Assert.assertEquals(buffer.position(), 100);
+        Assert.assertEquals(readBytes(buffer), Files.readAllBytes(path));
+    }
+
+    @Test(description = "Write bytes beyond the end of a file and check whether it's truncated to the bytes written")
+    public void testWriteBeyondEnd() throws IOException {
+        Path path = createFile("mapped_write.bin", 0);
+        byte[] content = createContent(40);
+        Channel channel = openForReadingAndWriting(path);
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.close();
+        Assert.assertEquals(Files.readAllBytes(path), content);
+    }
+
+    @Test(description = "Write through the default window and check whether the file grows by a bounded step only")
+    public void testBoundedGrowth() throws IOException {
+        Path path = createFile("mapped_growth.bin", 100);
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Channel channel = new MappedFileIOChannel(fileChannel, true);
+        byte[] content = createContent(10);
+        channel.write(ByteBuffer.wrap(content));
+        //Bytes within the file are written without growing it
+        Assert.assertEquals(fileChannel.size(), 100);
+
+        byte[] tail = createContent(150);
+        ByteBuffer buffer = ByteBuffer.wrap(tail);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        Assert.assertTrue(fileChannel.size() <= 160 + MappedFileIOChannel.GROWTH_STEP);
+        channel.close();
+        Assert.assertEquals(Files.size(path), 160);
+    }
+
+    @Test(description = "Read/write primitives directly from/to the mapping, across the window boundaries")
+    public void testPrimitives() throws IOException {
+        Path path = createFile("mapped_data.bin", 0);
+        DataChannel dataChannel = new DataChannel(openForReadingAndWriting(path), ByteOrder.BIG_ENDIAN);
+        dataChannel.writeFixedLong(-13, Representation.BIT_16);
+        dataChannel.writeFixedLong(Integer.MIN_VALUE, Representation.BIT_32);
+        dataChannel.writeFixedLong(Long.MAX_VALUE, Representation.BIT_64);
+        dataChannel.writeFixedLong(-1234567890123L, Representation.BIT_64);
+        dataChannel.writeBoolean(true);
+        dataChannel.close();
+        Assert.assertEquals(Files.size(path), 23);
+
+        //The primitives should be encoded the same as for the channels which are not mapped
+        Channel fileChannel = new FileIOChannel(FileChannel.open(path, StandardOpenOption.READ));
+        dataChannel = new DataChannel(fileChannel, ByteOrder.BIG_ENDIAN);
+        Assert.assertEquals(dataChannel.readFixedLong(Representation.BIT_16), -13);
+        Assert.assertEquals(dataChannel.readFixedLong(Representation.BIT_32), Integer.MIN_VALUE);
+        dataChannel.close();
+
+        Channel channel = new MappedFileIOChannel(FileChannel.open(path, StandardOpenOption.READ), false, WINDOW_SIZE);
+        dataChannel = new DataChannel(channel, ByteOrder.BIG_ENDIAN);
+        Assert.assertEquals(dataChannel.readFixedLong(Representation.BIT_16), -13);
+        Assert.assertEquals(dataChannel.readFixedLong(Representation.BIT_32), Integer.MIN_VALUE);
+        Assert.assertEquals(dataChannel.readFixedLong(Representation.BIT_64), Long.MAX_VALUE);
+        Assert.assertEquals(dataChannel.readFixedLong(Representation.BIT_64), -1234567890123L);
+        Assert.assertTrue(dataChannel.readBoolean());
+        dataChannel.close();
+    }
+
+    @Test(description = "Read bytes into several buffers with a single read")
+    public void testVectoredRead() throws IOException {
+        Path path = createFile("vectored_read.bin", 50);
+        byte[] content = Files.readAllBytes(path);
+        Channel[] channels = {new FileIOChannel(FileChannel.open(path, StandardOpenOption.READ)),
+                new MappedFileIOChannel(FileChannel.open(path, StandardOpenOption.READ), false, WINDOW_SIZE)};
+        for (Channel channel : channels) {
+            ByteBuffer[] buffers = {ByteBuffer.allocate(10), ByteBuffer.allocate(30), ByteBuffer.allocate(20)};
+            long readBytes = channel.read(buffers);
+            channel.close();
+            Assert.assertEquals(readBytes, 50);
+            Assert.assertEquals(buffers[2].position(), 10);
+            ByteBuffer all = ByteBuffer.allocate(60);
+            for (ByteBuffer buffer : buffers) {
+                buffer.flip();
+                all.put(buffer);
+            }
+            Assert.assertEquals(readBytes(all), content);
+        }
+    }
+
+    @Test(description = "Write the content of several buffers with a single write")
+    public void testVectoredWrite() throws IOException {
+        byte[] content = createContent(50);
+        Path[] paths = {createFile("vectored_write.bin", 0), createFile("vectored_mapped_write.bin", 0)};
+        Channel[] channels = {new FileIOChannel(FileChannel.open(paths[0], StandardOpenOption.WRITE)),
+                openForReadingAndWriting(paths[1])};
+        for (Channel channel : channels) {
+            ByteBuffer[] buffers = {ByteBuffer.wrap(content, 0, 10), ByteBuffer.wrap(content, 10, 40)};
+            Assert.assertEquals(channel.write(buffers), 50);
+            channel.close();
+        }
+        for (Path path : paths) {
+            Assert.assertEquals(Files.readAllBytes(path), content);
+        }
+    }
+
+    private Path createFile(String name, int size) throws IOException {
+        Path path = Paths.get(currentDirectoryPath, name);
+        Files.write(path, createContent(size));
+        return path;
+    }
+
+    private static MappedFileIOChannel openForReadingAndWriting(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new MappedFileIOChannel(channel, true, WINDOW_SIZE);
+    }
+
+    private static byte[] createContent(int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        return content;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
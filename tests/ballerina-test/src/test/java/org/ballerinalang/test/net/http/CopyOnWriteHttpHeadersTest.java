@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.net.http;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import org.ballerinalang.net.http.CopyOnWriteHttpHeaders;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test cases for the headers shared between messages until they are modified.
+ */
+public class CopyOnWriteHttpHeadersTest {
+
+    @Test(description = "Tests whether a view is not affected by modifications of the headers it was created from")
+    public void testShareHeaders() {
+        HttpHeaders headers = new DefaultHttpHeaders();
+        headers.add("Content-Type", "text/plain");
+        headers.add("Via", "1.1 first");
+        headers.add("Via", "1.1 second");
+
+        HttpHeaders view = CopyOnWriteHttpHeaders.share(headers);
+        headers.set("Content-Type", "application/json");
+        headers.remove("Via");
+
+        Assert.assertEquals(view.get("content-type"), "text/plain");
+        Assert.assertEquals(view.getAll("Via").size(), 2);
+        Assert.assertEquals(view.size(), 3);
+    }
+
+    @Test(description = "Tests whether views sharing the same headers do not see the modifications of each other")
+    public void testModifyView() {
+        HttpHeaders headers = new DefaultHttpHeaders();
+        headers.add("Date", "Mon, 18 Jun 2018 10:00:00 GMT");
+        HttpHeaders cached = CopyOnWriteHttpHeaders.share(headers);
+        HttpHeaders first = CopyOnWriteHttpHeaders.share(cached);
+        HttpHeaders second = CopyOnWriteHttpHeaders.share(cached);
+
+        first.set("Age", "10");
+        second.remove("Date");
+
+        Assert.assertEquals(first.get("Age"), "10");
+        Assert.assertEquals(first.get("Date"), "Mon, 18 Jun 2018 10:00:00 GMT");
+        Assert.assertFalse(second.contains("Date"));
+        Assert.assertNull(second.get("Age"));
+        Assert.assertEquals(cached.size(), 1);
+        Assert.assertNull(cached.get("Age"));
+    }
+
+    @Test(description = "Tests whether a modified view shares its own headers with the views created from it")
+    public void testShareModifiedView() {
+        HttpHeaders cached = CopyOnWriteHttpHeaders.share(new DefaultHttpHeaders());
+        cached.set("ETag", "\"v1\"");
+        HttpHeaders served = CopyOnWriteHttpHeaders.share(cached);
+
+        cached.set("ETag", "\"v2\"");
+        served.clear();
+
+        Assert.assertEquals(cached.get("ETag"), "\"v2\"");
+        Assert.assertTrue(served.isEmpty());
+        Assert.assertEquals(CopyOnWriteHttpHeaders.share(cached).get("ETag"), "\"v2\"");
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.net.http;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.ballerinalang.launcher.util.BCompileUtil;
+import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.mime.util.EntityBodyHandler;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.io.channels.base.Channel;
+import org.ballerinalang.net.http.InboundEntityWrapper;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.transport.http.netty.message.HTTPCarbonMessage;
+import org.wso2.transport.http.netty.message.HttpMessageDataStreamer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.ballerinalang.mime.util.Constants.ENTITY_BYTE_CHANNEL;
+import static org.ballerinalang.mime.util.Constants.PROTOCOL_PACKAGE_MIME;
+import static org.ballerinalang.net.http.HttpConstants.ENTITY;
+
+/**
+ * Test cases for passing the untouched bodies of inbound messages through to outbound messages.
+ */
+public class InboundEntityWrapperTest {
+
+    private CompileResult compileResult;
+
+    @BeforeClass
+    public void setup() {
+        compileResult = BCompileUtil.compile("test-src/net/http/inbound-entity.bal");
+    }
+
+    @Test(description = "Tests whether the content of an untouched body is handed over to the outbound message")
+    public void testForwardUntouchedEntity() throws IOException {
+        HTTPCarbonMessage inboundMessage = createMessage(true);
+        List<HttpContent> contents = addContents(inboundMessage, "Hello ", "pass ", "through");
+        BStruct entity = createInboundEntity(inboundMessage);
+        HTTPCarbonMessage outboundMessage = createMessage(true);
+
+        Assert.assertTrue(InboundEntityWrapper.passThrough(entity, outboundMessage));
+        Assert.assertNull(entity.getNativeData(ENTITY_BYTE_CHANNEL));
+        for (HttpContent content : contents) {
+            Assert.assertSame(outboundMessage.getHttpContent(), content);
+        }
+        Assert.assertEquals(contents.get(0).content().toString(StandardCharsets.UTF_8), "Hello ");
+    }
+
+    @Test(description = "Tests whether the content is left in place when the inbound message itself is responded with")
+    public void testRespondWithInboundMessage() throws IOException {
+        HTTPCarbonMessage inboundMessage = createMessage(false);
+        List<HttpContent> contents = addContents(inboundMessage, "Hello ", "world");
+        BStruct entity = createInboundEntity(inboundMessage);
+
+        Assert.assertTrue(InboundEntityWrapper.passThrough(entity, inboundMessage));
+        Assert.assertNull(entity.getNativeData(ENTITY_BYTE_CHANNEL));
+        for (HttpContent content : contents) {
+            Assert.assertSame(inboundMessage.getHttpContent(), content);
+        }
+    }
+
+    @Test(description = "Tests whether a body which has been read is not passed through, but can still be read")
+    public void testReadBodyFallsBack() throws IOException {
+        HTTPCarbonMessage inboundMessage = createMessage(true);
+        addContents(inboundMessage, "Hello ", "world");
+        BStruct entity = createInboundEntity(inboundMessage);
+        Channel byteChannel = EntityBodyHandler.getByteChannel(entity);
+        InputStream inputStream = byteChannel.getInputStream();
+        Assert.assertEquals(inputStream.read(), 'H');
+
+        HTTPCarbonMessage outboundMessage = createMessage(true);
+        Assert.assertFalse(InboundEntityWrapper.passThrough(entity, outboundMessage));
+        Assert.assertSame(EntityBodyHandler.getByteChannel(entity), byteChannel);
+        Assert.assertEquals(new String(readAll(inputStream), StandardCharsets.UTF_8), "ello world");
+    }
+
+    @Test(description = "Tests whether a large chunked body is passed through as is, chunk by chunk")
+    public void testLargeChunkedBody() throws IOException {
+        HTTPCarbonMessage inboundMessage = createMessage(true);
+        Random random = new Random(1);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        List<HttpContent> contents = new ArrayList<>();
+        for (int i = 0; i < 1024; i++) {
+            byte[] chunk = new byte[8192];
+            random.nextBytes(chunk);
+            body.write(chunk);
+            HttpContent content = i == 1023 ? new DefaultLastHttpContent(Unpooled.wrappedBuffer(chunk))
+                    : new DefaultHttpContent(Unpooled.wrappedBuffer(chunk));
+            contents.add(content);
+            inboundMessage.addHttpContent(content);
+        }
+        BStruct entity = createInboundEntity(inboundMessage);
+        HTTPCarbonMessage outboundMessage = createMessage(true);
+
+        Assert.assertTrue(InboundEntityWrapper.passThrough(entity, outboundMessage));
+        ByteArrayOutputStream passedThrough = new ByteArrayOutputStream();
+        HttpContent content;
+        int count = 0;
+        do {
+            content = outboundMessage.getHttpContent();
+            Assert.assertSame(content, contents.get(count++));
+            content.content().getBytes(content.content().readerIndex(), passedThrough,
+                                       content.content().readableBytes());
+        } while (!(content instanceof LastHttpContent));
+        Assert.assertEquals(count, contents.size());
+        Assert.assertEquals(passedThrough.toByteArray(), body.toByteArray());
+    }
+
+    /* a message whose content is added by the test, as it arrives from the transport */
+    private static HTTPCarbonMessage createMessage(boolean isRequest) {
+        if (isRequest) {
+            return new HTTPCarbonMessage(new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/"));
+        }
+        return new HTTPCarbonMessage(new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK));
+    }
+
+    private BStruct createInboundEntity(HTTPCarbonMessage inboundMessage) {
+        BStruct entity = BCompileUtil.createAndGetStruct(compileResult.getProgFile(), PROTOCOL_PACKAGE_MIME, ENTITY);
+        entity.addNativeData(ENTITY_BYTE_CHANNEL, new InboundEntityWrapper(inboundMessage,
+                new HttpMessageDataStreamer(inboundMessage).getInputStream()));
+        return entity;
+    }
+
+    private static List<HttpContent> addContents(HTTPCarbonMessage message, String... chunks) {
+        List<HttpContent> contents = new ArrayList<>();
+        for (int i = 0; i < chunks.length; i++) {
+            byte[] bytes = chunks[i].getBytes(StandardCharsets.UTF_8);
+            HttpContent content = i == chunks.length - 1 ? new DefaultLastHttpContent(Unpooled.wrappedBuffer(bytes))
+                    : new DefaultHttpContent(Unpooled.wrappedBuffer(bytes));
+            contents.add(content);
+            message.addHttpContent(content);
+        }
+        return contents;
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toByteArray();
+    }
+}
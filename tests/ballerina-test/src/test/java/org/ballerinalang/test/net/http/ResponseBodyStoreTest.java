@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.net.http;
+
+import org.ballerinalang.net.http.caching.RequestCoalescer;
+import org.ballerinalang.net.http.caching.ResponseBodyStore;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test cases for the off-heap store of the HTTP cache response bodies.
+ */
+public class ResponseBodyStoreTest {
+
+    @Test(description = "Tests whether a stored body can be read back any number of times")
+    public void testStoreAndRead() throws IOException {
+        ResponseBodyStore store = new ResponseBodyStore(200000, 500000);
+        byte[] payload = createPayload(150000);
+        ResponseBodyStore.Body body = store.store(new ByteArrayInputStream(payload), -1);
+
+        Assert.assertTrue(body.isStored());
+        Assert.assertEquals(readAll(store.open(body)), payload);
+        Assert.assertEquals(readAll(store.open(body)), payload);
+    }
+
+    @Test(description = "Tests whether a body larger than the maximum entry size is not stored, but can still be read")
+    public void testAdmissionBySize() throws IOException {
+        ResponseBodyStore store = new ResponseBodyStore(100000, 500000);
+        byte[] payload = createPayload(300000);
+        InputStream stream = new ByteArrayInputStream(payload);
+        ResponseBodyStore.Body body = store.store(stream, -1);
+
+        Assert.assertFalse(body.isStored());
+        Assert.assertNull(store.open(body));
+        Assert.assertEquals(store.size(), 0);
+        Assert.assertEquals(readAll(new SequenceInputStream(body.newInputStream(), stream)), payload);
+    }
+
+    @Test(description = "Tests whether the least recently used bodies are evicted when the store is full")
+    public void testEviction() throws IOException {
+        ResponseBodyStore store = new ResponseBodyStore(200000, 500000);
+        ResponseBodyStore.Body first = store.store(new ByteArrayInputStream(createPayload(150000)), 150000);
+        ResponseBodyStore.Body second = store.store(new ByteArrayInputStream(createPayload(150000)), 150000);
+        store.open(first);
+        ResponseBodyStore.Body third = store.store(new ByteArrayInputStream(createPayload(150000)), 150000);
+        ResponseBodyStore.Body fourth = store.store(new ByteArrayInputStream(createPayload(150000)), 150000);
+
+        Assert.assertNotNull(store.open(first));
+        Assert.assertNull(store.open(second));
+        Assert.assertNotNull(store.open(third));
+        Assert.assertNotNull(store.open(fourth));
+
+        store.release(third);
+        Assert.assertNull(store.open(third));
+        Assert.assertEquals(store.size(), 300000);
+    }
+
+    @Test(description = "Tests whether only the first of the concurrent requests for a resource claims its fetch")
+    public void testRequestCoalescing() throws InterruptedException {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        long claim = coalescer.claim("GET /hello", 10000);
+        Assert.assertNotEquals(claim, RequestCoalescer.NOT_CLAIMED);
+        Assert.assertEquals(coalescer.claim("GET /hello", 10000), RequestCoalescer.NOT_CLAIMED);
+        Assert.assertNotEquals(coalescer.claim("GET /world", 10000), RequestCoalescer.NOT_CLAIMED);
+
+        CountDownLatch released = new CountDownLatch(1);
+        coalescer.await("GET /hello", 10000, released::countDown);
+        Assert.assertEquals(released.getCount(), 1);
+        coalescer.complete("GET /hello", claim, true);
+
+        Assert.assertTrue(released.await(5, TimeUnit.SECONDS));
+        Assert.assertNotEquals(coalescer.claim("GET /hello", 10000), RequestCoalescer.NOT_CLAIMED);
+    }
+
+    @Test(description = "Tests whether a waiting request is called back once the time to wait runs out")
+    public void testRequestCoalescingWaitTimeout() throws InterruptedException {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        long claim = coalescer.claim("GET /hello", 10000);
+        CountDownLatch released = new CountDownLatch(1);
+        coalescer.await("GET /hello", 50, released::countDown);
+
+        Assert.assertTrue(released.await(5, TimeUnit.SECONDS));
+        coalescer.complete("GET /hello", claim, true);
+        Assert.assertEquals(released.getCount(), 0);
+    }
+
+    @Test(description = "Tests whether a claim which is not completed in time can be taken over by another request")
+    public void testRequestCoalescingClaimTimeout() {
+        AtomicLong clock = new AtomicLong();
+        RequestCoalescer coalescer = new RequestCoalescer(clock::get);
+        long claim = coalescer.claim("GET /hello", 100);
+        List<String> released = new ArrayList<>();
+        coalescer.await("GET /hello", 10000, () -> released.add("waiter"));
+        Assert.assertEquals(coalescer.claim("GET /hello", 100), RequestCoalescer.NOT_CLAIMED);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        long takenOver = coalescer.claim("GET /hello", 100);
+        Assert.assertNotEquals(takenOver, RequestCoalescer.NOT_CLAIMED);
+        Assert.assertEquals(released, Collections.singletonList("waiter"));
+
+        // The expired claim no longer completes the fetch
+        coalescer.complete("GET /hello", claim, true);
+        Assert.assertEquals(coalescer.claim("GET /hello", 100), RequestCoalescer.NOT_CLAIMED);
+        coalescer.complete("GET /hello", takenOver, true);
+        Assert.assertNotEquals(coalescer.claim("GET /hello", 100), RequestCoalescer.NOT_CLAIMED);
+    }
+
+    @Test(description = "Tests whether the requests for a resource whose response was not cached are not coalesced")
+    public void testRequestCoalescingOfUncachedResponses() {
+        RequestCoalescer coalescer = new RequestCoalescer();
+        coalescer.complete("GET /hello", coalescer.claim("GET /hello", 10000), false);
+
+        long first = coalescer.claim("GET /hello", 10000);
+        long second = coalescer.claim("GET /hello", 10000);
+        Assert.assertNotEquals(first, RequestCoalescer.NOT_CLAIMED);
+        Assert.assertNotEquals(second, RequestCoalescer.NOT_CLAIMED);
+        List<String> released = new ArrayList<>();
+        coalescer.await("GET /hello", 10000, () -> released.add("waiter"));
+        Assert.assertEquals(released, Collections.singletonList("waiter"));
+
+        coalescer.complete("GET /hello", second, true);
+        Assert.assertNotEquals(coalescer.claim("GET /hello", 10000), RequestCoalescer.NOT_CLAIMED);
+        Assert.assertEquals(coalescer.claim("GET /hello", 10000), RequestCoalescer.NOT_CLAIMED);
+    }
+
+    private static byte[] createPayload(int length) {
+        byte[] payload = new byte[length];
+        new Random(length).nextBytes(payload);
+        return payload;
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = stream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.net.http;
+
+import org.ballerinalang.net.http.UpstreamPool;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test cases for the pool which limits the requests in flight to an upstream host.
+ */
+public class UpstreamPoolTest {
+
+    @Test(description = "Tests whether the requests beyond the limit wait until the requests in flight complete")
+    public void testAdmission() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamPool pool = new UpstreamPool("localhost:9090", clock::get, Runnable::run);
+        UpstreamPool.Endpoint endpoint = new UpstreamPool.Endpoint(2, 1, 1000);
+        List<UpstreamPool.Lease> leases = new ArrayList<>();
+        AtomicInteger timeouts = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            pool.acquire(endpoint, leases::add, timeouts::incrementAndGet);
+        }
+
+        Assert.assertEquals(leases.size(), 2);
+        Assert.assertEquals(pool.getInFlight(), 2);
+        Assert.assertEquals(pool.getQueued(), 1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        leases.get(0).release(false);
+        leases.get(0).release(false);
+
+        Assert.assertEquals(leases.size(), 3);
+        Assert.assertEquals(pool.getInFlight(), 2);
+        Assert.assertEquals(pool.getQueued(), 0);
+        Assert.assertEquals(timeouts.get(), 0);
+    }
+
+    @Test(description = "Tests whether a request which waited longer than allowed is failed")
+    public void testWaitTimeout() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamPool pool = new UpstreamPool("localhost:9090", clock::get, Runnable::run);
+        UpstreamPool.Endpoint endpoint = new UpstreamPool.Endpoint(1, 1, 100);
+        List<UpstreamPool.Lease> leases = new ArrayList<>();
+        AtomicInteger timeouts = new AtomicInteger();
+        pool.acquire(endpoint, leases::add, timeouts::incrementAndGet);
+        pool.acquire(endpoint, leases::add, timeouts::incrementAndGet);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        leases.get(0).release(true);
+
+        Assert.assertEquals(leases.size(), 1);
+        Assert.assertEquals(timeouts.get(), 1);
+        Assert.assertEquals(pool.getInFlight(), 0);
+        Assert.assertEquals(pool.getQueued(), 0);
+    }
+
+    @Test(description = "Tests whether a waiting request times out while no request in flight completes")
+    public void testWaitTimeoutWithoutRelease() throws InterruptedException {
+        UpstreamPool pool = new UpstreamPool("localhost:9090", System::nanoTime, Runnable::run);
+        UpstreamPool.Endpoint endpoint = new UpstreamPool.Endpoint(1, 1, 50);
+        List<UpstreamPool.Lease> leases = new ArrayList<>();
+        CountDownLatch timeout = new CountDownLatch(1);
+        pool.acquire(endpoint, leases::add, timeout::countDown);
+        pool.acquire(endpoint, leases::add, timeout::countDown);
+
+        Assert.assertTrue(timeout.await(5, TimeUnit.SECONDS), "waiting request did not time out");
+        Assert.assertEquals(leases.size(), 1);
+        Assert.assertEquals(pool.getInFlight(), 1);
+        Assert.assertEquals(pool.getQueued(), 0);
+    }
+
+    @Test(description = "Tests whether a raised limit lets the waiting requests in flight before a new request")
+    public void testWaitersFirst() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamPool pool = new UpstreamPool("localhost:9090", clock::get, Runnable::run);
+        UpstreamPool.Endpoint endpoint = new UpstreamPool.Endpoint(2, 1, 1000);
+        List<String> sent = new ArrayList<>();
+        AtomicInteger timeouts = new AtomicInteger();
+        pool.acquire(endpoint, lease -> sent.add("first"), timeouts::incrementAndGet);
+        pool.acquire(endpoint, lease -> sent.add("second"), timeouts::incrementAndGet);
+        pool.acquire(endpoint, lease -> sent.add("third"), timeouts::incrementAndGet);
+        Assert.assertEquals(pool.getQueued(), 1);
+
+        // An endpoint which allows one more connection raises the limit by one, which goes to the waiting request
+        pool.acquire(new UpstreamPool.Endpoint(3, 1, 1000), lease -> sent.add("fourth"), timeouts::incrementAndGet);
+
+        Assert.assertEquals(sent, Arrays.asList("first", "second", "third"));
+        Assert.assertEquals(pool.getLimit(), 3);
+        Assert.assertEquals(pool.getInFlight(), 3);
+        Assert.assertEquals(pool.getQueued(), 1);
+        Assert.assertEquals(timeouts.get(), 0);
+    }
+
+    @Test(description = "Tests whether the endpoints of a host share its pool, bounded by the largest of them")
+    public void testSharedBounds() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamPool pool = new UpstreamPool("localhost:9090", clock::get, Runnable::run);
+        pool.configure(4, 4);
+        Assert.assertEquals(pool.getLimit(), 16);
+        Assert.assertEquals(pool.getConnections(), 4);
+
+        // A smaller endpoint neither lowers the limit nor is counted with more streams than it allows
+        pool.configure(2, 1);
+        Assert.assertEquals(pool.getLimit(), 16);
+        Assert.assertEquals(pool.getConnections(), 16);
+
+        pool.configure(8, 4);
+        pool.configure(4, 4);
+        List<UpstreamPool.Lease> leases = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            pool.acquire(new UpstreamPool.Endpoint(4, 4, 1000), leases::add, () -> { });
+        }
+        Assert.assertEquals(pool.getLimit(), 32);
+        Assert.assertEquals(leases.size(), 32);
+    }
+
+    @Test(description = "Tests whether tracked requests are published without taking the place of limited requests")
+    public void testTrackedRequests() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamPool pool = new UpstreamPool("localhost:9090", clock::get, Runnable::run);
+        UpstreamPool.Lease tracked = pool.track();
+        pool.track();
+        List<UpstreamPool.Lease> leases = new ArrayList<>();
+        AtomicInteger timeouts = new AtomicInteger();
+        UpstreamPool.Endpoint endpoint = new UpstreamPool.Endpoint(1, 1, 1000);
+        pool.acquire(endpoint, leases::add, timeouts::incrementAndGet);
+        pool.acquire(endpoint, leases::add, timeouts::incrementAndGet);
+
+        Assert.assertEquals(leases.size(), 1);
+        Assert.assertEquals(pool.getTracked(), 2);
+        Assert.assertEquals(pool.getInFlight(), 1);
+        Assert.assertEquals(pool.getQueued(), 1);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        tracked.release(false);
+        Assert.assertEquals(pool.getTracked(), 1);
+        Assert.assertEquals(pool.getInFlight(), 1);
+        Assert.assertEquals(pool.getQueued(), 1);
+    }
+
+    @Test(description = "Tests whether the limit follows the concurrency given by the arrival rate and the latency")
+    public void testAdaptation() {
+        AtomicLong clock = new AtomicLong();
+        UpstreamPool pool = new UpstreamPool("localhost:9090", clock::get, Runnable::run);
+        Assert.assertEquals(pool.getLimit(), UpstreamPool.INITIAL_LIMIT);
+
+        // 100 requests per second, each taking 200 milliseconds, keep 20 requests in flight
+        UpstreamPool.Endpoint endpoint = new UpstreamPool.Endpoint(-1, 1, 1000);
+        List<UpstreamPool.Lease> leases = new ArrayList<>();
+        for (int second = 0; second < 10; second++) {
+            for (int i = 0; i < 100; i++) {
+                pool.acquire(endpoint, leases::add, () -> { });
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+                leases.remove(0).release(false);
+                clock.addAndGet(-TimeUnit.MILLISECONDS.toNanos(190));
+            }
+        }
+        Assert.assertTrue(pool.getLimit() >= 20 && pool.getLimit() <= 40, "unexpected limit " + pool.getLimit());
+    }
+}
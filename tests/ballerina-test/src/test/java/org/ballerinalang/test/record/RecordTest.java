@@ -21,6 +21,7 @@ import org.ballerinalang.launcher.util.BAssertUtil;
 import org.ballerinalang.launcher.util.BCompileUtil;
 import org.ballerinalang.launcher.util.BRunUtil;
 import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BBoolean;
 import org.ballerinalang.model.values.BFloat;
 import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BString;
@@ -176,4 +177,18 @@ public class RecordTest {
                 "\"state\":\"CA\"}, age:25, family:{spouse:\"\", noOfChildren:0, children:[]}, parent:null, " +
                 "designation:\"Software Engineer\"}");
     }
+
+    @Test(description = "Test reading and writing record fields of all kinds")
+    public void testFieldsOfAllKinds() {
+        BValue[] returns = BRunUtil.invoke(compileResult, "testFieldsOfAllKinds");
+
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 7);
+        Assert.assertEquals(((BFloat) returns[1]).floatValue(), 0.5);
+        Assert.assertTrue(((BBoolean) returns[2]).booleanValue());
+        Assert.assertEquals(returns[3].stringValue(), "record");
+        Assert.assertEquals(((BInteger) returns[4]).intValue(), 10);
+        Assert.assertEquals(((BFloat) returns[5]).floatValue(), 1.75);
+        Assert.assertFalse(((BBoolean) returns[6]).booleanValue());
+        Assert.assertEquals(returns[7].stringValue(), "value");
+    }
 }
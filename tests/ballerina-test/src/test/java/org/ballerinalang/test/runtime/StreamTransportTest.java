@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.runtime;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.runtime.stream.OverflowPolicy;
+import org.ballerinalang.runtime.stream.StreamStats;
+import org.ballerinalang.runtime.stream.StreamSubscriber;
+import org.ballerinalang.runtime.stream.StreamTransport;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test the in-process transport delivering stream events.
+ */
+public class StreamTransportTest {
+
+    @Test(description = "Test delivering events from concurrent publishers in their publishing order")
+    public void testPublishOrder() throws Exception {
+        int publishers = 4;
+        int eventsPerPublisher = 10000;
+        StreamTransport transport = new StreamTransport("orderTestStream");
+        long[] nextValues = new long[publishers];
+        List<String> errors = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(publishers * eventsPerPublisher);
+        transport.addSubscriber((events, count) -> {
+            for (int i = 0; i < count; i++) {
+                long value = ((BInteger) events[i]).intValue();
+                int publisher = (int) (value / eventsPerPublisher);
+                if (value != nextValues[publisher]++) {
+                    errors.add("unexpected event " + value + " from publisher " + publisher);
+                }
+                latch.countDown();
+            }
+        });
+        for (int i = 0; i < publishers; i++) {
+            nextValues[i] = (long) i * eventsPerPublisher;
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < publishers; i++) {
+            long start = (long) i * eventsPerPublisher;
+            Thread thread = new Thread(() -> {
+                for (long value = start; value < start + eventsPerPublisher; value++) {
+                    transport.publish(new BInteger(value));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        Assert.assertTrue(errors.isEmpty(), errors.toString());
+        /* the statistics of a batch are updated after it is delivered to the subscribers */
+        awaitCompletion(transport, publishers * eventsPerPublisher);
+        Assert.assertEquals(transport.getStats().getDeliveredCount(), publishers * eventsPerPublisher);
+        Assert.assertEquals(transport.getStats().getQueueDepth(), 0);
+    }
+
+    @Test(description = "Test a subscriber publishing to its own stream")
+    public void testPublishFromSubscriber() throws Exception {
+        StreamTransport transport = new StreamTransport("reentrantTestStream");
+        CountDownLatch latch = new CountDownLatch(10000);
+        transport.addSubscriber((events, count) -> {
+            for (int i = 0; i < count; i++) {
+                long value = ((BInteger) events[i]).intValue();
+                if (value < 9000) {
+                    transport.publish(new BInteger(value + 1000));
+                }
+                latch.countDown();
+            }
+        });
+        for (long value = 0; value < 1000; value++) {
+            transport.publish(new BInteger(value));
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+    }
+
+    @Test(description = "Test publishing to a stream without subscribers")
+    public void testPublishWithoutSubscribers() {
+        StreamTransport transport = new StreamTransport("unsubscribedTestStream");
+        transport.publish(new BInteger(1));
+        Assert.assertEquals(transport.getStats().getPublishedCount(), 0);
+    }
+
+    @Test(description = "Test dropping the newest events published to a stream with a full buffer")
+    public void testDropNewestOverflowPolicy() throws Exception {
+        ConfigRegistry configRegistry = ConfigRegistry.getInstance();
+        configRegistry.addConfiguration("b7a.runtime.stream.dropNewestTestStream.buffer.size", "4");
+        configRegistry.addConfiguration("b7a.runtime.stream.dropNewestTestStream.overflow.policy", "drop_newest");
+        StreamTransport transport = new StreamTransport("dropNewestTestStream");
+        Assert.assertEquals(transport.getOverflowPolicy(), OverflowPolicy.DROP_NEWEST);
+        Assert.assertEquals(transport.getCapacity(), 4);
+
+        CountDownLatch published = new CountDownLatch(1);
+        List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+        transport.addSubscriber((events, count) -> {
+            try {
+                /* keep the buffer full until all the events are published */
+                published.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < count; i++) {
+                delivered.add(((BInteger) events[i]).intValue());
+            }
+        });
+        for (long value = 0; value < 100; value++) {
+            transport.publish(new BInteger(value));
+        }
+        published.countDown();
+        awaitCompletion(transport, 100);
+        Assert.assertTrue(transport.getStats().getDroppedCount() > 0);
+        Assert.assertEquals(transport.getStats().getDeliveredCount() + transport.getStats().getDroppedCount(), 100);
+        Assert.assertEquals(transport.getStats().getQueueDepth(), 0);
+        /* the delivered events are the oldest ones, in their publishing order */
+        for (int i = 0; i < delivered.size(); i++) {
+            Assert.assertEquals(delivered.get(i).longValue(), i);
+        }
+    }
+
+    @Test(description = "Test dropping the oldest events buffered by a stream with a full buffer")
+    public void testDropOldestOverflowPolicy() throws Exception {
+        ConfigRegistry configRegistry = ConfigRegistry.getInstance();
+        configRegistry.addConfiguration("b7a.runtime.stream.dropOldestTestStream.buffer.size", "4");
+        configRegistry.addConfiguration("b7a.runtime.stream.dropOldestTestStream.overflow.policy", "drop_oldest");
+        StreamTransport transport = new StreamTransport("dropOldestTestStream");
+        Assert.assertEquals(transport.getOverflowPolicy(), OverflowPolicy.DROP_OLDEST);
+
+        CountDownLatch published = new CountDownLatch(1);
+        List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+        transport.addSubscriber((events, count) -> {
+            try {
+                /* keep the buffer full until all the events are published */
+                published.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < count; i++) {
+                delivered.add(((BInteger) events[i]).intValue());
+            }
+        });
+        for (long value = 0; value < 100; value++) {
+            transport.publish(new BInteger(value));
+        }
+        published.countDown();
+        awaitCompletion(transport, 100);
+        Assert.assertTrue(transport.getStats().getDroppedCount() > 0);
+        Assert.assertEquals(transport.getStats().getDeliveredCount() + transport.getStats().getDroppedCount(), 100);
+        Assert.assertEquals(transport.getStats().getQueueDepth(), 0);
+        /* the newest events are never dropped, and the delivered events keep their publishing order */
+        Assert.assertEquals(delivered.subList(delivered.size() - 4, delivered.size()),
+                Arrays.asList(96L, 97L, 98L, 99L));
+        assertPublishingOrder(delivered);
+    }
+
+    @Test(description = "Test sampling the events published to a stream with a full buffer")
+    public void testSampleOverflowPolicy() throws Exception {
+        ConfigRegistry configRegistry = ConfigRegistry.getInstance();
+        configRegistry.addConfiguration("b7a.runtime.stream.sampleTestStream.buffer.size", "4");
+        configRegistry.addConfiguration("b7a.runtime.stream.sampleTestStream.overflow.policy", "sample");
+        configRegistry.addConfiguration("b7a.runtime.stream.sampleTestStream.sample.rate", "10");
+        StreamTransport transport = new StreamTransport("sampleTestStream");
+        Assert.assertEquals(transport.getOverflowPolicy(), OverflowPolicy.SAMPLE);
+
+        List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+        transport.addSubscriber(slowSubscriber(delivered));
+        for (long value = 0; value < 200; value++) {
+            transport.publish(new BInteger(value));
+        }
+        awaitCompletion(transport, 200);
+        long dropped = transport.getStats().getDroppedCount();
+        Assert.assertTrue(dropped > 0);
+        Assert.assertEquals(transport.getStats().getDeliveredCount() + dropped, 200);
+        /* one in every ten overflowing events waits for room in the buffer, so it is never dropped */
+        Assert.assertTrue(delivered.size() * 9L >= dropped, "delivered " + delivered.size() + ", dropped " + dropped);
+        assertPublishingOrder(delivered);
+    }
+
+    @Test(description = "Test blocking the publishers of a stream with a full buffer")
+    public void testBlockOverflowPolicy() throws Exception {
+        ConfigRegistry configRegistry = ConfigRegistry.getInstance();
+        configRegistry.addConfiguration("b7a.runtime.stream.blockTestStream.buffer.size", "4");
+        configRegistry.addConfiguration("b7a.runtime.stream.blockTestStream.overflow.policy", "block");
+        StreamTransport transport = new StreamTransport("blockTestStream");
+        Assert.assertEquals(transport.getOverflowPolicy(), OverflowPolicy.BLOCK);
+
+        List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+        transport.addSubscriber(slowSubscriber(delivered));
+        for (long value = 0; value < 100; value++) {
+            transport.publish(new BInteger(value));
+            Assert.assertTrue(transport.getStats().getQueueDepth() <= 4);
+        }
+        awaitCompletion(transport, 100);
+        Assert.assertEquals(transport.getStats().getDroppedCount(), 0);
+        Assert.assertEquals(delivered.size(), 100);
+        assertPublishingOrder(delivered);
+    }
+
+    @Test(description = "Test that streams with the same name keep their own statistics")
+    public void testStatsPerStream() throws Exception {
+        StreamStats streamNameStats = StreamStats.getStats("statsTestStream");
+        long publishedBefore = streamNameStats.getPublishedCount();
+        StreamTransport first = new StreamTransport("statsTestStream");
+        StreamTransport second = new StreamTransport("statsTestStream");
+        Assert.assertNotSame(first.getStats(), second.getStats());
+        CountDownLatch latch = new CountDownLatch(15);
+        first.addSubscriber((events, count) -> {
+            for (int i = 0; i < count; i++) {
+                latch.countDown();
+            }
+        });
+        second.addSubscriber((events, count) -> {
+            for (int i = 0; i < count; i++) {
+                latch.countDown();
+            }
+        });
+        for (long value = 0; value < 10; value++) {
+            first.publish(new BInteger(value));
+        }
+        for (long value = 0; value < 5; value++) {
+            second.publish(new BInteger(value));
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(first.getStats().getPublishedCount(), 10);
+        Assert.assertEquals(second.getStats().getPublishedCount(), 5);
+        /* the metrics of a stream name add up the statistics of all the streams with that name */
+        Assert.assertEquals(streamNameStats.getPublishedCount() - publishedBefore, 15);
+    }
+
+    /* a subscriber which is slower than the publisher, so the buffer overflows */
+    private static StreamSubscriber slowSubscriber(List<Long> delivered) {
+        return (events, count) -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException ignore) {
+                Thread.currentThread().interrupt();
+            }
+            for (int i = 0; i < count; i++) {
+                delivered.add(((BInteger) events[i]).intValue());
+            }
+        };
+    }
+
+    private static void awaitCompletion(StreamTransport transport, long events) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (transport.getStats().getDeliveredCount() + transport.getStats().getDroppedCount() < events
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void assertPublishingOrder(List<Long> delivered) {
+        for (int i = 1; i < delivered.size(); i++) {
+            Assert.assertTrue(delivered.get(i) > delivered.get(i - 1), "unexpected order " + delivered);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.runtime;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.runtime.threadpool.ThreadPoolFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test the thread pools created for the scheduler modes.
+ */
+public class ThreadPoolFactoryTest {
+
+    private static final String SCHEDULER_PARALLELISM_PROP = "b7a.runtime.scheduler.parallelism";
+
+    @Test(description = "Test that the virtual mode runs the workers and blocking native calls on virtual threads, " +
+            "or falls back to the fixed thread pool with a warning when virtual threads are not supported")
+    public void testVirtualMode() throws Exception {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        ThreadPoolFactory factory = new ThreadPoolFactory("virtual", new PrintStream(console, true, "UTF-8"));
+        try {
+            ExecutorService workerExecutor = factory.getWorkerExecutor();
+            boolean virtual = workerExecutor.submit(ThreadPoolFactoryTest::isVirtualThread).get(30, TimeUnit.SECONDS);
+            String warnings = new String(console.toByteArray(), StandardCharsets.UTF_8);
+            if (isVirtualThreadSupported()) {
+                Assert.assertTrue(virtual);
+                Assert.assertSame(factory.getBlockingNativeExecutor(), workerExecutor);
+                Assert.assertTrue(factory.getBlockingNativeExecutor().submit(ThreadPoolFactoryTest::isVirtualThread)
+                        .get(30, TimeUnit.SECONDS));
+                Assert.assertEquals(warnings, "");
+            } else {
+                Assert.assertFalse(virtual);
+                Assert.assertSame(factory.getBlockingNativeExecutor(), workerExecutor);
+                Assert.assertTrue(warnings.contains("virtual threads are not supported by the current JVM"),
+                        warnings);
+                Assert.assertTrue(warnings.contains("'fixed' scheduler mode"), warnings);
+            }
+        } finally {
+            shutdown(factory);
+        }
+    }
+
+    @Test(description = "Test that the fixed mode does not run on virtual threads nor print warnings")
+    public void testFixedMode() throws Exception {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        ThreadPoolFactory factory = new ThreadPoolFactory(null, new PrintStream(console, true, "UTF-8"));
+        try {
+            Assert.assertFalse(factory.getWorkerExecutor().submit(ThreadPoolFactoryTest::isVirtualThread)
+                    .get(30, TimeUnit.SECONDS));
+            Assert.assertSame(factory.getBlockingNativeExecutor(), factory.getWorkerExecutor());
+            Assert.assertEquals(console.size(), 0);
+        } finally {
+            shutdown(factory);
+        }
+    }
+
+    @Test(description = "Test that in the work-stealing mode a blocking native call made by a worker is handed to " +
+            "the blocking native executor, so that it does not hold up the other workers of the same core")
+    public void testWorkStealingModeOffloadsBlockingNatives() throws Exception {
+        ConfigRegistry.getInstance().addConfiguration(SCHEDULER_PARALLELISM_PROP, "1");
+        ThreadPoolFactory factory;
+        try {
+            factory = new ThreadPoolFactory("workstealing", new PrintStream(new ByteArrayOutputStream(), true,
+                    "UTF-8"));
+        } finally {
+            ConfigRegistry.getInstance().removeConfiguration(SCHEDULER_PARALLELISM_PROP);
+        }
+        try {
+            Assert.assertEquals(factory.getWorkStealingExecutor().getParallelism(), 1);
+            Assert.assertFalse(factory.isBlockingNativeOffloaded());
+            ExecutorService workerExecutor = factory.getWorkerExecutor();
+            CountDownLatch nativeCallDone = new CountDownLatch(1);
+            Runnable sleepingNativeCall = () -> {
+                try {
+                    Thread.sleep(3000);
+                } catch (InterruptedException ignore) {
+                    /* ignore */
+                }
+                nativeCallDone.countDown();
+            };
+            /* a worker makes a blocking native call, which is executed the way the VM executes it */
+            Future<Boolean> offloaded = workerExecutor.submit(() -> {
+                if (factory.isBlockingNativeOffloaded()) {
+                    factory.getBlockingNativeExecutor().submit(sleepingNativeCall);
+                    return true;
+                }
+                sleepingNativeCall.run();
+                return false;
+            });
+            /* another worker on the only core runs while the native call still sleeps */
+            Assert.assertEquals(workerExecutor.submit(() -> "done").get(1, TimeUnit.SECONDS), "done");
+            Assert.assertTrue(offloaded.get(30, TimeUnit.SECONDS));
+            Assert.assertEquals(nativeCallDone.getCount(), 1);
+            Assert.assertTrue(nativeCallDone.await(30, TimeUnit.SECONDS));
+        } finally {
+            shutdown(factory);
+        }
+    }
+
+    private static boolean isVirtualThreadSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual").invoke(null);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean isVirtualThread() {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static void shutdown(ThreadPoolFactory factory) throws InterruptedException {
+        factory.getWorkerExecutor().shutdown();
+        factory.getBlockingNativeExecutor().shutdown();
+        factory.getStreamDeliveryExecutor().shutdown();
+        Assert.assertTrue(factory.getWorkerExecutor().awaitTermination(30, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.runtime;
+
+import org.ballerinalang.runtime.threadpool.BLangThreadFactory;
+import org.ballerinalang.runtime.threadpool.WorkStealingExecutor;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test the work-stealing executor used by the scheduler.
+ */
+public class WorkStealingExecutorTest {
+
+    private WorkStealingExecutor executor;
+
+    @BeforeClass
+    public void setup() {
+        executor = new WorkStealingExecutor(4, new BLangThreadFactory("work-stealing-test"));
+    }
+
+    @Test(description = "Test running tasks submitted from both external and worker threads")
+    public void testExecuteNestedTasks() throws Exception {
+        int outerTasks = 1000;
+        int innerTasks = 10;
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(outerTasks * innerTasks);
+        for (int i = 0; i < outerTasks; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < innerTasks; j++) {
+                    executor.execute(() -> {
+                        count.incrementAndGet();
+                        latch.countDown();
+                    });
+                }
+            });
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(count.get(), outerTasks * innerTasks);
+        Assert.assertEquals(executor.getTotalQueueDepth(), 0);
+    }
+
+    @Test(description = "Test submitting a task and retrieving its result")
+    public void testSubmit() throws Exception {
+        Assert.assertEquals(executor.submit(() -> 42).get(30, TimeUnit.SECONDS), Integer.valueOf(42));
+    }
+
+    @Test(description = "Test that a failing task does not stop the workers")
+    public void testFailingTask() throws Exception {
+        for (int i = 0; i < executor.getParallelism() * 2; i++) {
+            executor.execute(() -> {
+                throw new IllegalStateException("task failure");
+            });
+        }
+        Assert.assertEquals(executor.submit(() -> "done").get(30, TimeUnit.SECONDS), "done");
+    }
+
+    @AfterClass
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.services.dispatching;
+
+import org.ballerinalang.net.uri.PathTrie;
+import org.ballerinalang.net.uri.URITemplate;
+import org.ballerinalang.net.uri.URITemplateException;
+import org.ballerinalang.net.uri.parser.DataElement;
+import org.ballerinalang.net.uri.parser.DataReturnAgent;
+import org.ballerinalang.net.uri.parser.Literal;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test cases for the compiled tries the services and resources are routed by.
+ */
+public class RoutingTrieTest {
+
+    private static final int ROUTE_COUNT = 1000;
+
+    @Test(description = "Test the longest base path which ends at a path segment boundary is found")
+    public void testLongestBasePath() {
+        PathTrie<String> basePaths = new PathTrie<>(false);
+        for (String basePath : new String[]{"/", "/hello", "/hello/world", "/helloworld", "/echo"}) {
+            basePaths.put(basePath, basePath);
+        }
+        Assert.assertEquals(basePaths.getLongestPrefix("/hello"), "/hello");
+        Assert.assertEquals(basePaths.getLongestPrefix("/hello/"), "/hello");
+        Assert.assertEquals(basePaths.getLongestPrefix("/hello/world/echo"), "/hello/world");
+        Assert.assertEquals(basePaths.getLongestPrefix("/hello/worlds"), "/hello");
+        Assert.assertEquals(basePaths.getLongestPrefix("/HelloWorld/echo"), "/helloworld");
+        Assert.assertEquals(basePaths.getLongestPrefix("/hell"), "/");
+        Assert.assertEquals(basePaths.getLongestPrefix("/"), "/");
+
+        PathTrie<String> withoutRoot = new PathTrie<>(true);
+        withoutRoot.put("/hello", "/hello");
+        Assert.assertNull(withoutRoot.getLongestPrefix("/hellos"));
+        Assert.assertNull(withoutRoot.getLongestPrefix("/Hello"));
+        Assert.assertEquals(withoutRoot.get("/hello"), "/hello");
+        Assert.assertNull(withoutRoot.get("/hell"));
+    }
+
+    @Test(description = "Test routing among a thousand literal and templated routes")
+    public void testThousandRoutes() throws URITemplateException, UnsupportedEncodingException {
+        URITemplate<String, Object> uriTemplate = new URITemplate<>(new Literal<>(new TestDataElement(), "/"));
+        for (int i = 0; i < ROUTE_COUNT; i++) {
+            uriTemplate.parse("/orders/" + i + "/items", "literal" + i, TestDataElement::new);
+            uriTemplate.parse("/orders/" + i + "/items/{itemId}", "template" + i, TestDataElement::new);
+        }
+        uriTemplate.parse("/orders/{orderId}", "order", TestDataElement::new);
+        uriTemplate.parse("/files/*", "files", TestDataElement::new);
+
+        Map<String, String> variables = new HashMap<>();
+        for (int i = 0; i < ROUTE_COUNT; i++) {
+            Assert.assertEquals(uriTemplate.matches("/orders/" + i + "/items", variables, null), "literal" + i);
+            Assert.assertTrue(variables.isEmpty());
+            Assert.assertEquals(uriTemplate.matches("/orders/" + i + "/items/abc", variables, null), "template" + i);
+            Assert.assertEquals(variables.remove("itemId"), "abc");
+        }
+        Assert.assertEquals(uriTemplate.matches("/orders/1001", variables, null), "order");
+        Assert.assertEquals(variables.get("orderId"), "1001");
+        Assert.assertEquals(uriTemplate.matches("/files/a/b", variables, null), "files");
+        Assert.assertNull(uriTemplate.matches("/orders/1/item", new HashMap<>(), null));
+    }
+
+    @Test(description = "Test a literal route which does not accept the request falls back to the other routes")
+    public void testLiteralRouteFallback() throws URITemplateException, UnsupportedEncodingException {
+        URITemplate<String, Object> uriTemplate = new URITemplate<>(new Literal<>(new TestDataElement(), "/"));
+        uriTemplate.parse("/orders/latest", "rejected", TestDataElement::new);
+        uriTemplate.parse("/orders/{orderId}", "order", TestDataElement::new);
+
+        Map<String, String> variables = new HashMap<>();
+        Assert.assertEquals(uriTemplate.matches("/orders/latest", variables, null), "order");
+        Assert.assertEquals(variables.get("orderId"), "latest");
+    }
+
+    @Test(description = "Test path parameters are captured as index ranges of the path")
+    public void testTemplateCaptures() {
+        PathTrie<String> templates = new PathTrie<>(true);
+        templates.putTemplate("/orders/{orderId}/items/{itemId}", "item");
+        templates.putTemplate("/orders/{id}/notes", "notes");
+        templates.putTemplate("/orders/latest/items/{itemId}", "latest");
+        PathTrie.Acceptor<String, Object, Object> acceptor = (data, msg, agent) -> !"notes".equals(data);
+        int[] captures = new int[1 + 3 * templates.getMaxParams()];
+
+        String path = "/orders/12/items/abc";
+        Assert.assertEquals(templates.match(path, captures, acceptor, null, null), PathTrie.MATCHED);
+        Assert.assertEquals(captures[0], 2);
+        Assert.assertEquals(templates.getParamNames(captures[1]), new String[]{"orderId", "id"});
+        Assert.assertEquals(path.substring(captures[2], captures[3]), "12");
+        Assert.assertEquals(templates.getParamNames(captures[4]), new String[]{"itemId"});
+        Assert.assertEquals(path.substring(captures[5], captures[6]), "abc");
+
+        Assert.assertEquals(templates.match("/orders/latest/items/abc", captures, acceptor, null, null),
+                            PathTrie.MATCHED);
+        Assert.assertEquals(captures[0], 1);
+        Assert.assertEquals(templates.match("/orders/12/notes", captures, acceptor, null, null),
+                            PathTrie.NOT_MATCHED);
+        Assert.assertEquals(templates.match("/orders//items/abc", captures, acceptor, null, null),
+                            PathTrie.AMBIGUOUS);
+        Assert.assertEquals(templates.match("/orders/latests/items/abc", captures, acceptor, null, null),
+                            PathTrie.AMBIGUOUS);
+    }
+
+    @Test(description = "Test templated routes are matched by the trie the same way as by the tree")
+    public void testTemplatedRoutesMatchTree() throws URITemplateException, UnsupportedEncodingException {
+        String[] templates = {"/users", "/users/{id}", "/users/{id}/orders/{orderId}", "/user/{name}/profile",
+                "/{tenant}/settings", "/orders/{orderId}/items/{itemId}", "/orders/{id}/notes", "/orders/latest",
+                "/orders/latest/items/{itemId}", "/status/rejected"};
+        URITemplate<String, Object> trieRouted = new URITemplate<>(new Literal<>(new TestDataElement(), "/"));
+        URITemplate<String, Object> treeRouted = new URITemplate<>(new Literal<>(new TestDataElement(), "/"));
+        for (String template : templates) {
+            trieRouted.parse(template, template, TestDataElement::new);
+            treeRouted.parse(template, template, TestDataElement::new);
+        }
+        // a wildcard template keeps the requests of this template to the tree
+        treeRouted.parse("/zzz/*", "rejected", TestDataElement::new);
+
+        String[] paths = {"/users", "/users/42", "/users/42/orders/7", "/users/a%20b", "/user/joe/profile",
+                "/userx/joe/profile", "/users/42/orders", "/acme/settings", "/users/settings", "/orders/1/items/2",
+                "/orders/1/notes", "/orders/latest", "/orders/latest/items/3", "/orders/latest/notes",
+                "/orders/latests/items/3", "/status/rejected", "/status/settings", "/a/b/c/d", "/users/1+1",
+                "/orders/1/items"};
+        for (String path : paths) {
+            Map<String, String> trieVariables = new HashMap<>();
+            Map<String, String> treeVariables = new HashMap<>();
+            String trieRoute = trieRouted.matches(path, trieVariables, null);
+            Assert.assertEquals(trieRoute, treeRouted.matches(path, treeVariables, null), path);
+            if (trieRoute != null) {
+                Assert.assertEquals(trieVariables, treeVariables, path);
+            }
+        }
+    }
+
+    /**
+     * Data element which accepts any request, unless its data is "rejected".
+     */
+    private static class TestDataElement implements DataElement<String, Object> {
+
+        private String data;
+
+        @Override
+        public void setData(String data) {
+            this.data = data;
+        }
+
+        @Override
+        public boolean hasData() {
+            return data != null;
+        }
+
+        @Override
+        public boolean getData(Object inboundMessage, DataReturnAgent<String> dataReturnAgent) {
+            if (data == null || "rejected".equals(data)) {
+                return false;
+            }
+            dataReturnAgent.setData(data);
+            return true;
+        }
+    }
+}
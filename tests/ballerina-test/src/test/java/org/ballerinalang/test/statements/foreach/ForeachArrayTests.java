@@ -20,6 +20,7 @@ package org.ballerinalang.test.statements.foreach;
 import org.ballerinalang.launcher.util.BCompileUtil;
 import org.ballerinalang.launcher.util.BRunUtil;
 import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BFloat;
 import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BValue;
 import org.testng.Assert;
@@ -276,4 +277,16 @@ public class ForeachArrayTests {
         Assert.assertEquals(returns.length, 1);
         Assert.assertEquals(returns[0].stringValue(), "0:d0 13 1:d1 13 2:d2 13 3:d3 13 ");
     }
+
+    @Test(description = "Test iterating arrays grown beyond a single storage chunk")
+    public void testLargeArrays() {
+        int count = 20000;
+        BValue[] returns = BRunUtil.invoke(program, "testLargeArrays", new BValue[] {new BInteger(count)});
+        Assert.assertEquals(returns.length, 4);
+        long expected = (long) count * (count - 1) / 2;
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), expected);
+        Assert.assertEquals(((BFloat) returns[1]).floatValue(), count * 0.5);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), expected);
+        Assert.assertEquals(returns[3].stringValue(), "s" + (count - 1));
+    }
 }
@@ -17,6 +17,10 @@
  */
 package org.ballerinalang.test.types.json;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.ballerinalang.model.util.ByteBufJsonGenerator;
+import org.ballerinalang.model.util.JsonByteParser;
 import org.ballerinalang.model.util.JsonGenerator;
 import org.ballerinalang.model.util.JsonNode;
 import org.ballerinalang.model.util.JsonParser;
@@ -24,8 +28,11 @@ import org.ballerinalang.util.exceptions.BallerinaException;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
 
 /**
  * The following tests will verify Ballerina's custom JSON parser and generator
@@ -325,4 +332,112 @@ public class JSONLibraryTest {
         JsonNode node = JsonParser.parse(json);
         Assert.assertEquals(node.toString(), "{\"fruits\":[\"apple\",\"orange\",\"grapes\"]}");
     }
+
+    @Test
+    public void testByteParserChunkBoundaries() {
+        String json = "{'fruits':['apple', \"or\\u0061nge\"], \"price\" : [1, -2, 3.5, true, null, {}, []],"
+                + "\"name\":\"\u00fc\u20ac\ud834\udd1e\\n\"}";
+        String expected = JsonParser.parse(json).toString();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        JsonByteParser parser = new JsonByteParser();
+        for (int split = 0; split <= bytes.length; split++) {
+            parser.feed(bytes, 0, split);
+            parser.feed(bytes, split, bytes.length - split);
+            Assert.assertEquals(parser.complete().toString(), expected);
+        }
+        JsonNode node = JsonParser.parse(new ByteArrayInputStream(bytes), "UTF-8");
+        Assert.assertEquals(node.get("name").stringValue(), "\u00fc\u20ac\ud834\udd1e\n");
+        Assert.assertEquals(node.get("fruits").get(1).stringValue(), "orange");
+    }
+
+    @Test
+    public void testByteParserObjectFields() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            json.append(i == 0 ? "{" : ",{");
+            for (int j = 0; j <= i; j++) {
+                json.append(j == 0 ? "" : ",").append("\"f").append(j).append("\":").append(j);
+            }
+            json.append("}");
+        }
+        json.append("]");
+        JsonNode node = JsonByteParser.parse(json.toString().getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(node.toString(), json.toString());
+        JsonNode last = node.get(19);
+        Assert.assertEquals(last.get("f19").longValue(), 19);
+        last.remove("f0");
+        Assert.assertFalse(last.has("f0"));
+        JsonNode small = node.get(3);
+        small.set("f1", "x");
+        small.remove("f0");
+        Assert.assertEquals(small.toString(), "{\"f1\":\"x\",\"f2\":2,\"f3\":3}");
+        Assert.assertSame(node.get(1).fieldNames().next(), node.get(2).fieldNames().next());
+    }
+
+    @Test(expectedExceptions = { BallerinaException.class },
+            expectedExceptionsMessageRegExp = "expected , or ] at line: 2 column: 10")
+    public void testByteParserError() {
+        JsonByteParser.parse("{'fruits':\n[\"apple\" 'orange']}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testByteParserNumbers() {
+        String[] numbers = { "0", "-12", "3.5", "-1.25E2", "1.5e3", "1e5", "-2E-3", "1.", "9223372036854775807",
+                "9223372036854775808", "12345678901234567890.5", "--1", "1-" };
+        for (String number : numbers) {
+            String json = "[" + number + "]";
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            String expected = parseOrError(() -> JsonParser.parse(json));
+            Assert.assertEquals(parseOrError(() -> JsonByteParser.parse(bytes)), expected, json);
+            Assert.assertEquals(parseOrError(() -> JsonParser.parseLazily(bytes, bytes.length)), expected, json);
+        }
+    }
+
+    private static String parseOrError(Supplier<JsonNode> parser) {
+        try {
+            return parser.get().toString();
+        } catch (BallerinaException e) {
+            return "error";
+        }
+    }
+
+    @Test
+    public void testLazyParsing() {
+        String json = "{'fruits':['apple', \"or\\u0061nge\"], \"price\" : [1, -2, 3.5, true, null, {}, []],"
+                + "\"stock\":{\"a\":{\"b\":[{}, \"[{,:}]\"]}}, \"name\":\"\u00fc\u20ac\\n\"}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(JsonParser.parseLazily(bytes, bytes.length).toString(), JsonParser.parse(json).toString());
+        JsonNode node = JsonParser.parseLazily(bytes, bytes.length);
+        Assert.assertEquals(node.get("name").stringValue(), "\u00fc\u20ac\n");
+        JsonNode stock = node.get("stock").get("a");
+        stock.set("c", 5);
+        node.get("fruits").add("pear");
+        Assert.assertEquals(node.get("stock").toString(), "{\"a\":{\"b\":[{},\"[{,:}]\"],\"c\":5}}");
+        Assert.assertEquals(node.get("fruits").toString(), "[\"apple\",\"orange\",\"pear\"]");
+    }
+
+    @Test(expectedExceptions = { BallerinaException.class },
+            expectedExceptionsMessageRegExp = "expected , or ] at line: 2 column: 21")
+    public void testLazyParsingError() {
+        byte[] bytes = "{'fruits':\n[\"apple\" , 'orange' 1], \"price\":5}".getBytes(StandardCharsets.UTF_8);
+        JsonNode node = JsonParser.parseLazily(bytes, bytes.length);
+        Assert.assertEquals(node.get("price").longValue(), 5);
+        node.get("fruits").size();
+    }
+
+    @Test
+    public void testByteBufGenerator() throws IOException {
+        String json = "{\"a\":[1, -92233720368547758, 2.5, true, null, {}, []], \"b\":\"q\\\"/\\t\", "
+                + "\"c\":\"\u00fc\u20ac\ud834\udd1e/\"}";
+        JsonNode node = JsonParser.parse(json);
+        ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+        JsonGenerator gen = new JsonGenerator(byteOut, StandardCharsets.UTF_8);
+        node.serialize(gen);
+        gen.flush();
+        ByteBuf buffer = Unpooled.buffer(4);
+        node.serialize(new ByteBufJsonGenerator(buffer));
+        byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        Assert.assertEquals(bytes, byteOut.toByteArray());
+    }
 }
@@ -29,10 +29,16 @@ import org.ballerinalang.model.values.BXMLItem;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.testng.Assert.assertEquals;
 
@@ -246,9 +252,136 @@ public class BMapValueTest {
 
     }
 
+    @Test(description = "Test that a map keeps its insertion order after being shared between threads")
+    public void testSharedBMapOrder() {
+        BMap<String, BRefType> map = new BMap<>();
+        map.put("Entry1", new BString("foo"));
+        map.put("Entry2", new BString("bar"));
+        Assert.assertTrue(map.isThreadConfined());
+        map.share();
+        Assert.assertFalse(map.isThreadConfined());
+        map.put("Entry3", new BString("foobar"));
+        map.put("Entry1", new BString("baz"));
+        map.put("Entry4", null);
+        Assert.assertTrue(map.remove("Entry2"));
+        Assert.assertFalse(map.remove("Entry2"));
+        map.put("Entry2", new BString("qux"));
+
+        Assert.assertEquals(map.size(), 4);
+        Assert.assertTrue(map.hasKey("Entry4"));
+        Assert.assertNull(map.get("Entry4"));
+        Assert.assertNull(map.get("Entry5", false));
+        Assert.assertEquals(map.keySet().toArray(), new String[] {"Entry1", "Entry3", "Entry4", "Entry2"});
+        Assert.assertEquals(map.stringValue(),
+                "{\"Entry1\":\"baz\", \"Entry3\":\"foobar\", \"Entry4\":null, \"Entry2\":\"qux\"}");
+    }
+
+    @Test(description = "Test that the entries retrieved from a map are a copy, whether it is shared or not")
+    public void testBMapEntriesAreCopied() {
+        BMap<String, BRefType> map = new BMap<>();
+        map.put("Entry1", new BString("foo"));
+        map.getMap().put("Entry2", new BString("bar"));
+        map.keySet().remove("Entry1");
+        Assert.assertEquals(map.size(), 1);
+        Assert.assertTrue(map.hasKey("Entry1"));
+
+        map.share();
+        map.getMap().put("Entry2", new BString("bar"));
+        map.keySet().remove("Entry1");
+        Assert.assertEquals(map.size(), 1);
+        Assert.assertEquals(map.getMap().keySet().toArray(), new String[] {"Entry1"});
+    }
+
+    @Test(description = "Test that the ordered entries of a shared map are read again only once the map changes")
+    public void testSharedBMapSnapshot() {
+        BMap<String, BRefType> map = new BMap<>();
+        map.put("Entry1", new BString("foo"));
+        map.share();
+        Assert.assertEquals(map.stringValue(), "{\"Entry1\":\"foo\"}");
+        Assert.assertEquals(map.stringValue(), "{\"Entry1\":\"foo\"}");
+
+        map.put("Entry2", new BString("bar"));
+        Assert.assertEquals(map.stringValue(), "{\"Entry1\":\"foo\", \"Entry2\":\"bar\"}");
+        map.put("Entry1", new BString("baz"));
+        Assert.assertEquals(map.stringValue(), "{\"Entry1\":\"baz\", \"Entry2\":\"bar\"}");
+        map.remove("Entry1");
+        Assert.assertEquals(map.keySet().toArray(), new String[] {"Entry2"});
+        map.clear();
+        Assert.assertEquals(map.stringValue(), "{}");
+        Assert.assertFalse(map.newIterator().hasNext());
+    }
+
+    @Test(description = "Test that a map accessed by other threads switches to its concurrent representation")
+    public void testBMapAccessFromOtherThreads() throws Exception {
+        BMap<String, BRefType> map = new BMap<>();
+        BMap<String, BRefType> nested = new BMap<>();
+        map.put("nested", nested);
+        int threadCount = 4;
+        int entryCount = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < entryCount; i++) {
+                    map.put(thread + "-" + i, new BInteger(i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        Assert.assertFalse(map.isThreadConfined());
+        Assert.assertFalse(nested.isThreadConfined());
+        Assert.assertEquals(map.size(), threadCount * entryCount + 1);
+        Assert.assertEquals(((BInteger) map.get("3-999")).intValue(), 999);
+    }
+
+    @Test(description = "Test that a map mutated by its owner and by another thread at once loses no entries")
+    public void testConcurrentOwnerAndOtherThreadMutations() throws Exception {
+        int entryCount = 1000;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            for (int round = 0; round < 100; round++) {
+                BMap<String, BRefType> map = new BMap<>();
+                map.put("initial", new BInteger(-1));
+                Future<?> other = executor.submit(() -> {
+                    for (int i = 0; i < entryCount; i++) {
+                        map.put("other-" + i, new BInteger(i));
+                        map.get("initial");
+                    }
+                });
+                /* the owner keeps mutating the map while the other thread takes it over */
+                for (int i = 0; i < entryCount; i++) {
+                    map.put("owner-" + i, new BInteger(i));
+                    if (i > 0) {
+                        Assert.assertTrue(map.remove("owner-" + (i - 1)));
+                        map.put("owner-" + (i - 1), new BInteger(i - 1));
+                    }
+                }
+                other.get(30, TimeUnit.SECONDS);
+                Assert.assertFalse(map.isThreadConfined());
+                Assert.assertEquals(map.size(), 2 * entryCount + 1);
+                for (int i = 0; i < entryCount; i++) {
+                    Assert.assertEquals(((BInteger) map.get("owner-" + i)).intValue(), i);
+                    Assert.assertEquals(((BInteger) map.get("other-" + i)).intValue(), i);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test(dependsOnMethods = "testGrammar")
     public void testMapSynchronization() {
         BValue[] returnVals = BRunUtil.invoke(programFile, "testMapSynchronization", new BValue[0]);
         Assert.assertEquals(((BInteger) returnVals[0]).intValue(), 2000);
         }
+
+    @Test(description = "Test two workers mutating a map reached through a struct", dependsOnMethods = "testGrammar")
+    public void testNestedMapSynchronization() {
+        BValue[] returnVals = BRunUtil.invoke(programFile, "testNestedMapSynchronization", new BValue[0]);
+        Assert.assertEquals(((BInteger) returnVals[0]).intValue(), 2000);
+    }
 }
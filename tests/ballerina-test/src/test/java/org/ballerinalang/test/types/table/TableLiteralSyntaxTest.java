@@ -97,4 +97,10 @@ public class TableLiteralSyntaxTest {
         BValue[] returns = BRunUtil.invoke(result, "testTableAddOnConstrainedTableWithViolation2");
         Assert.assertTrue((returns[0]).stringValue().contains("Unique index or primary key violation:"));
     }
+
+    @Test
+    public void testTableAddAfterRemoveWithPrimaryKey() {
+        BValue[] returns = BRunUtil.invoke(result, "testTableAddAfterRemoveWithPrimaryKey");
+        Assert.assertEquals(((BInteger) returns[0]).intValue(), 3);
+    }
 }
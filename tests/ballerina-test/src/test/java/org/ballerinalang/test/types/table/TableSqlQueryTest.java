@@ -107,4 +107,74 @@ public class TableSqlQueryTest {
                 + "married:false}, {id:3, age:27, salary:500.5, name:\"jack\", married:true}, {id:4, age:28, "
                 + "salary:600.5, name:\"alex\", married:false}]}");
     }
+
+    @Test(groups = "TableTest", description = "Verify the rows and their order of a query with where and order by")
+    public void testSelectWithWhereAndOrderBy() throws Exception {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectWithWhereAndOrderBy");
+        Assert.assertEquals(returns[0].stringValue(), "table<Person> {index: [], primaryKey: [], data: [{id:4, "
+                + "age:28, salary:600.5, name:\"alex\", married:false}, {id:3, age:27, salary:500.5, name:\"jack\", "
+                + "married:true}, {id:2, age:26, salary:400.5, name:\"kane\", married:false}]}");
+    }
+
+    @Test(groups = "TableTest", description = "Verify that the rows excluded by the left operand of a logical "
+            + "condition are not evaluated by its right operand")
+    public void testSelectWithShortCircuitWhere() throws Exception {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectWithShortCircuitWhere");
+        Assert.assertEquals(returns[0].stringValue(), "table<Person> {index: [], primaryKey: [], data: [{id:2, "
+                + "age:25, salary:400.5, name:\"kane\", married:false}]}");
+        Assert.assertEquals(returns[1].stringValue(), "table<Person> {index: [], primaryKey: [], data: [{id:1, "
+                + "age:0, salary:300.5, name:\"jane\", married:true}, {id:2, age:25, salary:400.5, name:\"kane\", "
+                + "married:false}]}");
+    }
+
+    @Test(groups = "TableTest", description = "Verify the aggregates of a query without group by")
+    public void testSelectWithAggregates() throws Exception {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectWithAggregates");
+        Assert.assertEquals(returns[0].stringValue(), "table<PersonStats> {index: [], primaryKey: [], data: "
+                + "[{total:5, ageSum:132, avgSalary:500.5, minAge:25, maxAge:28}]}");
+    }
+
+    @Test(groups = "TableTest", description = "Verify the aggregates of the groups of a query with group by")
+    public void testSelectWithGroupByAndAggregates() throws Exception {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectWithGroupByAndAggregates");
+        Assert.assertEquals(returns[0].stringValue(), "table<MaritalGroup> {index: [], primaryKey: [], data: "
+                + "[{married:true, total:3, salarySum:1501.5}, {married:false, total:2, salarySum:1001.0}]}");
+    }
+
+    @Test(groups = "TableTest", description = "Verify that the groups are filtered by the having clause")
+    public void testSelectWithHaving() throws Exception {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectWithHaving");
+        Assert.assertEquals(returns[0].stringValue(), "table<MaritalGroup> {index: [], primaryKey: [], data: "
+                + "[{married:true, total:3, salarySum:1501.5}]}");
+    }
+
+    @Test(groups = "TableTest", description = "Verify the rows of queries with conditions on the primary key and "
+            + "indexed columns")
+    public void testSelectWithIndexLookup() throws Exception {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectWithIndexLookup");
+        Assert.assertEquals(returns[0].stringValue(), "table<Person> {index: [], primaryKey: [], data: [{id:3, "
+                + "age:27, salary:500.5, name:\"jack\", married:true}]}");
+        Assert.assertEquals(returns[1].stringValue(), "table<Person> {index: [], primaryKey: [], data: [{id:2, "
+                + "age:26, salary:400.5, name:\"kane\", married:false}, {id:5, age:26, salary:700.5, name:\"mary\", "
+                + "married:true}]}");
+        Assert.assertEquals(returns[2].stringValue(), "table<Person> {index: [], primaryKey: [], data: [{id:5, "
+                + "age:26, salary:700.5, name:\"mary\", married:true}]}");
+        Assert.assertEquals(returns[3].stringValue(), "table<Person> {index: [], primaryKey: [], data: []}");
+    }
+
+    @Test(groups = "TableTest", description = "Verify the queries over tables with more rows than a batch")
+    public void testSelectAcrossBatches() throws Exception {
+        BValue[] returns = BRunUtil.invoke(result, "testSelectAcrossBatches");
+        Assert.assertEquals(returns[0].stringValue(), "table<PersonStats> {index: [], primaryKey: [], data: "
+                + "[{total:2000, ageSum:49000, avgSalary:3000.75, minAge:0, maxAge:49}]}");
+        Assert.assertEquals(((BInteger) returns[1]).intValue(), 60);
+        Assert.assertEquals(((BInteger) returns[2]).intValue(), 91440);
+        Assert.assertEquals(returns[3].stringValue(), "table<Person> {index: [], primaryKey: [], data: [{id:3000, "
+                + "age:0, salary:4500.0, name:\"p3000\", married:true}, {id:2999, age:49, salary:4498.5, "
+                + "name:\"p2999\", married:false}, {id:2998, age:48, salary:4497.0, name:\"p2998\", married:true}]}");
+        Assert.assertEquals(returns[4].stringValue(), "table<MaritalGroup> {index: [], primaryKey: [], data: "
+                + "[{married:false, total:1500, salarySum:3375000.0}, {married:true, total:1500, "
+                + "salarySum:3377250.0}]}");
+        Assert.assertEquals(((BInteger) returns[5]).intValue(), 50);
+    }
 }
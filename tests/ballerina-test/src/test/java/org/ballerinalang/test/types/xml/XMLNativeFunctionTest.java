@@ -17,23 +17,35 @@
 */
 package org.ballerinalang.test.types.xml;
 
+import org.apache.axiom.om.OMElement;
 import org.ballerinalang.launcher.util.BCompileUtil;
 import org.ballerinalang.launcher.util.BRunUtil;
 import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.util.XMLUtils;
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.types.BTypes;
 import org.ballerinalang.model.values.BBoolean;
 import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BJSON;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BRefType;
 import org.ballerinalang.model.values.BRefValueArray;
 import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.model.values.BXML;
 import org.ballerinalang.model.values.BXMLItem;
 import org.ballerinalang.model.values.BXMLSequence;
 import org.ballerinalang.util.exceptions.BLangRuntimeException;
+import org.ballerinalang.util.program.BLangVMUtils;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Test Native function in ballerina.model.xml.
  */
@@ -1394,4 +1406,62 @@ public class XMLNativeFunctionTest {
         Assert.assertEquals(returns[1].stringValue(),
                 "<fname1>John</fname1><lname1>Doe</lname1><fname2>Jane</fname2><lname2>Doe</lname2>apple");
     }
+
+    @Test
+    public void testParseStreaming() {
+        String xml = "<?xml version=\"1.0\"?><!-- feed --><ns0:feed xmlns:ns0=\"http://sample.com/test\">"
+                + "<ns0:entry id=\"1\">first</ns0:entry><ns0:entry id=\"2\">second</ns0:entry></ns0:feed>\n";
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        BXML<?> eager = XMLUtils.parse(new ByteArrayInputStream(bytes));
+        BXML<?> streamed = XMLUtils.parseStreaming(new ByteArrayInputStream(bytes), null);
+        Assert.assertEquals(streamed.length(), 2);
+        Assert.assertEquals(streamed.getItem(1).children().getItem(1).stringValue(),
+                eager.getItem(1).children().getItem(1).stringValue());
+        Assert.assertEquals(streamed.stringValue(), eager.stringValue());
+        Assert.assertEquals(XMLUtils.parseStreaming(new StringReader(xml)).stringValue(), eager.stringValue());
+
+        /* a comment after the root element has to be in the sequence */
+        String xmlWithTrailingComment = xml + "<!-- end -->";
+        streamed = XMLUtils.parseStreaming(new StringReader(xmlWithTrailingComment));
+        Assert.assertEquals(streamed.length(), 3);
+        Assert.assertEquals(streamed.getItem(2).stringValue(), "<!-- end -->");
+    }
+
+    @Test
+    public void testParseStreamingSharedWithWorkers() {
+        String xml = "<r\u00e9sum\u00e9><entry id=\"1\">first</entry><entry id=\"2\">second</entry></r\u00e9sum\u00e9>";
+        BXML<?> streamed = XMLUtils.parseStreaming(new StringReader(xml));
+        OMElement root = (OMElement) ((BXMLItem) streamed.getItem(0)).value();
+        /* a root element ending with a non-ASCII character is still deferred */
+        Assert.assertFalse(root.isComplete());
+
+        /* the deferred tree is not thread safe, so it is completed before other workers can navigate it */
+        BLangVMUtils.markShared(streamed);
+        Assert.assertTrue(root.isComplete());
+        Assert.assertEquals(streamed.stringValue(), xml);
+    }
+
+    @Test
+    public void testParseStreamingNestedSharedWithWorkers() {
+        String xml = "<r\u00e9sum\u00e9><entry id=\"1\">first</entry><entry id=\"2\">second</entry></r\u00e9sum\u00e9>";
+        BXML<?> inStruct = XMLUtils.parseStreaming(new StringReader(xml));
+        BXML<?> inMap = XMLUtils.parseStreaming(new StringReader(xml));
+        BXML<?> inArray = XMLUtils.parseStreaming(new StringReader(xml));
+        BStruct holder = (BStruct) BRunUtil.invoke(result, "testCreateXMLHolder")[0];
+        holder.setRefField(0, inStruct);
+        BMap<String, BValue> map = new BMap<>();
+        map.put("holder", holder);
+        map.put("content", inMap);
+        /* the values referring to each other are walked once */
+        map.put("self", map);
+        BRefValueArray array = new BRefValueArray(new BRefType[] { map, inArray }, new BArrayType(BTypes.typeAny));
+
+        /* the XML values nested in the published value are completed as well */
+        BLangVMUtils.markShared(array);
+        for (BXML<?> streamed : new BXML<?>[] { inStruct, inMap, inArray }) {
+            Assert.assertTrue(((OMElement) ((BXMLItem) streamed.getItem(0)).value()).isComplete());
+            Assert.assertEquals(streamed.stringValue(), xml);
+        }
+        Assert.assertFalse(map.isThreadConfined());
+    }
 }
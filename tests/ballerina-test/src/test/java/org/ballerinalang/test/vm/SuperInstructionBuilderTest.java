@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.test.vm;
+
+import org.ballerinalang.util.codegen.Instruction;
+import org.ballerinalang.util.codegen.InstructionCodes;
+import org.ballerinalang.util.codegen.InstructionFactory;
+import org.ballerinalang.util.codegen.SuperInstructionBuilder;
+import org.ballerinalang.util.codegen.cpentries.ConstantPoolEntry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Test the fusing of instruction sequences into superinstructions.
+ */
+public class SuperInstructionBuilderTest {
+
+    private static final ConstantPoolEntry[] EMPTY_CONST_POOL = new ConstantPoolEntry[0];
+
+    @Test(description = "Test fusing a compare followed by a branch on its result")
+    public void testCompareAndBranch() {
+        Instruction[] code = new Instruction[] {
+                InstructionFactory.get(InstructionCodes.ILT, 0, 1, 2),
+                InstructionFactory.get(InstructionCodes.BR_FALSE, 2, 5),
+                InstructionFactory.get(InstructionCodes.RET)
+        };
+        Instruction[] result = SuperInstructionBuilder.build(code, EMPTY_CONST_POOL);
+        Assert.assertEquals(result[0].getOpcode(), InstructionCodes.ILT_BR_FALSE);
+        Assert.assertEquals(result[0].getOperands(), new int[] { 0, 1, 2, 5 });
+        // the fused instructions are kept in place, since they can still be jump targets
+        Assert.assertSame(result[1], code[1]);
+        Assert.assertSame(result[2], code[2]);
+        Assert.assertEquals(code[0].getOpcode(), InstructionCodes.ILT);
+    }
+
+    @Test(description = "Test not fusing a branch on a register other than the compare result")
+    public void testCompareAndUnrelatedBranch() {
+        Instruction[] code = new Instruction[] {
+                InstructionFactory.get(InstructionCodes.IGT, 0, 1, 2),
+                InstructionFactory.get(InstructionCodes.BR_FALSE, 3, 5)
+        };
+        Instruction[] result = SuperInstructionBuilder.build(code, EMPTY_CONST_POOL);
+        Assert.assertSame(result[0], code[0]);
+    }
+
+    @Test(description = "Test fusing an integer constant load followed by an addition")
+    public void testIntConstAddition() {
+        Instruction[] code = new Instruction[] {
+                InstructionFactory.get(InstructionCodes.ICONST_1, 3),
+                InstructionFactory.get(InstructionCodes.IADD, 0, 3, 0)
+        };
+        Instruction[] result = SuperInstructionBuilder.build(code, EMPTY_CONST_POOL);
+        Assert.assertTrue(result[0] instanceof Instruction.InstructionIntConstArith);
+        Assert.assertEquals(result[0].getOpcode(), InstructionCodes.ICONST_IADD);
+        Assert.assertEquals(((Instruction.InstructionIntConstArith) result[0]).value, 1);
+    }
+
+    @Test(description = "Test fusing consecutive field loads")
+    public void testFieldLoads() {
+        Instruction[] code = new Instruction[] {
+                InstructionFactory.get(InstructionCodes.RFIELDLOAD, 0, 1, 1),
+                InstructionFactory.get(InstructionCodes.SFIELDLOAD, 1, 0, 0)
+        };
+        Instruction[] result = SuperInstructionBuilder.build(code, EMPTY_CONST_POOL);
+        Assert.assertTrue(result[0] instanceof Instruction.InstructionPair);
+        Instruction.InstructionPair pair = (Instruction.InstructionPair) result[0];
+        Assert.assertSame(pair.first, code[0]);
+        Assert.assertSame(pair.second, code[1]);
+    }
+}
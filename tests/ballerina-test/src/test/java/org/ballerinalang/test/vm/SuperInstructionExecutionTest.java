@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.test.vm;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.launcher.util.BCompileUtil;
+import org.ballerinalang.launcher.util.BRunUtil;
+import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.util.codegen.Instruction;
+import org.ballerinalang.util.codegen.InstructionCodes;
+import org.ballerinalang.util.codegen.PackageInfo;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+/**
+ * Test that programs executed with superinstructions give the same results as without them.
+ */
+public class SuperInstructionExecutionTest {
+
+    private static final String SUPER_INSTRUCTIONS_CONFIG_PROP = "b7a.runtime.superinstructions";
+    private static final String SOURCE_FILE = "test-src/vm/super-instructions.bal";
+
+    private CompileResult plainResult;
+    private CompileResult superResult;
+
+    @BeforeClass
+    public void setup() {
+        ConfigRegistry.getInstance().addConfiguration(SUPER_INSTRUCTIONS_CONFIG_PROP, "false");
+        this.plainResult = BCompileUtil.compile(SOURCE_FILE);
+        Assert.assertEquals(plainResult.getErrorCount(), 0);
+        ConfigRegistry.getInstance().addConfiguration(SUPER_INSTRUCTIONS_CONFIG_PROP, "true");
+        this.superResult = BCompileUtil.compile(SOURCE_FILE);
+        Assert.assertEquals(superResult.getErrorCount(), 0);
+    }
+
+    @Test(description = "Test that the superinstructions are used when they are enabled")
+    public void testSuperInstructionsEnabled() {
+        Instruction[] plainCode = getPackageInfo(plainResult).getExecutableInstructions();
+        Assert.assertSame(plainCode, getPackageInfo(plainResult).getInstructions());
+
+        Instruction[] superCode = getPackageInfo(superResult).getExecutableInstructions();
+        Assert.assertEquals(superCode.length, plainCode.length);
+        assertContains(superCode, InstructionCodes.IGT_BR_FALSE);
+        assertContains(superCode, InstructionCodes.IGE_BR_FALSE);
+        assertContains(superCode, InstructionCodes.ILT_BR_FALSE);
+        assertContains(superCode, InstructionCodes.ILE_BR_FALSE);
+        assertContains(superCode, InstructionCodes.IEQ_BR_FALSE);
+        assertContains(superCode, InstructionCodes.INE_BR_FALSE);
+        assertContains(superCode, InstructionCodes.ICONST_IADD);
+        assertContains(superCode, InstructionCodes.ICONST_ISUB);
+        assertContains(superCode, InstructionCodes.FIELDLOAD_PAIR);
+    }
+
+    @Test(description = "Test integer compares fused with branches")
+    public void testCompareAndBranch() {
+        assertSameResults("testCompareAndBranch", 0);
+        assertSameResults("testCompareAndBranch", 100);
+    }
+
+    @Test(description = "Test integer constants fused with additions and subtractions")
+    public void testConstArith() {
+        assertSameResults("testConstArith", 0);
+        assertSameResults("testConstArith", 1);
+        assertSameResults("testConstArith", 101);
+    }
+
+    @Test(description = "Test consecutive field loads")
+    public void testFieldLoads() {
+        assertSameResults("testFieldLoads", 0);
+        assertSameResults("testFieldLoads", 50);
+    }
+
+    @Test(description = "Test nested loops with fused compares and constant arithmetic")
+    public void testNestedLoops() {
+        assertSameResults("testNestedLoops", 0);
+        assertSameResults("testNestedLoops", 60);
+    }
+
+    private void assertSameResults(String function, long count) {
+        BValue[] args = { new BInteger(count) };
+        BValue[] expected = BRunUtil.invoke(plainResult, function, args);
+        BValue[] actual = BRunUtil.invoke(superResult, function, args);
+        Assert.assertEquals(actual.length, expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(actual[i].stringValue(), expected[i].stringValue(),
+                    "result " + i + " of " + function + "(" + count + ") differs");
+        }
+    }
+
+    private static void assertContains(Instruction[] code, int opcode) {
+        Assert.assertTrue(Arrays.stream(code).anyMatch(instruction -> instruction.getOpcode() == opcode),
+                "opcode " + opcode + " is not used");
+    }
+
+    private static PackageInfo getPackageInfo(CompileResult result) {
+        return result.getProgFile().getEntryPackage();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        ConfigRegistry.getInstance().addConfiguration(SUPER_INSTRUCTIONS_CONFIG_PROP, "false");
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.test.vm;
+
+import org.ballerinalang.config.ConfigRegistry;
+import org.ballerinalang.launcher.util.BCompileUtil;
+import org.ballerinalang.launcher.util.BRunUtil;
+import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BFloat;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.util.codegen.Instruction;
+import org.ballerinalang.util.codegen.InstructionCodes;
+import org.ballerinalang.util.codegen.InstructionFactory;
+import org.ballerinalang.util.codegen.PackageInfo;
+import org.ballerinalang.util.codegen.cpentries.ConstantPoolEntry;
+import org.ballerinalang.util.codegen.cpentries.StringCPEntry;
+import org.ballerinalang.util.codegen.jvm.JVMBytecodeCompiler;
+import org.ballerinalang.util.exceptions.BLangRuntimeException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Test the execution of hot functions compiled to JVM bytecode.
+ */
+public class TieredCompilationTest {
+
+    private static final String TIERED_COMPILATION_CONFIG_PROP = "b7a.runtime.tiered.compilation";
+    private static final String TIER_UP_THRESHOLD_CONFIG_PROP = "b7a.runtime.tiered.threshold";
+
+    private CompileResult result;
+
+    @BeforeClass
+    public void setup() {
+        ConfigRegistry.getInstance().addConfiguration(TIERED_COMPILATION_CONFIG_PROP, "true");
+        ConfigRegistry.getInstance().addConfiguration(TIER_UP_THRESHOLD_CONFIG_PROP, "10");
+        this.result = BCompileUtil.compile("test-src/vm/tiered-compilation.bal");
+        Assert.assertEquals(result.getErrorCount(), 0);
+    }
+
+    @Test(description = "Test a compiled function with arithmetic on its arguments")
+    public void testAdd() {
+        BValue[] vals = BRunUtil.invoke(result, "testAdd", new BValue[] { new BInteger(1000) });
+        Assert.assertEquals(((BInteger) vals[0]).intValue(), 499500);
+        Assert.assertNotNull(getPackageInfo().getFunctionInfo("add").getCompiledCallable());
+    }
+
+    @Test(description = "Test a compiled function with a loop and branches")
+    public void testSumOfMultiples() {
+        BValue[] vals = BRunUtil.invoke(result, "testSumOfMultiples", new BValue[] { new BInteger(100) });
+        long expected = 0;
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < i; j += 3) {
+                expected += j;
+            }
+        }
+        Assert.assertEquals(((BInteger) vals[0]).intValue(), expected);
+    }
+
+    @Test(description = "Test a compiled function with float arithmetic")
+    public void testAverage() {
+        BValue[] vals = BRunUtil.invoke(result, "testAverage", new BValue[] { new BInteger(100) });
+        Assert.assertEquals(((BFloat) vals[0]).floatValue(), 2525.0);
+    }
+
+    @Test(description = "Test a compiled function with an integer division")
+    public void testDivide() {
+        BValue[] vals = BRunUtil.invoke(result, "testDivide", new BValue[] { new BInteger(100), new BInteger(7) });
+        Assert.assertEquals(((BInteger) vals[0]).intValue(), 665);
+    }
+
+    @Test(description = "Test a division by zero in a compiled function",
+          expectedExceptions = BLangRuntimeException.class,
+          expectedExceptionsMessageRegExp = ".*/ by zero.*",
+          dependsOnMethods = "testDivide")
+    public void testDivideByZero() {
+        BRunUtil.invoke(result, "testDivide", new BValue[] { new BInteger(100), new BInteger(0) });
+    }
+
+    @Test(description = "Test that a function with a string constant too long for a class file is not compiled")
+    public void testLongStringConstant() {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 70000; i++) {
+            longString.append('a');
+        }
+        ConstantPoolEntry[] constPool = { new StringCPEntry(0, longString.toString()), new StringCPEntry(0, "a") };
+        Instruction[] longConstCode = { InstructionFactory.get(InstructionCodes.SCONST, 0, 0),
+                InstructionFactory.get(InstructionCodes.RET) };
+        Instruction[] shortConstCode = { InstructionFactory.get(InstructionCodes.SCONST, 1, 0),
+                InstructionFactory.get(InstructionCodes.RET) };
+        Assert.assertNull(JVMBytecodeCompiler.compile(longConstCode, 0, constPool, new int[0]));
+        Assert.assertNotNull(JVMBytecodeCompiler.compile(shortConstCode, 0, constPool, new int[0]));
+    }
+
+    private PackageInfo getPackageInfo() {
+        return result.getProgFile().getEntryPackage();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        ConfigRegistry.getInstance().removeConfiguration(TIERED_COMPILATION_CONFIG_PROP);
+        ConfigRegistry.getInstance().removeConfiguration(TIER_UP_THRESHOLD_CONFIG_PROP);
+    }
+}
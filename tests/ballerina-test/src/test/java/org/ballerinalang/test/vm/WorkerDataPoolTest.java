@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.ballerinalang.test.vm;
+
+import org.ballerinalang.bre.bvm.WorkerData;
+import org.ballerinalang.bre.bvm.WorkerDataPool;
+import org.ballerinalang.launcher.util.BCompileUtil;
+import org.ballerinalang.launcher.util.BRunUtil;
+import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.util.codegen.attributes.CodeAttributeInfo;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the reuse of the local register banks of synchronous callees through the worker data pool of a strand.
+ */
+public class WorkerDataPoolTest {
+
+    private CompileResult result;
+
+    @BeforeClass
+    public void setup() {
+        this.result = BCompileUtil.compile("test-src/vm/worker-data-pool.bal");
+        Assert.assertEquals(result.getErrorCount(), 0);
+    }
+
+    @Test
+    public void testRecursion() {
+        BValue[] vals = BRunUtil.invoke(result, "testRecursion", new BValue[] { new BInteger(1000) });
+        Assert.assertEquals(((BInteger) vals[0]).intValue(), 500500);
+        Assert.assertEquals(((BInteger) vals[1]).intValue(), 500500);
+    }
+
+    @Test
+    public void testRecursionBeyondPooledDepth() {
+        BValue[] vals = BRunUtil.invoke(result, "testRecursion", new BValue[] { new BInteger(5000) });
+        Assert.assertEquals(((BInteger) vals[0]).intValue(), 12502500);
+        Assert.assertEquals(((BInteger) vals[1]).intValue(), 12502500);
+    }
+
+    @Test
+    public void testStaleRefsCleared() {
+        BValue[] vals = BRunUtil.invoke(result, "testStaleRefsCleared", new BValue[0]);
+        Assert.assertEquals(vals.length, 6);
+        Assert.assertEquals(stringOf(vals[3]), stringOf(vals[0]));
+        Assert.assertNotEquals(stringOf(vals[3]), "stale");
+        Assert.assertEquals(stringOf(vals[4]), stringOf(vals[1]));
+        Assert.assertEquals(((BInteger) vals[5]).intValue(), 0);
+    }
+
+    @Test
+    public void testRegisterBanksReusedPerDepth() {
+        CodeAttributeInfo ci = new CodeAttributeInfo();
+        ci.setMaxStringRegs(1);
+        ci.setMaxRefRegs(1);
+        WorkerDataPool pool = new WorkerDataPool();
+        WorkerData[] frames = new WorkerData[8];
+        for (int depth = 0; depth < frames.length; depth++) {
+            frames[depth] = pool.acquire(depth, ci);
+            frames[depth].stringRegs[0] = "frame" + depth;
+            frames[depth].refRegs[0] = new BString("frame" + depth);
+        }
+        for (int depth = frames.length - 1; depth >= 0; depth--) {
+            pool.release(depth, frames[depth]);
+        }
+        for (int depth = 0; depth < frames.length; depth++) {
+            WorkerData data = pool.acquire(depth, ci);
+            Assert.assertSame(data, frames[depth]);
+            Assert.assertNull(data.stringRegs[0]);
+            Assert.assertNull(data.refRegs[0]);
+        }
+        Assert.assertNotSame(pool.acquire(0, ci), frames[0]);
+    }
+
+    @Test
+    public void testRegisterBanksMatchedByCallable() {
+        CodeAttributeInfo ci1 = new CodeAttributeInfo();
+        CodeAttributeInfo ci2 = new CodeAttributeInfo();
+        WorkerDataPool pool = new WorkerDataPool();
+        WorkerData data1 = pool.acquire(1, ci1);
+        pool.release(1, data1);
+        WorkerData data2 = pool.acquire(1, ci2);
+        Assert.assertNotSame(data2, data1);
+        pool.release(1, data2);
+        Assert.assertSame(pool.acquire(1, ci1), data1);
+        Assert.assertSame(pool.acquire(1, ci2), data2);
+    }
+
+    private static String stringOf(BValue value) {
+        return value == null ? null : value.stringValue();
+    }
+
+}
@@ -135,6 +135,18 @@ function testCacheEviction4() returns (string[], int) {
     return (cache.keys(), cache.size());
 }
 
+function testWTinyLfuEviction() returns (int, boolean) {
+    cache:Cache cache = new(capacity = 5, evictionPolicy = cache:W_TINY_LFU);
+    cache.put("hot", "hot");
+    foreach i in 1 ... 5 {
+        _ = cache.get("hot");
+    }
+    foreach i in 1 ... 20 {
+        cache.put("key" + i, i);
+    }
+    return (cache.size(), cache.hasKey("hot"));
+}
+
 function testExpiredCacheAccess() returns (int) {
     cache:Cache cache = new(expiryTimeMillis = 1000);
     cache.put("A", "A");
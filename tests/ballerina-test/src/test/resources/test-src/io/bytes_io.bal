@@ -33,6 +33,31 @@ function writeBytes (blob content, int startOffset) returns (int|error) {
     }
 }
 
+function readVectoredBytes (int[] numberOfBytes) returns (blob[]|error) {
+    var result = channel.readVectored(numberOfBytes);
+    match result {
+        (blob[],int) content =>{
+            var (contents, _) = content;
+            return contents;
+        }
+        error err =>{
+            return err;
+        }
+    }
+}
+
+function writeVectoredBytes (blob[] contents) returns (int|error) {
+    var result = channel.writeVectored(contents);
+    match result {
+        int numberOfBytesWritten =>{
+            return numberOfBytesWritten;
+        }
+        error err =>{
+            return err;
+        }
+    }
+}
+
 function close () {
     var result = channel.close();
 }
@@ -0,0 +1,6 @@
+import ballerina/mime;
+
+function createEntity() returns mime:Entity {
+    mime:Entity entity = new;
+    return entity;
+}
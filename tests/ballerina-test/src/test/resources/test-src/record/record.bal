@@ -149,3 +149,27 @@ function testStructWithRecordKeyword() returns Employee {
     Employee emp = {name:"John", lname:"Doe", address:address, age:25, designation:"Software Engineer"};
     return emp;
 }
+
+type AllFieldKinds {
+    int id;
+    float ratio = 0.5;
+    boolean active;
+    string name;
+    blob data;
+    int count = 3;
+    float total;
+    boolean valid = true;
+    map tags;
+};
+
+function testFieldsOfAllKinds() returns (int, float, boolean, string, int, float, boolean, string) {
+    AllFieldKinds rec = {id:7, name:"record"};
+    rec.active = true;
+    rec.total = rec.ratio + 1.25;
+    rec.count = rec.count + rec.id;
+    rec.valid = !rec.valid;
+    rec.tags = {"key":"value"};
+    string data = "data";
+    rec.data = data.toBlob("UTF-8");
+    return (rec.id, rec.ratio, rec.active, rec.name, rec.count, rec.total, rec.valid, <string> rec.tags["key"]);
+}
@@ -310,3 +310,31 @@ function testNestedWithBreakContinue () returns (string){
     }
     return output;
 }
+
+function testLargeArrays (int count) returns (int, float, int, string) {
+    int[] iArray = [];
+    float[] fArray = [];
+    string[] sArray = [];
+    int i = 0;
+    while (i < count) {
+        iArray[i] = i;
+        fArray[i] = 0.5;
+        sArray[i] = "s" + i;
+        i = i + 1;
+    }
+    int sum = 0;
+    int indexSum = 0;
+    foreach index, value in iArray {
+        sum = sum + value;
+        indexSum = indexSum + index;
+    }
+    float fSum = 0.0;
+    foreach value in fArray {
+        fSum = fSum + value;
+    }
+    string last = "";
+    foreach value in sArray {
+        last = value;
+    }
+    return (sum, fSum, indexSum, last);
+}
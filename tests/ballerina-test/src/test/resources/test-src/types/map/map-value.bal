@@ -95,3 +95,31 @@ function testMapSynchronization() returns (int)
         return lengthof m;
     }
 }
+
+type MapHolder {
+    map entries;
+};
+
+function testNestedMapSynchronization() returns (int)
+{
+    MapHolder holder = {entries: {}};
+
+    fork {
+        worker w2 {
+            int i = 0;
+            while (i < 1000) {
+                holder.entries["a" + i] = "foo" + i;
+                i = i + 1;
+            }
+        }
+        worker w3 {
+            int j = 0;
+            while (j < 1000) {
+                holder.entries["b" + j] = "bar" + j;
+                j = j + 1;
+            }
+        }
+    } join (all) (map results) {
+        return lengthof holder.entries;
+    }
+}
@@ -130,3 +130,23 @@ function testTableAddOnConstrainedTableWithViolation2() returns (string) {
     }
     return s;
 }
+
+function testTableAddAfterRemoveWithPrimaryKey() returns (int) {
+    Person p1 = { id: 1, age: 30, salary: 300.50, name: "jane", married: true };
+    Person p2 = { id: 2, age: 20, salary: 200.50, name: "martin", married: true };
+    Person p3 = { id: 1, age: 32, salary: 400.50, name: "john", married: false };
+
+    table<Person> t1 = table {
+        primaryKey: ["id"],
+        index: ["age"],
+        data: [p1, p2]
+    };
+
+    int count = check t1.remove(isJane);
+    _ = t1.add(p3);
+    return count + t1.count();
+}
+
+function isJane(Person p) returns (boolean) {
+    return p.name == "jane";
+}
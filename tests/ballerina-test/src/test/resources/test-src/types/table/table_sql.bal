@@ -26,6 +26,20 @@ type Student {
     int age = -1,
 };
 
+type PersonStats {
+    int total,
+    int ageSum,
+    float avgSalary,
+    int minAge,
+    int maxAge,
+};
+
+type MaritalGroup {
+    boolean married,
+    int total,
+    float salarySum,
+};
+
 function testSimpleSelectAll() returns (int) {
 
     table<Person> personTable = table{};
@@ -269,3 +283,137 @@ function testTableToString() returns table {
 
     return personTableCopy;
 }
+
+function testSelectWithWhereAndOrderBy() returns table {
+    table<Person> personTable = table{};
+    Person p1 = { id: 1, age: 25, salary: 300.50, name: "jane", married: true };
+    Person p2 = { id: 2, age: 26, salary: 400.50, name: "kane", married: false };
+    Person p3 = { id: 3, age: 27, salary: 500.50, name: "jack", married: true };
+    Person p4 = { id: 4, age: 28, salary: 600.50, name: "alex", married: false };
+
+    _ = personTable.add(p1);
+    _ = personTable.add(p2);
+    _ = personTable.add(p3);
+    _ = personTable.add(p4);
+
+    table<Person> personTableCopy = from personTable where age > 25 select * order by salary descending;
+
+    return personTableCopy;
+}
+
+function testSelectWithShortCircuitWhere() returns (table, table) {
+    table<Person> personTable = table{};
+    Person p1 = { id: 1, age: 0, salary: 300.50, name: "jane", married: true };
+    Person p2 = { id: 2, age: 25, salary: 400.50, name: "kane", married: false };
+    Person p3 = { id: 3, age: 50, salary: 500.50, name: "jack", married: true };
+
+    _ = personTable.add(p1);
+    _ = personTable.add(p2);
+    _ = personTable.add(p3);
+
+    table<Person> andTable = from personTable where age != 0 && 100 / age > 3 select *;
+    table<Person> orTable = from personTable where age == 0 || 100 / age > 3 select *;
+
+    return (andTable, orTable);
+}
+
+function testSelectWithAggregates() returns table {
+    table<Person> personTable = table{};
+    addPersons(personTable);
+
+    table<PersonStats> statsTable = from personTable select count(id) as total, sum(age) as ageSum,
+    avg(salary) as avgSalary, min(age) as minAge, max(age) as maxAge;
+
+    return statsTable;
+}
+
+function testSelectWithGroupByAndAggregates() returns table {
+    table<Person> personTable = table{};
+    addPersons(personTable);
+
+    table<MaritalGroup> groupTable = from personTable select married, count(id) as total, sum(salary) as salarySum
+    group by married order by total descending;
+
+    return groupTable;
+}
+
+function testSelectWithHaving() returns table {
+    table<Person> personTable = table{};
+    addPersons(personTable);
+
+    table<MaritalGroup> groupTable = from personTable select married, count(id) as total, sum(salary) as salarySum
+    group by married having count(id) > 2;
+
+    return groupTable;
+}
+
+function testSelectWithIndexLookup() returns (table, table, table, table) {
+    table<Person> personTable = table{ primaryKey: ["id"], index: ["age"] };
+    addPersons(personTable);
+
+    table<Person> byKey = from personTable where id == 3 select *;
+    table<Person> byIndex = from personTable where age == 26 select *;
+    table<Person> byIndexAndFilter = from personTable where age == 26 && salary > 500.0 select *;
+    table<Person> byMissingKey = from personTable where id == 9 select *;
+
+    return (byKey, byIndex, byIndexAndFilter, byMissingKey);
+}
+
+function testSelectAcrossBatches() returns (table, int, int, table, table, int) {
+    table<Person> personTable = table{ primaryKey: ["id"], index: ["age"] };
+    table<Order> orderTable = table{};
+
+    int i = 1;
+    while (i <= 3000) {
+        float salary = <float>i;
+        Person p = { id: i, age: i % 50, salary: salary * 1.5, name: "p" + i, married: i % 2 == 0 };
+        _ = personTable.add(p);
+        if (i <= 2500) {
+            Order o = { personId: i, orderId: 10000 + i, items: "item" + i, amount: 10.25 };
+            _ = orderTable.add(o);
+        }
+        i = i + 1;
+    }
+
+    table<PersonStats> statsTable = from personTable where id > 1000 select count(id) as total, sum(age) as ageSum,
+    avg(salary) as avgSalary, min(age) as minAge, max(age) as maxAge;
+
+    table<Person> byIndex = from personTable where age == 49 select *;
+    int idSum = 0;
+    int recordCount = 0;
+    while (byIndex.hasNext()) {
+        Person p = check <Person>byIndex.getNext();
+        idSum = idSum + p.id;
+        recordCount = recordCount + 1;
+    }
+
+    table<Person> lastPersons = from personTable select * order by id descending limit 3;
+
+    table<MaritalGroup> groupTable = from personTable select married, count(id) as total, sum(salary) as salarySum
+    group by married order by married;
+
+    table<OrderDetails> orderDetailsTable = from personTable where age == 0 as tempPersonTable join orderTable as
+    tempOrderTable on tempPersonTable.id == tempOrderTable.personId select tempOrderTable.orderId as orderId,
+    tempPersonTable.name as personName, tempOrderTable.items as items, tempOrderTable.amount as amount;
+    int joinCount = 0;
+    while (orderDetailsTable.hasNext()) {
+        var rs = orderDetailsTable.getNext();
+        joinCount = joinCount + 1;
+    }
+
+    return (statsTable, recordCount, idSum, lastPersons, groupTable, joinCount);
+}
+
+function addPersons(table<Person> personTable) {
+    Person p1 = { id: 1, age: 25, salary: 300.50, name: "jane", married: true };
+    Person p2 = { id: 2, age: 26, salary: 400.50, name: "kane", married: false };
+    Person p3 = { id: 3, age: 27, salary: 500.50, name: "jack", married: true };
+    Person p4 = { id: 4, age: 28, salary: 600.50, name: "alex", married: false };
+    Person p5 = { id: 5, age: 26, salary: 700.50, name: "mary", married: true };
+
+    _ = personTable.add(p1);
+    _ = personTable.add(p2);
+    _ = personTable.add(p3);
+    _ = personTable.add(p4);
+    _ = personTable.add(p5);
+}
@@ -842,3 +842,12 @@ function testGetChildrenOfSequence() returns (int, xml) {
     xml x4 = x3.*;
     return (lengthof x4, x4);
 }
+
+type XMLHolder {
+    xml content,
+};
+
+function testCreateXMLHolder() returns (XMLHolder) {
+    XMLHolder holder = { content: xml `<empty/>` };
+    return holder;
+}
@@ -0,0 +1,75 @@
+type Point {
+    int x;
+    int y;
+    float weight;
+    string label;
+    boolean visible;
+};
+
+function testCompareAndBranch(int count) returns int {
+    int total = 0;
+    int i = 0;
+    while (i < count) {
+        if (i > 10) {
+            total = total + 1;
+        }
+        if (i >= 20) {
+            total = total + 2;
+        }
+        if (i <= 30) {
+            total = total + 3;
+        }
+        if (i == 40) {
+            total = total + 4;
+        }
+        if (i != 50) {
+            total = total + 5;
+        }
+        i = i + 1;
+    }
+    return total;
+}
+
+function testConstArith(int count) returns int {
+    int total = 0;
+    int i = 0;
+    while (i < count) {
+        total = total + 7;
+        total = total - 2;
+        total = 1000 + total;
+        total = 100 - total;
+        i = i + 1;
+    }
+    return total;
+}
+
+function testFieldLoads(int count) returns (int, float, string) {
+    int sum = 0;
+    float weights = 0.0;
+    string labels = "";
+    int i = 0;
+    while (i < count) {
+        Point p = {x: i, y: i * 2, weight: 0.5, label: "p", visible: i % 2 == 0};
+        sum = sum + p.x + p.y;
+        weights = weights + p.weight;
+        if (p.visible) {
+            labels = labels + p.label;
+        }
+        i = i + 1;
+    }
+    return (sum, weights, labels);
+}
+
+function testNestedLoops(int count) returns int {
+    int total = 0;
+    int i = 0;
+    while (i < count) {
+        int j = count;
+        while (j > i) {
+            total = total + j - i;
+            j = j - 1;
+        }
+        i = i + 1;
+    }
+    return total;
+}
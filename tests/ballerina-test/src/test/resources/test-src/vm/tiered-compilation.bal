@@ -0,0 +1,63 @@
+function add(int a, int b) returns int {
+    return a + b;
+}
+
+function sumOfMultiples(int n, int factor) returns int {
+    int sum = 0;
+    int i = 0;
+    while (i < n) {
+        if (i % factor == 0) {
+            sum = sum + i;
+        }
+        i = i + 1;
+    }
+    return sum;
+}
+
+function average(float a, float b) returns float {
+    return (a + b) / 2.0;
+}
+
+function divide(int a, int b) returns int {
+    return a / b;
+}
+
+function testAdd(int count) returns int {
+    int total = 0;
+    int i = 0;
+    while (i < count) {
+        total = add(total, i);
+        i = i + 1;
+    }
+    return total;
+}
+
+function testSumOfMultiples(int count) returns int {
+    int total = 0;
+    int i = 0;
+    while (i < count) {
+        total = total + sumOfMultiples(i, 3);
+        i = i + 1;
+    }
+    return total;
+}
+
+function testAverage(int count) returns float {
+    float total = 0.0;
+    int i = 0;
+    while (i < count) {
+        total = total + average(<float>i, 1.0);
+        i = i + 1;
+    }
+    return total;
+}
+
+function testDivide(int count, int divisor) returns int {
+    int total = 0;
+    int i = 0;
+    while (i < count) {
+        total = total + divide(i, divisor);
+        i = i + 1;
+    }
+    return total;
+}
@@ -0,0 +1,32 @@
+function sumTo(int n) returns (int) {
+    if (n == 0) {
+        return 0;
+    }
+    int[] frame = [n];
+    return frame[0] + sumTo(n - 1);
+}
+
+function testRecursion(int depth) returns (int, int) {
+    int first = sumTo(depth);
+    int second = sumTo(depth);
+    return (first, second);
+}
+
+function readLocals(boolean assign) returns (string, json, int) {
+    string s;
+    json j;
+    int i;
+    if (assign) {
+        s = "stale";
+        j = {"name": "stale"};
+        i = 10;
+    }
+    return (s, j, i);
+}
+
+function testStaleRefsCleared() returns (string, json, int, string, json, int) {
+    var (s1, j1, i1) = readLocals(false);
+    var (s0, j0, i0) = readLocals(true);
+    var (s2, j2, i2) = readLocals(false);
+    return (s1, j1, i1, s2, j2, i2);
+}